@@ -5,6 +5,7 @@ import io.r2dbc.spi.ConnectionFactoryOptions;
 import io.r2dbc.spi.ConnectionFactoryProvider;
 import io.r2dbc.spi.Option;
 import org.tdslib.javatdslib.impl.TdsConnectionFactory;
+import org.tdslib.javatdslib.impl.TdsConnectionPool;
 
 import static io.r2dbc.spi.ConnectionFactoryOptions.DATABASE;
 import static io.r2dbc.spi.ConnectionFactoryOptions.DRIVER;
@@ -12,6 +13,7 @@ import static io.r2dbc.spi.ConnectionFactoryOptions.HOST;
 import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
 import static io.r2dbc.spi.ConnectionFactoryOptions.PORT;
 import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
+import static org.tdslib.javatdslib.api.TdsLibOptions.POOL_MAX_SIZE;
 
 /**
  * A provider for creating {@link TdsConnectionFactory} instances. This class is discovered by the
@@ -34,7 +36,8 @@ public class TdsConnectionFactoryProvider implements ConnectionFactoryProvider {
 
   /**
    * R2DBC calls this to create the actual factory instance. You extract the raw configuration
-   * (host, port, user) here.
+   * (host, port, user) here. When {@code poolMaxSize} is set, the factory is wrapped in a
+   * {@link TdsConnectionPool}.
    */
   @Override
   public ConnectionFactory create(ConnectionFactoryOptions options) {
@@ -47,7 +50,11 @@ public class TdsConnectionFactoryProvider implements ConnectionFactoryProvider {
     requireOption(DATABASE, options);
 
     // Return your main entry point
-    return new TdsConnectionFactory(options);
+    TdsConnectionFactory factory = new TdsConnectionFactory(options);
+    if (options.hasOption(POOL_MAX_SIZE)) {
+      return new TdsConnectionPool(factory, options);
+    }
+    return factory;
   }
 
   private void requireOption(Option<?> option, ConnectionFactoryOptions options) {
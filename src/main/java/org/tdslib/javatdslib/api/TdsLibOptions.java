@@ -2,6 +2,8 @@ package org.tdslib.javatdslib.api;
 
 import io.r2dbc.spi.Option;
 
+import java.time.Duration;
+
 /**
  * Custom configuration options for the TDS (SQL Server) R2DBC Driver.
  * These options can be passed to the R2DBC ConnectionFactory builder.
@@ -22,4 +24,102 @@ public final class TdsLibOptions {
 
   public static final Option<String> TRUST_STORE_PASSWORD =
       Option.valueOf("trustStorePassword");
-}
\ No newline at end of file
+
+  /**
+   * Requests encryption of the whole session (ENCRYPT_ON in Pre-Login). When false or absent,
+   * only the login exchange is encrypted unless the server itself requires full encryption.
+   */
+  public static final Option<Boolean> ENCRYPT =
+      Option.valueOf("encrypt");
+
+  /**
+   * Enables MARS (Multiple Active Result Sets). Concurrent requests on one connection are then
+   * multiplexed over separate SMP sessions instead of waiting for each other.
+   */
+  public static final Option<Boolean> MULTIPLE_ACTIVE_RESULT_SETS =
+      Option.valueOf("multipleActiveResultSets");
+
+  /**
+   * Upper bound on concurrent MARS sessions per connection. Defaults to 8.
+   */
+  public static final Option<Integer> MAX_MARS_SESSIONS =
+      Option.valueOf("maxMarsSessions");
+
+  /**
+   * TDS packet size requested at login, from 512 to 32767 bytes. Defaults to 8000. Larger packets
+   * mean fewer packets, reads and writes per megabyte of results.
+   */
+  public static final Option<Integer> PACKET_SIZE =
+      Option.valueOf("packetSize");
+
+  /**
+   * Number of prepared statement handles kept per connection. Parameterized statements are
+   * prepared on first execution and then run by handle. Defaults to 64; 0 disables preparing.
+   */
+  public static final Option<Integer> STATEMENT_CACHE_SIZE =
+      Option.valueOf("statementCacheSize");
+
+  /**
+   * Sets TCP_NODELAY on the socket. Defaults to true.
+   */
+  public static final Option<Boolean> TCP_NO_DELAY =
+      Option.valueOf("tcpNoDelay");
+
+  /**
+   * Socket send buffer size (SO_SNDBUF) in bytes. When absent, the operating system default.
+   */
+  public static final Option<Integer> SOCKET_SEND_BUFFER_SIZE =
+      Option.valueOf("socketSendBufferSize");
+
+  /**
+   * Socket receive buffer size (SO_RCVBUF) in bytes. When absent, the operating system default.
+   */
+  public static final Option<Integer> SOCKET_RECEIVE_BUFFER_SIZE =
+      Option.valueOf("socketReceiveBufferSize");
+
+  /**
+   * Number of NIO selector threads shared by all connections created from one factory.
+   * When absent, connections use a process-wide group sized to the number of CPU cores.
+   */
+  public static final Option<Integer> EVENT_LOOP_THREADS =
+      Option.valueOf("eventLoopThreads");
+
+  /**
+   * Maximum number of pooled connections. Setting this option turns on the built-in
+   * connection pool.
+   */
+  public static final Option<Integer> POOL_MAX_SIZE =
+      Option.valueOf("poolMaxSize");
+
+  /**
+   * Number of idle connections the pool keeps open, including after warm-up. Defaults to 0.
+   */
+  public static final Option<Integer> POOL_MIN_IDLE =
+      Option.valueOf("poolMinIdle");
+
+  /**
+   * How long an acquire waits for a connection before failing. Defaults to 30 seconds.
+   */
+  public static final Option<Duration> POOL_ACQUIRE_TIMEOUT =
+      Option.valueOf("poolAcquireTimeout");
+
+  /**
+   * Maximum age of a pooled connection before it is retired. Defaults to 30 minutes.
+   */
+  public static final Option<Duration> POOL_MAX_LIFETIME =
+      Option.valueOf("poolMaxLifetime");
+
+  /**
+   * How long a connection may sit idle above {@link #POOL_MIN_IDLE} before it is closed.
+   * Defaults to 10 minutes.
+   */
+  public static final Option<Duration> POOL_MAX_IDLE_TIME =
+      Option.valueOf("poolMaxIdleTime");
+
+  /**
+   * Maximum number of handshakes the pool runs at once, to avoid connect storms against the
+   * server. Defaults to 4.
+   */
+  public static final Option<Integer> POOL_MAX_CONCURRENT_CONNECTS =
+      Option.valueOf("poolMaxConcurrentConnects");
+}
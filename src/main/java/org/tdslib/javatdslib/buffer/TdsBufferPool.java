@@ -0,0 +1,145 @@
+package org.tdslib.javatdslib.buffer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A size-classed pool of direct {@link ByteBuffer}s for packet-sized I/O buffers.
+ *
+ * <p>Direct buffers avoid the hidden copy the JDK performs into a temporary direct buffer on every
+ * socket read and write of a heap buffer, but they are expensive to allocate. This pool recycles
+ * them per size class. Every class is a fixed array of slots claimed with a CAS, plus a count of
+ * the idle buffers in it, so acquire and release never lock and never allocate. Both scan from
+ * the start of the array, which keeps idle buffers packed at its low end: an acquire finds any
+ * idle buffer within a few slots, and falls back to allocating only when the class is empty.
+ *
+ * <p>Release is explicit: the current owner of a buffer calls {@link #release(ByteBuffer)} exactly
+ * once, after which it must not touch the buffer again. Buffers that did not come from a size
+ * class (heap buffers, oversized buffers) are silently dropped on release.
+ */
+public final class TdsBufferPool {
+
+  /**
+   * The shared pool used by the transport layer. Classes cover the TDS default packet size
+   * (4 KB), the common negotiated size (8 KB), the protocol maximum (32 KB, also TLS records) and
+   * multi-packet read buffers (128 KB).
+   */
+  public static final TdsBufferPool DEFAULT =
+      new TdsBufferPool(new int[] {4096, 8192, 32768, 131072}, 16 * 1024 * 1024);
+
+  private final int[] classSizes;
+  private final AtomicReferenceArray<ByteBuffer>[] classSlots;
+  private final AtomicInteger[] classIdle;
+
+  /**
+   * Constructs a new TdsBufferPool.
+   *
+   * @param classSizes     Buffer capacities of each size class, in ascending order.
+   * @param bytesPerClass  Upper bound on the bytes retained by each class while idle.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public TdsBufferPool(int[] classSizes, int bytesPerClass) {
+    this.classSizes = Arrays.copyOf(classSizes, classSizes.length);
+    Arrays.sort(this.classSizes);
+    this.classSlots = new AtomicReferenceArray[classSizes.length];
+    this.classIdle = new AtomicInteger[classSizes.length];
+    for (int i = 0; i < this.classSizes.length; i++) {
+      int slots = Math.max(4, bytesPerClass / this.classSizes[i]);
+      classSlots[i] = new AtomicReferenceArray<>(slots);
+      classIdle[i] = new AtomicInteger();
+    }
+  }
+
+  /**
+   * Acquires a cleared, big-endian buffer whose capacity is at least {@code minCapacity}. The
+   * limit is set to the full capacity of the size class.
+   *
+   * @param minCapacity The number of bytes the caller needs.
+   * @return A pooled direct buffer, or a freshly allocated one when the pool has none to spare.
+   */
+  public ByteBuffer acquire(int minCapacity) {
+    int sizeClass = classFor(minCapacity);
+    if (sizeClass < 0) {
+      // Larger than any class: one-off buffer that release() will drop
+      return ByteBuffer.allocateDirect(minCapacity);
+    }
+
+    AtomicInteger idle = classIdle[sizeClass];
+    int available;
+    do {
+      available = idle.get();
+      if (available == 0) {
+        return ByteBuffer.allocateDirect(classSizes[sizeClass]);
+      }
+    } while (!idle.compareAndSet(available, available - 1));
+
+    // The reservation guarantees a buffer is in the slots; a concurrent acquire may take the
+    // one this scan sees first, so keep scanning until one is claimed
+    AtomicReferenceArray<ByteBuffer> slots = classSlots[sizeClass];
+    int length = slots.length();
+    for (int index = 0; ; index = (index + 1) % length) {
+      ByteBuffer candidate = slots.get(index);
+      if (candidate != null && slots.compareAndSet(index, candidate, null)) {
+        candidate.clear();
+        return candidate.order(ByteOrder.BIG_ENDIAN);
+      }
+      if (index == length - 1) {
+        Thread.onSpinWait();
+      }
+    }
+  }
+
+  /**
+   * Returns a buffer to its size class. Null, heap and non-class-sized buffers are ignored, as are
+   * buffers arriving while the class is already full.
+   *
+   * @param buffer The buffer to recycle. The caller must not use it afterwards.
+   */
+  public void release(ByteBuffer buffer) {
+    if (buffer == null || !buffer.isDirect() || buffer.isReadOnly()) {
+      return;
+    }
+    int sizeClass = Arrays.binarySearch(classSizes, buffer.capacity());
+    if (sizeClass < 0) {
+      return;
+    }
+
+    AtomicReferenceArray<ByteBuffer> slots = classSlots[sizeClass];
+    AtomicInteger idle = classIdle[sizeClass];
+    int length = slots.length();
+    if (idle.get() >= length) {
+      // Class is saturated; let the GC reclaim the buffer
+      return;
+    }
+    for (int index = 0; index < length; index++) {
+      if (slots.get(index) == null && slots.compareAndSet(index, null, buffer)) {
+        // Counted only once visible, so an acquire that reserves it is sure to find it
+        idle.incrementAndGet();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of idle buffers the pool holds for a capacity.
+   *
+   * @param capacity The capacity of a size class.
+   * @return The idle buffers of that class, or 0 if no class has that capacity.
+   */
+  int idleBuffers(int capacity) {
+    int sizeClass = Arrays.binarySearch(classSizes, capacity);
+    return sizeClass < 0 ? 0 : classIdle[sizeClass].get();
+  }
+
+  private int classFor(int minCapacity) {
+    for (int i = 0; i < classSizes.length; i++) {
+      if (classSizes[i] >= minCapacity) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
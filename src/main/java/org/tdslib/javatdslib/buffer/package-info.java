@@ -0,0 +1,7 @@
+/**
+ * Reusable I/O buffer management.
+ *
+ * <p>{@link org.tdslib.javatdslib.buffer.TdsBufferPool} hands out packet-sized direct buffers to the
+ * transport layer and takes them back once they have been written or are no longer needed.
+ */
+package org.tdslib.javatdslib.buffer;
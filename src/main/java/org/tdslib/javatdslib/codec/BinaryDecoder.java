@@ -4,6 +4,7 @@ import org.tdslib.javatdslib.protocol.TdsType;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 
 /**
  * Decodes binary data types (BINARY, VARBINARY, IMAGE) from TDS byte arrays.
@@ -20,11 +21,13 @@ public class BinaryDecoder implements ResultDecoder {
   }
 
   @Override
-  public <T> T decode(byte[] data, TdsType tdsType, Class<T> targetType, int scale,
-                      Charset varcharCharset) {
+  public <T> T decode(byte[] data, int offset, int length, TdsType tdsType,
+                      Class<T> targetType, int scale, Charset varcharCharset) {
+    // Copy out: the caller owns the result, and the source may be a shared slab
+    byte[] value = Arrays.copyOfRange(data, offset, offset + length);
     if (targetType == ByteBuffer.class) {
-      return targetType.cast(ByteBuffer.wrap(data));
+      return targetType.cast(ByteBuffer.wrap(value));
     }
-    return targetType.cast(data);
+    return targetType.cast(value);
   }
 }
\ No newline at end of file
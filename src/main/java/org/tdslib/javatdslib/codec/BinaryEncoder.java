@@ -1,5 +1,6 @@
 package org.tdslib.javatdslib.codec;
 
+import org.tdslib.javatdslib.packets.TdsPacketWriter;
 import org.tdslib.javatdslib.protocol.TdsParameter;
 import org.tdslib.javatdslib.protocol.TdsType;
 import org.tdslib.javatdslib.protocol.rpc.ParameterEncoder;
@@ -21,8 +22,7 @@ public class BinaryEncoder implements ParameterEncoder {
 
   @Override
   public String getSqlTypeDeclaration(TdsParameter entry) {
-    byte[] data = getBytes(entry.value());
-    if (data != null && data.length > 8000) {
+    if (lengthOf(entry.value()) > 8000) {
       return "varbinary(max)";
     }
     return "varbinary(8000)";
@@ -60,6 +60,49 @@ public class BinaryEncoder implements ParameterEncoder {
     }
   }
 
+  @Override
+  public void encode(TdsPacketWriter writer, TdsParameter entry, RpcEncodingContext context) {
+    Object value = entry.value();
+    int length;
+    if (value instanceof byte[] bytes) {
+      length = bytes.length;
+    } else if (value instanceof ByteBuffer bb) {
+      length = bb.remaining();
+    } else {
+      ParameterEncoder.super.encode(writer, entry, context);
+      return;
+    }
+    boolean isPlp = length > 8000;
+
+    writer.put((byte) TdsType.BIGVARBIN.byteVal);
+    writer.putShort(isPlp ? (short) -1 : (short) 8000);
+    if (isPlp) {
+      writer.putLong(length);
+      writer.putInt(length);
+    } else {
+      writer.putShort((short) length);
+    }
+    // Copied once, from the caller's array or buffer straight into the packets
+    if (value instanceof byte[] bytes) {
+      writer.put(bytes);
+    } else {
+      writer.put(((ByteBuffer) value).duplicate());
+    }
+    if (isPlp) {
+      writer.putInt(0);
+    }
+  }
+
+  private int lengthOf(Object value) {
+    if (value instanceof byte[] bytes) {
+      return bytes.length;
+    }
+    if (value instanceof ByteBuffer bb) {
+      return bb.remaining();
+    }
+    return -1;
+  }
+
   private byte[] getBytes(Object value) {
     if (value instanceof byte[]) {
       return (byte[]) value;
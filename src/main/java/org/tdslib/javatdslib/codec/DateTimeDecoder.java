@@ -34,22 +34,21 @@ public class DateTimeDecoder implements ResultDecoder {
   }
 
   @Override
-  public <T> T decode(byte[] data, TdsType tdsType, Class<T> targetType, int scale,
-                      Charset varcharCharset) {
+  public <T> T decode(byte[] data, int offset, int length, TdsType tdsType,
+                      Class<T> targetType, int scale, Charset varcharCharset) {
     Object result;
     switch (tdsType) {
       case DATE:
-        int days = (data[0] & 0xFF) | ((data[1] & 0xFF) << 8) | ((data[2] & 0xFF) << 16);
-        result = LocalDate.of(1, 1, 1).plusDays(days);
+        result = readDate(data, offset);
         break;
       case TIME:
-        result = readTime(data, scale);
+        result = readTime(data, offset, length, scale);
         break;
       case DATETIME2:
-        result = readDateTime2(data, scale);
+        result = readDateTime2(data, offset, length, scale);
         break;
       case DATETIMEOFFSET:
-        OffsetDateTime odt = readDateTimeOffset(data, scale);
+        OffsetDateTime odt = readDateTimeOffset(data, offset, length, scale);
         if (targetType == ZonedDateTime.class) {
           return targetType.cast(odt.toZonedDateTime());
         }
@@ -58,7 +57,7 @@ public class DateTimeDecoder implements ResultDecoder {
       case DATETIMN:
       case DATETIME:
       case SMALLDATETIME:
-        result = readDateTime(data);
+        result = readDateTime(data, offset, length);
         break;
       default:
         throw new IllegalStateException("Unexpected type: " + tdsType);
@@ -66,58 +65,57 @@ public class DateTimeDecoder implements ResultDecoder {
     return targetType.cast(result);
   }
 
-  private LocalTime readTime(byte[] data, int scale) {
+  private LocalDate readDate(byte[] data, int offset) {
+    int days = (data[offset] & 0xFF) | ((data[offset + 1] & 0xFF) << 8)
+        | ((data[offset + 2] & 0xFF) << 16);
+    return LocalDate.of(1, 1, 1).plusDays(days);
+  }
+
+  private LocalTime readTime(byte[] data, int offset, int length, int scale) {
     long raw = 0;
-    for (int i = 0; i < data.length; i++) {
-      raw |= ((long) (data[i] & 0xFF)) << (8 * i);
+    for (int i = 0; i < length; i++) {
+      raw |= ((long) (data[offset + i] & 0xFF)) << (8 * i);
     }
     // FIX: Replaced Math.pow with highly performant array lookup
     long factor = NANOS_FACTOR[scale];
     return LocalTime.ofNanoOfDay(raw * factor);
   }
 
-  private LocalDateTime readDateTime2(byte[] data, int scale) {
-    int timeLen = data.length - 3;
-    byte[] timeBytes = new byte[timeLen];
-    System.arraycopy(data, 0, timeBytes, 0, timeLen);
-    LocalTime time = readTime(timeBytes, scale);
-
-    int dayBytesStart = timeLen;
-    int days = (data[dayBytesStart] & 0xFF) | ((data[dayBytesStart + 1] & 0xFF) << 8)
-        | ((data[dayBytesStart + 2] & 0xFF) << 16);
-    LocalDate date = LocalDate.of(1, 1, 1).plusDays(days);
+  private LocalDateTime readDateTime2(byte[] data, int offset, int length, int scale) {
+    // Time bytes first, then a 3-byte day count
+    int timeLen = length - 3;
+    LocalTime time = readTime(data, offset, timeLen, scale);
+    LocalDate date = readDate(data, offset + timeLen);
     return LocalDateTime.of(date, time);
   }
 
-  private OffsetDateTime readDateTimeOffset(byte[] data, int scale) {
-    int offsetBytesStart = data.length - 2;
-    int dt2Len = offsetBytesStart;
-    byte[] dt2Bytes = new byte[dt2Len];
-    System.arraycopy(data, 0, dt2Bytes, 0, dt2Len);
-
-    LocalDateTime utcDateTime = readDateTime2(dt2Bytes, scale);
+  private OffsetDateTime readDateTimeOffset(byte[] data, int offset, int length, int scale) {
+    int offsetBytesStart = offset + length - 2;
+    LocalDateTime utcDateTime = readDateTime2(data, offset, length - 2, scale);
     short offsetMinutes = ByteBuffer.wrap(data, offsetBytesStart, 2)
         .order(ByteOrder.LITTLE_ENDIAN).getShort();
-    ZoneOffset offset = ZoneOffset.ofTotalSeconds(offsetMinutes * 60);
+    ZoneOffset zoneOffset = ZoneOffset.ofTotalSeconds(offsetMinutes * 60);
 
-    return OffsetDateTime.ofInstant(utcDateTime.toInstant(ZoneOffset.UTC), offset);
+    return OffsetDateTime.ofInstant(utcDateTime.toInstant(ZoneOffset.UTC), zoneOffset);
   }
 
-  private LocalDateTime readDateTime(byte[] data) {
+  private LocalDateTime readDateTime(byte[] data, int offset, int length) {
     LocalDate baseDate = LocalDate.of(1900, 1, 1);
 
-    if (data.length == 8) {
-      int days = ByteBuffer.wrap(data, 0, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
-      long ticks = Integer.toUnsignedLong(ByteBuffer.wrap(data, 4, 4)
+    if (length == 8) {
+      int days = ByteBuffer.wrap(data, offset, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+      long ticks = Integer.toUnsignedLong(ByteBuffer.wrap(data, offset + 4, 4)
           .order(ByteOrder.LITTLE_ENDIAN).getInt());
       // FIX: Removed dangerous Double Math to prevent IEEE-754 precision loss
       long nanos = (ticks * 10000000L) / 3L;
       return LocalDateTime.of(baseDate.plusDays(days), LocalTime.ofNanoOfDay(nanos));
-    } else if (data.length == 4) {
-      int days = ByteBuffer.wrap(data, 0, 2).order(ByteOrder.LITTLE_ENDIAN).getShort() & 0xFFFF;
-      int minutes = ByteBuffer.wrap(data, 2, 2).order(ByteOrder.LITTLE_ENDIAN).getShort() & 0xFFFF;
+    } else if (length == 4) {
+      int days = ByteBuffer.wrap(data, offset, 2).order(ByteOrder.LITTLE_ENDIAN).getShort()
+          & 0xFFFF;
+      int minutes = ByteBuffer.wrap(data, offset + 2, 2).order(ByteOrder.LITTLE_ENDIAN)
+          .getShort() & 0xFFFF;
       return LocalDateTime.of(baseDate.plusDays(days), LocalTime.of(0, 0).plusMinutes(minutes));
     }
-    throw new IllegalStateException("Invalid data length for DateTime: " + data.length);
+    throw new IllegalStateException("Invalid data length for DateTime: " + length);
   }
-}
\ No newline at end of file
+}
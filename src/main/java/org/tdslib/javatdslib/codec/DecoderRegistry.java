@@ -31,6 +31,21 @@ public class DecoderRegistry {
     decoders.add(decoder);
   }
 
+  /**
+   * Finds the decoder for a TDS type.
+   *
+   * @param tdsType the TDS type
+   * @return the first registered decoder that supports it, or null if none does
+   */
+  public ResultDecoder decoderFor(TdsType tdsType) {
+    for (ResultDecoder decoder : decoders) {
+      if (decoder.canDecode(tdsType)) {
+        return decoder;
+      }
+    }
+    return null;
+  }
+
   /**
    * Decodes the given data using a registered decoder.
    */
@@ -39,11 +54,21 @@ public class DecoderRegistry {
     if (data == null) {
       return null;
     }
+    return decode(data, 0, data.length, tdsType, targetType, scale, varcharCharset);
+  }
 
-    for (ResultDecoder decoder : decoders) {
-      if (decoder.canDecode(tdsType)) {
-        return decoder.decode(data, tdsType, targetType, scale, varcharCharset);
-      }
+  /**
+   * Decodes a slice of a shared array using a registered decoder.
+   */
+  public <T> T decode(byte[] data, int offset, int length, TdsType tdsType,
+                      Class<T> targetType, int scale, Charset varcharCharset) {
+    if (data == null) {
+      return null;
+    }
+
+    ResultDecoder decoder = decoderFor(tdsType);
+    if (decoder != null) {
+      return decoder.decode(data, offset, length, tdsType, targetType, scale, varcharCharset);
     }
     throw new UnsupportedOperationException("No decoder registered for TDS type: " + tdsType);
   }
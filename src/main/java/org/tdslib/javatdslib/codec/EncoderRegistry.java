@@ -22,6 +22,7 @@ public class EncoderRegistry {
     DEFAULT.register(new DateTimeEncoder());
     DEFAULT.register(new BinaryEncoder());
     DEFAULT.register(new GuidEncoder());
+    DEFAULT.register(new TableValueEncoder());
   }
 
   private final List<ParameterEncoder> codecs = new ArrayList<>();
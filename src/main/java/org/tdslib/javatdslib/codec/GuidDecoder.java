@@ -18,21 +18,21 @@ public class GuidDecoder implements ResultDecoder {
   }
 
   @Override
-  public <T> T decode(byte[] data, TdsType tdsType, Class<T> targetType, int scale,
-                      Charset varcharCharset) {
+  public <T> T decode(byte[] data, int offset, int length, TdsType tdsType,
+                      Class<T> targetType, int scale, Charset varcharCharset) {
     if (targetType == UUID.class) {
-      ByteBuffer bb = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+      ByteBuffer bb = ByteBuffer.wrap(data, offset, length).order(ByteOrder.LITTLE_ENDIAN);
       long msb = bb.getLong();
       long lsb = bb.getLong();
       return targetType.cast(new UUID(msb, lsb));
     }
-    return targetType.cast(convertBytesToHex(data));
+    return targetType.cast(convertBytesToHex(data, offset, length));
   }
 
-  private String convertBytesToHex(byte[] bytes) {
+  private String convertBytesToHex(byte[] bytes, int offset, int length) {
     StringBuilder sb = new StringBuilder();
-    for (byte b : bytes) {
-      sb.append(String.format("%02x", b));
+    for (int i = offset; i < offset + length; i++) {
+      sb.append(String.format("%02x", bytes[i]));
     }
     return sb.toString();
   }
@@ -40,61 +40,61 @@ public class NumericDecoder implements ResultDecoder {
   }
 
   @Override
-  public <T> T decode(byte[] data, TdsType tdsType, Class<T> targetType, int scale,
-                      Charset varcharCharset) {
+  public <T> T decode(byte[] data, int offset, int length, TdsType tdsType,
+                      Class<T> targetType, int scale, Charset varcharCharset) {
     switch (tdsType) {
       case INT1:
-        return convertSimple(data[0] & 0xFF, 1, targetType);
+        return convertSimple(data[offset] & 0xFF, 1, targetType);
       case INT2:
         return convertSimple(
-            ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getShort(), 2, targetType);
+            littleEndian(data, offset, length).getShort(), 2, targetType);
       case INT4:
         return convertSimple(
-            ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getInt(), 4, targetType);
+            littleEndian(data, offset, length).getInt(), 4, targetType);
       case INT8:
         return convertSimple(
-            ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getLong(), 8, targetType);
+            littleEndian(data, offset, length).getLong(), 8, targetType);
       case INTN:
-        if (data.length == 1) {
-          return convertSimple(data[0] & 0xFF, 1, targetType);
+        if (length == 1) {
+          return convertSimple(data[offset] & 0xFF, 1, targetType);
         }
-        if (data.length == 2) {
+        if (length == 2) {
           return convertSimple(
-              ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getShort(), 2, targetType);
+              littleEndian(data, offset, length).getShort(), 2, targetType);
         }
-        if (data.length == 4) {
+        if (length == 4) {
           return convertSimple(
-              ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getInt(), 4, targetType);
+              littleEndian(data, offset, length).getInt(), 4, targetType);
         }
-        if (data.length == 8) {
+        if (length == 8) {
           return convertSimple(
-              ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getLong(), 8, targetType);
+              littleEndian(data, offset, length).getLong(), 8, targetType);
         }
         throw new IllegalStateException("Unexpected INTN length");
 
       case FLT4:
-        float flt4Val = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getFloat();
+        float flt4Val = littleEndian(data, offset, length).getFloat();
         if (targetType == Double.class) {
           return targetType.cast((double) flt4Val); // Widen safely
         }
         return targetType.cast(flt4Val);
 
       case FLTN:
-        if (data.length == 4) {
-          float fltnFloat = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getFloat();
+        if (length == 4) {
+          float fltnFloat = littleEndian(data, offset, length).getFloat();
           if (targetType == Double.class) {
             return targetType.cast((double) fltnFloat); // Widen safely
           }
           return targetType.cast(fltnFloat);
         }
-        double fltnDouble = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getDouble();
+        double fltnDouble = littleEndian(data, offset, length).getDouble();
         if (targetType == Float.class) {
           return targetType.cast((float) fltnDouble);
         }
         return targetType.cast(fltnDouble); // Defaults to Double for Object.class
 
       case FLT8:
-        double flt8Double = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getDouble();
+        double flt8Double = littleEndian(data, offset, length).getDouble();
         if (targetType == Float.class) {
           return targetType.cast((float) flt8Double);
         }
@@ -102,7 +102,7 @@ public class NumericDecoder implements ResultDecoder {
 
       case BIT:
       case BITN:
-        boolean boolVal = data[0] != 0;
+        boolean boolVal = data[offset] != 0;
         // FIX: Allow Object.class to naturally yield a Boolean
         if (targetType == Boolean.class || targetType == Object.class) {
           return targetType.cast(boolVal);
@@ -113,7 +113,7 @@ public class NumericDecoder implements ResultDecoder {
       case DECIMAL:
       case NUMERICN:
       case DECIMALN:
-        BigDecimal decimalValue = readDecimal(data, scale);
+        BigDecimal decimalValue = readDecimal(data, offset, length, scale);
         if (targetType == BigInteger.class) {
           return targetType.cast(decimalValue.toBigInteger());
         }
@@ -124,11 +124,11 @@ public class NumericDecoder implements ResultDecoder {
       case SMALLMONEY:
         // FIX: Allow Object.class to naturally yield a BigDecimal
         if (targetType == BigDecimal.class || targetType == Object.class) {
-          if (data.length == 4) {
-            int valM = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getInt();
+          if (length == 4) {
+            int valM = littleEndian(data, offset, length).getInt();
             return targetType.cast(BigDecimal.valueOf(valM, 4));
           } else {
-            ByteBuffer bb = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer bb = littleEndian(data, offset, length);
             int high = bb.getInt();
             int low = bb.getInt();
             long valM = ((long) high << 32) | (low & 0xFFFFFFFFL);
@@ -174,11 +174,15 @@ public class NumericDecoder implements ResultDecoder {
     return (T) Long.valueOf(val);
   }
 
-  private BigDecimal readDecimal(byte[] data, int scale) {
-    int sign = data[0];
-    byte[] mag = new byte[data.length - 1];
+  private static ByteBuffer littleEndian(byte[] data, int offset, int length) {
+    return ByteBuffer.wrap(data, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  static BigDecimal readDecimal(byte[] data, int offset, int length, int scale) {
+    int sign = data[offset];
+    byte[] mag = new byte[length - 1];
     for (int i = 0; i < mag.length; i++) {
-      mag[i] = data[data.length - 1 - i];
+      mag[i] = data[offset + length - 1 - i];
     }
     BigInteger bi = new BigInteger(1, mag);
     if (sign == 0) {
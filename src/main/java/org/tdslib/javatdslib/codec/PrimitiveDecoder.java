@@ -0,0 +1,145 @@
+package org.tdslib.javatdslib.codec;
+
+import org.tdslib.javatdslib.protocol.TdsType;
+
+/**
+ * Decodes fixed-width numeric values straight from raw little-endian bytes into Java primitives,
+ * without boxing or a {@link java.nio.ByteBuffer} wrapper. Backs the primitive accessors on
+ * {@link org.tdslib.javatdslib.impl.TdsRow}.
+ */
+public final class PrimitiveDecoder {
+
+  // Powers of ten that are exact doubles, and the largest exact integer magnitude
+  private static final double[] EXACT_POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+      1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+  private static final long MAX_EXACT_MAGNITUDE = 1L << 53;
+
+  private PrimitiveDecoder() {
+  }
+
+  /**
+   * Reads an integer, bit or tinyint value as a long.
+   *
+   * @param tdsType The TDS type of the column.
+   * @param data    The backing array.
+   * @param offset  The start of the value.
+   * @param length  The length of the value.
+   * @return The value.
+   */
+  public static long readLong(TdsType tdsType, byte[] data, int offset, int length) {
+    switch (tdsType) {
+      case INT1:
+      case BIT:
+      case BITN:
+        return data[offset] & 0xFF;
+      case INT2:
+      case INT4:
+      case INT8:
+        return readSigned(data, offset, length);
+      case INTN:
+        // TINYINT is the only unsigned integer type
+        return length == 1 ? data[offset] & 0xFF : readSigned(data, offset, length);
+      default:
+        throw new UnsupportedOperationException("Cannot read " + tdsType + " as an integer");
+    }
+  }
+
+  /**
+   * Reads an integer value that must fit in an int.
+   *
+   * @throws ArithmeticException if a BIGINT value is out of range.
+   */
+  public static int readInt(TdsType tdsType, byte[] data, int offset, int length) {
+    return Math.toIntExact(readLong(tdsType, data, offset, length));
+  }
+
+  /**
+   * Reads a floating point, integer, money or decimal value as a double.
+   *
+   * @param scale The column scale, used for DECIMAL and NUMERIC.
+   */
+  public static double readDouble(TdsType tdsType, byte[] data, int offset, int length,
+                                  int scale) {
+    switch (tdsType) {
+      case FLT4:
+      case FLT8:
+      case FLTN:
+        return length == 4
+            ? Float.intBitsToFloat((int) readSigned(data, offset, 4))
+            : Double.longBitsToDouble(readSigned(data, offset, 8));
+      case MONEY:
+      case MONEYN:
+      case SMALLMONEY:
+        return readMoney(data, offset, length) / 10_000d;
+      case NUMERIC:
+      case DECIMAL:
+      case NUMERICN:
+      case DECIMALN:
+        // Sign byte, then the little-endian magnitude. One division of two exact doubles is
+        // correctly rounded; anything wider goes through BigDecimal.
+        if (length <= 9 && scale < EXACT_POWERS_OF_TEN.length) {
+          long magnitude = readUnsigned(data, offset + 1, length - 1);
+          if (magnitude >= 0 && magnitude <= MAX_EXACT_MAGNITUDE) {
+            double value = magnitude / EXACT_POWERS_OF_TEN[scale];
+            return data[offset] == 0 ? -value : value;
+          }
+        }
+        return NumericDecoder.readDecimal(data, offset, length, scale).doubleValue();
+      default:
+        return readLong(tdsType, data, offset, length);
+    }
+  }
+
+  /**
+   * Reads a bit, or any integer type as non-zero.
+   */
+  public static boolean readBoolean(TdsType tdsType, byte[] data, int offset, int length) {
+    return readLong(tdsType, data, offset, length) != 0;
+  }
+
+  /**
+   * Reads a MONEY or SMALLMONEY value in cents. Money carries four decimal places; the value
+   * is rounded half away from zero to two.
+   */
+  public static long readMoneyAsCents(TdsType tdsType, byte[] data, int offset, int length) {
+    if (tdsType != TdsType.MONEY && tdsType != TdsType.MONEYN
+        && tdsType != TdsType.SMALLMONEY) {
+      throw new UnsupportedOperationException("Cannot read " + tdsType + " as money");
+    }
+    long tenThousandths = readMoney(data, offset, length);
+    long cents = tenThousandths / 100;
+    if (Math.abs(tenThousandths % 100) >= 50) {
+      cents += Long.signum(tenThousandths);
+    }
+    return cents;
+  }
+
+  /**
+   * Reads a money value in ten-thousandths. The 8-byte form is sent as two 32-bit integers,
+   * high half first.
+   */
+  private static long readMoney(byte[] data, int offset, int length) {
+    if (length == 4) {
+      return readSigned(data, offset, 4);
+    }
+    long high = readSigned(data, offset, 4);
+    long low = readSigned(data, offset + 4, 4) & 0xFFFFFFFFL;
+    return (high << 32) | low;
+  }
+
+  private static long readSigned(byte[] data, int offset, int length) {
+    long value = readUnsigned(data, offset, length);
+    int shift = 64 - 8 * length;
+    return (value << shift) >> shift;
+  }
+
+  private static long readUnsigned(byte[] data, int offset, int length) {
+    long value = 0;
+    for (int i = length - 1; i >= 0; i--) {
+      value = (value << 8) | (data[offset + i] & 0xFF);
+    }
+    return value;
+  }
+}
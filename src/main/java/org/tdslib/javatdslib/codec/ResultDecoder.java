@@ -28,6 +28,25 @@ public interface ResultDecoder {
    * @param <T>            the type of the result
    * @return the decoded object
    */
-  <T> T decode(byte[] data, TdsType tdsType, Class<T> targetType, int scale,
-               Charset varcharCharset);
+  default <T> T decode(byte[] data, TdsType tdsType, Class<T> targetType, int scale,
+                       Charset varcharCharset) {
+    return decode(data, 0, data.length, tdsType, targetType, scale, varcharCharset);
+  }
+
+  /**
+   * Decodes a slice of a (possibly shared) array into the target type. Implementations read
+   * only {@code [offset, offset + length)} and must not retain or modify the array.
+   *
+   * @param data           the backing array
+   * @param offset         the start of the value
+   * @param length         the length of the value
+   * @param tdsType        the TDS type of the data
+   * @param targetType     the desired Java type
+   * @param scale          the scale (for numeric/decimal types)
+   * @param varcharCharset the charset to use for string decoding
+   * @param <T>            the type of the result
+   * @return the decoded object
+   */
+  <T> T decode(byte[] data, int offset, int length, TdsType tdsType, Class<T> targetType,
+               int scale, Charset varcharCharset);
 }
\ No newline at end of file
@@ -24,13 +24,13 @@ public class StringDecoder implements ResultDecoder {
   }
 
   @Override
-  public <T> T decode(byte[] data, TdsType tdsType, Class<T> targetType, int scale,
-                      Charset varcharCharset) {
+  public <T> T decode(byte[] data, int offset, int length, TdsType tdsType,
+                      Class<T> targetType, int scale, Charset varcharCharset) {
     String result;
     if (isNationalChar(tdsType)) {
-      result = new String(data, StandardCharsets.UTF_16LE);
+      result = new String(data, offset, length, StandardCharsets.UTF_16LE);
     } else {
-      result = new String(data, varcharCharset);
+      result = new String(data, offset, length, varcharCharset);
     }
     return targetType.cast(result);
   }
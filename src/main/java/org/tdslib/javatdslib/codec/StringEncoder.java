@@ -1,5 +1,6 @@
 package org.tdslib.javatdslib.codec;
 
+import org.tdslib.javatdslib.packets.TdsPacketWriter;
 import org.tdslib.javatdslib.protocol.TdsParameter;
 import org.tdslib.javatdslib.protocol.TdsType;
 import org.tdslib.javatdslib.protocol.rpc.ParameterEncoder;
@@ -10,9 +11,15 @@ import java.nio.charset.StandardCharsets;
 
 /**
  * Codec for encoding String values into TDS CHAR/VARCHAR/NCHAR/NVARCHAR format.
+ *
+ * <p>When writing to a packet stream each value is encoded exactly once: national strings are
+ * streamed as UTF-16LE straight into the packets (their byte length is known from the char
+ * count), and other strings are converted to the connection's varchar charset a single time.
  */
 public class StringEncoder implements ParameterEncoder {
 
+  private static final int MAX_SHORT_LENGTH = 8000;
+
   @Override
   public boolean canEncode(TdsParameter entry) {
     TdsType type = entry.type();
@@ -80,6 +87,45 @@ public class StringEncoder implements ParameterEncoder {
     }
   }
 
+  @Override
+  public void encode(TdsPacketWriter writer, TdsParameter entry, RpcEncodingContext context) {
+    Object value = entry.value();
+    if (value == null) {
+      ParameterEncoder.super.encode(writer, entry, context);
+      return;
+    }
+
+    String stringVal = (value instanceof String) ? (String) value : value.toString();
+    TdsType type = entry.type();
+    boolean isNational = isNationalType(type);
+
+    // UTF-16 needs two bytes per char, even where an unpaired surrogate is replaced
+    byte[] bytes = isNational ? null : stringVal.getBytes(context.varcharCharset());
+    int length = isNational ? stringVal.length() * 2 : bytes.length;
+    boolean isPlp = length > MAX_SHORT_LENGTH;
+
+    // TYPE_INFO
+    writer.put((byte) type.byteVal);
+    writer.putShort(isPlp ? (short) -1 : (short) MAX_SHORT_LENGTH);
+    writer.put(context.collationBytes());
+
+    // Value
+    if (isPlp) {
+      writer.putLong(length); // Total PLP length
+      writer.putInt(length);  // Chunk length
+    } else {
+      writer.putShort((short) length);
+    }
+    if (isNational) {
+      writer.putUtf16(stringVal);
+    } else {
+      writer.put(bytes);
+    }
+    if (isPlp) {
+      writer.putInt(0);       // PLP Terminator
+    }
+  }
+
   private boolean isNationalType(TdsType type) {
     return type == TdsType.NVARCHAR || type == TdsType.NCHAR || type == TdsType.NTEXT;
   }
@@ -0,0 +1,296 @@
+package org.tdslib.javatdslib.codec;
+
+import org.tdslib.javatdslib.protocol.TdsParameter;
+import org.tdslib.javatdslib.protocol.TdsType;
+import org.tdslib.javatdslib.protocol.rpc.ParameterEncoder;
+import org.tdslib.javatdslib.protocol.rpc.RpcEncodingContext;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * A typed column of client-supplied rows, as sent in BULK_LOAD COLMETADATA and in table-valued
+ * parameters.
+ *
+ * <p>Every value in a column shares one TYPE_INFO, but the {@link ParameterEncoder}s derive
+ * TYPE_INFO from the value being sent. The column therefore fixes TYPE_INFO from a prototype
+ * parameter, and coerces every value to the Java type that TYPE_INFO implies before the codec
+ * writes it. Character and binary values are limited to 8000 bytes, as the column is never
+ * declared as a PLP type.
+ */
+public final class TableColumn {
+
+  private static final int MAX_SHORT_LENGTH = 8000;
+  private static final int MAX_PRECISION = 38;
+
+  private final String name;
+  private final TdsType type;
+  private final int scale;
+  private final ParameterEncoder codec;
+  private final TdsParameter prototype;
+
+  /**
+   * Constructs a new TableColumn.
+   *
+   * @param name  The column name.
+   * @param type  The TDS type to send the values as.
+   * @param scale The scale for DECIMAL and NUMERIC values; ignored otherwise.
+   */
+  public TableColumn(String name, TdsType type, int scale) {
+    if (type == TdsType.TEXT || type == TdsType.NTEXT || type == TdsType.IMAGE) {
+      throw new IllegalArgumentException("Legacy LOB type " + type + " cannot be used here");
+    }
+    this.name = name;
+    this.type = type;
+    this.scale = scale;
+    Object sample = isDecimal(type) ? BigDecimal.ZERO.setScale(scale) : null;
+    this.prototype = new TdsParameter(type, name, sample, false);
+    this.codec = EncoderRegistry.DEFAULT.getCodec(prototype);
+  }
+
+  /**
+   * Returns the column name.
+   */
+  public String name() {
+    return name;
+  }
+
+  /**
+   * Returns the TDS type the values are sent as.
+   */
+  public TdsType type() {
+    return type;
+  }
+
+  /**
+   * Returns the SQL declaration of the column, e.g. {@code nvarchar(4000)}.
+   */
+  public String sqlTypeDeclaration() {
+    return isDecimal(type)
+        ? "decimal(38," + scale + ")"
+        : codec.getSqlTypeDeclaration(prototype);
+  }
+
+  /**
+   * Writes the TYPE_INFO shared by every value of the column.
+   *
+   * @param buf     The buffer to write to.
+   * @param context The encoding context.
+   */
+  public void writeTypeInfo(ByteBuffer buf, RpcEncodingContext context) {
+    codec.writeTypeInfo(buf, prototype, context);
+  }
+
+  /**
+   * Writes one value, already converted by {@link #coerce}, in the column's TYPE_INFO format.
+   *
+   * @param buf     The buffer to write to.
+   * @param value   The value, or null.
+   * @param context The encoding context.
+   */
+  public void writeValue(ByteBuffer buf, Object value, RpcEncodingContext context) {
+    codec.writeValue(buf, new TdsParameter(type, name, value, false), context);
+  }
+
+  /**
+   * Converts a value to the Java type the column's TYPE_INFO implies: numbers to the width of
+   * the integer or float type, decimals to the column scale (rounding half up), and GUID text
+   * to a {@link UUID}. Values the column's codec cannot write are rejected here, before any of
+   * the row is encoded; numbers are never silently wrapped or truncated.
+   *
+   * @param value The value, or null.
+   * @return The converted value.
+   * @throws IllegalArgumentException if the value's Java type does not fit the column, a number
+   *     is out of the column's range or has a fraction for an integer column, or a character
+   *     or binary value exceeds 8000 bytes.
+   */
+  public Object coerce(Object value) {
+    if (value == null) {
+      return null;
+    }
+    switch (type) {
+      case INT1:
+        long tiny = integral(value);
+        if (tiny < 0 || tiny > 255) {
+          throw outOfRange(value);
+        }
+        return (byte) tiny;
+      case INT2:
+        long small = integral(value);
+        if (small < Short.MIN_VALUE || small > Short.MAX_VALUE) {
+          throw outOfRange(value);
+        }
+        return (short) small;
+      case INT4:
+      case INTN:
+        try {
+          return Math.toIntExact(integral(value));
+        } catch (ArithmeticException e) {
+          throw outOfRange(value);
+        }
+      case INT8:
+        return integral(value);
+      case FLT4:
+      case REAL:
+        double wide = number(value).doubleValue();
+        float narrow = (float) wide;
+        if (Float.isInfinite(narrow) && !Double.isInfinite(wide)) {
+          throw outOfRange(value);
+        }
+        return narrow;
+      case FLT8:
+      case FLTN:
+        return number(value).doubleValue();
+      case DECIMAL:
+      case DECIMALN:
+      case NUMERIC:
+      case NUMERICN:
+        BigDecimal decimal = decimal(value).setScale(scale, RoundingMode.HALF_UP);
+        if (decimal.precision() > MAX_PRECISION) {
+          throw outOfRange(value);
+        }
+        return decimal;
+      case BIT:
+      case BITN:
+        if (value instanceof Boolean || value instanceof Number) {
+          return value;
+        }
+        throw mismatch(value);
+      case NVARCHAR:
+      case NCHAR:
+      case VARCHAR:
+      case CHAR:
+      case BIGVARCHR:
+      case BIGCHAR:
+        if (!(value instanceof CharSequence text)) {
+          throw mismatch(value);
+        }
+        // Checked by char count, like the RPC declarations; the encoder converts only once
+        boolean national = type == TdsType.NVARCHAR || type == TdsType.NCHAR;
+        checkLength(national ? text.length() * 2 : text.length());
+        return text.toString();
+      case BINARY:
+      case VARBINARY:
+      case BIGBINARY:
+      case BIGVARBIN:
+        if (value instanceof byte[] bytes) {
+          checkLength(bytes.length);
+        } else if (value instanceof ByteBuffer buffer) {
+          checkLength(buffer.remaining());
+        } else {
+          throw mismatch(value);
+        }
+        return value;
+      case GUID:
+        if (value instanceof UUID) {
+          return value;
+        }
+        if (value instanceof CharSequence text) {
+          try {
+            return UUID.fromString(text.toString());
+          } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                "Value of column " + name + " is not a GUID: " + text);
+          }
+        }
+        throw mismatch(value);
+      case DATE:
+        return expect(value, LocalDate.class);
+      case TIME:
+        return expect(value, LocalTime.class);
+      case DATETIME2:
+      case DATETIME:
+      case DATETIMN:
+      case SMALLDATETIME:
+        return expect(value, LocalDateTime.class);
+      case DATETIMEOFFSET:
+        if (value instanceof ZonedDateTime zoned) {
+          return zoned.toOffsetDateTime();
+        }
+        return expect(value, OffsetDateTime.class);
+      default:
+        return value;
+    }
+  }
+
+  private Number number(Object value) {
+    if (value instanceof Number number) {
+      return number;
+    }
+    throw mismatch(value);
+  }
+
+  /**
+   * Converts a value for an integer column, rejecting fractions rather than truncating them.
+   */
+  private long integral(Object value) {
+    Number number = number(value);
+    if (number instanceof Long || number instanceof Integer
+        || number instanceof Short || number instanceof Byte) {
+      return number.longValue();
+    }
+    BigDecimal decimal = decimal(value);
+    try {
+      return decimal.longValueExact();
+    } catch (ArithmeticException e) {
+      if (decimal.stripTrailingZeros().scale() > 0) {
+        throw new IllegalArgumentException(
+            "Value of column " + name + " is not an integer: " + value);
+      }
+      throw outOfRange(value);
+    }
+  }
+
+  private BigDecimal decimal(Object value) {
+    Number number = number(value);
+    if (number instanceof BigDecimal bd) {
+      return bd;
+    }
+    if (number instanceof BigInteger bi) {
+      return new BigDecimal(bi);
+    }
+    try {
+      return new BigDecimal(number.toString());
+    } catch (NumberFormatException e) {
+      // NaN and the infinities have no decimal form
+      throw outOfRange(value);
+    }
+  }
+
+  private Object expect(Object value, Class<?> javaType) {
+    if (javaType.isInstance(value)) {
+      return value;
+    }
+    throw mismatch(value);
+  }
+
+  private void checkLength(int length) {
+    if (length > MAX_SHORT_LENGTH) {
+      throw new IllegalArgumentException(
+          "Value of column " + name + " exceeds " + MAX_SHORT_LENGTH + " bytes");
+    }
+  }
+
+  private IllegalArgumentException outOfRange(Object value) {
+    return new IllegalArgumentException(
+        "Value of column " + name + " is out of range for " + type + ": " + value);
+  }
+
+  private IllegalArgumentException mismatch(Object value) {
+    return new IllegalArgumentException("Value of column " + name + " has type "
+        + value.getClass().getName() + ", which cannot be sent as " + type);
+  }
+
+  private static boolean isDecimal(TdsType type) {
+    return type == TdsType.DECIMAL || type == TdsType.DECIMALN
+        || type == TdsType.NUMERIC || type == TdsType.NUMERICN;
+  }
+}
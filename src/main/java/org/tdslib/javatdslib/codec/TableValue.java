@@ -0,0 +1,80 @@
+package org.tdslib.javatdslib.codec;
+
+import org.tdslib.javatdslib.protocol.TdsType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The value of a table-valued parameter: rows of a user-defined table type. Bind it like any
+ * other value; it is declared as {@code <typeName> READONLY}.
+ *
+ * <p>The rows are read lazily while the request is encoded and streamed straight into the
+ * outbound packets, so an {@link Iterable} backed by a cursor or a generator never has to be
+ * materialized. Columns must be added in the order of the table type.
+ */
+public final class TableValue {
+
+  private final String typeName;
+  private final Iterable<Object[]> rows;
+  private final List<TableColumn> columns = new ArrayList<>();
+
+  /**
+   * Constructs a new TableValue.
+   *
+   * @param typeName The table type, optionally schema-qualified (e.g. {@code dbo.IdList}).
+   * @param rows     The rows, each holding one value per column.
+   * @throws IllegalArgumentException if the type name includes a database.
+   */
+  public TableValue(String typeName, Iterable<Object[]> rows) {
+    TableValueEncoder.splitTypeName(typeName);
+    this.typeName = typeName;
+    this.rows = rows;
+  }
+
+  /**
+   * Adds the next column of the table type.
+   *
+   * @param name The column name.
+   * @param type The TDS type to send the values as.
+   * @return This table value.
+   */
+  public TableValue column(String name, TdsType type) {
+    return column(name, type, 0);
+  }
+
+  /**
+   * Adds the next column of the table type, with a scale for DECIMAL and NUMERIC values.
+   *
+   * @param name  The column name.
+   * @param type  The TDS type to send the values as.
+   * @param scale The decimal scale.
+   * @return This table value.
+   */
+  public TableValue column(String name, TdsType type, int scale) {
+    columns.add(new TableColumn(name, type, scale));
+    return this;
+  }
+
+  /**
+   * Returns the table type name as given.
+   */
+  public String getTypeName() {
+    return typeName;
+  }
+
+  /**
+   * Returns the columns, in table type order.
+   */
+  public List<TableColumn> getColumns() {
+    return Collections.unmodifiableList(columns);
+  }
+
+  /**
+   * Returns the rows.
+   */
+  public Iterable<Object[]> getRows() {
+    return rows;
+  }
+}
@@ -0,0 +1,134 @@
+package org.tdslib.javatdslib.codec;
+
+import org.tdslib.javatdslib.packets.TdsPacketWriter;
+import org.tdslib.javatdslib.protocol.TdsParameter;
+import org.tdslib.javatdslib.protocol.TdsType;
+import org.tdslib.javatdslib.protocol.rpc.ParameterEncoder;
+import org.tdslib.javatdslib.protocol.rpc.RpcEncodingContext;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Codec for encoding {@link TableValue}s as table-valued parameters (TVP, 0xF3).
+ *
+ * <p>TYPE_INFO is the type byte and the three-part table type name. The value is the
+ * TVP_COLMETADATA (one entry per column, with the column's shared TYPE_INFO and an empty name),
+ * an end token, then one row token per row followed by its values in TYPE_VARBYTE form, and a
+ * final end token. Column values are written by the codecs of their types through
+ * {@link TableColumn}. When writing to a packet stream the rows are pulled from the iterable
+ * one at a time and encoded straight into the packets.
+ */
+public class TableValueEncoder implements ParameterEncoder {
+
+  private static final byte TVP_ROW_TOKEN = 0x01;
+  private static final byte TVP_END_TOKEN = 0x00;
+  // TVP_COLMETADATA flags: nullable
+  private static final short COLUMN_FLAGS = 0x0001;
+
+  @Override
+  public boolean canEncode(TdsParameter entry) {
+    return entry.type() == TdsType.TVP;
+  }
+
+  @Override
+  public String getSqlTypeDeclaration(TdsParameter entry) {
+    return tableValue(entry).getTypeName() + " READONLY";
+  }
+
+  @Override
+  public void writeTypeInfo(ByteBuffer buf, TdsParameter entry, RpcEncodingContext context) {
+    buf.put((byte) TdsType.TVP.byteVal);
+    String[] parts = splitTypeName(tableValue(entry).getTypeName());
+    for (String part : parts) {
+      buf.put((byte) part.length());
+      buf.put(part.getBytes(StandardCharsets.UTF_16LE));
+    }
+  }
+
+  @Override
+  public void writeValue(ByteBuffer buf, TdsParameter entry, RpcEncodingContext context) {
+    TableValue table = tableValue(entry);
+    writeColumnMetadata(buf, table.getColumns(), context);
+    List<TableColumn> columns = table.getColumns();
+    for (Object[] row : table.getRows()) {
+      checkWidth(row, columns);
+      buf.put(TVP_ROW_TOKEN);
+      for (int i = 0; i < row.length; i++) {
+        TableColumn column = columns.get(i);
+        column.writeValue(buf, column.coerce(row[i]), context);
+      }
+    }
+    buf.put(TVP_END_TOKEN);
+  }
+
+  @Override
+  public void encode(TdsPacketWriter writer, TdsParameter entry, RpcEncodingContext context) {
+    TableValue table = tableValue(entry);
+    List<TableColumn> columns = table.getColumns();
+    writer.putEncoded(buf -> {
+      writeTypeInfo(buf, entry, context);
+      writeColumnMetadata(buf, columns, context);
+    });
+    for (Object[] row : table.getRows()) {
+      checkWidth(row, columns);
+      writer.put(TVP_ROW_TOKEN);
+      for (int i = 0; i < row.length; i++) {
+        TableColumn column = columns.get(i);
+        Object value = column.coerce(row[i]);
+        writer.putEncoded(buf -> column.writeValue(buf, value, context));
+      }
+    }
+    writer.put(TVP_END_TOKEN);
+  }
+
+  private void writeColumnMetadata(
+      ByteBuffer buf, List<TableColumn> columns, RpcEncodingContext context) {
+    buf.putShort((short) columns.size());
+    for (TableColumn column : columns) {
+      buf.putInt(0); // UserType
+      buf.putShort(COLUMN_FLAGS);
+      column.writeTypeInfo(buf, context);
+      buf.put((byte) 0); // Column names must be empty
+    }
+    buf.put(TVP_END_TOKEN); // No optional metadata
+  }
+
+  private static void checkWidth(Object[] row, List<TableColumn> columns) {
+    if (row.length != columns.size()) {
+      throw new IllegalArgumentException(
+          "Expected " + columns.size() + " values per row but got " + row.length);
+    }
+  }
+
+  private static TableValue tableValue(TdsParameter entry) {
+    if (!(entry.value() instanceof TableValue table)) {
+      throw new IllegalArgumentException(
+          "Table-valued parameter " + entry.name() + " requires a TableValue");
+    }
+    return table;
+  }
+
+  /**
+   * Splits {@code [schema.]name} into the TVP_TYPENAME parts: database, schema and type name.
+   * The database part must be empty on the wire, so three-part names are rejected; the schema
+   * may be empty. Square brackets around a part are removed.
+   */
+  static String[] splitTypeName(String typeName) {
+    String[] given = typeName.split("\\.");
+    if (given.length > 2) {
+      throw new IllegalArgumentException("Table type name " + typeName
+          + " must not name a database; use [schema.]name");
+    }
+    String[] parts = {"", "", ""};
+    for (int i = 0; i < given.length; i++) {
+      String part = given[i];
+      if (part.startsWith("[") && part.endsWith("]")) {
+        part = part.substring(1, part.length() - 1);
+      }
+      parts[3 - given.length + i] = part;
+    }
+    return parts;
+  }
+}
@@ -22,35 +22,51 @@ public class HandshakeOrchestrator {
    * @param transport the transport layer
    * @param context the connection context
    * @param sslContext the SSL context for encryption
+   * @param encrypt whether to request full-session encryption
+   * @param mars whether to request MARS
    * @param hostname the server hostname
    * @param username the login username
    * @param password the login password
    * @param database the initial database
+   * @param packetSize the packet size to request at login
    * @throws Exception if the handshake fails
    */
   public void performHandshake(
       TdsTransport transport,
       ConnectionContext context,
       SSLContext sslContext,
+      boolean encrypt,
+      boolean mars,
       String hostname,
       String username,
       String password,
-      String database)
+      String database,
+      int packetSize)
       throws Exception {
 
     // 1. Pre-Login
-    PreLoginResponse preLoginResponse = preLoginPhase.execute(transport);
+    PreLoginResponse preLoginResponse = preLoginPhase.execute(transport, encrypt, mars);
     context.setPacketSize(preLoginResponse.getNegotiatedPacketSize());
 
     // 2. Encryption Toggle
+    // ENCRYPT_OFF (0x00): login only. ENCRYPT_ON/ENCRYPT_REQ (0x01/0x03): the whole session.
+    // ENCRYPT_NOT_SUP (0x02): plaintext throughout.
     int serverEncryption = preLoginResponse.getEncryption();
-    if (serverEncryption == 0x00 || serverEncryption == 0x01) {
-      transport.tlsHandshake(sslContext);
+    boolean fullSession = preLoginResponse.requiresEncryption();
+    boolean loginOnly = serverEncryption == 0x00;
+    if (encrypt && !fullSession) {
+      throw new SecurityException(
+          "Encryption was requested but the server does not support full-session encryption");
+    }
+    if (fullSession || loginOnly) {
+      logger.debug("Negotiating TLS ({} encryption)", fullSession ? "full-session" : "login-only");
+      transport.tlsHandshake(sslContext, fullSession);
     }
 
     // 3. Login7 Auth
     LoginVisitor loginVisitor =
-        login7Phase.execute(transport, context, hostname, username, password, database);
+        login7Phase.execute(
+            transport, context, hostname, username, password, database, packetSize);
 
     if (!loginVisitor.isSuccess()) {
       throw new SecurityException(
@@ -58,6 +74,16 @@ public class HandshakeOrchestrator {
               ? loginVisitor.getErrorMessage()
               : "Login Failed");
     }
-    transport.tlsComplete();
+    context.captureSessionDefaults();
+    if (loginOnly) {
+      transport.tlsComplete();
+    }
+
+    // 4. MARS: SMP framing starts with the first message after login
+    if (mars && preLoginResponse.isMarsEnabled()) {
+      transport.enableMars();
+    } else if (mars) {
+      logger.warn("Server declined MARS; requests on this connection will be serialized");
+    }
   }
 }
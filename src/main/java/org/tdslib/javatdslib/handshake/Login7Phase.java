@@ -32,15 +32,18 @@ public class Login7Phase {
    * @param username  the login username
    * @param password  the login password
    * @param database  the initial database
+   * @param packetSize the packet size to request
    * @return the LoginVisitor containing the result of the login attempt
    * @throws Exception if an error occurs during the login process
    */
   public LoginVisitor execute(TdsTransport transport, ConnectionContext context,
-                              String hostname, String username, String password, String database)
+                              String hostname, String username, String password, String database,
+                              int packetSize)
       throws Exception {
     logger.debug("Starting Login7 phase");
 
     Login7Options l7Opts = new Login7Options();
+    l7Opts.setPacketSize(packetSize);
     Login7Payload login7Payload = new Login7Payload(l7Opts);
     login7Payload.hostname = hostname;
     login7Payload.database = database;
@@ -10,7 +10,6 @@ import org.tdslib.javatdslib.transport.TdsTransport;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -29,8 +28,34 @@ public class PreLoginPhase {
    * @throws Exception If an I/O or protocol error occurs.
    */
   public PreLoginResponse execute(TdsTransport transport) throws Exception {
-    logger.debug("Starting Pre-Login phase");
-    PreLoginPayload preLoginPayload = new PreLoginPayload(false);
+    return execute(transport, false);
+  }
+
+  /**
+   * Executes the Pre-Login handshake with the SQL Server.
+   *
+   * @param transport The TDS transport layer for sending/receiving messages.
+   * @param encrypt   true to request ENCRYPT_ON (full-session TLS), false for ENCRYPT_OFF.
+   * @return The parsed PreLoginResponse from the server.
+   * @throws Exception If an I/O or protocol error occurs.
+   */
+  public PreLoginResponse execute(TdsTransport transport, boolean encrypt) throws Exception {
+    return execute(transport, encrypt, false);
+  }
+
+  /**
+   * Executes the Pre-Login handshake with the SQL Server.
+   *
+   * @param transport The TDS transport layer for sending/receiving messages.
+   * @param encrypt   true to request ENCRYPT_ON (full-session TLS), false for ENCRYPT_OFF.
+   * @param mars      true to request MARS.
+   * @return The parsed PreLoginResponse from the server.
+   * @throws Exception If an I/O or protocol error occurs.
+   */
+  public PreLoginResponse execute(TdsTransport transport, boolean encrypt, boolean mars)
+      throws Exception {
+    logger.debug("Starting Pre-Login phase (encrypt={}, mars={})", encrypt, mars);
+    PreLoginPayload preLoginPayload = new PreLoginPayload(encrypt, mars);
 
     TdsMessage preLoginMsg = TdsMessage.createRequest(
         PacketType.PRE_LOGIN,
@@ -83,20 +108,14 @@ public class PreLoginPhase {
             logger.debug("Received THREADID option in Pre-Login response.");
             break;
 
-          case 0x04: // PACKETSIZE
-            int psLen = combined.get() & 0xFF;
-            byte[] psBytes = new byte[psLen];
-            combined.get(psBytes);
-            try {
-              String psString = new String(psBytes, StandardCharsets.US_ASCII);
-              response.setNegotiatedPacketSize(Integer.parseInt(psString));
-            } catch (NumberFormatException e) {
-              logger.error("Failed to parse negotiated packet size");
+          case 0x04: // MARS
+            if (length == 1) {
+              response.setMars(combined.get() == 0x01);
             }
             break;
 
-          case 0x05: // MARS
-            logger.debug("Received MARS option in Pre-Login response.");
+          case 0x05: // TRACEID
+            logger.debug("Received TRACEID option in Pre-Login response.");
             break;
 
           default:
@@ -24,23 +24,33 @@ public class AllHeaders {
    * Builds the ALL_HEADERS bytes (ready to prepend before SQL text).
    */
   public byte[] toBytes() {
+    ByteBuffer buffer = ByteBuffer.allocate(getTotalLength());
+    write(buffer);
+    return buffer.array();
+  }
+
+  /**
+   * Returns the encoded size of ALL_HEADERS, including the TotalLength DWORD itself.
+   */
+  public int getTotalLength() {
     int dataLength = 0;
     for (TdsHeader h : headers) {
       dataLength += h.getLength();
     }
+    return 4 + dataLength;  // TotalLength DWORD + headers
+  }
 
-    int totalLength = 4 + dataLength;  // TotalLength DWORD + headers
-
-    ByteBuffer buffer = ByteBuffer.allocate(totalLength);
+  /**
+   * Writes the ALL_HEADERS block into the buffer (little-endian), e.g. straight into an
+   * outbound packet.
+   */
+  public void write(ByteBuffer buffer) {
     buffer.order(ByteOrder.LITTLE_ENDIAN);
-
-    buffer.putInt(totalLength);  // TotalLength (includes itself)
+    buffer.putInt(getTotalLength());  // TotalLength (includes itself)
 
     for (TdsHeader h : headers) {
       h.write(buffer);
     }
-
-    return buffer.array();
   }
 
   /**
@@ -0,0 +1,185 @@
+package org.tdslib.javatdslib.impl;
+
+import org.tdslib.javatdslib.reactive.TdsTokenQueue;
+import org.tdslib.javatdslib.tokens.ColumnData;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Push-driven reader for the chunks of one streamed LOB column, shared by {@link TdsBlob} and
+ * {@link TdsClob}.
+ *
+ * <p>While a LOB is open the row's worker is paused and this reader is the queue's consumer.
+ * It drains as far as demand and the queue allow; when the queue runs dry it registers a
+ * one-shot {@link TdsTokenQueue#whenAvailable} callback and returns, and the producer's next
+ * flush reschedules the drain. Drains run on {@link Schedulers#parallel()} so subscriber code
+ * never executes on the event loop. A work-in-progress counter keeps exactly one drain active.
+ */
+final class LobChunkReader {
+
+  /**
+   * Receives the chunks of the column.
+   */
+  interface Listener {
+    /**
+     * Delivers one chunk.
+     *
+     * @param chunk The chunk.
+     * @return true if something was emitted downstream, which consumes one unit of demand.
+     */
+    boolean onChunk(ColumnData chunk);
+
+    /**
+     * Called once the column boundary is reached.
+     */
+    void onComplete();
+  }
+
+  private static final Scheduler DRAIN_SCHEDULER = Schedulers.parallel();
+
+  private final TdsTokenQueue tokenQueue;
+  private final int columnIndex;
+  private final Runnable rowUnlockCallback;
+  private final Runnable wakeup = this::scheduleDrain;
+
+  private final AtomicLong demand = new AtomicLong();
+  private final AtomicInteger wip = new AtomicInteger();
+  private final AtomicReference<Runnable> onDiscarded = new AtomicReference<>();
+
+  private volatile Listener listener;
+  private volatile boolean discarding;
+  private volatile boolean finished;
+
+  // Drain only
+  private ColumnData firstChunk;
+
+  LobChunkReader(
+      TdsTokenQueue tokenQueue, int columnIndex, ColumnData firstChunk,
+      Runnable rowUnlockCallback) {
+    this.tokenQueue = tokenQueue;
+    this.columnIndex = columnIndex;
+    this.firstChunk = firstChunk;
+    this.rowUnlockCallback = rowUnlockCallback;
+  }
+
+  /**
+   * Attaches the downstream listener.
+   *
+   * @param listener The listener.
+   * @return false if the column was already consumed or discarded.
+   */
+  boolean start(Listener listener) {
+    if (finished || discarding) {
+      return false;
+    }
+    this.listener = listener;
+    return true;
+  }
+
+  /**
+   * Adds demand and drains.
+   *
+   * @param n The number of additional chunks requested.
+   */
+  void request(long n) {
+    if (Operators.validate(n)) {
+      demand.accumulateAndGet(n, Operators::addCap);
+      drain();
+    }
+  }
+
+  /**
+   * Drops the remaining chunks of the column without emitting them.
+   *
+   * @param onDiscarded Called once the boundary is reached (immediately if it already was).
+   */
+  void discard(Runnable onDiscarded) {
+    this.onDiscarded.set(onDiscarded);
+    this.discarding = true;
+    if (finished) {
+      runDiscarded();
+    } else {
+      drain();
+    }
+  }
+
+  private void scheduleDrain() {
+    DRAIN_SCHEDULER.schedule(this::drain);
+  }
+
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    do {
+      drainLoop();
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private void drainLoop() {
+    while (!finished) {
+      boolean dropping = discarding;
+      Listener target = listener;
+      if (!dropping) {
+        if (target == null || demand.get() == 0) {
+          return;
+        }
+        if (firstChunk != null) {
+          ColumnData chunk = firstChunk;
+          firstChunk = null;
+          if (target.onChunk(chunk)) {
+            produced();
+          }
+          continue;
+        }
+      } else {
+        firstChunk = null;
+      }
+
+      TdsTokenQueue.Event event = tokenQueue.peek();
+      if (event == null) {
+        tokenQueue.whenAvailable(wakeup);
+        return;
+      }
+      if (!event.isColumn(columnIndex)) {
+        // Boundary reached (next column, error, or end of row). Do NOT consume it.
+        finish(dropping, target);
+        return;
+      }
+      ColumnData chunk = tokenQueue.poll().column();
+      if (!dropping && target.onChunk(chunk)) {
+        produced();
+      }
+    }
+  }
+
+  private void produced() {
+    if (demand.get() != Long.MAX_VALUE) {
+      demand.decrementAndGet();
+    }
+  }
+
+  private void finish(boolean dropping, Listener target) {
+    finished = true;
+    rowUnlockCallback.run(); // WAKES UP THE SINK
+    if (!dropping) {
+      target.onComplete();
+    }
+    // A discard may have raced with completion
+    runDiscarded();
+  }
+
+  private void runDiscarded() {
+    Runnable callback = onDiscarded.getAndSet(null);
+    if (callback != null) {
+      callback.run();
+    }
+  }
+}
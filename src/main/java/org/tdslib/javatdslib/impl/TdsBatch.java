@@ -3,17 +3,13 @@ package org.tdslib.javatdslib.impl;
 import io.r2dbc.spi.Batch;
 import io.r2dbc.spi.Result;
 import org.reactivestreams.Publisher;
-import org.tdslib.javatdslib.headers.AllHeaders;
 import org.tdslib.javatdslib.packets.PacketType;
-import org.tdslib.javatdslib.packets.TdsMessage;
 import org.tdslib.javatdslib.protocol.TdsServerErrorException;
 import org.tdslib.javatdslib.reactive.R2dbcErrorTranslator;
 import org.tdslib.javatdslib.transport.ConnectionContext;
 import org.tdslib.javatdslib.transport.TdsTransport;
 import reactor.core.publisher.Flux;
 
-import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -56,8 +52,7 @@ public class TdsBatch implements Batch {
 
     String batchSql = String.join(";\n", statements);
 
-    // FIX: Pass the tracking string as the first argument
-    return transport.execute(headers -> createSqlBatchMessage(batchSql, headers))
+    return transport.execute(PacketType.SQL_BATCH, writer -> writer.putUtf16(batchSql))
         .windowUntil(this::isBoundarySegment)
         .map(TdsResult::new)
         .onErrorMap(TdsServerErrorException.class, R2dbcErrorTranslator::translateException);
@@ -71,10 +66,4 @@ public class TdsBatch implements Batch {
     return segment instanceof TdsUpdateCount
         || segment instanceof Result.OutSegment;
   }
-
-  private TdsMessage createSqlBatchMessage(String sql, AllHeaders headers) {
-    byte[] sqlBytes = sql.getBytes(StandardCharsets.UTF_16LE);
-    ByteBuffer payload = ByteBuffer.wrap(sqlBytes);
-    return TdsMessage.createWithHeaders(PacketType.SQL_BATCH, headers, payload);
-  }
 }
\ No newline at end of file
@@ -0,0 +1,413 @@
+package org.tdslib.javatdslib.impl;
+
+import io.r2dbc.spi.Result;
+import org.reactivestreams.Publisher;
+import org.tdslib.javatdslib.codec.TableColumn;
+import org.tdslib.javatdslib.packets.PacketType;
+import org.tdslib.javatdslib.packets.TdsPacketWriter;
+import org.tdslib.javatdslib.protocol.TdsServerErrorException;
+import org.tdslib.javatdslib.protocol.TdsType;
+import org.tdslib.javatdslib.protocol.rpc.RpcEncodingContext;
+import org.tdslib.javatdslib.reactive.R2dbcErrorTranslator;
+import org.tdslib.javatdslib.tokens.TokenType;
+import org.tdslib.javatdslib.transport.ConnectionContext;
+import org.tdslib.javatdslib.transport.TdsTransport;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Bulk copy of rows into a table over the TDS BULK_LOAD protocol.
+ *
+ * <p>Each batch of rows is one {@code INSERT BULK} statement with the column and option hints,
+ * followed by a BULK_LOAD message holding a COLMETADATA token, one ROW token per row, and a
+ * DONE token. Values are written with the same parameter encoders as RPC parameters, so
+ * the wire format of every type matches what the RPC path sends. Rows are pulled from the
+ * source publisher one batch at a time, and the next batch is only collected while the current
+ * one is being sent, so memory stays bounded by the batch size.
+ *
+ * <p>Every batch is committed on its own unless the connection has an open transaction. The
+ * connection must not run other requests while a copy is in progress.
+ */
+public class TdsBulkCopy {
+
+  /** Rows per INSERT BULK batch unless configured otherwise. */
+  public static final int DEFAULT_BATCH_SIZE = 10_000;
+
+  // COLMETADATA flags: nullable, updateable
+  private static final short COLUMN_FLAGS = 0x0009;
+
+  private final TdsTransport transport;
+  private final ConnectionContext context;
+  private final String table;
+  private final List<TableColumn> columns = new ArrayList<>();
+  private final List<String> orderHints = new ArrayList<>();
+  private boolean tableLock;
+  private boolean checkConstraints;
+  private boolean fireTriggers;
+  private int batchSize = DEFAULT_BATCH_SIZE;
+  private Duration timeout;
+  private LongConsumer batchListener;
+
+  /**
+   * Constructs a new TdsBulkCopy.
+   *
+   * @param transport The TDS transport.
+   * @param context   The connection context.
+   * @param table     The target table, as it would appear in an INSERT statement.
+   */
+  public TdsBulkCopy(TdsTransport transport, ConnectionContext context, String table) {
+    this.transport = transport;
+    this.context = context;
+    this.table = table;
+  }
+
+  /**
+   * Adds the next column of the source rows.
+   *
+   * @param name The target column name.
+   * @param type The TDS type to send the values as.
+   * @return This bulk copy.
+   */
+  public TdsBulkCopy column(String name, TdsType type) {
+    return column(name, type, 0);
+  }
+
+  /**
+   * Adds the next column of the source rows, with a scale for DECIMAL and NUMERIC values.
+   * Values are rounded half up to the scale.
+   *
+   * @param name  The target column name.
+   * @param type  The TDS type to send the values as.
+   * @param scale The decimal scale.
+   * @return This bulk copy.
+   */
+  public TdsBulkCopy column(String name, TdsType type, int scale) {
+    columns.add(new TableColumn(name, type, scale));
+    return this;
+  }
+
+  /**
+   * Takes a table lock for the duration of each batch (TABLOCK).
+   *
+   * @param tableLock true to lock the table.
+   * @return This bulk copy.
+   */
+  public TdsBulkCopy tableLock(boolean tableLock) {
+    this.tableLock = tableLock;
+    return this;
+  }
+
+  /**
+   * Checks constraints on the target table while loading (CHECK_CONSTRAINTS).
+   *
+   * @param checkConstraints true to check constraints.
+   * @return This bulk copy.
+   */
+  public TdsBulkCopy checkConstraints(boolean checkConstraints) {
+    this.checkConstraints = checkConstraints;
+    return this;
+  }
+
+  /**
+   * Runs insert triggers on the target table (FIRE_TRIGGERS).
+   *
+   * @param fireTriggers true to fire triggers.
+   * @return This bulk copy.
+   */
+  public TdsBulkCopy fireTriggers(boolean fireTriggers) {
+    this.fireTriggers = fireTriggers;
+    return this;
+  }
+
+  /**
+   * Declares that the rows arrive sorted by a column (ORDER hint), which lets the server skip
+   * sorting when loading into a clustered index.
+   *
+   * @param name       The column name.
+   * @param descending true for descending order.
+   * @return This bulk copy.
+   */
+  public TdsBulkCopy orderBy(String name, boolean descending) {
+    orderHints.add(quote(name) + (descending ? " DESC" : " ASC"));
+    return this;
+  }
+
+  /**
+   * Sets how many rows go into each INSERT BULK batch.
+   *
+   * @param batchSize The rows per batch.
+   * @return This bulk copy.
+   */
+  public TdsBulkCopy batchSize(int batchSize) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    this.batchSize = batchSize;
+    return this;
+  }
+
+  /**
+   * Overrides the connection's statement timeout for each batch.
+   *
+   * @param timeout The timeout; {@link Duration#ZERO} disables it.
+   * @return This bulk copy.
+   */
+  public TdsBulkCopy timeout(Duration timeout) {
+    if (timeout == null || timeout.isNegative()) {
+      throw new IllegalArgumentException("Statement timeout must be zero or positive");
+    }
+    this.timeout = timeout;
+    return this;
+  }
+
+  /**
+   * Registers a listener called with the row count of each batch once the server has
+   * committed it, for progress reporting.
+   *
+   * @param listener The listener.
+   * @return This bulk copy.
+   */
+  public TdsBulkCopy onBatch(LongConsumer listener) {
+    this.batchListener = listener;
+    return this;
+  }
+
+  /**
+   * Copies the rows. Each row holds one value per column, in column order; null values are
+   * sent as NULL.
+   *
+   * @param rows The rows to copy.
+   * @return The number of rows copied.
+   */
+  public Mono<Long> write(Publisher<Object[]> rows) {
+    if (columns.isEmpty()) {
+      return Mono.error(new IllegalStateException("No columns were added to the bulk copy"));
+    }
+    String insertBulk = buildInsertBulk();
+    return Flux.from(rows)
+        .buffer(batchSize)
+        .concatMap(batch -> writeBatch(insertBulk, batch), 1)
+        .reduce(0L, Long::sum)
+        .onErrorMap(TdsServerErrorException.class, R2dbcErrorTranslator::translateException);
+  }
+
+  private Mono<Long> writeBatch(String insertBulk, List<Object[]> batch) {
+    List<Object[]> values;
+    try {
+      values = coerceRows(batch);
+    } catch (IllegalArgumentException e) {
+      return Mono.error(e);
+    }
+    return sendBatch(insertBulk, writer -> writeLoad(writer, encodingContext(), values));
+  }
+
+  /**
+   * Converts and checks every value of a batch, so that a bad value fails the batch before any
+   * of it goes on the wire. The caller's arrays are not modified.
+   *
+   * @throws IllegalArgumentException if a row has the wrong width or a value does not fit its
+   *     column.
+   */
+  List<Object[]> coerceRows(List<Object[]> batch) {
+    List<Object[]> values = new ArrayList<>(batch.size());
+    for (Object[] row : batch) {
+      if (row.length != columns.size()) {
+        throw new IllegalArgumentException(
+            "Expected " + columns.size() + " values per row but got " + row.length);
+      }
+      Object[] coerced = new Object[row.length];
+      for (int i = 0; i < row.length; i++) {
+        coerced[i] = columns.get(i).coerce(row[i]);
+      }
+      values.add(coerced);
+    }
+    return values;
+  }
+
+  /**
+   * Copies rows that were already encoded as ROW tokens, in the column layout of this bulk copy.
+   * Chunks are grouped into batches of at least the batch size; a chunk is never split. Each
+   * chunk is released as soon as its rows have been copied into the outbound packets.
+   *
+   * @param chunks The encoded rows.
+   * @return The number of rows copied.
+   */
+  Mono<Long> writeEncoded(Publisher<EncodedRows> chunks) {
+    if (columns.isEmpty()) {
+      return Mono.error(new IllegalStateException("No columns were added to the bulk copy"));
+    }
+    String insertBulk = buildInsertBulk();
+    return Flux.defer(() -> {
+      long[] pending = new long[1];
+      return Flux.from(chunks)
+          .bufferUntil(chunk -> {
+            pending[0] += chunk.count();
+            if (pending[0] < batchSize) {
+              return false;
+            }
+            pending[0] = 0;
+            return true;
+          });
+    })
+        .concatMap(batch -> sendBatch(insertBulk, writer -> {
+          writeColumnMetadata(writer, encodingContext());
+          for (EncodedRows chunk : batch) {
+            writer.put(chunk.rows().duplicate());
+            chunk.release();
+          }
+          writeDone(writer);
+        }), 1)
+        .reduce(0L, Long::sum)
+        .onErrorMap(TdsServerErrorException.class, R2dbcErrorTranslator::translateException);
+  }
+
+  /**
+   * Sends one batch: the INSERT BULK statement, then the BULK_LOAD message written by
+   * {@code bodyWriter}.
+   */
+  private Mono<Long> sendBatch(String insertBulk, Consumer<TdsPacketWriter> bodyWriter) {
+    Flux<Result.Segment> load = transport.executeBulkLoad(timeout, bodyWriter);
+    return transport.execute(PacketType.SQL_BATCH, timeout, writer -> writer.putUtf16(insertBulk))
+        .thenMany(load)
+        .ofType(TdsUpdateCount.class)
+        .reduce(0L, (total, count) -> total + count.value())
+        .doOnNext(count -> {
+          if (batchListener != null) {
+            batchListener.accept(count);
+          }
+        });
+  }
+
+  /**
+   * Returns the columns added so far.
+   */
+  List<TableColumn> columns() {
+    return Collections.unmodifiableList(columns);
+  }
+
+  /**
+   * Returns the context values are encoded with on this connection.
+   */
+  RpcEncodingContext encodingContext() {
+    return new RpcEncodingContext(context.getVarcharCharset(), context.getCurrentCollationBytes());
+  }
+
+  /**
+   * Builds the statement that announces the bulk load, e.g.
+   * {@code INSERT BULK t ([id] int, [name] nvarchar(4000)) WITH (TABLOCK, ORDER([id] ASC))}.
+   */
+  String buildInsertBulk() {
+    StringBuilder sql = new StringBuilder("INSERT BULK ").append(table).append(" (");
+    for (int i = 0; i < columns.size(); i++) {
+      TableColumn column = columns.get(i);
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append(quote(column.name())).append(' ').append(column.sqlTypeDeclaration());
+    }
+    sql.append(')');
+
+    List<String> hints = new ArrayList<>();
+    if (tableLock) {
+      hints.add("TABLOCK");
+    }
+    if (checkConstraints) {
+      hints.add("CHECK_CONSTRAINTS");
+    }
+    if (fireTriggers) {
+      hints.add("FIRE_TRIGGERS");
+    }
+    if (!orderHints.isEmpty()) {
+      hints.add("ORDER(" + String.join(", ", orderHints) + ")");
+    }
+    if (!hints.isEmpty()) {
+      sql.append(" WITH (").append(String.join(", ", hints)).append(')');
+    }
+    return sql.toString();
+  }
+
+  /**
+   * Writes the BULK_LOAD token stream for one batch of coerced rows: COLMETADATA, the ROW
+   * tokens, then DONE.
+   */
+  void writeLoad(TdsPacketWriter writer, RpcEncodingContext encodingContext, List<Object[]> rows) {
+    writeColumnMetadata(writer, encodingContext);
+    writeRows(writer, encodingContext, rows);
+    writeDone(writer);
+  }
+
+  private void writeColumnMetadata(TdsPacketWriter writer, RpcEncodingContext encodingContext) {
+    writer.put(TokenType.COL_METADATA.getValue());
+    writer.putShort((short) columns.size());
+    for (TableColumn column : columns) {
+      writer.putInt(0); // UserType
+      writer.putShort(COLUMN_FLAGS);
+      writer.putEncoded(buf -> column.writeTypeInfo(buf, encodingContext));
+      writer.put((byte) column.name().length());
+      writer.putUtf16(column.name());
+    }
+  }
+
+  private void writeRows(TdsPacketWriter writer, RpcEncodingContext encodingContext,
+                         List<Object[]> batch) {
+    for (Object[] row : batch) {
+      writer.put(TokenType.ROW.getValue());
+      for (int i = 0; i < row.length; i++) {
+        TableColumn column = columns.get(i);
+        Object value = row[i];
+        writer.putEncoded(buf -> column.writeValue(buf, value, encodingContext));
+      }
+    }
+  }
+
+  private static void writeDone(TdsPacketWriter writer) {
+    writer.put(TokenType.DONE.getValue());
+    writer.putShort((short) 0); // Status
+    writer.putShort((short) 0); // CurCmd
+    writer.putLong(0);          // DoneRowCount
+  }
+
+  /**
+   * Creates a loader that copies a delimited text file through this bulk copy.
+   *
+   * @return A new loader using this bulk copy's columns and options.
+   */
+  public TdsCsvLoader csvLoader() {
+    return new TdsCsvLoader(this);
+  }
+
+  private static String quote(String identifier) {
+    return "[" + identifier.replace("]", "]]") + "]";
+  }
+
+  /**
+   * A run of encoded ROW tokens.
+   *
+   * @param rows     The ROW tokens, between position and limit.
+   * @param count    The number of rows.
+   * @param recycler Takes the buffer back once the rows have been copied out, or null.
+   */
+  record EncodedRows(ByteBuffer rows, int count, Runnable recycler) {
+
+    EncodedRows(ByteBuffer rows, int count) {
+      this(rows, count, null);
+    }
+
+    /**
+     * Hands the buffer back to its owner; the rows must not be read afterwards.
+     */
+    void release() {
+      if (recycler != null) {
+        recycler.run();
+      }
+    }
+  }
+}
@@ -3,34 +3,24 @@ package org.tdslib.javatdslib.impl;
 import io.r2dbc.spi.Clob;
 import org.reactivestreams.Publisher;
 import org.tdslib.javatdslib.reactive.TdsTokenQueue;
-import org.tdslib.javatdslib.reactive.events.ColumnEvent;
-import org.tdslib.javatdslib.reactive.events.TdsStreamEvent;
 import org.tdslib.javatdslib.tokens.ColumnData;
 import org.tdslib.javatdslib.tokens.CompleteDataColumn;
 import org.tdslib.javatdslib.tokens.PartialDataColumn;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
-import java.util.concurrent.locks.LockSupport;
 
 /**
  * An implementation of the R2DBC {@link Clob} interface, capable of streaming large
  * character payload data directly from the TDS stream.
  */
 public class TdsClob implements Clob {
-  private final TdsTokenQueue tokenQueue;
-  private final int columnIndex;
-  private final Charset charset;
-  private final Runnable rowUnlockCallback;
-
-  private ColumnData firstChunk;
-  private boolean isDiscardedOrCompleted = false;
+  private final LobChunkReader reader;
 
   // Production-ready stateful decoder to handle fragmented multibyte characters
   private final CharsetDecoder decoder;
@@ -48,11 +38,7 @@ public class TdsClob implements Clob {
   public TdsClob(
       TdsTokenQueue tokenQueue, int columnIndex, Charset charset,
       ColumnData firstChunk, Runnable rowUnlockCallback) {
-    this.tokenQueue = tokenQueue;
-    this.columnIndex = columnIndex;
-    this.charset = charset;
-    this.firstChunk = firstChunk;
-    this.rowUnlockCallback = rowUnlockCallback;
+    this.reader = new LobChunkReader(tokenQueue, columnIndex, firstChunk, rowUnlockCallback);
 
     // Initialize stateful decoder
     this.decoder = charset.newDecoder()
@@ -63,90 +49,44 @@ public class TdsClob implements Clob {
   @Override
   public Publisher<CharSequence> stream() {
     return Flux.<CharSequence>create(sink -> {
-      if (isDiscardedOrCompleted) {
-        sink.complete();
-        return;
-      }
-
-      sink.onRequest(n -> {
-        long emitted = 0;
-
-        if (firstChunk != null && emitted < n && !sink.isCancelled()) {
-          String decoded = decodeChunk(extractBytes(firstChunk));
-          if (!decoded.isEmpty()) {
-            sink.next(decoded);
-            emitted++;
+      boolean started = reader.start(new LobChunkReader.Listener() {
+        @Override
+        public boolean onChunk(ColumnData chunk) {
+          String decoded = decodeChunk(extractBytes(chunk));
+          if (decoded.isEmpty()) {
+            return false; // A severed multibyte sequence; wait for the next chunk
           }
-          firstChunk = null;
+          sink.next(decoded);
+          return true;
         }
 
-        while (emitted < n && !sink.isCancelled() && !isDiscardedOrCompleted) {
-          TdsStreamEvent event = tokenQueue.peek();
-
-          if (event == null) {
-            LockSupport.parkNanos(100_000);
-            continue;
-          }
-
-          if (event instanceof ColumnEvent ce && ce.data().getColumnIndex() == columnIndex) {
-            tokenQueue.poll();
-            String decoded = decodeChunk(extractBytes(ce.data()));
-            if (!decoded.isEmpty()) {
-              sink.next(decoded);
-              emitted++;
-            }
-          } else {
-            isDiscardedOrCompleted = true;
-
-            // Flush decoder on final boundary to process any genuinely malformed trailing bytes
-            String finalChars = flushDecoder();
-            if (!finalChars.isEmpty()) {
-              sink.next(finalChars);
-            }
-
-            rowUnlockCallback.run(); // WAKES UP THE SINK
-            sink.complete();
-            break;
+        @Override
+        public void onComplete() {
+          // Flush decoder on final boundary to process any genuinely malformed trailing bytes
+          String finalChars = flushDecoder();
+          if (!finalChars.isEmpty()) {
+            sink.next(finalChars);
           }
+          sink.complete();
         }
       });
+      if (!started) {
+        sink.complete();
+        return;
+      }
 
-      sink.onCancel(this::syncDiscard);
-
-    }).subscribeOn(Schedulers.boundedElastic());
+      // Chunks are pushed as demand and the network allow
+      sink.onRequest(reader::request);
+      sink.onCancel(() -> reader.discard(() -> leftoverBytes = null));
+    });
   }
 
   @Override
   public Publisher<Void> discard() {
-    return Mono.fromRunnable(this::syncDiscard).subscribeOn(Schedulers.boundedElastic()).then();
-  }
-
-  /**
-   * Called either by Publisher.discard(), Cancel, OR forcefully by TdsRow.
-   */
-  public void syncDiscard() {
-    if (isDiscardedOrCompleted) {
-      return;
-    }
-
-    while (true) {
-      TdsStreamEvent event = tokenQueue.peek();
-      if (event == null) {
-        LockSupport.parkNanos(100_000);
-        continue;
-      }
-
-      if (event instanceof ColumnEvent ce && ce.data().getColumnIndex() == columnIndex) {
-        tokenQueue.poll();
-      } else {
-        break;
-      }
-    }
-
-    isDiscardedOrCompleted = true;
-    firstChunk = null;
-    leftoverBytes = null; // Clear state on discard
-    rowUnlockCallback.run(); // WAKES UP THE SINK
+    return Mono.<Void>create(sink -> reader.discard(() -> {
+      leftoverBytes = null; // Clear state on discard
+      sink.success();
+    }));
   }
 
   private byte[] extractBytes(ColumnData data) {
@@ -224,6 +224,16 @@ public class TdsConnection implements Connection {
     return new TdsStatement(this.transport, context, sql);
   }
 
+  /**
+   * Creates a bulk copy into the given table over this connection.
+   *
+   * @param table The target table.
+   * @return A new bulk copy; add its columns before writing.
+   */
+  public TdsBulkCopy createBulkCopy(String table) {
+    return new TdsBulkCopy(this.transport, context, table);
+  }
+
   // --- Unimplemented / Stub Methods below ---
 
   @Override
@@ -262,14 +272,31 @@ public class TdsConnection implements Connection {
         "setAutoCommit is not supported directly via R2DBC SPI"));
   }
 
+  /**
+   * Sets how long statements wait for locks before failing, via {@code SET LOCK_TIMEOUT}.
+   * {@link Duration#ZERO} fails immediately on any lock conflict. The setting lasts until the
+   * session is reset.
+   */
   @Override
   public Publisher<Void> setLockWaitTimeout(Duration timeout) {
-    return Mono.empty();
+    return Mono.defer(() -> {
+      if (timeout == null || timeout.isNegative()) {
+        return Mono.error(new IllegalArgumentException("Lock wait timeout must be zero or positive"));
+      }
+      long millis = Math.min(timeout.toMillis(), Integer.MAX_VALUE);
+      return transport.execute(PacketType.SQL_BATCH,
+          writer -> writer.putUtf16("SET LOCK_TIMEOUT " + millis)).then();
+    });
   }
 
+  /**
+   * Sets the deadline for every statement on this connection. An expired statement is cancelled
+   * with an attention and fails with {@link io.r2dbc.spi.R2dbcTimeoutException}.
+   * {@link Duration#ZERO} disables the timeout.
+   */
   @Override
   public Publisher<Void> setStatementTimeout(Duration timeout) {
-    return Mono.empty();
+    return Mono.fromRunnable(() -> transport.setStatementTimeout(timeout));
   }
 
   @Override
@@ -1,17 +1,23 @@
 package org.tdslib.javatdslib.impl;
 
+import io.r2dbc.spi.Closeable;
 import io.r2dbc.spi.Connection;
 import io.r2dbc.spi.ConnectionFactory;
 import io.r2dbc.spi.ConnectionFactoryMetadata;
 import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.tdslib.javatdslib.handshake.HandshakeOrchestrator;
+import org.tdslib.javatdslib.payloads.login7.Login7Options;
 import org.tdslib.javatdslib.security.SslConfiguration;
 import org.tdslib.javatdslib.security.SslContextBuilder;
 import org.tdslib.javatdslib.transport.ConnectionContext;
 import org.tdslib.javatdslib.transport.DefaultConnectionContext;
+import org.tdslib.javatdslib.transport.PreparedStatementCache;
+import org.tdslib.javatdslib.transport.SocketTuning;
+import org.tdslib.javatdslib.transport.TdsEventLoopGroup;
 import org.tdslib.javatdslib.transport.TdsTransport;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
@@ -19,13 +25,24 @@ import reactor.core.scheduler.Schedulers;
 import javax.net.ssl.SSLContext;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.function.Consumer;
 
 import static io.r2dbc.spi.ConnectionFactoryOptions.CONNECT_TIMEOUT;
 import static io.r2dbc.spi.ConnectionFactoryOptions.DATABASE;
 import static io.r2dbc.spi.ConnectionFactoryOptions.HOST;
 import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
 import static io.r2dbc.spi.ConnectionFactoryOptions.PORT;
+import static io.r2dbc.spi.ConnectionFactoryOptions.STATEMENT_TIMEOUT;
 import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
+import static org.tdslib.javatdslib.api.TdsLibOptions.ENCRYPT;
+import static org.tdslib.javatdslib.api.TdsLibOptions.EVENT_LOOP_THREADS;
+import static org.tdslib.javatdslib.api.TdsLibOptions.MAX_MARS_SESSIONS;
+import static org.tdslib.javatdslib.api.TdsLibOptions.MULTIPLE_ACTIVE_RESULT_SETS;
+import static org.tdslib.javatdslib.api.TdsLibOptions.PACKET_SIZE;
+import static org.tdslib.javatdslib.api.TdsLibOptions.SOCKET_RECEIVE_BUFFER_SIZE;
+import static org.tdslib.javatdslib.api.TdsLibOptions.SOCKET_SEND_BUFFER_SIZE;
+import static org.tdslib.javatdslib.api.TdsLibOptions.STATEMENT_CACHE_SIZE;
+import static org.tdslib.javatdslib.api.TdsLibOptions.TCP_NO_DELAY;
 import static org.tdslib.javatdslib.api.TdsLibOptions.TRUST_SERVER_CERTIFICATE;
 import static org.tdslib.javatdslib.api.TdsLibOptions.TRUST_STORE;
 import static org.tdslib.javatdslib.api.TdsLibOptions.TRUST_STORE_PASSWORD;
@@ -34,11 +51,15 @@ import static org.tdslib.javatdslib.api.TdsLibOptions.TRUST_STORE_PASSWORD;
  * An R2DBC {@link ConnectionFactory} for creating connections to a TDS-based database. This factory
  * uses {@link ConnectionFactoryOptions} to configure connection details such as host, port, user,
  * and password, as well as custom SSL settings.
+ *
+ * <p>Unless {@code eventLoopThreads} is configured, connections share the process-wide
+ * {@link TdsEventLoopGroup}. A factory-specific group is released by {@link #close()}.
  */
-public class TdsConnectionFactory implements ConnectionFactory {
+public class TdsConnectionFactory implements ConnectionFactory, Closeable {
   private static final Logger logger = LoggerFactory.getLogger(TdsConnectionFactory.class);
 
   private final ConnectionFactoryOptions options;
+  private TdsEventLoopGroup ownedEventLoopGroup;
 
   /**
    * Constructs a new TdsConnectionFactory with the specified options.
@@ -61,6 +82,19 @@ public class TdsConnectionFactory implements ConnectionFactory {
       // --- NEW: Extract the CONNECT_TIMEOUT option (Default to 15 seconds) ---
       Duration timeoutOption = (Duration) options.getValue(CONNECT_TIMEOUT);
       int connectTimeoutMs = timeoutOption != null ? (int) timeoutOption.toMillis() : 15_000;
+      boolean encrypt = Boolean.parseBoolean(String.valueOf(options.getValue(ENCRYPT)));
+      boolean mars = Boolean.parseBoolean(
+          String.valueOf(options.getValue(MULTIPLE_ACTIVE_RESULT_SETS)));
+      Object maxMarsSessions = options.getValue(MAX_MARS_SESSIONS);
+      Object statementTimeout = options.getValue(STATEMENT_TIMEOUT);
+      int packetSize = intOption(PACKET_SIZE, Login7Options.DEFAULT_PACKET_SIZE);
+      int statementCacheSize =
+          intOption(STATEMENT_CACHE_SIZE, PreparedStatementCache.DEFAULT_CAPACITY);
+      Object tcpNoDelay = options.getValue(TCP_NO_DELAY);
+      SocketTuning tuning = new SocketTuning(
+          tcpNoDelay == null || Boolean.parseBoolean(String.valueOf(tcpNoDelay)),
+          intOption(SOCKET_SEND_BUFFER_SIZE, 0),
+          intOption(SOCKET_RECEIVE_BUFFER_SIZE, 0));
 
       SslConfiguration sslConfig = new SslConfiguration(
           Boolean.parseBoolean(String.valueOf(options.getValue(TRUST_SERVER_CERTIFICATE))),
@@ -72,11 +106,22 @@ public class TdsConnectionFactory implements ConnectionFactory {
         ConnectionContext context = new DefaultConnectionContext();
 
         // --- NEW: Pass the timeout parameter to the transport ---
-        TdsTransport transport = new TdsTransport(hostname, port, connectTimeoutMs, context);
+        TdsTransport transport = new TdsTransport(
+            hostname, port, connectTimeoutMs, context, eventLoopGroup(), tuning);
+        if (maxMarsSessions != null) {
+          transport.setMaxMarsSessions(Integer.parseInt(String.valueOf(maxMarsSessions)));
+        }
+        transport.setStatementCacheSize(statementCacheSize);
+        if (statementTimeout != null) {
+          transport.setDefaultStatementTimeout(statementTimeout instanceof Duration
+              ? (Duration) statementTimeout
+              : Duration.parse(String.valueOf(statementTimeout)));
+        }
 
         HandshakeOrchestrator orchestrator = new HandshakeOrchestrator();
         orchestrator.performHandshake(
-            transport, context, sslContext, hostname, username, password, database);
+            transport, context, sslContext, encrypt, mars, hostname, username, password, database,
+            packetSize);
 
         transport.enterAsyncMode();
 
@@ -98,6 +143,57 @@ public class TdsConnectionFactory implements ConnectionFactory {
     }).subscribeOn(Schedulers.boundedElastic()); // Crucial for blocking I/O during handshake
   }
 
+  private int intOption(Option<Integer> option, int defaultValue) {
+    Object value = options.getValue(option);
+    return value == null ? defaultValue : Integer.parseInt(String.valueOf(value));
+  }
+
+  /**
+   * Resolves the selector group for new connections, creating the factory-owned group on first
+   * use when {@code eventLoopThreads} is set.
+   */
+  private synchronized TdsEventLoopGroup eventLoopGroup() throws IOException {
+    Object threads = options.getValue(EVENT_LOOP_THREADS);
+    if (threads == null) {
+      return TdsEventLoopGroup.getDefault();
+    }
+    if (ownedEventLoopGroup == null) {
+      ownedEventLoopGroup = new TdsEventLoopGroup(Integer.parseInt(String.valueOf(threads)));
+    }
+    return ownedEventLoopGroup;
+  }
+
+  /**
+   * Creates a bulk copy into the given table that loads over several connections from this
+   * factory.
+   *
+   * @param table      The target table.
+   * @param configurer Adds the columns and options to the bulk copy of each connection.
+   * @return A new parallel bulk copy.
+   */
+  public TdsParallelBulkCopy createParallelBulkCopy(String table,
+                                                    Consumer<TdsBulkCopy> configurer) {
+    return new TdsParallelBulkCopy(this, table, configurer);
+  }
+
+  /**
+   * Shuts down the factory-owned event loop group, if any. Open connections on that group are
+   * closed. The shared default group is unaffected.
+   *
+   * @return A publisher that completes once the group has been signalled to stop.
+   */
+  @Override
+  public Publisher<Void> close() {
+    return Mono.fromRunnable(() -> {
+      synchronized (this) {
+        if (ownedEventLoopGroup != null) {
+          ownedEventLoopGroup.close();
+          ownedEventLoopGroup = null;
+        }
+      }
+    });
+  }
+
   @Override
   public ConnectionFactoryMetadata getMetadata() {
     return () -> "Microsoft SQL Server";
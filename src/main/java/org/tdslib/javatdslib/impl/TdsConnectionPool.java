@@ -0,0 +1,475 @@
+package org.tdslib.javatdslib.impl;
+
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.R2dbcNonTransientResourceException;
+import io.r2dbc.spi.R2dbcTimeoutException;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.tdslib.javatdslib.api.TdsLibOptions.POOL_ACQUIRE_TIMEOUT;
+import static org.tdslib.javatdslib.api.TdsLibOptions.POOL_MAX_CONCURRENT_CONNECTS;
+import static org.tdslib.javatdslib.api.TdsLibOptions.POOL_MAX_IDLE_TIME;
+import static org.tdslib.javatdslib.api.TdsLibOptions.POOL_MAX_LIFETIME;
+import static org.tdslib.javatdslib.api.TdsLibOptions.POOL_MAX_SIZE;
+import static org.tdslib.javatdslib.api.TdsLibOptions.POOL_MIN_IDLE;
+
+/**
+ * A non-blocking connection pool in front of {@link TdsConnectionFactory}.
+ *
+ * <p>Idle connections live on a lock-free LIFO stack, so the most recently used (and warmest)
+ * connection is handed out first. When none is idle, callers wait in a FIFO queue and are served
+ * strictly in arrival order, failing with {@link R2dbcTimeoutException} after the acquire timeout.
+ * New physical connections are opened only while the pool is below its maximum size, and at most
+ * {@code poolMaxConcurrentConnects} handshakes run at once so a burst cannot stampede the server.
+ *
+ * <p>A background task retires connections past their maximum lifetime and closes idle
+ * connections above the minimum idle count. Connections returned to the pool in a transaction
+ * are rolled back first, and the next borrower's first request carries the RESETCONNECTION
+ * status bit so server-side session state is cleared without an extra round trip.
+ */
+public class TdsConnectionPool implements ConnectionFactory, Closeable {
+  private static final Logger logger = LoggerFactory.getLogger(TdsConnectionPool.class);
+
+  private static final Duration DEFAULT_ACQUIRE_TIMEOUT = Duration.ofSeconds(30);
+  private static final Duration DEFAULT_MAX_LIFETIME = Duration.ofMinutes(30);
+  private static final Duration DEFAULT_MAX_IDLE_TIME = Duration.ofMinutes(10);
+  private static final int DEFAULT_MAX_CONCURRENT_CONNECTS = 4;
+  private static final Duration EVICTION_INTERVAL = Duration.ofSeconds(30);
+
+  private final TdsConnectionFactory factory;
+  private final int maxSize;
+  private final int minIdle;
+  private final long acquireTimeoutMs;
+  private final long maxLifetimeNanos;
+  private final long maxIdleNanos;
+  private final int maxConcurrentConnects;
+
+  // Treiber stack of idle connections
+  private final AtomicReference<IdleNode> idleHead = new AtomicReference<>();
+  private final AtomicInteger idleCount = new AtomicInteger();
+  // Connections that exist or are being opened; never exceeds maxSize
+  private final AtomicInteger allocated = new AtomicInteger();
+
+  private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+  private final Queue<Runnable> pendingConnects = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger connectsInFlight = new AtomicInteger();
+
+  private final Disposable evictionTask;
+  private volatile boolean closed;
+
+  /**
+   * Constructs a new TdsConnectionPool with settings read from the pool options.
+   *
+   * @param factory The factory that opens physical connections.
+   * @param options The connection options; see the {@code POOL_*} entries in
+   *                {@link org.tdslib.javatdslib.api.TdsLibOptions}.
+   */
+  public TdsConnectionPool(TdsConnectionFactory factory, ConnectionFactoryOptions options) {
+    this.factory = factory;
+    this.maxSize = Math.max(1, intOption(options.getValue(POOL_MAX_SIZE), 10));
+    this.minIdle = Math.min(maxSize, Math.max(0, intOption(options.getValue(POOL_MIN_IDLE), 0)));
+    this.acquireTimeoutMs =
+        durationOption(options.getValue(POOL_ACQUIRE_TIMEOUT), DEFAULT_ACQUIRE_TIMEOUT).toMillis();
+    this.maxLifetimeNanos =
+        durationOption(options.getValue(POOL_MAX_LIFETIME), DEFAULT_MAX_LIFETIME).toNanos();
+    this.maxIdleNanos =
+        durationOption(options.getValue(POOL_MAX_IDLE_TIME), DEFAULT_MAX_IDLE_TIME).toNanos();
+    this.maxConcurrentConnects = Math.max(1, intOption(
+        options.getValue(POOL_MAX_CONCURRENT_CONNECTS), DEFAULT_MAX_CONCURRENT_CONNECTS));
+
+    this.evictionTask = Schedulers.parallel().schedulePeriodically(this::evict,
+        EVICTION_INTERVAL.toMillis(), EVICTION_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public Publisher<? extends Connection> create() {
+    return Mono.<Connection>create(sink -> {
+      if (closed) {
+        sink.error(new R2dbcNonTransientResourceException("Connection pool is closed"));
+        return;
+      }
+      PooledEntry idle = pollIdle();
+      if (idle != null) {
+        sink.success(new TdsPooledConnection(idle.connection, this, idle));
+        return;
+      }
+
+      Waiter waiter = new Waiter(sink);
+      waiters.offer(waiter);
+      sink.onCancel(waiter::cancel);
+      waiter.timeout = Schedulers.parallel().schedule(() -> {
+        if (waiter.done.compareAndSet(false, true)) {
+          waiters.remove(waiter);
+          sink.error(new R2dbcTimeoutException(
+              "Timed out after " + acquireTimeoutMs + "ms waiting for a pooled connection"));
+        }
+      }, acquireTimeoutMs, TimeUnit.MILLISECONDS);
+
+      if (tryReserve()) {
+        connect();
+      }
+      // An idle connection may have been returned between pollIdle() and offer()
+      dispatch();
+    });
+  }
+
+  /**
+   * Opens connections in parallel until the pool holds {@code poolMinIdle} connections.
+   *
+   * @return A publisher that completes once warm-up has finished.
+   */
+  public Mono<Void> warmup() {
+    int missing = minIdle - allocated.get();
+    if (missing <= 0) {
+      return Mono.empty();
+    }
+    logger.debug("Warming up connection pool with {} connections", missing);
+    return Flux.range(0, missing)
+        .flatMap(i -> tryReserve() ? openInto() : Mono.empty(), maxConcurrentConnects)
+        .then();
+  }
+
+  /**
+   * Returns the number of connections currently idle in the pool.
+   *
+   * @return The idle count.
+   */
+  public int getIdleSize() {
+    return idleCount.get();
+  }
+
+  /**
+   * Returns the number of connections owned by the pool, idle or checked out.
+   *
+   * @return The allocated count.
+   */
+  public int getAllocatedSize() {
+    return allocated.get();
+  }
+
+  @Override
+  public ConnectionFactoryMetadata getMetadata() {
+    return factory.getMetadata();
+  }
+
+  /**
+   * Closes all idle connections, fails pending acquires and stops background eviction.
+   * Connections still checked out are closed when they are returned.
+   *
+   * @return A publisher that completes once the pool has shut down.
+   */
+  @Override
+  public Publisher<Void> close() {
+    return Mono.defer(() -> {
+      closed = true;
+      evictionTask.dispose();
+      Waiter waiter;
+      while ((waiter = waiters.poll()) != null) {
+        waiter.fail(new R2dbcNonTransientResourceException("Connection pool is closed"));
+      }
+      PooledEntry idle;
+      while ((idle = popIdle()) != null) {
+        destroy(idle);
+      }
+      return Mono.from(factory.close());
+    });
+  }
+
+  // ====================================================================================
+  // CHECK-IN / CHECK-OUT
+  // ====================================================================================
+
+  /**
+   * Returns a connection to the pool. Called once per checkout by {@link TdsPooledConnection}.
+   */
+  void release(PooledEntry entry) {
+    // Piggy-backed on the next borrower's first request; costs no round trip
+    entry.connection.getTransport().requestSessionReset(false);
+    offer(entry);
+  }
+
+  private void offer(PooledEntry entry) {
+    if (closed || !isUsable(entry, System.nanoTime())) {
+      destroy(entry);
+      return;
+    }
+    entry.lastUsedNanos = System.nanoTime();
+    pushIdle(entry);
+    dispatch();
+  }
+
+  /**
+   * Hands idle connections to waiters in arrival order until one side runs out.
+   */
+  private void dispatch() {
+    while (!waiters.isEmpty()) {
+      PooledEntry entry = pollIdle();
+      if (entry == null) {
+        return;
+      }
+      if (!handToWaiter(entry)) {
+        pushIdle(entry);
+        return;
+      }
+    }
+  }
+
+  private boolean handToWaiter(PooledEntry entry) {
+    Waiter waiter;
+    while ((waiter = waiters.poll()) != null) {
+      if (waiter.complete(new TdsPooledConnection(entry.connection, this, entry))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private PooledEntry pollIdle() {
+    long now = System.nanoTime();
+    PooledEntry entry;
+    while ((entry = popIdle()) != null) {
+      if (isUsable(entry, now)) {
+        return entry;
+      }
+      destroy(entry);
+    }
+    return null;
+  }
+
+  private boolean isUsable(PooledEntry entry, long now) {
+    return !entry.connection.getTransport().isClosed()
+        && now - entry.createdNanos < maxLifetimeNanos;
+  }
+
+  // ====================================================================================
+  // LOCK-FREE IDLE STACK
+  // ====================================================================================
+
+  private void pushIdle(PooledEntry entry) {
+    IdleNode node = new IdleNode(entry);
+    IdleNode head;
+    do {
+      head = idleHead.get();
+      node.next = head;
+    } while (!idleHead.compareAndSet(head, node));
+    idleCount.incrementAndGet();
+  }
+
+  private PooledEntry popIdle() {
+    IdleNode head;
+    do {
+      head = idleHead.get();
+      if (head == null) {
+        return null;
+      }
+    } while (!idleHead.compareAndSet(head, head.next));
+    idleCount.decrementAndGet();
+    return head.entry;
+  }
+
+  // ====================================================================================
+  // CONNECTION LIFECYCLE
+  // ====================================================================================
+
+  private boolean tryReserve() {
+    int current;
+    do {
+      current = allocated.get();
+      if (current >= maxSize) {
+        return false;
+      }
+    } while (!allocated.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  /**
+   * Opens one connection for the waiter queue, subject to the concurrent-connect limit.
+   */
+  private void connect() {
+    openInto().subscribe(null, error -> {
+      Waiter waiter;
+      while ((waiter = waiters.poll()) != null) {
+        if (waiter.fail(error)) {
+          break;
+        }
+      }
+      // The slot was given back: keep serving waiters that found the pool full
+      if (!closed && !waiters.isEmpty() && tryReserve()) {
+        connect();
+      }
+    });
+  }
+
+  /**
+   * Opens a connection into a reserved slot and offers it to the pool. The slot is given back if
+   * the handshake fails.
+   */
+  private Mono<Void> openInto() {
+    return Mono.<TdsConnection>create(sink -> {
+      pendingConnects.offer(() -> Mono.from(factory.create())
+          .cast(TdsConnection.class)
+          .doFinally(signal -> {
+            connectsInFlight.decrementAndGet();
+            startConnects();
+          })
+          .subscribe(sink::success, sink::error));
+      startConnects();
+    }).doOnNext(connection -> offer(new PooledEntry(connection)))
+        .doOnError(error -> {
+          allocated.decrementAndGet();
+          logger.warn("Pooled connection could not be opened", error);
+        })
+        .then();
+  }
+
+  private void startConnects() {
+    while (!pendingConnects.isEmpty()) {
+      int current = connectsInFlight.get();
+      if (current >= maxConcurrentConnects) {
+        return;
+      }
+      if (!connectsInFlight.compareAndSet(current, current + 1)) {
+        continue;
+      }
+      Runnable task = pendingConnects.poll();
+      if (task == null) {
+        connectsInFlight.decrementAndGet();
+        return;
+      }
+      task.run();
+    }
+  }
+
+  private void destroy(PooledEntry entry) {
+    allocated.decrementAndGet();
+    Mono.from(entry.connection.close())
+        .subscribe(null, error -> logger.debug("Error closing pooled connection", error));
+    // A slot opened up: serve anyone still waiting
+    if (!closed && !waiters.isEmpty() && tryReserve()) {
+      connect();
+    }
+  }
+
+  /**
+   * Retires expired and surplus idle connections, then tops the pool back up to its minimum.
+   */
+  private void evict() {
+    if (closed) {
+      return;
+    }
+    long now = System.nanoTime();
+    List<PooledEntry> keep = new ArrayList<>();
+    PooledEntry entry;
+    while ((entry = popIdle()) != null) {
+      boolean surplus = allocated.get() > minIdle && now - entry.lastUsedNanos > maxIdleNanos;
+      if (!isUsable(entry, now) || surplus) {
+        destroy(entry);
+      } else {
+        keep.add(entry);
+      }
+    }
+    // Push back oldest first so the most recently used stays on top
+    for (int i = keep.size() - 1; i >= 0; i--) {
+      pushIdle(keep.get(i));
+    }
+    dispatch();
+    warmup().subscribe(null, error -> logger.debug("Pool top-up failed", error));
+  }
+
+  private static int intOption(Object value, int defaultValue) {
+    return value == null ? defaultValue : Integer.parseInt(String.valueOf(value));
+  }
+
+  private static Duration durationOption(Object value, Duration defaultValue) {
+    if (value == null) {
+      return defaultValue;
+    }
+    return value instanceof Duration duration ? duration : Duration.parse(String.valueOf(value));
+  }
+
+  /**
+   * Book-keeping for one physical connection owned by the pool.
+   */
+  static final class PooledEntry {
+    private final TdsConnection connection;
+    private final long createdNanos = System.nanoTime();
+    private volatile long lastUsedNanos = createdNanos;
+
+    PooledEntry(TdsConnection connection) {
+      this.connection = connection;
+    }
+  }
+
+  private static final class IdleNode {
+    private final PooledEntry entry;
+    private IdleNode next;
+
+    IdleNode(PooledEntry entry) {
+      this.entry = entry;
+    }
+  }
+
+  /**
+   * A caller waiting for a connection. Exactly one of complete, fail, cancel or the timeout wins.
+   */
+  private static final class Waiter {
+    private final MonoSink<Connection> sink;
+    private final AtomicBoolean done = new AtomicBoolean(false);
+    private volatile Disposable timeout;
+
+    Waiter(MonoSink<Connection> sink) {
+      this.sink = sink;
+    }
+
+    boolean complete(Connection connection) {
+      if (!done.compareAndSet(false, true)) {
+        return false;
+      }
+      disposeTimeout();
+      sink.success(connection);
+      return true;
+    }
+
+    boolean fail(Throwable error) {
+      if (!done.compareAndSet(false, true)) {
+        return false;
+      }
+      disposeTimeout();
+      sink.error(error);
+      return true;
+    }
+
+    void cancel() {
+      if (done.compareAndSet(false, true)) {
+        disposeTimeout();
+      }
+    }
+
+    private void disposeTimeout() {
+      Disposable task = timeout;
+      if (task != null) {
+        task.dispose();
+      }
+    }
+  }
+}
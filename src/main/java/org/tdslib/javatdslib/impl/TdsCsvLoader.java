@@ -0,0 +1,645 @@
+package org.tdslib.javatdslib.impl;
+
+import org.tdslib.javatdslib.codec.TableColumn;
+import org.tdslib.javatdslib.protocol.TdsType;
+import org.tdslib.javatdslib.protocol.rpc.RpcEncodingContext;
+import org.tdslib.javatdslib.tokens.TokenType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Loads a delimited text file (CSV by default) through a {@link TdsBulkCopy}.
+ *
+ * <p>The file is split into regions that are memory-mapped and parsed in parallel on a
+ * fork-join pool. Fields are located in place in the mapped bytes and transcoded straight into
+ * BULK_LOAD ROW tokens: integers are parsed from the digits, character values are decoded into
+ * a reused char buffer and encoded into the row bytes (or copied as they are when the file and
+ * the connection share a charset), and other values go through the column's parameter encoder.
+ * Encoded regions are handed to the connection in file order, with at most
+ * {@link #parallelism(int)} regions in flight, so memory stays bounded however large the file.
+ * A region's output buffer is recycled once its rows have been copied into packets, so a load
+ * allocates about one buffer per region in flight rather than one per region of the file.
+ *
+ * <p>A region owns the lines that start inside it, so lines are found by looking for line
+ * feeds without tracking quotes: a quoted field must not contain a line break. Fields may be
+ * quoted with {@code "}, with a doubled quote standing for a quote. An empty unquoted field is
+ * NULL, as is an empty quoted field in a column that is not a character column. Dates and times
+ * are ISO-8601, optionally with a space between date and time; binary values are hex. Errors
+ * name the column and the byte offset of the offending line.
+ */
+public class TdsCsvLoader {
+
+  /** Bytes of the file parsed by one task unless configured otherwise. */
+  public static final int DEFAULT_REGION_SIZE = 8 * 1024 * 1024;
+
+  private static final int MAX_SHORT_LENGTH = 8000;
+
+  private final TdsBulkCopy bulkCopy;
+  private byte delimiter = ',';
+  private byte quote = '"';
+  private boolean skipHeader;
+  private Charset charset = StandardCharsets.UTF_8;
+  private int regionSize = DEFAULT_REGION_SIZE;
+  private int parallelism = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /**
+   * Constructs a new TdsCsvLoader.
+   *
+   * @param bulkCopy The bulk copy whose columns describe the fields of each line, in order.
+   */
+  public TdsCsvLoader(TdsBulkCopy bulkCopy) {
+    this.bulkCopy = bulkCopy;
+  }
+
+  /**
+   * Sets the field delimiter, a comma by default.
+   *
+   * @param delimiter An ASCII character.
+   * @return This loader.
+   */
+  public TdsCsvLoader delimiter(char delimiter) {
+    this.delimiter = ascii(delimiter);
+    return this;
+  }
+
+  /**
+   * Sets the quote character, a double quote by default.
+   *
+   * @param quote An ASCII character.
+   * @return This loader.
+   */
+  public TdsCsvLoader quote(char quote) {
+    this.quote = ascii(quote);
+    return this;
+  }
+
+  /**
+   * Skips the first line of the file.
+   *
+   * @param skipHeader true if the file starts with a header line.
+   * @return This loader.
+   */
+  public TdsCsvLoader skipHeader(boolean skipHeader) {
+    this.skipHeader = skipHeader;
+    return this;
+  }
+
+  /**
+   * Sets the charset of the file, UTF-8 by default.
+   *
+   * @param charset A charset that encodes ASCII as single bytes.
+   * @return This loader.
+   */
+  public TdsCsvLoader charset(Charset charset) {
+    byte[] ascii = {'\r', '\n', ',', '"', 'A', '0'};
+    if (!Arrays.equals(new String(ascii, StandardCharsets.US_ASCII).getBytes(charset), ascii)) {
+      throw new IllegalArgumentException("Charset " + charset + " is not ASCII compatible");
+    }
+    this.charset = charset;
+    return this;
+  }
+
+  /**
+   * Sets how many bytes of the file one task parses.
+   *
+   * @param regionSize The region size in bytes, at most 1 GiB.
+   * @return This loader.
+   */
+  public TdsCsvLoader regionSize(int regionSize) {
+    if (regionSize <= 0 || regionSize > (1 << 30)) {
+      throw new IllegalArgumentException("Region size must be between 1 byte and 1 GiB");
+    }
+    this.regionSize = regionSize;
+    return this;
+  }
+
+  /**
+   * Sets how many regions are parsed at once, which also bounds how many encoded regions are
+   * held in memory.
+   *
+   * @param parallelism The number of regions in flight.
+   * @return This loader.
+   */
+  public TdsCsvLoader parallelism(int parallelism) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("Parallelism must be positive");
+    }
+    this.parallelism = parallelism;
+    return this;
+  }
+
+  /**
+   * Sets the pool the regions are parsed on, the common pool by default.
+   *
+   * @param pool The fork-join pool.
+   * @return This loader.
+   */
+  public TdsCsvLoader pool(ForkJoinPool pool) {
+    this.pool = pool;
+    return this;
+  }
+
+  /**
+   * Loads the file.
+   *
+   * @param file The file to load.
+   * @return The number of rows copied.
+   */
+  public Mono<Long> load(Path file) {
+    return Mono.using(
+        () -> FileChannel.open(file, StandardOpenOption.READ),
+        channel -> bulkCopy.writeEncoded(
+            regions(channel, bulkCopy.columns(), bulkCopy.encodingContext())),
+        TdsCsvLoader::close);
+  }
+
+  /**
+   * Encodes the lines of the file as ROW tokens, one chunk per non-empty region, in file order.
+   */
+  Flux<TdsBulkCopy.EncodedRows> regions(
+      FileChannel channel, List<TableColumn> columns, RpcEncodingContext context) {
+    Scheduler scheduler = Schedulers.fromExecutor(pool);
+    // Output buffers of regions already sent, reused by the regions still to be encoded
+    Queue<ByteBuffer> spare = new ConcurrentLinkedQueue<>();
+    return Mono.fromCallable(channel::size)
+        .flatMapMany(size -> {
+          int count = Math.toIntExact((size + regionSize - 1) / regionSize);
+          return Flux.range(0, count)
+              .flatMapSequential(index -> Mono.fromCallable(() -> {
+                long start = (long) index * regionSize;
+                long end = Math.min(size, start + regionSize);
+                return new RegionEncoder(channel, size, columns, context, spare)
+                    .encode(start, end, skipHeader && index == 0);
+              }).subscribeOn(scheduler), parallelism, 1);
+        })
+        .filter(rows -> {
+          if (rows.count() > 0) {
+            return true;
+          }
+          rows.release();
+          return false;
+        });
+  }
+
+  private static byte ascii(char c) {
+    if (c == '\r' || c == '\n' || c > 0x7F) {
+      throw new IllegalArgumentException("Delimiter and quote must be ASCII characters");
+    }
+    return (byte) c;
+  }
+
+  private static void close(FileChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Parses the lines that start in one region of the file into ROW tokens. Every buffer is
+   * reused from line to line, and the output buffer is taken from the regions already sent, so
+   * the only per-value allocations are the boxed values handed to the parameter encoders for
+   * non-character columns.
+   */
+  private final class RegionEncoder {
+    private final FileChannel channel;
+    private final long fileSize;
+    private final List<TableColumn> columns;
+    private final RpcEncodingContext context;
+    private final Queue<ByteBuffer> spare;
+    private final TdsType[] types;
+    private final int[] fieldStart;
+    private final int[] fieldEnd;
+    private final boolean[] fieldQuoted;
+    private final boolean[] fieldEscaped;
+    private final CharsetDecoder decoder;
+    private final CharsetEncoder varcharEncoder;
+    private final boolean sameCharset;
+
+    private ByteBuffer window;
+    private ByteBuffer view;
+    private long windowBase;
+    private ByteBuffer out;
+    private CharBuffer chars = CharBuffer.allocate(256);
+    private byte[] scratch = new byte[256];
+    private long lineOffset;
+
+    private RegionEncoder(FileChannel channel, long fileSize, List<TableColumn> columns,
+                          RpcEncodingContext context, Queue<ByteBuffer> spare) {
+      this.channel = channel;
+      this.fileSize = fileSize;
+      this.columns = columns;
+      this.context = context;
+      this.spare = spare;
+      int n = columns.size();
+      this.types = new TdsType[n];
+      for (int i = 0; i < n; i++) {
+        types[i] = columns.get(i).type();
+      }
+      this.fieldStart = new int[n];
+      this.fieldEnd = new int[n];
+      this.fieldQuoted = new boolean[n];
+      this.fieldEscaped = new boolean[n];
+      this.decoder = charset.newDecoder()
+          .onMalformedInput(CodingErrorAction.REPORT)
+          .onUnmappableCharacter(CodingErrorAction.REPORT);
+      // Same replacement behaviour as String.getBytes on the RPC path
+      this.varcharEncoder = context.varcharCharset().newEncoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+      this.sameCharset = charset.equals(context.varcharCharset());
+    }
+
+    TdsBulkCopy.EncodedRows encode(long start, long end, boolean skipFirst) throws IOException {
+      // Lines crossing the end of the region are mapped in by growing the window
+      map(start > 0 ? start - 1 : 0, end - start + 64 * 1024);
+      out = outputBuffer((int) Math.min(Integer.MAX_VALUE - 8, (end - start) * 2 + 1024));
+
+      long pos = start;
+      if (start > 0) {
+        // The line that started in the previous region belongs to it
+        pos = lineEnd(start - 1) + 1;
+      } else if (skipFirst) {
+        pos = lineEnd(0) + 1;
+      }
+
+      int rows = 0;
+      while (pos < end) {
+        long lineEnd = lineEnd(pos);
+        int from = (int) (pos - windowBase);
+        int to = (int) (lineEnd - windowBase);
+        if (to > from && window.get(to - 1) == '\r') {
+          to--;
+        }
+        if (to > from) {
+          lineOffset = pos;
+          encodeLine(from, to);
+          rows++;
+        }
+        pos = lineEnd + 1;
+      }
+      out.flip();
+      ByteBuffer encoded = out;
+      return new TdsBulkCopy.EncodedRows(encoded, rows, () -> spare.offer(encoded));
+    }
+
+    /**
+     * Takes a spare output buffer of at least {@code capacity} bytes, or allocates one. A spare
+     * that is too small, as from the short last region, is left to the GC.
+     */
+    private ByteBuffer outputBuffer(int capacity) {
+      ByteBuffer buffer = spare.poll();
+      if (buffer == null || buffer.capacity() < capacity) {
+        buffer = ByteBuffer.allocate(capacity);
+      }
+      buffer.clear();
+      return buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Returns the offset of the line feed ending the line at {@code pos}, or the file size for
+     * the last line, mapping more of the file as needed.
+     */
+    private long lineEnd(long pos) throws IOException {
+      while (true) {
+        int limit = window.limit();
+        for (int i = (int) (pos - windowBase); i < limit; i++) {
+          if (window.get(i) == '\n') {
+            return windowBase + i;
+          }
+        }
+        if (windowBase + limit >= fileSize) {
+          return fileSize;
+        }
+        map(pos, (long) window.capacity() * 2);
+      }
+    }
+
+    private void map(long base, long length) throws IOException {
+      long size = Math.min(Math.min(length, fileSize - base), Integer.MAX_VALUE);
+      window = channel.map(FileChannel.MapMode.READ_ONLY, base, size);
+      view = window.duplicate();
+      windowBase = base;
+    }
+
+    private void encodeLine(int from, int to) {
+      splitFields(from, to);
+      int rowStart = out.position();
+      while (true) {
+        try {
+          out.put(TokenType.ROW.getValue());
+          for (int i = 0; i < types.length; i++) {
+            encodeField(i);
+          }
+          return;
+        } catch (BufferOverflowException e) {
+          ByteBuffer grown = ByteBuffer.allocate(Math.max(out.capacity() * 2, 1024))
+              .order(ByteOrder.LITTLE_ENDIAN);
+          out.flip().limit(rowStart);
+          grown.put(out);
+          out = grown;
+        }
+      }
+    }
+
+    private void splitFields(int from, int to) {
+      int field = 0;
+      int i = from;
+      while (true) {
+        if (field == types.length) {
+          throw error(null, "has more than " + types.length + " fields");
+        }
+        if (i < to && window.get(i) == quote) {
+          int j = i + 1;
+          boolean escaped = false;
+          while (true) {
+            if (j >= to) {
+              throw error(columns.get(field), "has an unterminated quote");
+            }
+            if (window.get(j) == quote) {
+              if (j + 1 < to && window.get(j + 1) == quote) {
+                escaped = true;
+                j += 2;
+                continue;
+              }
+              break;
+            }
+            j++;
+          }
+          fieldStart[field] = i + 1;
+          fieldEnd[field] = j;
+          fieldQuoted[field] = true;
+          fieldEscaped[field] = escaped;
+          i = j + 1;
+          if (i < to && window.get(i) != delimiter) {
+            throw error(columns.get(field), "has text after a closing quote");
+          }
+        } else {
+          int j = i;
+          while (j < to && window.get(j) != delimiter) {
+            j++;
+          }
+          fieldStart[field] = i;
+          fieldEnd[field] = j;
+          fieldQuoted[field] = false;
+          fieldEscaped[field] = false;
+          i = j;
+        }
+        field++;
+        if (i >= to) {
+          break;
+        }
+        i++; // Delimiter
+      }
+      if (field != types.length) {
+        throw error(null, "has " + field + " fields but " + types.length + " columns");
+      }
+    }
+
+    private void encodeField(int i) {
+      TableColumn column = columns.get(i);
+      TdsType type = types[i];
+      boolean empty = fieldStart[i] == fieldEnd[i];
+      boolean national = type == TdsType.NVARCHAR || type == TdsType.NCHAR;
+      boolean character = national || type == TdsType.VARCHAR || type == TdsType.CHAR
+          || type == TdsType.BIGVARCHR || type == TdsType.BIGCHAR;
+
+      if (empty && (!fieldQuoted[i] || !character)) {
+        column.writeValue(out, null, context);
+      } else if (national) {
+        CharBuffer text = decode(i);
+        if (text.remaining() * 2 > MAX_SHORT_LENGTH) {
+          throw error(column, "exceeds " + MAX_SHORT_LENGTH + " bytes");
+        }
+        out.putShort((short) (text.remaining() * 2));
+        while (text.hasRemaining()) {
+          out.putChar(text.get());
+        }
+      } else if (character) {
+        encodeVarchar(i, column);
+      } else if (isInteger(type) && !fieldEscaped[i]) {
+        column.writeValue(out, column.coerce(parseInteger(i, column)), context);
+      } else {
+        Object value;
+        try {
+          value = parseText(type, decode(i).toString());
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+          throw error(column, "has an invalid " + type + " value: " + e.getMessage());
+        }
+        column.writeValue(out, column.coerce(value), context);
+      }
+    }
+
+    private void encodeVarchar(int i, TableColumn column) {
+      int lengthAt = out.position();
+      out.position(lengthAt + 2);
+      if (sameCharset && !fieldEscaped[i]) {
+        view.clear().position(fieldStart[i]).limit(fieldEnd[i]);
+        out.put(view);
+      } else {
+        CharBuffer text = decode(i);
+        varcharEncoder.reset();
+        CoderResult result = varcharEncoder.encode(text, out, true);
+        if (result.isOverflow() || varcharEncoder.flush(out).isOverflow()) {
+          throw new BufferOverflowException();
+        }
+      }
+      int length = out.position() - lengthAt - 2;
+      if (length > MAX_SHORT_LENGTH) {
+        throw error(column, "exceeds " + MAX_SHORT_LENGTH + " bytes");
+      }
+      out.putShort(lengthAt, (short) length);
+    }
+
+    /**
+     * Decodes a field into the reused char buffer, collapsing doubled quotes.
+     */
+    private CharBuffer decode(int i) {
+      int length = fieldEnd[i] - fieldStart[i];
+      ByteBuffer in;
+      if (fieldEscaped[i]) {
+        if (scratch.length < length) {
+          scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        int n = 0;
+        for (int j = fieldStart[i]; j < fieldEnd[i]; j++) {
+          byte b = window.get(j);
+          scratch[n++] = b;
+          if (b == quote) {
+            j++;
+          }
+        }
+        in = ByteBuffer.wrap(scratch, 0, n);
+      } else {
+        in = view.clear().position(fieldStart[i]).limit(fieldEnd[i]);
+      }
+      // An ASCII-compatible charset never decodes to more chars than bytes
+      if (chars.capacity() < length) {
+        chars = CharBuffer.allocate(Math.max(length, chars.capacity() * 2));
+      }
+      chars.clear();
+      decoder.reset();
+      CoderResult result = decoder.decode(in, chars, true);
+      if (!result.isError()) {
+        result = decoder.flush(chars);
+      }
+      if (result.isError()) {
+        try {
+          result.throwException();
+        } catch (CharacterCodingException e) {
+          throw error(columns.get(i), "is not valid " + charset + ": " + e);
+        }
+      }
+      return chars.flip();
+    }
+
+    private long parseInteger(int i, TableColumn column) {
+      int j = fieldStart[i];
+      int to = fieldEnd[i];
+      boolean negative = false;
+      if (window.get(j) == '-' || window.get(j) == '+') {
+        negative = window.get(j) == '-';
+        j++;
+      }
+      if (j == to || to - j > 18) {
+        // Too long to be sure of no overflow; leave it to the JDK
+        try {
+          return checkRange(Long.parseLong(decode(i).toString()), column);
+        } catch (NumberFormatException e) {
+          throw error(column, "has an invalid " + column.type() + " value: " + e.getMessage());
+        }
+      }
+      long value = 0;
+      for (; j < to; j++) {
+        int digit = window.get(j) - '0';
+        if (digit < 0 || digit > 9) {
+          throw error(column, "has an invalid " + column.type() + " value");
+        }
+        value = value * 10 + digit;
+      }
+      return checkRange(negative ? -value : value, column);
+    }
+
+    private long checkRange(long value, TableColumn column) {
+      boolean inRange = switch (column.type()) {
+        case INT1 -> value >= 0 && value <= 255;
+        case INT2 -> value >= Short.MIN_VALUE && value <= Short.MAX_VALUE;
+        case INT4, INTN -> value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+        default -> true;
+      };
+      if (!inRange) {
+        throw error(column, "is out of range for " + column.type());
+      }
+      return value;
+    }
+
+    private IllegalArgumentException error(TableColumn column, String problem) {
+      String subject = column == null ? "Line" : "Column " + column.name() + " of the line";
+      return new IllegalArgumentException(
+          subject + " at byte offset " + lineOffset + " " + problem);
+    }
+  }
+
+  private static boolean isInteger(TdsType type) {
+    return type == TdsType.INT1 || type == TdsType.INT2 || type == TdsType.INT4
+        || type == TdsType.INT8 || type == TdsType.INTN;
+  }
+
+  /**
+   * Converts the text of a field to the Java type the column's encoder accepts.
+   */
+  static Object parseText(TdsType type, String text) {
+    switch (type) {
+      case BIT:
+      case BITN:
+        if (text.equals("1") || text.equalsIgnoreCase("true")) {
+          return Boolean.TRUE;
+        }
+        if (text.equals("0") || text.equalsIgnoreCase("false")) {
+          return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException(text);
+      case INT1:
+      case INT2:
+      case INT4:
+      case INT8:
+      case INTN:
+        return Long.parseLong(text);
+      case FLT4:
+      case REAL:
+      case FLT8:
+      case FLTN:
+        return Double.parseDouble(text);
+      case NUMERIC:
+      case DECIMAL:
+      case NUMERICN:
+      case DECIMALN:
+      case MONEY:
+      case MONEYN:
+      case SMALLMONEY:
+        return new BigDecimal(text);
+      case DATE:
+        return LocalDate.parse(text);
+      case TIME:
+        return LocalTime.parse(text);
+      case DATETIME2:
+      case DATETIME:
+      case DATETIMN:
+      case SMALLDATETIME:
+        return LocalDateTime.parse(isoDateTime(text));
+      case DATETIMEOFFSET:
+        return OffsetDateTime.parse(isoDateTime(text));
+      case GUID:
+        return UUID.fromString(text);
+      case BINARY:
+      case VARBINARY:
+      case BIGBINARY:
+      case BIGVARBIN:
+        return HexFormat.of().parseHex(
+            text.startsWith("0x") || text.startsWith("0X") ? text.substring(2) : text);
+      default:
+        return text;
+    }
+  }
+
+  private static String isoDateTime(String text) {
+    if (text.length() > 10 && text.charAt(10) == ' ') {
+      return text.substring(0, 10) + 'T' + text.substring(11);
+    }
+    return text;
+  }
+}
@@ -34,6 +34,13 @@ public class TdsOutSegment implements Result.OutSegment, OutParameters {
     this.context = context;
   }
 
+  /**
+   * Returns the raw return values, in the order the server sent them.
+   */
+  List<ReturnValueToken> parameters() {
+    return parameters;
+  }
+
   @Override
   public OutParameters outParameters() {
     return this; // Implement Result.OutSegment natively
@@ -0,0 +1,278 @@
+package org.tdslib.javatdslib.impl;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bulk copy of one stream of rows over several connections at once.
+ *
+ * <p>A single connection is limited to one core of encoding work and one TCP stream. This
+ * coordinator opens {@link #connections(int)} connections from a {@link TdsConnectionFactory},
+ * routes each row to a connection with a partitioning function, and runs a {@link TdsBulkCopy}
+ * per connection. Routing is a {@code groupBy} on the connection index, so rows waiting for a
+ * connection are bounded by {@link #queueSize(int)}; a slow connection holds back the source
+ * rather than buffering without limit. For a partitioned table, partitioning rows the way the
+ * table is partitioned keeps the connections from contending for the same locks.
+ *
+ * <p>A connection that fails stops loading; every row routed to it that it did not commit is
+ * counted as dropped, while the other connections carry on. The returned {@link Summary}
+ * reports rows copied per connection, dropped rows, and the errors; a progress listener
+ * receives the same summary after every committed batch. Each batch commits on its own, so a
+ * failed load leaves the batches already committed in place.
+ */
+public class TdsParallelBulkCopy {
+
+  /** Rows buffered for the connections unless configured otherwise. */
+  public static final int DEFAULT_QUEUE_SIZE = 10_000;
+
+  private final TdsConnectionFactory connectionFactory;
+  private final String table;
+  private final Consumer<TdsBulkCopy> configurer;
+  private int connections = Math.max(1, Runtime.getRuntime().availableProcessors());
+  private int queueSize = DEFAULT_QUEUE_SIZE;
+  private ToIntFunction<Object[]> partitioner;
+  private Consumer<Summary> progressListener;
+
+  /**
+   * Constructs a new TdsParallelBulkCopy.
+   *
+   * @param connectionFactory The factory to open the connections with.
+   * @param table             The target table, as it would appear in an INSERT statement.
+   * @param configurer        Adds the columns and options to the bulk copy of each connection.
+   */
+  public TdsParallelBulkCopy(TdsConnectionFactory connectionFactory, String table,
+                             Consumer<TdsBulkCopy> configurer) {
+    this.connectionFactory = connectionFactory;
+    this.table = table;
+    this.configurer = configurer;
+  }
+
+  /**
+   * Sets how many connections load in parallel, one per available processor by default.
+   *
+   * @param connections The number of connections.
+   * @return This bulk copy.
+   */
+  public TdsParallelBulkCopy connections(int connections) {
+    if (connections <= 0) {
+      throw new IllegalArgumentException("Connection count must be positive");
+    }
+    this.connections = connections;
+    return this;
+  }
+
+  /**
+   * Sets how many rows may be buffered for the connections before the source is held back.
+   *
+   * @param queueSize The number of rows.
+   * @return This bulk copy.
+   */
+  public TdsParallelBulkCopy queueSize(int queueSize) {
+    if (queueSize <= 0) {
+      throw new IllegalArgumentException("Queue size must be positive");
+    }
+    this.queueSize = queueSize;
+    return this;
+  }
+
+  /**
+   * Routes rows by a partition key, taken modulo the number of connections. Without a
+   * partitioner rows are dealt to the connections in turn.
+   *
+   * @param partitioner Computes the partition key of a row.
+   * @return This bulk copy.
+   */
+  public TdsParallelBulkCopy partitionBy(ToIntFunction<Object[]> partitioner) {
+    this.partitioner = partitioner;
+    return this;
+  }
+
+  /**
+   * Registers a listener called with a snapshot of the progress after every committed batch.
+   * It may be called from several connections at once.
+   *
+   * @param listener The listener.
+   * @return This bulk copy.
+   */
+  public TdsParallelBulkCopy onProgress(Consumer<Summary> listener) {
+    this.progressListener = listener;
+    return this;
+  }
+
+  /**
+   * Copies the rows. Each row holds one value per column, in column order.
+   *
+   * @param rows The rows to copy.
+   * @return The summary of the load, once every connection has finished. The publisher fails
+   *     only if a connection cannot be opened or the source fails.
+   */
+  public Mono<Summary> write(Publisher<Object[]> rows) {
+    int n = connections;
+    ToIntFunction<Object[]> keys = partitioner;
+    return Mono.defer(() -> {
+      LoadState state = new LoadState(n);
+      long[] next = new long[1];
+      boolean[] started = new boolean[n];
+      return Mono.usingWhen(
+          open(n),
+          opened -> Flux.from(rows)
+              .groupBy(row -> {
+                int index = (int) Math.floorMod(
+                    keys != null ? keys.applyAsInt(row) : next[0]++, (long) n);
+                state.routed.incrementAndGet(index);
+                return index;
+              }, queueSize)
+              .flatMap(group -> {
+                int index = group.key();
+                // A group only ends early when its load failed; groupBy then opens a new one,
+                // whose rows are drained and accounted as dropped
+                if (started[index]) {
+                  return group.then();
+                }
+                started[index] = true;
+                TdsBulkCopy bulkCopy = opened.get(index).createBulkCopy(table);
+                configurer.accept(bulkCopy);
+                bulkCopy.onBatch(count -> {
+                  state.copied.addAndGet(index, count);
+                  if (progressListener != null) {
+                    progressListener.accept(state.snapshot());
+                  }
+                });
+                return bulkCopy.write(group)
+                    .onErrorResume(e -> {
+                      state.errors.putIfAbsent(index, e);
+                      return Mono.empty();
+                    });
+              }, n)
+              .then(Mono.fromSupplier(state::snapshot)),
+          TdsParallelBulkCopy::closeAll);
+    });
+  }
+
+  private Mono<List<TdsConnection>> open(int n) {
+    List<TdsConnection> opened = Collections.synchronizedList(new ArrayList<>());
+    return Flux.range(0, n)
+        .flatMap(i -> Mono.from(connectionFactory.create())
+            .cast(TdsConnection.class)
+            .doOnNext(opened::add))
+        .then(Mono.<List<TdsConnection>>fromSupplier(() -> new ArrayList<>(opened)))
+        .onErrorResume(e -> closeAll(opened).then(Mono.error(e)));
+  }
+
+  private static Mono<Void> closeAll(List<TdsConnection> opened) {
+    return Flux.fromIterable(opened)
+        .flatMap(connection -> Mono.from(connection.close()).onErrorResume(e -> Mono.empty()))
+        .then();
+  }
+
+  private static final class LoadState {
+    private final AtomicLongArray routed;
+    private final AtomicLongArray copied;
+    private final Map<Integer, Throwable> errors = new ConcurrentHashMap<>();
+
+    private LoadState(int connections) {
+      this.routed = new AtomicLongArray(connections);
+      this.copied = new AtomicLongArray(connections);
+    }
+
+    private Summary snapshot() {
+      long[] copiedRows = new long[copied.length()];
+      long[] droppedRows = new long[copied.length()];
+      for (int i = 0; i < copiedRows.length; i++) {
+        copiedRows[i] = copied.get(i);
+        // Whatever a failed connection was given but did not commit is lost, including the
+        // rows queued for it and those of the batch that failed
+        if (errors.containsKey(i)) {
+          droppedRows[i] = routed.get(i) - copiedRows[i];
+        }
+      }
+      return new Summary(copiedRows, droppedRows, new TreeMap<>(errors));
+    }
+  }
+
+  /**
+   * Rows copied, rows dropped and errors per connection, at one point of a load.
+   */
+  public static final class Summary {
+    private final long[] copied;
+    private final long[] dropped;
+    private final Map<Integer, Throwable> errors;
+
+    private Summary(long[] copied, long[] dropped, Map<Integer, Throwable> errors) {
+      this.copied = copied;
+      this.dropped = dropped;
+      this.errors = Collections.unmodifiableMap(errors);
+    }
+
+    /**
+     * Returns the rows committed over all connections.
+     */
+    public long rowsCopied() {
+      long total = 0;
+      for (long count : copied) {
+        total += count;
+      }
+      return total;
+    }
+
+    /**
+     * Returns the rows committed over one connection.
+     *
+     * @param connection The connection index.
+     */
+    public long rowsCopied(int connection) {
+      return copied[connection];
+    }
+
+    /**
+     * Returns the rows routed to failed connections but not committed: those of the failed
+     * batch, those queued behind it, and those routed to the connection afterwards. Once the
+     * load has finished, copied plus dropped rows equal the rows taken from the source.
+     */
+    public long rowsDropped() {
+      long total = 0;
+      for (long count : dropped) {
+        total += count;
+      }
+      return total;
+    }
+
+    /**
+     * Returns the error of each failed connection, by connection index.
+     */
+    public Map<Integer, Throwable> errors() {
+      return errors;
+    }
+
+    /**
+     * Checks whether every connection finished without error.
+     */
+    public boolean isSuccessful() {
+      return errors.isEmpty();
+    }
+
+    /**
+     * Returns the number of connections.
+     */
+    public int connections() {
+      return copied.length;
+    }
+
+    @Override
+    public String toString() {
+      return "Summary{rowsCopied=" + rowsCopied() + ", rowsDropped=" + rowsDropped()
+          + ", errors=" + errors.size() + "}";
+    }
+  }
+}
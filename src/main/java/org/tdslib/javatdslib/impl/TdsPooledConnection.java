@@ -0,0 +1,151 @@
+package org.tdslib.javatdslib.impl;
+
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionMetadata;
+import io.r2dbc.spi.IsolationLevel;
+import io.r2dbc.spi.R2dbcNonTransientResourceException;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.TransactionDefinition;
+import io.r2dbc.spi.ValidationDepth;
+import io.r2dbc.spi.Wrapped;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The handle a {@link TdsConnectionPool} gives out for one checkout. Every call is delegated to
+ * the pooled {@link TdsConnection}; {@link #close()} returns the connection to the pool instead
+ * of closing the socket. A handle is invalid once closed.
+ */
+class TdsPooledConnection implements Connection, Wrapped<TdsConnection> {
+  private final TdsConnection delegate;
+  private final TdsConnectionPool pool;
+  private final TdsConnectionPool.PooledEntry entry;
+  private final AtomicBoolean released = new AtomicBoolean(false);
+
+  TdsPooledConnection(TdsConnection delegate, TdsConnectionPool pool,
+                      TdsConnectionPool.PooledEntry entry) {
+    this.delegate = delegate;
+    this.pool = pool;
+    this.entry = entry;
+  }
+
+  @Override
+  public TdsConnection unwrap() {
+    return delegate;
+  }
+
+  private TdsConnection connection() {
+    if (released.get()) {
+      throw new R2dbcNonTransientResourceException("Connection has been returned to the pool");
+    }
+    return delegate;
+  }
+
+  @Override
+  public Publisher<Void> close() {
+    return Mono.defer(() -> {
+      if (!released.compareAndSet(false, true)) {
+        return Mono.empty();
+      }
+      // Never hand the next borrower an open transaction
+      Mono<Void> cleanup = delegate.isAutoCommit()
+          ? Mono.empty()
+          : Mono.from(delegate.rollbackTransaction());
+      return cleanup
+          .onErrorResume(error -> Mono.empty())
+          .doFinally(signal -> pool.release(entry));
+    });
+  }
+
+  @Override
+  public Publisher<Void> beginTransaction() {
+    return connection().beginTransaction();
+  }
+
+  @Override
+  public Publisher<Void> beginTransaction(TransactionDefinition definition) {
+    return connection().beginTransaction(definition);
+  }
+
+  @Override
+  public Publisher<Void> commitTransaction() {
+    return connection().commitTransaction();
+  }
+
+  @Override
+  public Publisher<Void> rollbackTransaction() {
+    return connection().rollbackTransaction();
+  }
+
+  @Override
+  public Batch createBatch() {
+    return connection().createBatch();
+  }
+
+  @Override
+  public Statement createStatement(String sql) {
+    return connection().createStatement(sql);
+  }
+
+  @Override
+  public Publisher<Void> createSavepoint(String name) {
+    return connection().createSavepoint(name);
+  }
+
+  @Override
+  public Publisher<Void> releaseSavepoint(String name) {
+    return connection().releaseSavepoint(name);
+  }
+
+  @Override
+  public Publisher<Void> rollbackTransactionToSavepoint(String name) {
+    return connection().rollbackTransactionToSavepoint(name);
+  }
+
+  @Override
+  public boolean isAutoCommit() {
+    return connection().isAutoCommit();
+  }
+
+  @Override
+  public ConnectionMetadata getMetadata() {
+    return connection().getMetadata();
+  }
+
+  @Override
+  public IsolationLevel getTransactionIsolationLevel() {
+    return connection().getTransactionIsolationLevel();
+  }
+
+  @Override
+  public Publisher<Void> setAutoCommit(boolean autoCommit) {
+    return connection().setAutoCommit(autoCommit);
+  }
+
+  @Override
+  public Publisher<Void> setLockWaitTimeout(Duration timeout) {
+    return connection().setLockWaitTimeout(timeout);
+  }
+
+  @Override
+  public Publisher<Void> setStatementTimeout(Duration timeout) {
+    return connection().setStatementTimeout(timeout);
+  }
+
+  @Override
+  public Publisher<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
+    return connection().setTransactionIsolationLevel(isolationLevel);
+  }
+
+  @Override
+  public Publisher<Boolean> validate(ValidationDepth depth) {
+    if (released.get()) {
+      return Mono.just(false);
+    }
+    return delegate.validate(depth);
+  }
+}
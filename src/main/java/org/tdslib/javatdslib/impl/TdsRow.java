@@ -2,34 +2,24 @@ package org.tdslib.javatdslib.impl;
 
 import io.r2dbc.spi.Blob;
 import io.r2dbc.spi.Clob;
-import io.r2dbc.spi.ColumnMetadata;
 import io.r2dbc.spi.Result;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.tdslib.javatdslib.codec.DecoderRegistry;
-import org.tdslib.javatdslib.protocol.CollationUtils;
-import org.tdslib.javatdslib.protocol.TdsType;
+import org.tdslib.javatdslib.codec.PrimitiveDecoder;
 import org.tdslib.javatdslib.reactive.RowDrainer;
 import org.tdslib.javatdslib.reactive.TdsTokenQueue;
-import org.tdslib.javatdslib.reactive.events.ColumnEvent;
-import org.tdslib.javatdslib.reactive.events.ErrorEvent;
-import org.tdslib.javatdslib.reactive.events.TdsStreamEvent;
-import org.tdslib.javatdslib.reactive.events.TokenEvent;
 import org.tdslib.javatdslib.tokens.ColumnData;
 import org.tdslib.javatdslib.tokens.CompleteDataColumn;
 import org.tdslib.javatdslib.tokens.PartialDataColumn;
+import org.tdslib.javatdslib.tokens.RowDecodePlan;
 import org.tdslib.javatdslib.tokens.models.ColMetaDataToken;
-import org.tdslib.javatdslib.tokens.models.ColumnMeta;
 import org.tdslib.javatdslib.transport.ConnectionContext;
 
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.LockSupport;
 
 /**
  * A highly performant, random-access Row and RowSegment implementation.
@@ -60,6 +50,7 @@ public class TdsRow implements Row, Result.RowSegment {
 
   private final Object[] payload;
   private final ColMetaDataToken metaData;
+  private final RowDecodePlan decodePlan;
   private final ConnectionContext context;
   private final TdsRowMetadata rowMetadata;
   private final TdsTokenQueue tokenQueue;
@@ -67,33 +58,28 @@ public class TdsRow implements Row, Result.RowSegment {
   /**
    * Creates a new TdsRow instance.
    *
-   * @param payload    The row payload data array.
-   * @param metaData   The column metadata token.
-   * @param context    The connection context.
-   * @param tokenQueue The token queue.
+   * @param payload     The row payload data array.
+   * @param metaData    The column metadata token.
+   * @param rowMetadata The R2DBC metadata shared by every row of the result set.
+   * @param context     The connection context.
+   * @param tokenQueue  The token queue.
    */
   public TdsRow(
-      Object[] payload, ColMetaDataToken metaData,
+      Object[] payload, ColMetaDataToken metaData, TdsRowMetadata rowMetadata,
       ConnectionContext context, TdsTokenQueue tokenQueue) {
     this.payload = payload;
     this.metaData = metaData;
+    this.decodePlan = metaData.getDecodePlan();
     this.context = context;
     this.tokenQueue = tokenQueue;
-
-    // Cache the R2DBC Metadata once upon creation to optimize Result.map() operations
-    List<ColumnMetadata> columns = new ArrayList<>(metaData.getColumns().size());
-    for (ColumnMeta meta : metaData.getColumns()) {
-      columns.add(new TdsColumnMetadata(meta));
-    }
-    this.rowMetadata = new TdsRowMetadata(columns);
+    this.rowMetadata = rowMetadata;
   }
 
   @Override
   public <T> T get(String name, Class<T> type) {
-    for (int i = 0; i < metaData.getColumns().size(); i++) {
-      if (metaData.getColumns().get(i).getName().equalsIgnoreCase(name)) {
-        return get(i, type);
-      }
+    int index = rowMetadata.indexOf(name);
+    if (index >= 0) {
+      return get(index, type);
     }
     logger.debug("[TdsRow] Column name '{}' not found in row metadata.", name);
     throw new IllegalArgumentException("Column not found: " + name);
@@ -102,30 +88,12 @@ public class TdsRow implements Row, Result.RowSegment {
   @Override
   @SuppressWarnings("unchecked")
   public <T> T get(int index, Class<T> type) {
-    if (index < 0 || index >= payload.length) {
-      throw new IllegalArgumentException("Invalid Column Index: " + index);
-    }
-
-    Object rawData = payload[index];
-
-    // NEW: Block access if the network queue passed this column without reading it
-    if (rawData == DISCARDED) {
-      throw new IllegalStateException(String.format(
-          "Forward-only violation. Column %d has already been consumed or was skipped.", index));
-    }
-
-    ColumnMeta colMeta = metaData.getColumns().get(index);
-    TdsType tdsType = TdsType.valueOf(colMeta.getDataType());
+    // --- 1. On-Demand Network Fetching ---
+    Object rawData = fetch(index);
 
-    // --- 1. Intercept Asynchronous Streams (LOBs) ---
+    // --- 2. Intercept Asynchronous Streams (LOBs) ---
     if (type == Clob.class || type == Blob.class) {
-      if (rawData == RowDrainer.UNFETCHED) {
-        rawData = advanceQueueToColumn(index);
-        discardUnfetchedColumnsBefore(index);
-      } else if (rawData instanceof byte[] bytes) {
-        // Edge case: User asked for a Clob on a tiny string already fully in memory
-        rawData = new CompleteDataColumn(index, bytes);
-      }
+      // Edge case: a tiny value already in memory is its CompleteDataColumn slice; stream it as-is
 
       payload[index] = DISCARDED; // LOB Streams can only be consumed once!
       discardUnfetchedColumnsBefore(index);
@@ -146,7 +114,7 @@ public class TdsRow implements Row, Result.RowSegment {
 
       ColumnData initialChunk = (rawData instanceof ColumnData cd) ? cd : null;
       if (type == Clob.class) {
-        Charset charset = getCharset(colMeta, tdsType);
+        Charset charset = decodePlan.charset(index);
         return type.cast(new TdsClob(
             tokenQueue, index, charset, initialChunk, mediatedResumeCallback));
       } else {
@@ -154,40 +122,142 @@ public class TdsRow implements Row, Result.RowSegment {
       }
     }
 
-    // --- 2. On-Demand Network Fetching for Standard Columns ---
-    if (rawData == RowDrainer.UNFETCHED) {
-      rawData = advanceQueueToColumn(index);
-      discardUnfetchedColumnsBefore(index);
-
-      // If it's a completely fetched standard column, unwrap it to byte[]
-      // so it can be cached and reused
-      if (rawData instanceof CompleteDataColumn c) {
-        if (!isPlp(tdsType, colMeta)) {
-          rawData = c.getData();
-          payload[index] = rawData; // Cache it in memory!
-        }
-      }
-    }
-
     // --- 3. Process the Extracted Data ---
 
     if (rawData == null) {
       return null;
     }
 
+    if (rawData instanceof CompleteDataColumn c && !decodePlan.isPlp(index)) {
+      // NOTE: We do NOT discard it here! The slice is safely in memory.
+      // The user can read this column natively as many times as they want.
+      return decodePlan.decode(index, c.getArray(), c.getOffset(), c.getLength(), type);
+    }
+
     if (rawData instanceof ColumnData chunk) {
       payload[index] = DISCARDED; // Consuming a LOB synchronously permanently consumes it
-      return (T) drainLobSynchronously(index, type, tdsType, colMeta, chunk);
+      return (T) drainLobSynchronously(index, type, chunk);
     }
 
-    if (rawData instanceof byte[] bytes) {
-      Charset charset = getCharset(colMeta, tdsType);
-      // NOTE: We do NOT discard it here! The byte array is safely in memory.
-      // The user can read this column natively as many times as they want.
-      return DecoderRegistry.DEFAULT.decode(bytes, tdsType, type, colMeta.getScale(), charset);
+    throw new IllegalStateException("Unknown payload type: " + rawData.getClass().getName());
+  }
+
+  /**
+   * Returns whether a column is SQL NULL. Fetches the column if it has not arrived yet; a large
+   * object can still be read afterwards.
+   *
+   * @param index The 0-based column index.
+   * @return true if the value is NULL.
+   */
+  public boolean isNull(int index) {
+    Object rawData = fetch(index);
+    return rawData == null || (rawData instanceof CompleteDataColumn c && c.isNull());
+  }
+
+  /**
+   * Reads an integer column (TINYINT, SMALLINT, INT, or an in-range BIGINT) without boxing.
+   *
+   * @param index The 0-based column index.
+   * @return The value.
+   * @throws IllegalStateException if the value is NULL.
+   */
+  public int getInt(int index) {
+    CompleteDataColumn c = primitiveSlice(index);
+    return PrimitiveDecoder.readInt(
+        decodePlan.tdsType(index), c.getArray(), c.getOffset(), c.getLength());
+  }
+
+  /**
+   * Reads an integer column without boxing.
+   *
+   * @param index The 0-based column index.
+   * @return The value.
+   * @throws IllegalStateException if the value is NULL.
+   */
+  public long getLong(int index) {
+    CompleteDataColumn c = primitiveSlice(index);
+    return PrimitiveDecoder.readLong(
+        decodePlan.tdsType(index), c.getArray(), c.getOffset(), c.getLength());
+  }
+
+  /**
+   * Reads a floating point, integer, money or decimal column as a double without boxing.
+   *
+   * @param index The 0-based column index.
+   * @return The value.
+   * @throws IllegalStateException if the value is NULL.
+   */
+  public double getDouble(int index) {
+    CompleteDataColumn c = primitiveSlice(index);
+    return PrimitiveDecoder.readDouble(decodePlan.tdsType(index), c.getArray(), c.getOffset(),
+        c.getLength(), decodePlan.scale(index));
+  }
+
+  /**
+   * Reads a BIT (or integer) column without boxing.
+   *
+   * @param index The 0-based column index.
+   * @return The value.
+   * @throws IllegalStateException if the value is NULL.
+   */
+  public boolean getBoolean(int index) {
+    CompleteDataColumn c = primitiveSlice(index);
+    return PrimitiveDecoder.readBoolean(
+        decodePlan.tdsType(index), c.getArray(), c.getOffset(), c.getLength());
+  }
+
+  /**
+   * Reads a MONEY or SMALLMONEY column in cents, rounded half away from zero.
+   *
+   * @param index The 0-based column index.
+   * @return The value in cents.
+   * @throws IllegalStateException if the value is NULL.
+   */
+  public long getMoneyAsLongCents(int index) {
+    CompleteDataColumn c = primitiveSlice(index);
+    return PrimitiveDecoder.readMoneyAsCents(
+        decodePlan.tdsType(index), c.getArray(), c.getOffset(), c.getLength());
+  }
+
+  private CompleteDataColumn primitiveSlice(int index) {
+    Object rawData = fetch(index);
+    if (rawData instanceof CompleteDataColumn c && !decodePlan.isPlp(index)) {
+      return c;
+    }
+    if (isNull(index)) {
+      throw new IllegalStateException("Column " + index + " is NULL; check isNull() first");
     }
+    throw new IllegalStateException("Column " + index + " is a large object");
+  }
 
-    throw new IllegalStateException("Unknown payload type: " + rawData.getClass().getName());
+  /**
+   * Returns the raw payload of a column, pulling it off the network queue (and caching it) if
+   * it has not arrived yet. A standard column is its {@link CompleteDataColumn} slice, or null
+   * for SQL NULL; a large object is its first chunk.
+   */
+  private Object fetch(int index) {
+    if (index < 0 || index >= payload.length) {
+      throw new IllegalArgumentException("Invalid Column Index: " + index);
+    }
+
+    Object rawData = payload[index];
+
+    // NEW: Block access if the network queue passed this column without reading it
+    if (rawData == DISCARDED) {
+      throw new IllegalStateException(String.format(
+          "Forward-only violation. Column %d has already been consumed or was skipped.", index));
+    }
+
+    if (rawData == RowDrainer.UNFETCHED) {
+      rawData = advanceQueueToColumn(index);
+      discardUnfetchedColumnsBefore(index);
+
+      if (rawData instanceof CompleteDataColumn c && c.isNull() && !decodePlan.isPlp(index)) {
+        rawData = null;
+      }
+      payload[index] = rawData; // Cache it in memory!
+    }
+    return rawData;
   }
 
   /**
@@ -195,25 +265,22 @@ public class TdsRow implements Row, Result.RowSegment {
    */
   private ColumnData advanceQueueToColumn(int targetIndex) {
     while (true) {
-      TdsStreamEvent event = tokenQueue.peek();
-      if (event == null) {
-        LockSupport.parkNanos(100_000);
-        continue;
-      }
-      if (event instanceof ColumnEvent ce) {
-        if (ce.data().getColumnIndex() < targetIndex) {
+      TdsTokenQueue.Event event = tokenQueue.awaitNext();
+      if (event.kind() == TdsTokenQueue.Kind.COLUMN) {
+        int columnIndex = event.column().getColumnIndex();
+        if (columnIndex < targetIndex) {
           tokenQueue.poll(); // User skipped this column. Discard its chunk.
-        } else if (ce.data().getColumnIndex() == targetIndex) {
-          return ((ColumnEvent) tokenQueue.poll()).data(); // Found it! Consume and return.
+        } else if (columnIndex == targetIndex) {
+          return tokenQueue.poll().column(); // Found it! Consume and return.
         } else {
           throw new IllegalStateException(
-              "Desync: Expected col " + targetIndex + " but got " + ce.data().getColumnIndex());
+              "Desync: Expected col " + targetIndex + " but got " + columnIndex);
         }
-      } else if (event instanceof TokenEvent) {
+      } else if (event.kind() == TdsTokenQueue.Kind.TOKEN) {
         return null; // End of row reached without finding the column
-      } else if (event instanceof ErrorEvent ee) {
-        tokenQueue.poll();
-        throw new RuntimeException("Server Error", ee.error());
+      } else {
+        Throwable error = tokenQueue.poll().error();
+        throw new RuntimeException("Server Error", error);
       }
     }
   }
@@ -229,17 +296,8 @@ public class TdsRow implements Row, Result.RowSegment {
     }
   }
 
-  private boolean isPlp(TdsType tdsType, ColumnMeta colMeta) {
-    if (tdsType == null) {
-      return false;
-    }
-    return tdsType.strategy == TdsType.LengthStrategy.PLP
-        || (tdsType.strategy == TdsType.LengthStrategy.USHORTLEN
-        && colMeta.getMaxLength() == 65535);
-  }
-
   private Object drainLobSynchronously(
-      int index, Class<?> type, TdsType tdsType, ColumnMeta colMeta, ColumnData firstChunk) {
+      int index, Class<?> type, ColumnData firstChunk) {
     logger.trace("[TdsRow] Initiating Synchronous LOB Drain for column {}", index);
     ByteArrayOutputStream buffer = new ByteArrayOutputStream();
     boolean isNullData = false;
@@ -252,8 +310,8 @@ public class TdsRow implements Row, Result.RowSegment {
           isNullData = true;
         }
       } else if (firstChunk instanceof CompleteDataColumn c) {
-        if (c.getData() != null) {
-          buffer.write(c.getData());
+        if (!c.isNull()) {
+          buffer.write(c.getArray(), c.getOffset(), c.getLength());
         } else {
           isNullData = true;
         }
@@ -263,20 +321,16 @@ public class TdsRow implements Row, Result.RowSegment {
     }
 
     while (true) {
-      TdsStreamEvent event = tokenQueue.peek();
-      if (event == null) {
-        LockSupport.parkNanos(100_000);
-        continue;
-      }
+      TdsTokenQueue.Event event = tokenQueue.awaitNext();
 
-      if (event instanceof ColumnEvent ce) {
-        if (ce.data().getColumnIndex() == index) {
-          tokenQueue.poll();
+      if (event.kind() == TdsTokenQueue.Kind.COLUMN) {
+        if (event.isColumn(index)) {
+          ColumnData chunk = tokenQueue.poll().column();
           try {
-            if (ce.data() instanceof PartialDataColumn p && p.getChunk() != null) {
+            if (chunk instanceof PartialDataColumn p && p.getChunk() != null) {
               buffer.write(p.getChunk());
-            } else if (ce.data() instanceof CompleteDataColumn c && c.getData() != null) {
-              buffer.write(c.getData());
+            } else if (chunk instanceof CompleteDataColumn c && !c.isNull()) {
+              buffer.write(c.getArray(), c.getOffset(), c.getLength());
             }
           } catch (Exception e) {
             throw new RuntimeException(e);
@@ -284,13 +338,11 @@ public class TdsRow implements Row, Result.RowSegment {
         } else {
           break; // Next column boundary Reached!
         }
-      } else if (event instanceof org.tdslib.javatdslib.reactive.events.TokenEvent) {
+      } else if (event.kind() == TdsTokenQueue.Kind.TOKEN) {
         break; // End of row boundary Reached!
-      } else if (event instanceof ErrorEvent ee) {
-        tokenQueue.poll();
-        throw new RuntimeException("Server Error during LOB streaming", ee.error());
       } else {
-        throw new IllegalStateException("Unexpected event: " + event.getClass().getSimpleName());
+        Throwable error = tokenQueue.poll().error();
+        throw new RuntimeException("Server Error during LOB streaming", error);
       }
     }
 
@@ -299,10 +351,8 @@ public class TdsRow implements Row, Result.RowSegment {
       return null;
     }
 
-    Charset charset = getCharset(colMeta, tdsType);
-
     try {
-      return DecoderRegistry.DEFAULT.decode(rawBytes, tdsType, type, colMeta.getScale(), charset);
+      return decodePlan.decode(index, rawBytes, 0, rawBytes.length, type);
     } catch (OutOfMemoryError oom) {
       rawBytes = null;
       buffer = null;
@@ -312,20 +362,6 @@ public class TdsRow implements Row, Result.RowSegment {
     }
   }
 
-  private Charset getCharset(ColumnMeta colMeta, TdsType tdsType) {
-    if (tdsType == TdsType.NVARCHAR || tdsType == TdsType.NCHAR
-        || tdsType == TdsType.NTEXT || tdsType == TdsType.XML) {
-      return java.nio.charset.StandardCharsets.UTF_16LE;
-    } else {
-      byte[] collation = colMeta.getTypeInfo() != null
-          ? colMeta.getTypeInfo().getCollation()
-          : null;
-      return collation != null
-          ? CollationUtils.getCharsetFromCollation(collation).orElse(context.getVarcharCharset())
-          : context.getVarcharCharset();
-    }
-  }
-
   @Override
   public RowMetadata getMetadata() {
     return this.rowMetadata;
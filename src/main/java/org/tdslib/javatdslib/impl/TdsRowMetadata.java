@@ -2,17 +2,35 @@ package org.tdslib.javatdslib.impl;
 
 import io.r2dbc.spi.ColumnMetadata;
 import io.r2dbc.spi.RowMetadata;
+import org.tdslib.javatdslib.tokens.models.ColMetaDataToken;
+import org.tdslib.javatdslib.tokens.models.ColumnMeta;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Implementation of {@link RowMetadata} for the TDS protocol. This class provides metadata
  * information about the columns in a row, allowing access by index or name.
+ *
+ * <p>One instance is built per result set and shared by all of its rows. Name lookups go
+ * through a case-insensitive index built up front.
  */
 public class TdsRowMetadata implements RowMetadata {
+  // Row metadata of recent tokens, direct-mapped by token identity like the COLMETADATA cache
+  private static final AtomicReferenceArray<TdsRowMetadata> SHARED =
+      new AtomicReferenceArray<>(1024);
+
   private final List<ColumnMetadata> metadata;
+  // Lower-cased name -> first column with that name
+  private final Map<String, Integer> nameIndex;
+  // The token this was built from, or null
+  private final ColMetaDataToken source;
 
   /**
    * Constructs a new TdsRowMetadata.
@@ -20,7 +38,60 @@ public class TdsRowMetadata implements RowMetadata {
    * @param metadata The list of column metadata for the row.
    */
   public TdsRowMetadata(List<ColumnMetadata> metadata) {
+    this(metadata, null);
+  }
+
+  private TdsRowMetadata(List<ColumnMetadata> metadata, ColMetaDataToken source) {
     this.metadata = metadata;
+    this.source = source;
+    this.nameIndex = new HashMap<>(metadata.size() * 2);
+    for (int i = 0; i < metadata.size(); i++) {
+      nameIndex.putIfAbsent(metadata.get(i).getName().toLowerCase(Locale.ROOT), i);
+    }
+  }
+
+  /**
+   * Builds the shared row metadata for a result set. The result is memoized per token, so
+   * result sets that share an interned token also share their row metadata. The memo is a
+   * fixed array indexed by the token's identity hash; a token whose slot was taken by another
+   * simply has its metadata built again.
+   *
+   * @param metaData The COLMETADATA token describing the result set.
+   * @return The row metadata.
+   */
+  public static TdsRowMetadata from(ColMetaDataToken metaData) {
+    int slot = System.identityHashCode(metaData) & (SHARED.length() - 1);
+    TdsRowMetadata cached = SHARED.get(slot);
+    if (cached != null && cached.source == metaData) {
+      return cached;
+    }
+    List<ColumnMetadata> columns = new ArrayList<>(metaData.getColumns().size());
+    for (ColumnMeta meta : metaData.getColumns()) {
+      columns.add(new TdsColumnMetadata(meta));
+    }
+    TdsRowMetadata rowMetadata = new TdsRowMetadata(columns, metaData);
+    SHARED.set(slot, rowMetadata);
+    return rowMetadata;
+  }
+
+  /**
+   * Finds a column by name, ignoring case.
+   *
+   * @param name The column name.
+   * @return The 0-based index of the first matching column, or -1 if there is none.
+   */
+  public int indexOf(String name) {
+    Integer index = nameIndex.get(name.toLowerCase(Locale.ROOT));
+    if (index != null) {
+      return index;
+    }
+    // Names that only match under equalsIgnoreCase's per-character folding
+    for (int i = 0; i < metadata.size(); i++) {
+      if (metadata.get(i).getName().equalsIgnoreCase(name)) {
+        return i;
+      }
+    }
+    return -1;
   }
 
   @Override
@@ -36,10 +107,11 @@ public class TdsRowMetadata implements RowMetadata {
     if (name == null) {
       throw new IllegalArgumentException("Column name cannot be null");
     }
-    return metadata.stream()
-        .filter(m -> m.getName().equalsIgnoreCase(name))
-        .findFirst()
-        .orElseThrow(() -> new NoSuchElementException("Column name '" + name + "' does not exist"));
+    int index = indexOf(name);
+    if (index < 0) {
+      throw new NoSuchElementException("Column name '" + name + "' does not exist");
+    }
+    return metadata.get(index);
   }
 
   /** Updated to return List<? extends ColumnMetadata> to match R2DBC SPI. */
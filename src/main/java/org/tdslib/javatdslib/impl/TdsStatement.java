@@ -8,24 +8,32 @@ import io.r2dbc.spi.Statement;
 import io.r2dbc.spi.Type;
 import org.reactivestreams.Publisher;
 import org.tdslib.javatdslib.codec.EncoderRegistry;
-import org.tdslib.javatdslib.headers.AllHeaders;
+import org.tdslib.javatdslib.codec.TableValue;
 import org.tdslib.javatdslib.packets.PacketType;
-import org.tdslib.javatdslib.packets.TdsMessage;
+import org.tdslib.javatdslib.packets.TdsPacketWriter;
 import org.tdslib.javatdslib.protocol.TdsParameter;
 import org.tdslib.javatdslib.protocol.TdsServerErrorException;
 import org.tdslib.javatdslib.protocol.TdsType;
 import org.tdslib.javatdslib.protocol.rpc.RpcEncodingContext;
 import org.tdslib.javatdslib.reactive.R2dbcErrorTranslator;
 import org.tdslib.javatdslib.reactive.R2dbcTypeMapper;
+import org.tdslib.javatdslib.tokens.models.ReturnValueToken;
 import org.tdslib.javatdslib.transport.ConnectionContext;
+import org.tdslib.javatdslib.transport.PreparedStatementCache;
 import org.tdslib.javatdslib.transport.RpcPacketBuilder;
 import org.tdslib.javatdslib.transport.TdsTransport;
+import reactor.core.publisher.Flux;
 
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteOrder;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Implementation of {@link Statement} for the TDS protocol. This class allows for the execution of
@@ -33,12 +41,25 @@ import java.util.List;
  */
 public class TdsStatement implements Statement {
 
+  // "Could not find prepared statement with handle %d."
+  private static final long ERROR_UNKNOWN_HANDLE = 8179;
+
+  /** Parameter sets per RPC request in {@link #executeMany}, unless configured otherwise. */
+  public static final int DEFAULT_STREAM_ROWS = 1000;
+  /** Approximate encoded bytes per RPC request in {@link #executeMany}. */
+  public static final int DEFAULT_STREAM_BYTES = 64 * 1024;
+  // Groups collected ahead of the one executing; they are not sent until it completes
+  private static final int STREAM_PREFETCH = 1;
+
   private final String query;
   private final TdsTransport transport;
   private final ConnectionContext context;
   private final List<List<TdsParameter>> batchParams = new ArrayList<>();
   private List<TdsParameter> currentParams = new ArrayList<>();
   private int fetchSize = 0;
+  private Duration timeout;
+  private int streamRows = DEFAULT_STREAM_ROWS;
+  private int streamBytes = DEFAULT_STREAM_BYTES;
 
   /**
    * Constructs a new TdsStatement.
@@ -89,6 +110,11 @@ public class TdsStatement implements Statement {
    */
   @Override
   public Statement bind(String name, Object value) {
+    currentParams.add(toParameter(name, value));
+    return this;
+  }
+
+  private TdsParameter toParameter(String name, Object value) {
     if (value == null) {
       throw new IllegalArgumentException("value cannot be null. Use bindNull.");
     }
@@ -103,10 +129,7 @@ public class TdsStatement implements Statement {
     // Ensure the parameter name always starts with '@' ---
     String safeName = name.startsWith("@") ? name : "@" + name;
 
-    currentParams.add(
-        new TdsParameter(tdsType, safeName, p.getValue(), p instanceof Parameter.Out)
-    );
-    return this;
+    return new TdsParameter(tdsType, safeName, p.getValue(), p instanceof Parameter.Out);
   }
 
   /**
@@ -179,18 +202,111 @@ public class TdsStatement implements Statement {
       executions = new ArrayList<>(batchParams);
     }
 
-    return transport.execute(headers -> {
-      if (isSimpleBatch) {
-        return createSqlBatchMessage(query, headers);
-      } else {
-        return createRpcMessage(query, executions, headers);
-      }
-    })
+    Flux<Result.Segment> segments = isSimpleBatch
+        ? transport.execute(PacketType.SQL_BATCH, timeout, writer -> writer.putUtf16(query))
+        : Flux.defer(() -> executeRpc(executions));
+
+    return segments
+        .windowUntil(this::isBoundarySegment)
+        .map(TdsResult::new)
+        .onErrorMap(TdsServerErrorException.class, R2dbcErrorTranslator::translateException);
+  }
+
+  /**
+   * Executes the statement once per parameter set, pulling the sets from {@code rows} as they
+   * are needed. Instead of holding the whole batch, the sets are grouped into RPC requests of at
+   * most {@link #streamThresholds rows or encoded bytes}. Each request is encoded straight into
+   * outbound packets, and the next group is only collected while the current one executes; it
+   * is not sent until the current request has completed, so requests never overlap, even over
+   * MARS, and none is applied after an earlier one failed. Memory therefore stays bounded by
+   * about two requests, whatever the size of the input.
+   *
+   * <p>Each element of {@code rows} binds positionally, like {@link #bind(int, Object)}; a
+   * typed {@link Parameter} with a null value binds NULL. Parameters bound on this statement
+   * are ignored.
+   *
+   * @param rows The parameter sets.
+   * @return A publisher of one {@link Result} per execution, in order.
+   */
+  public Publisher<? extends Result> executeMany(Publisher<Object[]> rows) {
+    return groupParameterSets(Flux.from(rows).map(this::toParameterSet), streamRows, streamBytes)
+        .concatMap(this::executeRpc, STREAM_PREFETCH)
         .windowUntil(this::isBoundarySegment)
         .map(TdsResult::new)
         .onErrorMap(TdsServerErrorException.class, R2dbcErrorTranslator::translateException);
   }
 
+  /**
+   * Groups parameter sets into the RPC requests of {@link #executeMany}. A group closes with the
+   * set that brings it to {@code maxRows} sets or {@code maxBytes} estimated bytes, so a single
+   * set larger than {@code maxBytes} is sent on its own.
+   *
+   * @param sets     The parameter sets.
+   * @param maxRows  The most parameter sets per group.
+   * @param maxBytes The estimated encoded size at which a group is closed.
+   * @return The groups, in order.
+   */
+  static Flux<List<List<TdsParameter>>> groupParameterSets(
+      Flux<List<TdsParameter>> sets, int maxRows, int maxBytes) {
+    return Flux.defer(() -> {
+      int[] pending = new int[2]; // rows, estimated bytes in the open group
+      return sets.bufferUntil(params -> {
+        pending[0]++;
+        for (TdsParameter param : params) {
+          pending[1] += estimateSize(param);
+        }
+        if (pending[0] < maxRows && pending[1] < maxBytes) {
+          return false;
+        }
+        pending[0] = 0;
+        pending[1] = 0;
+        return true;
+      });
+    });
+  }
+
+  /**
+   * Sets how parameter sets are grouped into RPC requests by {@link #executeMany}.
+   *
+   * @param maxRows  The most parameter sets per request.
+   * @param maxBytes The approximate encoded size at which a request is closed.
+   * @return This statement.
+   */
+  public TdsStatement streamThresholds(int maxRows, int maxBytes) {
+    if (maxRows <= 0 || maxBytes <= 0) {
+      throw new IllegalArgumentException("Stream thresholds must be positive");
+    }
+    this.streamRows = maxRows;
+    this.streamBytes = maxBytes;
+    return this;
+  }
+
+  private List<TdsParameter> toParameterSet(Object[] values) {
+    List<TdsParameter> params = new ArrayList<>(values.length);
+    for (int i = 0; i < values.length; i++) {
+      params.add(toParameter("@p" + i, values[i]));
+    }
+    return params;
+  }
+
+  /**
+   * Estimates the encoded size of a parameter value: its name, TYPE_INFO and data.
+   */
+  static int estimateSize(TdsParameter param) {
+    Object value = param.value();
+    int size = param.name().length() * 2 + 16;
+    if (value instanceof CharSequence text) {
+      size += text.length() * 2;
+    } else if (value instanceof byte[] bytes) {
+      size += bytes.length;
+    } else if (value instanceof ByteBuffer buffer) {
+      size += buffer.remaining();
+    } else {
+      size += 16;
+    }
+    return size;
+  }
+
   /**
    * Helper method for Project Reactor's windowUntil operator.
    * Determines if a segment marks the end of a specific SQL statement execution.
@@ -201,35 +317,87 @@ public class TdsStatement implements Statement {
   }
 
   /**
-   * Creates a TDS SQL Batch message for simple, non-parameterized execution.
-   *
-   * @param sql The SQL query string.
-   * @return A {@link TdsMessage} ready for transport.
+   * Runs the parameter sets as one RPC request. Statements are prepared through the
+   * connection's {@link PreparedStatementCache}; the handles of new ones are cached as their
+   * RETURNVALUE tokens are read, even if the caller has cancelled by then, and are then taken
+   * out of the returned segments.
    */
-  private TdsMessage createSqlBatchMessage(String sql, AllHeaders headers) {
-    byte[] sqlBytes = sql.getBytes(StandardCharsets.UTF_16LE);
-    ByteBuffer payload = ByteBuffer.wrap(sqlBytes);
-    return TdsMessage.createWithHeaders(PacketType.SQL_BATCH, headers, payload);
+  private Flux<Result.Segment> executeRpc(List<List<TdsParameter>> executions) {
+    PreparedStatementCache cache = transport.getPreparedStatementCache();
+    Queue<RpcPacketBuilder.PendingPrepare> pendingPrepares = new ConcurrentLinkedQueue<>();
+    Set<ReturnValueToken> claimed = ConcurrentHashMap.newKeySet();
+    return transport.execute(PacketType.RPC_REQUEST, timeout,
+            writer -> pendingPrepares.addAll(writeRpcRequest(writer, executions, cache)),
+            token -> claimHandle(token, pendingPrepares, claimed))
+        .mapNotNull(segment -> stripHandle(segment, claimed))
+        .doOnError(TdsServerErrorException.class, e -> {
+          if (e.getErrorNumber() == ERROR_UNKNOWN_HANDLE) {
+            // The server dropped its handles behind our back; start over
+            cache.clear();
+          }
+        });
   }
 
   /**
-   * Creates a TDS RPC Request message for parameterized or batched execution.
+   * Encodes a TDS RPC Request for parameterized or batched execution directly into the
+   * outbound packet stream.
    *
-   * @param sql        The SQL query string.
+   * @param writer     The packet writer, positioned after ALL_HEADERS.
    * @param executions The list of parameter sets to execute.
-   * @return A {@link TdsMessage} ready for transport.
+   * @param cache      The connection's prepared statement handles.
+   * @return The sp_prepexec calls whose handles are still to come.
    */
-  // Modified in TdsStatement.java
-  private TdsMessage createRpcMessage(
-      String sql, List<List<TdsParameter>> executions, AllHeaders headers) {
+  private List<RpcPacketBuilder.PendingPrepare> writeRpcRequest(
+      TdsPacketWriter writer, List<List<TdsParameter>> executions,
+      PreparedStatementCache cache) {
     EncoderRegistry registry = EncoderRegistry.DEFAULT;
     RpcEncodingContext encodingContext =
         new RpcEncodingContext(context.getVarcharCharset(), context.getCurrentCollationBytes());
 
     RpcPacketBuilder builder =
-        new RpcPacketBuilder(sql, executions, registry, encodingContext);
-    ByteBuffer payload = builder.buildRpcPacket();
-    return TdsMessage.createWithHeaders(PacketType.RPC_REQUEST, headers, payload);
+        new RpcPacketBuilder(query, executions, registry, encodingContext, cache);
+    builder.writeTo(writer);
+    return builder.getPendingPrepares();
+  }
+
+  /**
+   * Takes the handle returned by an sp_prepexec call from its RETURNVALUE token and caches it.
+   * The handle is always the RETURNVALUE with ordinal 0; user parameters start at a higher
+   * ordinal. Called for every RETURNVALUE of the response, whether or not it reaches the caller.
+   */
+  private static void claimHandle(ReturnValueToken token,
+                                  Queue<RpcPacketBuilder.PendingPrepare> pendingPrepares,
+                                  Set<ReturnValueToken> claimed) {
+    if (token.getOrdinal() != 0) {
+      return;
+    }
+    RpcPacketBuilder.PendingPrepare pending = pendingPrepares.poll();
+    if (pending == null) {
+      return;
+    }
+    claimed.add(token);
+    byte[] handle = token.getValue();
+    if (handle != null && handle.length == 4) {
+      pending.complete(ByteBuffer.wrap(handle).order(ByteOrder.LITTLE_ENDIAN).getInt());
+    }
+  }
+
+  /**
+   * Removes a handle taken by {@link #claimHandle} from the OUTPUT parameters of a segment.
+   *
+   * @return The segment, the segment without the handle, or null if only the handle was in it.
+   */
+  private Result.Segment stripHandle(Result.Segment segment, Set<ReturnValueToken> claimed) {
+    if (!(segment instanceof TdsOutSegment out) || claimed.isEmpty()) {
+      return segment;
+    }
+    List<ReturnValueToken> parameters = out.parameters();
+    if (parameters.isEmpty() || !claimed.remove(parameters.get(0))) {
+      return segment;
+    }
+    return parameters.size() == 1
+        ? null
+        : new TdsOutSegment(parameters.subList(1, parameters.size()), context);
   }
 
   /**
@@ -244,6 +412,20 @@ public class TdsStatement implements Statement {
     return this;
   }
 
+  /**
+   * Overrides the connection's statement timeout for this statement.
+   *
+   * @param timeout The timeout; {@link Duration#ZERO} disables it.
+   * @return This statement.
+   */
+  public TdsStatement timeout(Duration timeout) {
+    if (timeout == null || timeout.isNegative()) {
+      throw new IllegalArgumentException("Statement timeout must be zero or positive");
+    }
+    this.timeout = timeout;
+    return this;
+  }
+
   /**
    * Resolves the appropriate {@link TdsType} for a given R2DBC {@link Parameter}.
    *
@@ -251,6 +433,9 @@ public class TdsStatement implements Statement {
    * @return The corresponding TDS type, or {@code null} if it cannot be resolved.
    */
   private TdsType resolveTdsType(Parameter p) {
+    if (p.getValue() instanceof TableValue) {
+      return TdsType.TVP;
+    }
     Type t = p.getType();
     if (t instanceof R2dbcType rdbcType) {
       return R2dbcTypeMapper.toTdsType(rdbcType);
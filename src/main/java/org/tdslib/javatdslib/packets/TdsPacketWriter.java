@@ -0,0 +1,404 @@
+package org.tdslib.javatdslib.packets;
+
+import org.tdslib.javatdslib.buffer.TdsBufferPool;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.util.function.Consumer;
+
+/**
+ * Streams a logical TDS message straight into packet-sized buffers.
+ *
+ * <p>Each buffer reserves room for the 8-byte packet header up front. Payload bytes are written
+ * little-endian directly behind it, and once a buffer is full (or the message ends) the header is
+ * patched in place and the packet is handed to the sink. A message therefore costs exactly one
+ * copy from the Java objects being encoded into the buffers that go to the socket.
+ *
+ * <p>A writer is single-use and not thread-safe.
+ */
+public final class TdsPacketWriter {
+  /** Length of the TDS packet header. */
+  public static final int HEADER_LENGTH = 8;
+
+  private static final int SCRATCH_INITIAL_SIZE = 8192;
+
+  private final byte packetType;
+  private final int spid;
+  private final int packetSize;
+  private final TdsBufferPool bufferPool;
+  private final Consumer<ByteBuffer> packetSink;
+  private final CharsetEncoder utf16Encoder;
+  private final int framePrefix;
+
+  private ByteBuffer current;
+  private ByteBuffer scratch;
+  private ByteBuffer charSpill;
+  private byte firstPacketStatus = PacketStatus.NORMAL;
+  private int packetId = 1;
+  private long bytesWritten;
+  private boolean finished;
+
+  /**
+   * Constructs a new TdsPacketWriter.
+   *
+   * @param packetType   The TDS packet type stamped on every packet of the message.
+   * @param spid         The server process id for the header.
+   * @param packetSize   The negotiated packet size, header included.
+   * @param bufferPool   The pool to draw packet buffers from.
+   * @param packetSink   Receives each completed packet, flipped and ready to write. Ownership of
+   *                     the buffer passes to the sink.
+   * @param utf16Encoder A UTF-16LE encoder reused for all text written by this writer.
+   */
+  public TdsPacketWriter(PacketType packetType, int spid, int packetSize,
+                         TdsBufferPool bufferPool, Consumer<ByteBuffer> packetSink,
+                         CharsetEncoder utf16Encoder) {
+    this(packetType, spid, packetSize, bufferPool, packetSink, utf16Encoder, 0);
+  }
+
+  /**
+   * Constructs a new TdsPacketWriter that leaves room in front of every packet for a lower-layer
+   * frame header, such as the SMP header of a MARS session.
+   *
+   * @param packetType   The TDS packet type stamped on every packet of the message.
+   * @param spid         The server process id for the header.
+   * @param packetSize   The negotiated packet size, header included.
+   * @param bufferPool   The pool to draw packet buffers from.
+   * @param packetSink   Receives each completed packet, flipped and ready to write, starting at
+   *                     the reserved prefix. Ownership of the buffer passes to the sink.
+   * @param utf16Encoder A UTF-16LE encoder reused for all text written by this writer.
+   * @param framePrefix  Bytes reserved ahead of each TDS packet header for the sink to fill.
+   */
+  public TdsPacketWriter(PacketType packetType, int spid, int packetSize,
+                         TdsBufferPool bufferPool, Consumer<ByteBuffer> packetSink,
+                         CharsetEncoder utf16Encoder, int framePrefix) {
+    this.packetType = packetType.getValue();
+    this.spid = spid;
+    this.packetSize = packetSize;
+    this.bufferPool = bufferPool;
+    this.packetSink = packetSink;
+    this.utf16Encoder = utf16Encoder;
+    this.framePrefix = framePrefix;
+  }
+
+  /**
+   * Sets additional status bits (e.g. RESETCONNECTION) for the first packet of the message.
+   * Must be called before anything is written.
+   *
+   * @param status The status bits to OR into the first packet header.
+   */
+  public void setFirstPacketStatus(byte status) {
+    this.firstPacketStatus = status;
+  }
+
+  /**
+   * Returns the number of payload bytes written so far.
+   *
+   * @return The payload byte count, excluding packet headers.
+   */
+  public long getBytesWritten() {
+    return bytesWritten;
+  }
+
+  /**
+   * Writes a single byte.
+   *
+   * @param value The byte to write.
+   * @return This writer.
+   */
+  public TdsPacketWriter put(byte value) {
+    ensureRoom();
+    current.put(value);
+    bytesWritten++;
+    return this;
+  }
+
+  /**
+   * Writes a little-endian 16-bit value.
+   *
+   * @param value The value to write.
+   * @return This writer.
+   */
+  public TdsPacketWriter putShort(short value) {
+    ensureRoom();
+    if (current.remaining() >= 2) {
+      current.putShort(value);
+      bytesWritten += 2;
+      return this;
+    }
+    return put((byte) value).put((byte) (value >> 8));
+  }
+
+  /**
+   * Writes a little-endian 32-bit value.
+   *
+   * @param value The value to write.
+   * @return This writer.
+   */
+  public TdsPacketWriter putInt(int value) {
+    ensureRoom();
+    if (current.remaining() >= 4) {
+      current.putInt(value);
+      bytesWritten += 4;
+      return this;
+    }
+    return putShort((short) value).putShort((short) (value >> 16));
+  }
+
+  /**
+   * Writes a little-endian 64-bit value.
+   *
+   * @param value The value to write.
+   * @return This writer.
+   */
+  public TdsPacketWriter putLong(long value) {
+    ensureRoom();
+    if (current.remaining() >= 8) {
+      current.putLong(value);
+      bytesWritten += 8;
+      return this;
+    }
+    return putInt((int) value).putInt((int) (value >> 32));
+  }
+
+  /**
+   * Writes a byte array, spanning packets as needed.
+   *
+   * @param src The bytes to write.
+   * @return This writer.
+   */
+  public TdsPacketWriter put(byte[] src) {
+    return put(src, 0, src.length);
+  }
+
+  /**
+   * Writes a range of a byte array, spanning packets as needed.
+   *
+   * @param src    The source array.
+   * @param offset The first byte to write.
+   * @param length The number of bytes to write.
+   * @return This writer.
+   */
+  public TdsPacketWriter put(byte[] src, int offset, int length) {
+    while (length > 0) {
+      ensureRoom();
+      int chunk = Math.min(length, current.remaining());
+      current.put(src, offset, chunk);
+      offset += chunk;
+      length -= chunk;
+      bytesWritten += chunk;
+    }
+    return this;
+  }
+
+  /**
+   * Writes the remaining bytes of a buffer, spanning packets as needed.
+   *
+   * @param src The source buffer; its position is advanced to its limit.
+   * @return This writer.
+   */
+  public TdsPacketWriter put(ByteBuffer src) {
+    while (src.hasRemaining()) {
+      ensureRoom();
+      int chunk = Math.min(src.remaining(), current.remaining());
+      int limit = src.limit();
+      src.limit(src.position() + chunk);
+      current.put(src);
+      src.limit(limit);
+      bytesWritten += chunk;
+    }
+    return this;
+  }
+
+  /**
+   * Encodes text as UTF-16LE directly into the packet buffers.
+   *
+   * @param text The text to write.
+   * @return This writer.
+   */
+  public TdsPacketWriter putUtf16(CharSequence text) {
+    return putChars(text, utf16Encoder);
+  }
+
+  /**
+   * Encodes text with the given encoder directly into the packet buffers. A character whose bytes
+   * straddle a packet boundary is split across the two packets.
+   *
+   * @param text    The text to write.
+   * @param encoder The encoder to use; it is reset before use.
+   * @return This writer.
+   */
+  public TdsPacketWriter putChars(CharSequence text, CharsetEncoder encoder) {
+    encoder.reset();
+    CharBuffer in = CharBuffer.wrap(text);
+    // Phases: 0 = encoding, 1 = end of input, 2 = flushing encoder state
+    int phase = 0;
+    while (true) {
+      ensureRoom();
+      int before = current.position();
+      CoderResult result = encodeStep(phase, in, encoder, current, in.limit());
+      bytesWritten += current.position() - before;
+
+      if (result.isUnderflow()) {
+        if (phase == 2) {
+          return this;
+        }
+        phase++;
+      } else if (result.isOverflow()) {
+        if (current.hasRemaining()) {
+          spillChars(phase, in, encoder);
+        }
+      } else {
+        throwCodingException(result);
+      }
+    }
+  }
+
+  /**
+   * Runs a {@link ByteBuffer}-based encoder (such as a parameter codec) against the packet
+   * stream. The encoder writes straight into the current packet when it fits; otherwise its
+   * output is staged in a reusable scratch buffer and split across packets.
+   *
+   * @param encoding Writes little-endian bytes into the buffer it is given.
+   * @return This writer.
+   */
+  public TdsPacketWriter putEncoded(Consumer<ByteBuffer> encoding) {
+    ensureRoom();
+    int start = current.position();
+    try {
+      encoding.accept(current);
+      current.order(ByteOrder.LITTLE_ENDIAN);
+      bytesWritten += current.position() - start;
+      return this;
+    } catch (BufferOverflowException | IndexOutOfBoundsException overflow) {
+      current.position(start).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    if (scratch == null) {
+      scratch = ByteBuffer.allocate(SCRATCH_INITIAL_SIZE);
+    }
+    while (true) {
+      scratch.clear().order(ByteOrder.LITTLE_ENDIAN);
+      try {
+        encoding.accept(scratch);
+        break;
+      } catch (BufferOverflowException | IndexOutOfBoundsException overflow) {
+        scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+      }
+    }
+    scratch.flip();
+    return put(scratch);
+  }
+
+  /**
+   * Completes the message: the last packet is stamped with EOM and handed to the sink.
+   */
+  public void finish() {
+    finish(PacketStatus.EOM);
+  }
+
+  /**
+   * Terminates a partially sent message with IGNORE|EOM so the server discards it.
+   */
+  public void abort() {
+    finish((byte) (PacketStatus.EOM | PacketStatus.IGNORE));
+  }
+
+  private void finish(byte status) {
+    if (finished) {
+      return;
+    }
+    finished = true;
+    if (current == null) {
+      current = newPacketBuffer();
+    }
+    emit(status);
+  }
+
+  private void ensureRoom() {
+    if (finished) {
+      throw new IllegalStateException("TDS message has already been completed");
+    }
+    if (current == null) {
+      current = newPacketBuffer();
+    } else if (!current.hasRemaining()) {
+      emit(PacketStatus.NORMAL);
+      current = newPacketBuffer();
+    }
+  }
+
+  private ByteBuffer newPacketBuffer() {
+    ByteBuffer buffer = bufferPool.acquire(framePrefix + packetSize);
+    buffer.limit(framePrefix + packetSize).position(framePrefix + HEADER_LENGTH);
+    return buffer.order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private void emit(byte status) {
+    ByteBuffer packet = current;
+    current = null;
+    if (packetId == 1) {
+      status |= firstPacketStatus;
+    }
+
+    // Patch the big-endian header in place now that the length is known
+    int header = framePrefix;
+    int length = packet.position() - header;
+    packet.put(header, packetType);
+    packet.put(header + 1, status);
+    packet.put(header + 2, (byte) (length >>> 8));
+    packet.put(header + 3, (byte) length);
+    packet.put(header + 4, (byte) (spid >>> 8));
+    packet.put(header + 5, (byte) spid);
+    packet.put(header + 6, (byte) packetId);
+    packet.put(header + 7, (byte) 0);
+    packet.flip().order(ByteOrder.BIG_ENDIAN);
+
+    packetId++;
+    packetSink.accept(packet);
+  }
+
+  private static CoderResult encodeStep(int phase, CharBuffer in, CharsetEncoder encoder,
+                                        ByteBuffer out, int inputLimit) {
+    if (phase == 2) {
+      return encoder.flush(out);
+    }
+    int limit = in.limit();
+    in.limit(inputLimit);
+    try {
+      return encoder.encode(in, out, phase == 1);
+    } finally {
+      in.limit(limit);
+    }
+  }
+
+  /**
+   * The current packet has a few bytes left but not enough for the next character. Encode just
+   * that character (or surrogate pair) on the side and split its bytes across the boundary, so
+   * every packet but the last is filled completely.
+   */
+  private void spillChars(int phase, CharBuffer in, CharsetEncoder encoder) {
+    if (charSpill == null) {
+      charSpill = ByteBuffer.allocate(16);
+    }
+    charSpill.clear();
+    int inputLimit = Math.min(in.limit(), in.position() + 2);
+    CoderResult result = encodeStep(phase, in, encoder, charSpill, inputLimit);
+    if (result.isError()) {
+      throwCodingException(result);
+    }
+    charSpill.flip();
+    put(charSpill);
+  }
+
+  private static void throwCodingException(CoderResult result) {
+    try {
+      result.throwException();
+    } catch (CharacterCodingException e) {
+      throw new IllegalArgumentException("Unable to encode text for TDS message", e);
+    }
+  }
+}
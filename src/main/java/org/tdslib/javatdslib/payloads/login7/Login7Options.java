@@ -9,6 +9,13 @@ import java.time.ZoneId;
  * Configuration options used when building a TDS LOGIN7 payload.
  */
 public class Login7Options {
+  /** Packet size requested when none is configured. */
+  public static final int DEFAULT_PACKET_SIZE = 8000;
+  /** Smallest packet size the server accepts. */
+  public static final int MIN_PACKET_SIZE = 512;
+  /** Largest packet size the server accepts. */
+  public static final int MAX_PACKET_SIZE = 32767;
+
   private TdsVersion tdsVersion;
   private int packetSize;
   private long clientProgVer;
@@ -22,7 +29,7 @@ public class Login7Options {
    */
   public Login7Options() {
     this.tdsVersion = TdsVersion.V7_4;
-    this.packetSize = 8000; // TdsConstants.DEFAULT_PACKET_SIZE;
+    this.packetSize = DEFAULT_PACKET_SIZE;
     this.clientProgVer = 0;
     this.clientPid = ProcessHandle.current().pid();
     this.connectionId = 0;
@@ -47,7 +54,17 @@ public class Login7Options {
     return packetSize;
   }
 
+  /**
+   * Sets the packet size requested at login. The server may grant a different size, reported by
+   * a PACKET_SIZE ENVCHANGE.
+   *
+   * @param s The packet size, between {@link #MIN_PACKET_SIZE} and {@link #MAX_PACKET_SIZE}.
+   */
   public void setPacketSize(final int s) {
+    if (s < MIN_PACKET_SIZE || s > MAX_PACKET_SIZE) {
+      throw new IllegalArgumentException("Packet size must be between " + MIN_PACKET_SIZE
+          + " and " + MAX_PACKET_SIZE + ", was " + s);
+    }
     this.packetSize = s;
   }
 
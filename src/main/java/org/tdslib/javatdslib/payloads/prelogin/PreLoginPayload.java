@@ -86,11 +86,21 @@ public class PreLoginPayload extends Payload {
    * @param encrypt whether to request encryption
    */
   public PreLoginPayload(final boolean encrypt) {
+    this(encrypt, false);
+  }
+
+  /**
+   * Construct a PreLoginPayload to send.
+   *
+   * @param encrypt whether to request encryption
+   * @param mars    whether to request MARS (the MARS option is only sent when true)
+   */
+  public PreLoginPayload(final boolean encrypt, final boolean mars) {
     this.encryption = encrypt ? EncryptionType.ON : EncryptionType.OFF;
     this.version = new SqlVersion(16, 0, 0, 0);
     this.instance = 0;
     this.threadId = Thread.currentThread().getId();
-    this.mars = 0;
+    this.mars = mars ? MarsType.ENABLED.getValue() : MarsType.DISABLED.getValue();
     this.fedAuth = 0;
     buildBufferInternal();
   }
@@ -129,7 +139,9 @@ public class PreLoginPayload extends Payload {
     options.add(new Object[]{OPTION_ENCRYPTION, encryptionBytes}); // Encryption
     // options.add(new Object[]{OPTION_INSTANCE, instanceBytes});  // Instance
     // options.add(new Object[]{OPTION_THREAD_ID, threadIdBytes}); // ThreadID
-    // options.add(new Object[]{OPTION_MARS, marsBytes});          // MARS
+    if (mars == MarsType.ENABLED.getValue()) {
+      options.add(new Object[]{OPTION_MARS, marsBytes});           // MARS
+    }
     // options.add(new Object[]{OPTION_FED_AUTH, fedAuthBytes});   // FedAuth
 
     // 3. Calculate Sizes
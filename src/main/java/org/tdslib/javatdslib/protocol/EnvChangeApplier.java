@@ -104,8 +104,8 @@ public class EnvChangeApplier {
 
       case RESET_CONNECTION:
       case RESET_CONNECTION_SKIP_TRAN:
-        context.resetToDefaults();
-        logger.warn("Connection reset by server ({})", type);
+        context.resetToDefaults(type == EnvChangeType.RESET_CONNECTION_SKIP_TRAN);
+        logger.debug("Connection reset acknowledged by server ({})", type);
         break;
 
       case BEGIN_TRANSACTION:
@@ -11,6 +11,7 @@ public class PreLoginResponse {
   private int sqlBuildNumber = 0;
   private byte encryption = 0;          // 0=off, 1=on, 2=requested, 3=required
   private int negotiatedPacketSize = 4096; // default, updated if server specifies
+  private boolean mars = false;
 
   /**
    * Sets the parsed SQL Server version components.
@@ -34,6 +35,15 @@ public class PreLoginResponse {
     this.encryption = enc;
   }
 
+  /**
+   * Sets the MARS flag received from the server.
+   *
+   * @param mars true if the server accepted MARS.
+   */
+  public void setMars(boolean mars) {
+    this.mars = mars;
+  }
+
   /**
    * Sets the negotiated packet size if within allowed range.
    *
@@ -70,6 +80,15 @@ public class PreLoginResponse {
     return negotiatedPacketSize;
   }
 
+  /**
+   * Did the server accept MARS.
+   *
+   * @return true if the connection must switch to SMP after login.
+   */
+  public boolean isMarsEnabled() {
+    return mars;
+  }
+
   /**
    * Does the server require or request encryption.
    * Useful to decide whether to start TLS handshake.
@@ -95,6 +114,7 @@ public class PreLoginResponse {
         + "version=" + getVersionString()
         + ", encryption=" + encryption
         + ", packetSize=" + negotiatedPacketSize
+        + ", mars=" + mars
         + '}';
   }
 }
\ No newline at end of file
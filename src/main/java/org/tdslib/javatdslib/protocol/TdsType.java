@@ -65,7 +65,10 @@ public enum TdsType {
   IMAGE(0x22, LengthStrategy.LONGLEN, -1),
 
   // --- GUID ---
-  GUID(0x24, LengthStrategy.BYTELEN, 16);
+  GUID(0x24, LengthStrategy.BYTELEN, 16),
+
+  // --- Table-valued parameters (RPC input only) ---
+  TVP(0xF3, LengthStrategy.TABLE, -1);
 
   public final int byteVal;
   public final LengthStrategy strategy;
@@ -110,7 +113,8 @@ public enum TdsType {
     SCALE_LEN,
     PLP,
     PREC_SCALE,
-    LONGLEN
+    LONGLEN,
+    TABLE
   }
 
   /**
@@ -1,5 +1,6 @@
 package org.tdslib.javatdslib.protocol.rpc;
 
+import org.tdslib.javatdslib.packets.TdsPacketWriter;
 import org.tdslib.javatdslib.protocol.TdsParameter;
 
 import java.nio.ByteBuffer;
@@ -28,4 +29,17 @@ public interface ParameterEncoder {
    * Writes the actual binary payload of the value.
    */
   void writeValue(ByteBuffer buf, TdsParameter entry, RpcEncodingContext context);
+
+  /**
+   * Writes TYPE_INFO followed by the value into the outbound packet stream. The default runs
+   * {@link #writeTypeInfo} and {@link #writeValue} through {@link TdsPacketWriter#putEncoded},
+   * which is right for small fixed-size values. Codecs for values that can exceed a packet
+   * override it to encode each value once, straight into the packets.
+   */
+  default void encode(TdsPacketWriter writer, TdsParameter entry, RpcEncodingContext context) {
+    writer.putEncoded(buf -> {
+      writeTypeInfo(buf, entry, context);
+      writeValue(buf, entry, context);
+    });
+  }
 }
\ No newline at end of file
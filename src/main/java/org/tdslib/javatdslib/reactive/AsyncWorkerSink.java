@@ -6,13 +6,10 @@ import org.slf4j.LoggerFactory;
 import org.tdslib.javatdslib.impl.TdsMessageSegment;
 import org.tdslib.javatdslib.impl.TdsOutSegment;
 import org.tdslib.javatdslib.impl.TdsRow;
+import org.tdslib.javatdslib.impl.TdsRowMetadata;
 import org.tdslib.javatdslib.impl.TdsUpdateCount;
 import org.tdslib.javatdslib.protocol.EnvChangeApplier;
 import org.tdslib.javatdslib.protocol.TdsServerErrorException;
-import org.tdslib.javatdslib.reactive.events.ColumnEvent;
-import org.tdslib.javatdslib.reactive.events.ErrorEvent;
-import org.tdslib.javatdslib.reactive.events.TdsStreamEvent;
-import org.tdslib.javatdslib.reactive.events.TokenEvent;
 import org.tdslib.javatdslib.tokens.ColumnData;
 import org.tdslib.javatdslib.tokens.Token;
 import org.tdslib.javatdslib.tokens.models.ColMetaDataToken;
@@ -55,6 +52,7 @@ public class AsyncWorkerSink {
   private volatile boolean isAttentionPending = false;
 
   private ColMetaDataToken activeMetaData;
+  private TdsRowMetadata activeRowMetadata;
   private RowDrainer activeRowDrainer;
   private final List<ReturnValueToken> activeOutParams = new java.util.ArrayList<>();
 
@@ -63,6 +61,7 @@ public class AsyncWorkerSink {
   private Consumer<Result.Segment> onNext;
   private Consumer<Throwable> onError;
   private Runnable onComplete;
+  private Consumer<ReturnValueToken> onReturnValue;
 
   /**
    * Constructs a new AsyncWorkerSink.
@@ -93,6 +92,16 @@ public class AsyncWorkerSink {
     this.onComplete = onComplete;
   }
 
+  /**
+   * Sets a listener that sees every RETURNVALUE token of the response, including those
+   * vacuumed after the stream was cancelled, when no segment carrying them is emitted.
+   *
+   * @param onReturnValue Consumer called with each RETURNVALUE token, or null.
+   */
+  public void setReturnValueListener(Consumer<ReturnValueToken> onReturnValue) {
+    this.onReturnValue = onReturnValue;
+  }
+
   /**
    * Requests processing of {@code n} additional events.
    *
@@ -131,7 +140,8 @@ public class AsyncWorkerSink {
 
         scheduleDrain(); // Wake up the drain loop to vacuum the remaining bytes
       } else {
-        tokenQueue.clear();
+        // Only the drain thread may consume from the queue; it clears it on the way out
+        scheduleDrain();
       }
     }
   }
@@ -165,19 +175,21 @@ public class AsyncWorkerSink {
 
           // Reset the tracker for this specific loop iteration
           this.segmentEmitted = false;
-          TdsStreamEvent event = tokenQueue.poll();
+          TdsTokenQueue.Event event = tokenQueue.poll();
           if (event == null) {
             break;
           }
 
-          if (event instanceof ErrorEvent err) {
-            pushError(err.error());
+          // The slot is reused: take what we need before processing polls again
+          TdsTokenQueue.Kind kind = event.kind();
+          if (kind == TdsTokenQueue.Kind.ERROR) {
+            pushError(event.error());
             isCancelled.set(true);
             break;
-          } else if (event instanceof TokenEvent te) {
-            processToken(te.token());
-          } else if (event instanceof ColumnEvent ce) {
-            processColumn(ce.data());
+          } else if (kind == TdsTokenQueue.Kind.TOKEN) {
+            processToken(event.token());
+          } else {
+            processColumn(event.column());
           }
 
           if (this.segmentEmitted) {
@@ -189,6 +201,11 @@ public class AsyncWorkerSink {
             break;
           }
         }
+
+        // A stream cancelled on a clean wire has nothing left to wait for; free what is queued
+        if (isCancelled.get() && !isDiscarding && !isPaused.get()) {
+          tokenQueue.clear();
+        }
       } catch (Throwable t) {
         // If downstream throws an error or the parser crashes, we catch it here.
         // We push the error and cancel the stream to stop further processing.
@@ -208,6 +225,11 @@ public class AsyncWorkerSink {
   }
 
   private void processToken(Token token) {
+    // Seen even while discarding: the server has acted on it whether or not anyone listens
+    if (token instanceof ReturnValueToken retVal && onReturnValue != null) {
+      onReturnValue.accept(retVal);
+    }
+
     // THE VACUUM: If discarding, drop everything until the appropriate DONE token
     if (this.isDiscarding) {
       if (token instanceof DoneToken done) {
@@ -243,13 +265,16 @@ public class AsyncWorkerSink {
 
     if (token instanceof ColMetaDataToken meta) {
       this.activeMetaData = meta;
+      // Built once per result set and shared by every row
+      this.activeRowMetadata = TdsRowMetadata.from(meta);
     } else if (token instanceof RowToken) {
       // FIXED: Use the new two-phase lifecycle flags
       if (activeRowDrainer != null && activeRowDrainer.isReadyToYield()
           && !activeRowDrainer.isRowEmitted()) {
         emitSegment(activeRowDrainer.assembleRow());
       }
-      this.activeRowDrainer = new RowDrainer(activeMetaData, context, tokenQueue);
+      this.activeRowDrainer =
+          new RowDrainer(activeMetaData, activeRowMetadata, context, tokenQueue);
 
     } else if (token instanceof DoneToken done) {
 
@@ -59,6 +59,7 @@ public class R2dbcTypeMapper {
       case NCHAR -> R2dbcType.NCHAR;
       case BIGBINARY, BINARY -> R2dbcType.BINARY;
       case BIGVARBIN, VARBINARY, IMAGE -> R2dbcType.VARBINARY;
+      case TVP -> R2dbcType.COLLECTION;
     };
   }
 }
\ No newline at end of file
@@ -3,12 +3,12 @@ package org.tdslib.javatdslib.reactive;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.tdslib.javatdslib.impl.TdsRow;
-import org.tdslib.javatdslib.protocol.TdsType;
+import org.tdslib.javatdslib.impl.TdsRowMetadata;
 import org.tdslib.javatdslib.tokens.ColumnData;
 import org.tdslib.javatdslib.tokens.CompleteDataColumn;
 import org.tdslib.javatdslib.tokens.PartialDataColumn;
+import org.tdslib.javatdslib.tokens.RowDecodePlan;
 import org.tdslib.javatdslib.tokens.models.ColMetaDataToken;
-import org.tdslib.javatdslib.tokens.models.ColumnMeta;
 import org.tdslib.javatdslib.transport.ConnectionContext;
 
 /**
@@ -24,6 +24,8 @@ public class RowDrainer {
   public static final Object UNFETCHED = new Object();
 
   private final ColMetaDataToken metaData;
+  private final TdsRowMetadata rowMetadata;
+  private final RowDecodePlan decodePlan;
   private final ConnectionContext context;
   private final Object[] assemblingRow;
   private final int totalColumns;
@@ -38,13 +40,17 @@ public class RowDrainer {
   /**
    * Constructs a new RowDrainer instance.
    *
-   * @param metaData   The column metadata token for the row.
-   * @param context    The connection context.
-   * @param tokenQueue The token queue.
+   * @param metaData    The column metadata token for the row.
+   * @param rowMetadata The R2DBC row metadata shared across the result set.
+   * @param context     The connection context.
+   * @param tokenQueue  The token queue.
    */
   public RowDrainer(
-      ColMetaDataToken metaData, ConnectionContext context, TdsTokenQueue tokenQueue) {
+      ColMetaDataToken metaData, TdsRowMetadata rowMetadata,
+      ConnectionContext context, TdsTokenQueue tokenQueue) {
     this.metaData = metaData;
+    this.rowMetadata = rowMetadata;
+    this.decodePlan = metaData.getDecodePlan();
     this.context = context;
     this.tokenQueue = tokenQueue;
     this.totalColumns = metaData.getColumns().size();
@@ -61,12 +67,9 @@ public class RowDrainer {
    */
   public void processColumn(ColumnData cd) {
     int colIndex = cd.getColumnIndex();
-    ColumnMeta colMeta = metaData.getColumns().get(colIndex);
-    TdsType tdsType = TdsType.valueOf(colMeta.getDataType());
 
-    // FIX: A column is PLP if the strategy is PLP, OR if the Framer chunked it as PartialData
-    boolean isPlp = (cd instanceof PartialDataColumn)
-        || (tdsType != null && tdsType.strategy == TdsType.LengthStrategy.PLP);
+    // FIX: A column is PLP if the plan says so, OR if the Framer chunked it as PartialData
+    boolean isPlp = (cd instanceof PartialDataColumn) || decodePlan.isPlp(colIndex);
 
     if (isPlp) {
       logger.trace("[RowDrainer] PLP/LOB detected at index {}. Yielding early.", colIndex);
@@ -77,7 +80,8 @@ public class RowDrainer {
     }
 
     if (cd instanceof CompleteDataColumn c) {
-      assemblingRow[colIndex] = c.getData(); // Standard materialized data
+      // Standard materialized data: keep the arena slice rather than copying it out
+      assemblingRow[colIndex] = c.isNull() ? null : c;
       checkRowCompletion(colIndex);
     }
   }
@@ -111,6 +115,7 @@ public class RowDrainer {
    * @return A complete TdsRow.
    */
   public TdsRow assembleRow() {
-    return new TdsRow(this.assemblingRow, this.metaData, this.context, this.tokenQueue);
+    return new TdsRow(
+        this.assemblingRow, this.metaData, this.rowMetadata, this.context, this.tokenQueue);
   }
 }
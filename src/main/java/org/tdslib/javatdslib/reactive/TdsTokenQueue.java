@@ -2,35 +2,71 @@ package org.tdslib.javatdslib.reactive;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.tdslib.javatdslib.reactive.events.ColumnEvent;
-import org.tdslib.javatdslib.reactive.events.ErrorEvent;
-import org.tdslib.javatdslib.reactive.events.TdsStreamEvent;
-import org.tdslib.javatdslib.reactive.events.TokenEvent;
 import org.tdslib.javatdslib.tokens.ColumnData;
+import org.tdslib.javatdslib.tokens.CompleteDataColumn;
+import org.tdslib.javatdslib.tokens.PartialDataColumn;
 import org.tdslib.javatdslib.tokens.TdsDecoderSink;
 import org.tdslib.javatdslib.tokens.Token;
 import org.tdslib.javatdslib.transport.TdsTransport;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * A strictly bounded concurrent queue.
- * Responsible ONLY for buffering events and managing network backpressure (Watermarks).
+ * A lock-free single-producer/single-consumer event ring between the token decoder and the
+ * {@link AsyncWorkerSink}. Responsible ONLY for buffering events and managing network
+ * backpressure (Watermarks).
+ *
+ * <p>The producer is the event loop thread running the {@link
+ * org.tdslib.javatdslib.tokens.StatefulTokenDecoder}; the consumer is whichever thread currently
+ * owns the drain (the worker, or a LOB stream while the worker is paused). Events live in
+ * preallocated, mutable {@link Event} slots grouped into fixed-size segments. A full segment is
+ * chained to the next one, and segments the consumer has passed are handed back to the producer
+ * for reuse, so the steady state allocates nothing per event. The byte size of the queue is what
+ * is bounded: the producer suspends the socket above the high watermark and the consumer resumes
+ * it below the low watermark.
+ *
+ * <p>Watermarks are checked, and the consumer woken, once per decoded packet in {@link #flush()}
+ * rather than per event. Besides the worker's standing callback, a consumer that finds the queue
+ * empty can register a one-shot {@link #whenAvailable} callback, or park in {@link #awaitNext()},
+ * instead of polling.
  */
 public class TdsTokenQueue implements TdsDecoderSink {
   private static final Logger logger = LoggerFactory.getLogger(TdsTokenQueue.class);
 
   private static final int HIGH_WATERMARK = 5 * 1024 * 1024; // 5 MB
   private static final int LOW_WATERMARK = 1024 * 1024;  // 1 MB
+  private static final int SEGMENT_SIZE = 1024; // Power of two
+  private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
 
   private final TdsTransport transport;
-  private final Queue<TdsStreamEvent> queue = new ConcurrentLinkedQueue<>();
-  private final AtomicInteger queueByteWeight = new AtomicInteger(0);
   private final AtomicBoolean isNetworkSuspended = new AtomicBoolean(false);
 
+  // Published by the producer with release stores, read by the consumer
+  private final AtomicLong publishedIndex = new AtomicLong();
+  private final AtomicLong producedWeight = new AtomicLong();
+  // Published by the consumer, read by the producer at flush
+  private final AtomicLong consumedWeight = new AtomicLong();
+  // A segment the consumer has finished with, waiting to be reused by the producer
+  private final AtomicReference<Segment> spareSegment = new AtomicReference<>();
+  // One-shot wake-up for a consumer waiting on an empty queue
+  private final AtomicReference<Runnable> availabilityCallback = new AtomicReference<>();
+
+  // Producer thread only
+  private Segment producerSegment;
+  private long producerIndex;
+  private long producerWeight;
+
+  // Consumer thread only
+  private Segment consumerSegment;
+  private long consumerSegmentStart;
+  private long consumerIndex;
+  private long cachedPublishedIndex;
+  private long consumerWeight;
+  private Event lastPolled;
+
   private Runnable onEventAvailableCallback;
 
   /**
@@ -40,6 +76,8 @@ public class TdsTokenQueue implements TdsDecoderSink {
    */
   public TdsTokenQueue(TdsTransport transport) {
     this.transport = transport;
+    this.producerSegment = new Segment();
+    this.consumerSegment = producerSegment;
   }
 
   /**
@@ -57,25 +95,37 @@ public class TdsTokenQueue implements TdsDecoderSink {
 
   @Override
   public void onToken(Token token) {
-    offer(new TokenEvent(token));
+    Event event = claim();
+    event.kind = Kind.TOKEN;
+    event.token = token;
+    publish(0);
   }
 
   @Override
   public void onColumnData(ColumnData data) {
-    offer(new ColumnEvent(data));
+    Event event = claim();
+    event.kind = Kind.COLUMN;
+    event.column = data;
+    publish(weightOf(data));
   }
 
   @Override
   public void onError(Throwable error) {
-    offer(new ErrorEvent(error));
+    Event event = claim();
+    event.kind = Kind.ERROR;
+    event.error = error;
+    publish(0);
   }
 
-  private void offer(TdsStreamEvent event) {
-    // TODO: check offer, paranoid code.
-    queue.offer(event);
-    int currentWeight = queueByteWeight.addAndGet(event.getByteWeight());
-    logger.trace("Enqueued {}. Current weight: {} bytes",
-        event.getClass().getSimpleName(), currentWeight);
+  /**
+   * Applies the high watermark and wakes the consumer. Called once the decoder has finished
+   * with a packet.
+   */
+  @Override
+  public void flush() {
+    // Full fence: pairs with the re-check in whenAvailable() so a waiter is never missed
+    publishedIndex.set(producerIndex);
+    long currentWeight = producerWeight - consumedWeight.get();
 
     // 1. Manage High Watermark (Suspend)
     if (currentWeight > HIGH_WATERMARK && isNetworkSuspended.compareAndSet(false, true)) {
@@ -89,6 +139,49 @@ public class TdsTokenQueue implements TdsDecoderSink {
     if (onEventAvailableCallback != null) {
       onEventAvailableCallback.run();
     }
+    if (availabilityCallback.get() != null) {
+      Runnable waiter = availabilityCallback.getAndSet(null);
+      if (waiter != null) {
+        waiter.run();
+      }
+    }
+  }
+
+  private Event claim() {
+    int offset = (int) (producerIndex & SEGMENT_MASK);
+    if (offset == 0 && producerIndex != 0) {
+      Segment next = spareSegment.getAndSet(null);
+      if (next == null) {
+        next = new Segment();
+      }
+      // Made visible to the consumer by the release store in publish()
+      producerSegment.next = next;
+      producerSegment = next;
+    }
+    return producerSegment.events[offset];
+  }
+
+  private void publish(int weight) {
+    producerIndex++;
+    if (weight != 0) {
+      producerWeight += weight;
+      producedWeight.lazySet(producerWeight);
+    }
+    publishedIndex.lazySet(producerIndex);
+    if (logger.isTraceEnabled()) {
+      logger.trace("Enqueued event #{}. Produced weight: {} bytes", producerIndex,
+          producerWeight);
+    }
+  }
+
+  private static int weightOf(ColumnData data) {
+    if (data instanceof CompleteDataColumn c) {
+      return c.getLength();
+    }
+    if (data instanceof PartialDataColumn p && p.getChunk() != null) {
+      return p.getChunk().length;
+    }
+    return 0;
   }
 
   // ====================================================================================
@@ -96,41 +189,175 @@ public class TdsTokenQueue implements TdsDecoderSink {
   // ====================================================================================
 
   /**
-   * Polls the next event from the queue.
+   * Polls the next event from the queue. The returned slot is reused: it is only valid until the
+   * next call to {@link #peek()} or {@link #poll()}.
    *
    * @return The next event, or null if the queue is empty.
    */
-  public TdsStreamEvent poll() {
-    TdsStreamEvent event = queue.poll();
-    if (event != null) {
-      int weight = queueByteWeight.addAndGet(-event.getByteWeight());
-      logger.trace("Dequeued {}. Current weight: {} bytes",
-          event.getClass().getSimpleName(), weight);
-
-      // Manage Low Watermark (Resume)
-      if (weight < LOW_WATERMARK && isNetworkSuspended.compareAndSet(true, false)) {
-        logger.debug("LOW WATERMARK REACHED ({} bytes). Triggering network resumption.",
-            weight);
-        transport.resumeNetworkRead();
+  public Event poll() {
+    Event event = peek();
+    if (event == null) {
+      return null;
+    }
+    consumerIndex++;
+    lastPolled = event;
+    if (event.kind == Kind.COLUMN) {
+      int weight = weightOf(event.column);
+      if (weight != 0) {
+        consumerWeight += weight;
+        consumedWeight.lazySet(consumerWeight);
       }
     }
+    if (isNetworkSuspended.get()) {
+      resumeIfDrained();
+    }
     return event;
   }
 
   /**
-   * Peeks the next event from the queue.
+   * Peeks the next event from the queue. The returned slot is only valid until the next call to
+   * {@link #peek()} or {@link #poll()}.
    *
    * @return The next event, or null if the queue is empty.
    */
-  public TdsStreamEvent peek() {
-    return queue.peek();
+  public Event peek() {
+    if (lastPolled != null) {
+      lastPolled.clear();
+      lastPolled = null;
+    }
+    long index = consumerIndex;
+    if (index == cachedPublishedIndex) {
+      cachedPublishedIndex = publishedIndex.get();
+      if (index == cachedPublishedIndex) {
+        // The producer may have suspended the socket after our last check
+        if (isNetworkSuspended.get()) {
+          resumeIfDrained();
+        }
+        return null;
+      }
+    }
+    if (index - consumerSegmentStart == SEGMENT_SIZE) {
+      Segment finished = consumerSegment;
+      consumerSegment = finished.next;
+      consumerSegmentStart = index;
+      finished.next = null;
+      spareSegment.lazySet(finished);
+    }
+    return consumerSegment.events[(int) (index & SEGMENT_MASK)];
+  }
+
+  private void resumeIfDrained() {
+    long weight = producedWeight.get() - consumerWeight;
+    // Manage Low Watermark (Resume)
+    if (weight < LOW_WATERMARK && isNetworkSuspended.compareAndSet(true, false)) {
+      logger.debug("LOW WATERMARK REACHED ({} bytes). Triggering network resumption.",
+          weight);
+      transport.resumeNetworkRead();
+    }
+  }
+
+  /**
+   * Registers a callback to run once the next batch of events is published, or right away if
+   * events are already waiting. The callback runs on the producer (event loop) thread, so it
+   * must only hand off work. A later registration replaces an earlier one that has not fired.
+   *
+   * @param callback The one-shot wake-up.
+   */
+  public void whenAvailable(Runnable callback) {
+    availabilityCallback.set(callback);
+    if (consumerIndex != publishedIndex.get()
+        && availabilityCallback.compareAndSet(callback, null)) {
+      callback.run();
+    }
   }
 
   /**
-   * Clears the queue.
+   * Peeks the next event, parking the calling thread until the producer publishes one. For
+   * synchronous readers on the consumer thread.
+   *
+   * @return The next event; only valid until the next call to {@link #peek()} or
+   *     {@link #poll()}.
+   */
+  public Event awaitNext() {
+    Event event = peek();
+    while (event == null) {
+      Thread waiter = Thread.currentThread();
+      whenAvailable(() -> LockSupport.unpark(waiter));
+      LockSupport.park(this);
+      event = peek();
+    }
+    return event;
+  }
+
+  /**
+   * Discards every event published so far. Must be called by the current consumer.
    */
   public void clear() {
-    queue.clear();
-    queueByteWeight.set(0);
+    while (poll() != null) {
+      // Each poll releases its slot and accounts for its weight
+    }
+    peek();
+  }
+
+  /**
+   * The type of a queued {@link Event}.
+   */
+  public enum Kind {
+    TOKEN,
+    COLUMN,
+    ERROR
+  }
+
+  /**
+   * A reusable event slot: a decoded token, a column value (or LOB chunk), or a decoding error.
+   */
+  public static final class Event {
+    private Kind kind;
+    private Token token;
+    private ColumnData column;
+    private Throwable error;
+
+    public Kind kind() {
+      return kind;
+    }
+
+    public Token token() {
+      return token;
+    }
+
+    public ColumnData column() {
+      return column;
+    }
+
+    public Throwable error() {
+      return error;
+    }
+
+    /**
+     * Checks whether this event carries data for the given column.
+     *
+     * @param columnIndex The 0-based column index.
+     * @return true for a column event of that column.
+     */
+    public boolean isColumn(int columnIndex) {
+      return kind == Kind.COLUMN && column.getColumnIndex() == columnIndex;
+    }
+
+    private void clear() {
+      token = null;
+      column = null;
+      error = null;
+    }
+  }
+
+  private static final class Segment {
+    private final Event[] events = new Event[SEGMENT_SIZE];
+    private Segment next;
+
+    private Segment() {
+      for (int i = 0; i < SEGMENT_SIZE; i++) {
+        events[i] = new Event();
+      }
+    }
   }
 }
@@ -0,0 +1,48 @@
+package org.tdslib.javatdslib.tokens;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Packs the values of standard (non-PLP) columns into shared slabs, so a decoded row costs one
+ * bulk copy per value instead of one {@code byte[]} allocation per value.
+ *
+ * <p>Values are bump-allocated from the current slab; when it fills, a fresh slab is started
+ * and the old one is left to the rows that point into it. A slab is therefore retained exactly
+ * as long as some row still references a value in it, and reclaimed by the garbage collector
+ * once the last one goes. Slabs are never recycled, so a row held past its mapping function
+ * can never observe bytes from a later row. Values too large to share a slab get their own
+ * array.
+ *
+ * <p>Owned by a single {@link StatefulTokenDecoder}; not thread-safe.
+ */
+public final class ColumnArena {
+  static final int SLAB_SIZE = 64 * 1024;
+  static final int MAX_SLICE_LENGTH = SLAB_SIZE / 8;
+
+  private byte[] slab;
+  private int position;
+
+  /**
+   * Copies the next {@code length} bytes of {@code src} into the arena.
+   *
+   * @param columnIndex The index of the column.
+   * @param src         The source buffer, positioned at the value.
+   * @param length      The length of the value.
+   * @return A column referencing the copied bytes.
+   */
+  public CompleteDataColumn slice(int columnIndex, ByteBuffer src, int length) {
+    if (length > MAX_SLICE_LENGTH) {
+      byte[] data = new byte[length];
+      src.get(data);
+      return new CompleteDataColumn(columnIndex, data);
+    }
+    if (slab == null || SLAB_SIZE - position < length) {
+      slab = new byte[SLAB_SIZE];
+      position = 0;
+    }
+    src.get(slab, position, length);
+    CompleteDataColumn column = new CompleteDataColumn(columnIndex, slab, position, length);
+    position += length;
+    return column;
+  }
+}
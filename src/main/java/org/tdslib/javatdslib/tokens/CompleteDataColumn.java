@@ -1,11 +1,18 @@
 package org.tdslib.javatdslib.tokens;
 
+import java.util.Arrays;
+
 /**
  * Represents a completely fetched data column.
+ *
+ * <p>The value is a slice of a backing array, which may be a slab shared with other columns
+ * (see {@link ColumnArena}). A {@code null} array is SQL NULL.
  */
 public class CompleteDataColumn implements ColumnData {
   private final int columnIndex;
-  private final byte[] data;
+  private final byte[] array;
+  private final int offset;
+  private final int length;
 
   /**
    * Constructs a new CompleteDataColumn.
@@ -14,8 +21,22 @@ public class CompleteDataColumn implements ColumnData {
    * @param data        The complete column data as a byte array.
    */
   public CompleteDataColumn(int columnIndex, byte[] data) {
+    this(columnIndex, data, 0, data != null ? data.length : 0);
+  }
+
+  /**
+   * Constructs a new CompleteDataColumn over a slice of a shared array.
+   *
+   * @param columnIndex The index of the column.
+   * @param array       The backing array, or null for SQL NULL.
+   * @param offset      The start of the value within {@code array}.
+   * @param length      The length of the value.
+   */
+  public CompleteDataColumn(int columnIndex, byte[] array, int offset, int length) {
     this.columnIndex = columnIndex;
-    this.data = data;
+    this.array = array;
+    this.offset = offset;
+    this.length = length;
   }
 
   @Override
@@ -24,11 +45,39 @@ public class CompleteDataColumn implements ColumnData {
   }
 
   /**
-   * Returns the complete column data.
+   * Returns the complete column data, copying it out of a shared slab if necessary.
    *
-   * @return The complete column data as a byte array.
+   * @return The complete column data as a byte array, or null for SQL NULL.
    */
   public byte[] getData() {
-    return data;
+    if (array == null) {
+      return null;
+    }
+    if (offset == 0 && length == array.length) {
+      return array;
+    }
+    return Arrays.copyOfRange(array, offset, offset + length);
+  }
+
+  /**
+   * Returns the backing array. Only the range {@code [offset, offset + length)} belongs to this
+   * column; it must not be modified.
+   *
+   * @return The backing array, or null for SQL NULL.
+   */
+  public byte[] getArray() {
+    return array;
+  }
+
+  public int getOffset() {
+    return offset;
+  }
+
+  public int getLength() {
+    return length;
+  }
+
+  public boolean isNull() {
+    return array == null;
   }
 }
@@ -0,0 +1,121 @@
+package org.tdslib.javatdslib.tokens;
+
+import org.tdslib.javatdslib.codec.DecoderRegistry;
+import org.tdslib.javatdslib.codec.ResultDecoder;
+import org.tdslib.javatdslib.protocol.CollationUtils;
+import org.tdslib.javatdslib.protocol.TdsType;
+import org.tdslib.javatdslib.tokens.models.ColumnMeta;
+import org.tdslib.javatdslib.transport.ConnectionContext;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Per-result-set decode plan, compiled once when a COLMETADATA token is parsed and shared by
+ * the decoder, the row drainer and every row of the result set.
+ *
+ * <p>For each column the plan holds the resolved {@link TdsType}, whether its value is PLP
+ * encoded, the {@link ResultDecoder} to use, the charset for character data and the scale, so
+ * reading a value is a handful of array loads rather than repeated map, registry and collation
+ * lookups.
+ */
+public final class RowDecodePlan {
+  private final TdsType[] types;
+  private final boolean[] plp;
+  private final ResultDecoder[] decoders;
+  private final Charset[] charsets;
+  private final int[] scales;
+
+  private RowDecodePlan(int columnCount) {
+    this.types = new TdsType[columnCount];
+    this.plp = new boolean[columnCount];
+    this.decoders = new ResultDecoder[columnCount];
+    this.charsets = new Charset[columnCount];
+    this.scales = new int[columnCount];
+  }
+
+  /**
+   * Compiles the plan for a result set.
+   *
+   * @param columns  The column metadata.
+   * @param context  The connection context, for the default varchar charset.
+   * @param registry The decoders to resolve against.
+   * @return The compiled plan.
+   */
+  public static RowDecodePlan compile(
+      List<ColumnMeta> columns, ConnectionContext context, DecoderRegistry registry) {
+    RowDecodePlan plan = new RowDecodePlan(columns.size());
+    for (int i = 0; i < columns.size(); i++) {
+      ColumnMeta meta = columns.get(i);
+      TdsType tdsType = meta.getTypeInfo().getTdsType();
+      plan.types[i] = tdsType;
+      plan.plp[i] = tdsType.strategy == TdsType.LengthStrategy.PLP
+          || (tdsType.strategy == TdsType.LengthStrategy.USHORTLEN
+          && meta.getMaxLength() == 65535);
+      plan.decoders[i] = registry.decoderFor(tdsType);
+      plan.charsets[i] = resolveCharset(meta, tdsType, context);
+      plan.scales[i] = meta.getScale();
+    }
+    return plan;
+  }
+
+  private static Charset resolveCharset(
+      ColumnMeta meta, TdsType tdsType, ConnectionContext context) {
+    if (tdsType == TdsType.NVARCHAR || tdsType == TdsType.NCHAR
+        || tdsType == TdsType.NTEXT || tdsType == TdsType.XML) {
+      return StandardCharsets.UTF_16LE;
+    }
+    byte[] collation = meta.getCollation();
+    return collation != null
+        ? CollationUtils.getCharsetFromCollation(collation).orElse(context.getVarcharCharset())
+        : context.getVarcharCharset();
+  }
+
+  public int columnCount() {
+    return types.length;
+  }
+
+  public TdsType tdsType(int index) {
+    return types[index];
+  }
+
+  /**
+   * Checks whether a column's value is PLP encoded (chunked, possibly spanning packets).
+   *
+   * @param index The 0-based column index.
+   * @return true for MAX types, XML and other PLP columns.
+   */
+  public boolean isPlp(int index) {
+    return plp[index];
+  }
+
+  public Charset charset(int index) {
+    return charsets[index];
+  }
+
+  public int scale(int index) {
+    return scales[index];
+  }
+
+  /**
+   * Decodes a value of the given column.
+   *
+   * @param index      The 0-based column index.
+   * @param data       The backing array.
+   * @param offset     The start of the value.
+   * @param length     The length of the value.
+   * @param targetType The desired Java type.
+   * @param <T>        The type of the result.
+   * @return The decoded value.
+   */
+  public <T> T decode(int index, byte[] data, int offset, int length, Class<T> targetType) {
+    ResultDecoder decoder = decoders[index];
+    if (decoder == null) {
+      throw new UnsupportedOperationException(
+          "No decoder registered for TDS type: " + types[index]);
+    }
+    return decoder.decode(
+        data, offset, length, types[index], targetType, scales[index], charsets[index]);
+  }
+}
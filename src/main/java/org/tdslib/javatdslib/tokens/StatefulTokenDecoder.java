@@ -23,6 +23,7 @@ public class StatefulTokenDecoder implements TdsStreamHandler {
   private final TokenParserRegistry registry;
   private final ConnectionContext context;
   private final TdsDecoderSink sink;
+  private final ColumnArena arena = new ColumnArena();
   // ADD THESE FIELDS:
   private ReturnValueToken activeReturnHeader = null;
   private ColumnData currentRowColData = null;
@@ -38,6 +39,13 @@ public class StatefulTokenDecoder implements TdsStreamHandler {
   // Flag to track if we've read the 8-byte PLP total length header yet
   private boolean expectingPlpTotalLengthHeader = false;
 
+  // NBCROW (0xD2): the current row's null bitmap, filled incrementally across packets
+  private boolean nbcRow = false;
+  private byte[] nullBitmap;
+  private int nullBitmapFilled = 0;
+  // Shared, immutable NULL values for the current result set, indexed by column
+  private CompleteDataColumn[] nullColumns;
+
   /**
    * Constructs a new StatefulTokenDecoder.
    *
@@ -139,7 +147,8 @@ public class StatefulTokenDecoder implements TdsStreamHandler {
             continue;
           }
 
-          if (currentTokenType == TokenType.ROW.getValue()) {
+          if (currentTokenType == TokenType.ROW.getValue()
+              || currentTokenType == TokenType.NBC_ROW.getValue()) {
             if (currentMetaData == null) {
               throw new IllegalStateException("Received ROW token before ColMetaData.");
             }
@@ -147,6 +156,8 @@ public class StatefulTokenDecoder implements TdsStreamHandler {
             // Enter Row Parsing Mode
             currentRowColIndex = 0;
             expectingPlpTotalLengthHeader = true;
+            nbcRow = currentTokenType == TokenType.NBC_ROW.getValue();
+            nullBitmapFilled = 0;
 
             // EMIT THE ROW START SIGNAL TO THE SINK
             sink.onToken(new RowToken(currentMetaData));
@@ -182,6 +193,7 @@ public class StatefulTokenDecoder implements TdsStreamHandler {
 
             if (token instanceof ColMetaDataToken meta) {
               this.currentMetaData = meta;
+              this.nullColumns = null;
             }
 
             sink.onToken(token);
@@ -194,22 +206,32 @@ public class StatefulTokenDecoder implements TdsStreamHandler {
     } catch (Exception e) {
       logger.error("Fatal error during token decoding", e);
       sink.onError(e);
+    } finally {
+      sink.flush();
     }
   }
 
   private boolean parseRowColumns() {
-    int columnCount = currentMetaData.getColumns().size();
+    RowDecodePlan plan = currentMetaData.getDecodePlan();
+    int columnCount = plan.columnCount();
+
+    if (nbcRow && !readNullBitmap(columnCount)) {
+      return false; // Bitmap split across packets. Bytes read so far are kept.
+    }
 
     while (currentRowColIndex < columnCount) {
+      if (nbcRow && isNullInBitmap(currentRowColIndex)) {
+        // NBCROW omits NULL columns from the wire entirely
+        sink.onColumnData(nullColumn(currentRowColIndex));
+        currentRowColIndex++;
+        continue;
+      }
+
       ColumnMeta colMeta = currentMetaData.getColumns().get(currentRowColIndex);
-      TdsType tdsType = colMeta.getTypeInfo().getTdsType();
+      TdsType tdsType = plan.tdsType(currentRowColIndex);
 
       // 1. Determine if this column requires PLP chunking
-      boolean isPlp = tdsType.strategy == TdsType.LengthStrategy.PLP
-          || (tdsType.strategy == TdsType.LengthStrategy.USHORTLEN
-          && colMeta.getMaxLength() == 65535);
-
-      if (isPlp) {
+      if (plan.isPlp(currentRowColIndex)) {
         // PLP tracks its own byte consumption incrementally.
         // Do NOT use mark/reset here, otherwise we'd re-emit chunks on network boundaries.
         if (!parsePlpColumn(colMeta)) {
@@ -233,10 +255,43 @@ public class StatefulTokenDecoder implements TdsStreamHandler {
 
     // Row complete
     currentRowColIndex = -1;
+    nbcRow = false;
     expectingNewToken = true;
     return true;
   }
 
+  /**
+   * Reads as much of the NBCROW null bitmap (one bit per column, LSB first) as is available.
+   *
+   * @return true once the whole bitmap has been read.
+   */
+  private boolean readNullBitmap(int columnCount) {
+    int length = (columnCount + 7) >>> 3;
+    if (nullBitmap == null || nullBitmap.length < length) {
+      nullBitmap = new byte[length];
+    }
+    int toRead = Math.min(length - nullBitmapFilled, accumulator.remaining());
+    accumulator.get(nullBitmap, nullBitmapFilled, toRead);
+    nullBitmapFilled += toRead;
+    return nullBitmapFilled == length;
+  }
+
+  private boolean isNullInBitmap(int columnIndex) {
+    return (nullBitmap[columnIndex >>> 3] & (1 << (columnIndex & 7))) != 0;
+  }
+
+  private CompleteDataColumn nullColumn(int columnIndex) {
+    if (nullColumns == null) {
+      nullColumns = new CompleteDataColumn[currentMetaData.getColumns().size()];
+    }
+    CompleteDataColumn column = nullColumns[columnIndex];
+    if (column == null) {
+      column = new CompleteDataColumn(columnIndex, null);
+      nullColumns[columnIndex] = column;
+    }
+    return column;
+  }
+
   private boolean parseStandardColumn(ColumnMeta colMeta, TdsType tdsType) {
     // 1. Resolve length using extracted utility
     int length = ColumnLengthResolver.resolveStandardLength(
@@ -249,7 +304,7 @@ public class StatefulTokenDecoder implements TdsStreamHandler {
 
     if (length == -1) {
       // Null column
-      sink.onColumnData(new CompleteDataColumn(currentRowColIndex, null));
+      sink.onColumnData(nullColumn(currentRowColIndex));
       return true;
     }
 
@@ -258,10 +313,8 @@ public class StatefulTokenDecoder implements TdsStreamHandler {
       return false; // Yield gracefully instead of throwing!
     }
 
-    // 3. Extract and emit raw bytes
-    byte[] data = new byte[length];
-    accumulator.get(data);
-    sink.onColumnData(new CompleteDataColumn(currentRowColIndex, data));
+    // 3. Copy the raw bytes into the shared arena and emit a slice
+    sink.onColumnData(arena.slice(currentRowColIndex, accumulator, length));
 
     return true;
   }
@@ -278,7 +331,7 @@ public class StatefulTokenDecoder implements TdsStreamHandler {
 
       if (totalLength == -1L || totalLength == 0xFFFFFFFFFFFFFFFFL) {
         // PLP is Null
-        sink.onColumnData(new CompleteDataColumn(currentRowColIndex, null));
+        sink.onColumnData(nullColumn(currentRowColIndex));
         return true; // Column complete, move to next
       }
     }
@@ -24,4 +24,11 @@ public interface TdsDecoderSink {
    * @param error The error.
    */
   void onError(Throwable error);
+
+  /**
+   * Called after each packet payload has been decoded, so the sink can signal its consumer once
+   * per batch of events instead of once per event.
+   */
+  default void flush() {
+  }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package org.tdslib.javatdslib.tokens.models;
 
+import org.tdslib.javatdslib.tokens.RowDecodePlan;
 import org.tdslib.javatdslib.tokens.Token;
 import org.tdslib.javatdslib.tokens.TokenType;
 
@@ -11,6 +12,7 @@ import java.util.List;
 public class ColMetaDataToken extends Token {
   private final short columnCount;
   private final List<ColumnMeta> columns;
+  private final RowDecodePlan decodePlan;
 
   /**
    * Create a COLMETADATA token instance.
@@ -18,12 +20,14 @@ public class ColMetaDataToken extends Token {
    * @param type        raw token byte value
    * @param columnCount number of columns described
    * @param columns     list of column metadata objects
+   * @param decodePlan  the decode plan compiled from {@code columns}
    */
   public ColMetaDataToken(final byte type, final short columnCount,
-                          final List<ColumnMeta> columns) {
+                          final List<ColumnMeta> columns, final RowDecodePlan decodePlan) {
     super(TokenType.fromValue(type));
     this.columnCount = columnCount;
     this.columns = columns;
+    this.decodePlan = decodePlan;
   }
 
   /**
@@ -39,4 +43,11 @@ public class ColMetaDataToken extends Token {
   public List<ColumnMeta> getColumns() {
     return columns;
   }
+
+  /**
+   * Returns the decode plan shared by every row of this result set.
+   */
+  public RowDecodePlan getDecodePlan() {
+    return decodePlan;
+  }
 }
@@ -0,0 +1,128 @@
+package org.tdslib.javatdslib.tokens.parsers;
+
+import org.tdslib.javatdslib.tokens.models.ColMetaDataToken;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded interning cache of parsed COLMETADATA tokens, shared by all connections.
+ *
+ * <p>Connections that run the same queries receive byte-identical COLMETADATA. The cache maps
+ * those raw bytes to the token already built from them, together with the
+ * {@link org.tdslib.javatdslib.tokens.RowDecodePlan} compiled from it, so a repeat shape costs a
+ * hash and a byte comparison instead of a parse. The R2DBC row metadata is memoized per token
+ * on the client side, so it is shared along with the token.
+ *
+ * <p>The cache is direct-mapped: a 64-bit hash of the bytes selects one slot in a fixed array,
+ * and a newer shape simply replaces whatever occupied its slot. Lookups and inserts are a
+ * single volatile read or write and never lock. A hit requires the stored bytes to match
+ * exactly, so a hash collision can only cost a miss. The decode plan resolves character sets
+ * against the connection's default, so that charset is part of the key.
+ */
+public final class ColMetaDataCache {
+
+  /** Shared cache of 1024 result-set shapes. */
+  public static final ColMetaDataCache DEFAULT = new ColMetaDataCache(1024);
+
+  /** Tokens larger than this are parsed every time rather than retained. */
+  static final int MAX_CACHED_BYTES = 64 * 1024;
+
+  private final AtomicReferenceArray<Entry> slots;
+  private final int mask;
+
+  /**
+   * Constructs a new ColMetaDataCache.
+   *
+   * @param capacity The number of slots, rounded up to a power of two.
+   */
+  public ColMetaDataCache(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.slots = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+  }
+
+  /**
+   * Looks up the token previously built from {@code length} bytes of {@code buffer} starting at
+   * {@code offset}. The buffer's position is not changed.
+   *
+   * @param buffer         The buffer holding the raw token body.
+   * @param offset         The absolute offset of the body.
+   * @param length         The length of the body.
+   * @param varcharCharset The connection's default varchar charset.
+   * @return The cached token, or null on a miss.
+   */
+  public ColMetaDataToken lookup(
+      ByteBuffer buffer, int offset, int length, Charset varcharCharset) {
+    long hash = hash(buffer, offset, length, varcharCharset);
+    Entry entry = slots.get((int) hash & mask);
+    if (entry != null && entry.hash == hash && entry.varcharCharset.equals(varcharCharset)
+        && entry.matches(buffer, offset, length)) {
+      return entry.token;
+    }
+    return null;
+  }
+
+  /**
+   * Caches a freshly parsed token under its raw bytes.
+   *
+   * @param buffer         The buffer holding the raw token body.
+   * @param offset         The absolute offset of the body.
+   * @param length         The length of the body.
+   * @param varcharCharset The connection's default varchar charset.
+   * @param token          The token parsed from those bytes.
+   */
+  public void put(ByteBuffer buffer, int offset, int length, Charset varcharCharset,
+                  ColMetaDataToken token) {
+    if (length > MAX_CACHED_BYTES) {
+      return;
+    }
+    long hash = hash(buffer, offset, length, varcharCharset);
+    byte[] raw = new byte[length];
+    buffer.get(offset, raw);
+    slots.set((int) hash & mask, new Entry(hash, raw, varcharCharset, token));
+  }
+
+  private static long hash(ByteBuffer buffer, int offset, int length, Charset charset) {
+    // 64-bit FNV-1a
+    long hash = 0xcbf29ce484222325L ^ charset.hashCode();
+    for (int i = offset; i < offset + length; i++) {
+      hash ^= buffer.get(i) & 0xFF;
+      hash *= 0x100000001b3L;
+    }
+    return hash ^ (hash >>> 32);
+  }
+
+  private static final class Entry {
+    private final long hash;
+    private final byte[] raw;
+    private final Charset varcharCharset;
+    private final ColMetaDataToken token;
+
+    private Entry(long hash, byte[] raw, Charset varcharCharset, ColMetaDataToken token) {
+      this.hash = hash;
+      this.raw = raw;
+      this.varcharCharset = varcharCharset;
+      this.token = token;
+    }
+
+    private boolean matches(ByteBuffer buffer, int offset, int length) {
+      if (raw.length != length) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (raw[i] != buffer.get(offset + i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
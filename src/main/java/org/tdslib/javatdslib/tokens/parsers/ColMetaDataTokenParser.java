@@ -2,6 +2,8 @@ package org.tdslib.javatdslib.tokens.parsers;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tdslib.javatdslib.codec.DecoderRegistry;
+import org.tdslib.javatdslib.tokens.RowDecodePlan;
 import org.tdslib.javatdslib.tokens.Token;
 import org.tdslib.javatdslib.tokens.TokenParser;
 import org.tdslib.javatdslib.tokens.models.ColMetaDataToken;
@@ -10,8 +12,11 @@ import org.tdslib.javatdslib.tokens.models.TypeInfo;
 import org.tdslib.javatdslib.transport.ConnectionContext;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.tdslib.javatdslib.tokens.TokenType.COL_METADATA;
@@ -19,10 +24,31 @@ import static org.tdslib.javatdslib.tokens.TokenType.COL_METADATA;
 /**
  * Parser for the COLMETADATA token (0x81). This token describes the result set metadata, including
  * column names, types, and lengths.
+ *
+ * <p>Parsed tokens are interned in a {@link ColMetaDataCache}: when the raw bytes match a token
+ * seen before, on any connection, that token is returned without parsing.
  */
 public class ColMetaDataTokenParser implements TokenParser {
   private static Logger log = LoggerFactory.getLogger(ColMetaDataTokenParser.class);
 
+  private final ColMetaDataCache cache;
+
+  /**
+   * Constructs a parser backed by the shared {@link ColMetaDataCache#DEFAULT} cache.
+   */
+  public ColMetaDataTokenParser() {
+    this(ColMetaDataCache.DEFAULT);
+  }
+
+  /**
+   * Constructs a parser backed by the given cache.
+   *
+   * @param cache The interning cache.
+   */
+  public ColMetaDataTokenParser(ColMetaDataCache cache) {
+    this.cache = cache;
+  }
+
   @Override
   public Token parse(
       final ByteBuffer payload, final byte tokenType, final ConnectionContext context) {
@@ -32,8 +58,20 @@ public class ColMetaDataTokenParser implements TokenParser {
               + Integer.toHexString(tokenType & 0xFF));
     }
 
+    final int start = payload.position();
+    final int length = measure(payload.duplicate().order(ByteOrder.LITTLE_ENDIAN));
+    final Charset varcharCharset = context.getVarcharCharset();
+    final boolean cacheable = length > 2 && varcharCharset != null;
+    if (cacheable) {
+      ColMetaDataToken cached = cache.lookup(payload, start, length, varcharCharset);
+      if (cached != null) {
+        payload.position(start + length);
+        return cached;
+      }
+    }
+
     final short columnCount = payload.getShort();
-    final List<ColumnMeta> columns = new ArrayList<>(columnCount);
+    final List<ColumnMeta> columns = new ArrayList<>(Math.max(columnCount, 0));
 
     for (int colIndex = 0; colIndex < columnCount; colIndex++) {
       final int userType = payload.getInt();
@@ -57,48 +95,64 @@ public class ColMetaDataTokenParser implements TokenParser {
       columns.add(meta);
     }
 
-    return new ColMetaDataToken(tokenType, columnCount, columns);
+    final ColMetaDataToken token = new ColMetaDataToken(tokenType, columnCount,
+        Collections.unmodifiableList(columns),
+        RowDecodePlan.compile(columns, context, DecoderRegistry.DEFAULT));
+    if (cacheable) {
+      cache.put(payload, start, length, varcharCharset, token);
+    }
+    return token;
   }
 
   @Override
   public boolean canParse(ByteBuffer peekBuffer, ConnectionContext context) {
+    return measure(peekBuffer) >= 0;
+  }
+
+  /**
+   * Walks a complete COLMETADATA token body from the buffer's position.
+   *
+   * @return The length of the body in bytes, or -1 if it is not all buffered yet.
+   */
+  private static int measure(ByteBuffer peekBuffer) {
+    final int start = peekBuffer.position();
     // 1. Check for columnCount (2 bytes)
     if (peekBuffer.remaining() < 2) {
-      return false;
+      return -1;
     }
     short columnCount = peekBuffer.getShort();
 
     if (columnCount == (short) 0xFFFF) {
-      return true; // 0xFFFF means no metadata
+      return 2; // 0xFFFF means no metadata
     }
 
     for (int i = 0; i < columnCount; i++) {
       // 2. Check for userType (4 bytes) and flags (2 bytes) = 6 total bytes
       if (peekBuffer.remaining() < 6) {
-        return false;
+        return -1;
       }
       peekBuffer.getInt();   // userType
       peekBuffer.getShort(); // flags
 
       // 3. Safely delegate to TypeInfoParser to check if it can parse
       if (!TypeInfoParser.canParse(peekBuffer)) {
-        return false;
+        return -1;
       }
 
       // 4. Check for nameLengthInChars (1 byte)
       if (peekBuffer.remaining() < 1) {
-        return false;
+        return -1;
       }
       byte nameLengthInChars = peekBuffer.get();
       int nameBytes = nameLengthInChars * 2;
 
       // 5. Check for the string payload
       if (peekBuffer.remaining() < nameBytes) {
-        return false;
+        return -1;
       }
       peekBuffer.position(peekBuffer.position() + nameBytes);
     }
 
-    return true;
+    return peekBuffer.position() - start;
   }
 }
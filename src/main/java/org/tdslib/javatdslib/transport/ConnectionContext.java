@@ -199,6 +199,21 @@ public interface ConnectionContext {
    */
   void resetToDefaults();
 
+  /**
+   * Resets session state after the server acknowledged a RESETCONNECTION request. Database,
+   * language and collation return to the values captured after login; the TDS version, packet
+   * size and SPID are connection properties and are kept.
+   *
+   * @param preserveTransaction true for RESETCONNECTIONSKIPTRAN, which keeps the open transaction
+   */
+  void resetToDefaults(boolean preserveTransaction);
+
+  /**
+   * Records the current session state as the state a connection reset returns to. Called once
+   * login has completed.
+   */
+  void captureSessionDefaults();
+
   /**
    * Returns the server process id (SPID) assigned by the server for this connection.
    *
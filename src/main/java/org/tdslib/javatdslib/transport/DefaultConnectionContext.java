@@ -29,17 +29,38 @@ public class DefaultConnectionContext implements ConnectionContext {
   private String serverVersionString;
   private int spid;
 
+  // Session state right after login; a RESETCONNECTION returns to it
+  private String loginDatabase;
+  private String loginLanguage = "us_english";
+  private String loginCharset;
+  private byte[] loginCollationBytes = new byte[0];
+
   @Override
   public void resetToDefaults() {
-    logger.trace("Resetting connection context to defaults.");
-    this.utf8Negotiated = false;
-    this.currentDatabase = null;
-    this.currentLanguage = "us_english";
-    this.currentCharset = null;
-    this.packetSize = 4096;
-    this.currentCollationBytes = new byte[0];
-    this.transactionDescriptor = null;
-    this.spid = 0;
+    resetToDefaults(false);
+  }
+
+  @Override
+  public void resetToDefaults(boolean preserveTransaction) {
+    logger.trace("Resetting connection context to defaults (preserveTransaction={}).",
+        preserveTransaction);
+    this.currentDatabase = loginDatabase;
+    this.currentLanguage = loginLanguage;
+    this.currentCharset = loginCharset;
+    this.currentCollationBytes = loginCollationBytes.clone();
+    if (!preserveTransaction) {
+      this.transactionDescriptor = null;
+    }
+  }
+
+  @Override
+  public void captureSessionDefaults() {
+    this.loginDatabase = currentDatabase;
+    this.loginLanguage = currentLanguage;
+    this.loginCharset = currentCharset;
+    this.loginCollationBytes = currentCollationBytes != null
+        ? currentCollationBytes.clone()
+        : new byte[0];
   }
 
   @Override
@@ -0,0 +1,184 @@
+package org.tdslib.javatdslib.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A coarse-grained timer for request deadlines, shared by all connections.
+ *
+ * <p>Timeouts are hashed into a ring of buckets by expiry tick. One daemon thread advances the
+ * ring once per tick and runs whatever has come due, so arming and cancelling a deadline costs a
+ * queue insert and a flag flip rather than a scheduled task per query. Expiry is accurate to
+ * one tick, which is ample for statement timeouts measured in seconds.
+ *
+ * <p>Tasks run on the timer thread and must not block.
+ */
+public final class HashedWheelTimer {
+  private static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+  /** Shared timer with a 100 ms tick and 512 buckets (about 51 seconds per revolution). */
+  public static final HashedWheelTimer DEFAULT =
+      new HashedWheelTimer("TDS-Timer", 100, TimeUnit.MILLISECONDS, 512);
+
+  private final String threadName;
+  private final long tickNanos;
+  private final Queue<Timeout>[] wheel;
+  private final int mask;
+  private final long origin = System.nanoTime();
+  private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean started = new AtomicBoolean(false);
+
+  // Timer thread only
+  private long tick;
+
+  /**
+   * Constructs a new HashedWheelTimer. The timer thread starts with the first timeout.
+   *
+   * @param threadName   The name of the timer thread.
+   * @param tickDuration The resolution of the timer.
+   * @param unit         The unit of {@code tickDuration}.
+   * @param wheelSize    The number of buckets, rounded up to a power of two.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public HashedWheelTimer(String threadName, long tickDuration, TimeUnit unit, int wheelSize) {
+    if (tickDuration <= 0 || wheelSize <= 0) {
+      throw new IllegalArgumentException("tickDuration and wheelSize must be positive");
+    }
+    int size = Integer.highestOneBit(wheelSize);
+    if (size < wheelSize) {
+      size <<= 1;
+    }
+    this.threadName = threadName;
+    this.tickNanos = unit.toNanos(tickDuration);
+    this.wheel = new Queue[size];
+    for (int i = 0; i < size; i++) {
+      wheel[i] = new ArrayDeque<>();
+    }
+    this.mask = size - 1;
+  }
+
+  /**
+   * Schedules {@code task} to run once after {@code delay}.
+   *
+   * @param task  The task to run on the timer thread.
+   * @param delay The delay before the task runs.
+   * @param unit  The unit of {@code delay}.
+   * @return A handle that can cancel the task before it runs.
+   */
+  public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+    if (started.compareAndSet(false, true)) {
+      Thread worker = new Thread(this::run, threadName);
+      worker.setDaemon(true);
+      worker.start();
+    }
+    long deadline = System.nanoTime() - origin + unit.toNanos(Math.max(0, delay));
+    Timeout timeout = new Timeout(task, deadline);
+    pendingTimeouts.add(timeout);
+    return timeout;
+  }
+
+  private void run() {
+    while (true) {
+      long sleepNanos = (tick + 1) * tickNanos - (System.nanoTime() - origin);
+      if (sleepNanos > 0) {
+        try {
+          TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        } catch (InterruptedException e) {
+          // The shared timer outlives any single caller; keep ticking
+          continue;
+        }
+      }
+      transferPendingTimeouts();
+      expire(wheel[(int) (tick & mask)]);
+      tick++;
+    }
+  }
+
+  /**
+   * Moves newly scheduled timeouts into their buckets. A timeout already overdue lands in the
+   * current bucket and fires on this tick.
+   */
+  private void transferPendingTimeouts() {
+    Timeout timeout;
+    while ((timeout = pendingTimeouts.poll()) != null) {
+      if (timeout.state.get() != Timeout.ST_PENDING) {
+        continue;
+      }
+      long expiryTick = Math.max(timeout.deadline / tickNanos, tick);
+      timeout.remainingRounds = (expiryTick - tick) / wheel.length;
+      wheel[(int) (expiryTick & mask)].add(timeout);
+    }
+  }
+
+  private void expire(Queue<Timeout> bucket) {
+    Iterator<Timeout> it = bucket.iterator();
+    while (it.hasNext()) {
+      Timeout timeout = it.next();
+      if (timeout.state.get() != Timeout.ST_PENDING) {
+        it.remove();
+      } else if (timeout.remainingRounds <= 0) {
+        it.remove();
+        timeout.expire();
+      } else {
+        timeout.remainingRounds--;
+      }
+    }
+  }
+
+  /**
+   * Handle for a task scheduled on a {@link HashedWheelTimer}.
+   */
+  public static final class Timeout {
+    private static final int ST_PENDING = 0;
+    private static final int ST_CANCELLED = 1;
+    private static final int ST_EXPIRED = 2;
+
+    private final Runnable task;
+    private final long deadline;
+    private final AtomicInteger state = new AtomicInteger(ST_PENDING);
+    // Timer thread only
+    private long remainingRounds;
+
+    private Timeout(Runnable task, long deadline) {
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    /**
+     * Cancels the task. The bucket entry is dropped lazily on the next pass.
+     *
+     * @return true if the task had not yet run or been cancelled.
+     */
+    public boolean cancel() {
+      return state.compareAndSet(ST_PENDING, ST_CANCELLED);
+    }
+
+    /**
+     * Checks whether the task has run.
+     *
+     * @return true once the task has fired.
+     */
+    public boolean isExpired() {
+      return state.get() == ST_EXPIRED;
+    }
+
+    private void expire() {
+      if (!state.compareAndSet(ST_PENDING, ST_EXPIRED)) {
+        return;
+      }
+      try {
+        task.run();
+      } catch (Throwable t) {
+        logger.warn("Timer task threw an exception", t);
+      }
+    }
+  }
+}
@@ -26,6 +26,14 @@ public interface NetworkConnection extends AutoCloseable {
    */
   void writeDirect(ByteBuffer buffer) throws IOException;
 
+  /**
+   * Routes all asynchronous traffic through an established TLS session (full-session
+   * encryption). Must be called before {@link #enterAsyncMode(int)}.
+   *
+   * @param tlsHandshake The completed TLS handshake whose engine encrypts the session.
+   */
+  void enableTls(TlsHandshake tlsHandshake);
+
   /**
    * Transitions the connection to asynchronous mode.
    *
@@ -35,12 +43,24 @@ public interface NetworkConnection extends AutoCloseable {
   void enterAsyncMode(int bufferSize) throws IOException;
 
   /**
-   * Writes data asynchronously to the network.
+   * Writes data asynchronously to the network. The connection takes ownership of the buffer and
+   * releases it to the {@link org.tdslib.javatdslib.buffer.TdsBufferPool} once it is written.
+   * The buffer must start with {@link #framePrefixLength()} reserved bytes.
    *
    * @param buffer The buffer containing data to write.
    */
   void writeAsync(ByteBuffer buffer);
 
+  /**
+   * Returns how many bytes callers must reserve in front of each buffer passed to
+   * {@link #writeAsync(ByteBuffer)}. A multiplexed session fills them with its frame header.
+   *
+   * @return The reserved prefix length; 0 for a plain socket.
+   */
+  default int framePrefixLength() {
+    return 0;
+  }
+
   /**
    * Sets the handlers for asynchronous data and error events.
    *
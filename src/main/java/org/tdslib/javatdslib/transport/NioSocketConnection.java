@@ -2,36 +2,52 @@ package org.tdslib.javatdslib.transport;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tdslib.javatdslib.buffer.TdsBufferPool;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
-import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 /**
  * An implementation of {@link NetworkConnection} using Java NIO {@link SocketChannel}. This class
- * handles both synchronous and asynchronous I/O operations, managing a background event loop for
- * non-blocking communication.
+ * handles both synchronous and asynchronous I/O operations. In asynchronous mode the channel is
+ * registered with one selector thread of a shared {@link TdsEventLoopGroup}.
+ *
+ * <p>When full-session encryption is enabled, the event loop decrypts inbound TLS records into the
+ * read buffer before framing, and outbound packets are coalesced into as few TLS records as
+ * possible before each socket write.
  */
-public class NioSocketConnection implements NetworkConnection {
+public class NioSocketConnection
+    implements NetworkConnection, TdsEventLoopGroup.SelectedKeyHandler {
   private static final Logger logger = LoggerFactory.getLogger(NioSocketConnection.class);
-  private ExecutorService eventLoopExecutor;
+  private static final int MAX_GATHER = 64;
+  // Packets the read buffer holds, so one read() can drain several from the socket
+  private static final int READ_BUFFER_PACKETS = 4;
 
   private final SocketChannel socketChannel;
-  private Selector selector;
+  private final TdsBufferPool bufferPool = TdsBufferPool.DEFAULT;
+  private final TdsEventLoopGroup eventLoopGroup;
+  private TdsEventLoopGroup.EventLoop eventLoop;
+  private volatile SelectionKey selectionKey;
   private ByteBuffer readBuffer;
 
+  private volatile TlsHandshake tls;
+  private ByteBuffer netReadBuffer;
+  // Ciphertext awaiting the socket, kept in read mode; only used by the pendingWrite owner
+  private ByteBuffer netWriteBuffer;
+
   private final Queue<ByteBuffer> writeQueue = new ConcurrentLinkedQueue<>();
   private final AtomicBoolean pendingWrite = new AtomicBoolean(false);
+  // Scratch array for gathering writes; only used by the pendingWrite owner
+  private final ByteBuffer[] gatherBuffers = new ByteBuffer[MAX_GATHER];
 
   private Consumer<ByteBuffer> onDataAvailable;
   private Consumer<Throwable> onError;
@@ -45,9 +61,48 @@ public class NioSocketConnection implements NetworkConnection {
    * @throws IOException If an I/O error occurs during connection establishment.
    */
   public NioSocketConnection(String host, int port, int readTimeoutMs) throws IOException {
+    this(host, port, readTimeoutMs, TdsEventLoopGroup.getDefault());
+  }
+
+  /**
+   * Constructs a new NioSocketConnection bound to a specific event loop group.
+   *
+   * @param host           The hostname to connect to.
+   * @param port           The port to connect to.
+   * @param readTimeoutMs  The read timeout in milliseconds for synchronous operations.
+   * @param eventLoopGroup The selector group that will service this connection in async mode.
+   * @throws IOException If an I/O error occurs during connection establishment.
+   */
+  public NioSocketConnection(
+      String host, int port, int readTimeoutMs, TdsEventLoopGroup eventLoopGroup)
+      throws IOException {
+    this(host, port, readTimeoutMs, eventLoopGroup, SocketTuning.DEFAULT);
+  }
+
+  /**
+   * Constructs a new NioSocketConnection with explicit socket settings.
+   *
+   * @param host           The hostname to connect to.
+   * @param port           The port to connect to.
+   * @param readTimeoutMs  The read timeout in milliseconds for synchronous operations.
+   * @param eventLoopGroup The selector group that will service this connection in async mode.
+   * @param tuning         TCP_NODELAY and socket buffer sizes.
+   * @throws IOException If an I/O error occurs during connection establishment.
+   */
+  public NioSocketConnection(
+      String host, int port, int readTimeoutMs, TdsEventLoopGroup eventLoopGroup,
+      SocketTuning tuning) throws IOException {
+    this.eventLoopGroup = eventLoopGroup;
     this.socketChannel = SocketChannel.open();
     this.socketChannel.configureBlocking(true);
     this.socketChannel.socket().setSoTimeout(readTimeoutMs);
+    this.socketChannel.setOption(StandardSocketOptions.TCP_NODELAY, tuning.tcpNoDelay());
+    if (tuning.sendBufferSize() > 0) {
+      this.socketChannel.setOption(StandardSocketOptions.SO_SNDBUF, tuning.sendBufferSize());
+    }
+    if (tuning.receiveBufferSize() > 0) {
+      this.socketChannel.setOption(StandardSocketOptions.SO_RCVBUF, tuning.receiveBufferSize());
+    }
 
     logger.debug(
         "Initiating physical TCP connection to {}:{} with timeout {}ms",
@@ -75,15 +130,29 @@ public class NioSocketConnection implements NetworkConnection {
     }
   }
 
+  @Override
+  public void enableTls(TlsHandshake tlsHandshake) {
+    this.tls = tlsHandshake;
+  }
+
   @Override
   public void enterAsyncMode(int bufferSize) throws IOException {
     logger.debug(
-        "Entering asynchronous mode. Starting NIO event loop (Buffer: {} bytes)", bufferSize);
-    this.readBuffer = ByteBuffer.allocate(bufferSize);
-    this.selector = Selector.open();
+        "Entering asynchronous mode. Joining shared NIO event loop (Buffer: {} bytes)", bufferSize);
+    if (tls != null) {
+      // SSLEngine.unwrap insists on room for a whole record's plaintext, on top of any partial
+      // packet the framer left behind
+      this.readBuffer = bufferPool.acquire(
+          tls.getApplicationBufferSize() + READ_BUFFER_PACKETS * bufferSize);
+      this.netReadBuffer = bufferPool.acquire(tls.getPacketBufferSize());
+      this.netWriteBuffer = bufferPool.acquire(4 * tls.getPacketBufferSize());
+      this.netWriteBuffer.flip();
+    } else {
+      this.readBuffer = bufferPool.acquire(READ_BUFFER_PACKETS * bufferSize);
+    }
     this.socketChannel.configureBlocking(false);
-    this.socketChannel.register(selector, SelectionKey.OP_READ, this);
-    startEventLoop();
+    this.eventLoop = eventLoopGroup.next();
+    this.selectionKey = eventLoop.register(socketChannel, SelectionKey.OP_READ, this);
   }
 
   @Override
@@ -92,47 +161,144 @@ public class NioSocketConnection implements NetworkConnection {
       throw new IllegalStateException("Cannot write: Socket is closed");
     }
 
-    writeQueue.offer(buffer.duplicate());
+    // Ownership transfers to the queue; the buffer is released to the pool once written
+    writeQueue.offer(buffer);
 
     // We don't care if it was empty. If we successfully transition pendingWrite
-    // from false to true, WE are responsible for waking the selector.
-    if (pendingWrite.compareAndSet(false, true)) {
-      SelectionKey key = socketChannel.keyFor(selector);
-      if (key != null && key.isValid()) {
+    // from false to true, WE own the write path until the queue is empty again.
+    if (!pendingWrite.compareAndSet(false, true)) {
+      return;
+    }
+    SelectionKey key = selectionKey;
+    if (key == null || !key.isValid()) {
+      throw new IllegalStateException("Cannot write: SelectionKey is invalid (socket closed)");
+    }
+
+    // FAST PATH: nothing else is in flight, so try the non-blocking write on the caller's
+    // thread. A one-packet request usually leaves here without waking the selector at all.
+    try {
+      while (flushWriteQueue()) {
+        pendingWrite.set(false);
+        // Same double-check as onWritable: a buffer may have sneaked in behind us
+        if (writeQueue.isEmpty() || !pendingWrite.compareAndSet(false, true)) {
+          return;
+        }
+      }
+    } catch (IOException e) {
+      cleanupKeyAndTransport(key);
+      if (onError != null) {
+        onError.accept(e);
+      }
+      return;
+    }
+
+    // The socket send buffer is full: hand the remainder to the event loop
+    key.interestOpsOr(SelectionKey.OP_WRITE);
+    eventLoop.wakeup();
+  }
+
+  private void onWritable(SelectionKey key) throws IOException {
+    while (true) {
+      // If OS buffer fills up before the queue is empty, leave pendingWrite=true and
+      // OP_WRITE active. We will resume when OS signals us.
+      if (!flushWriteQueue()) {
+        return;
+      }
+
+      // 1. Turn off the write interest and the flag
+      key.interestOpsAnd(~SelectionKey.OP_WRITE);
+      pendingWrite.set(false);
+
+      // 2. THE CRITICAL DOUBLE-CHECK
+      // If a thread sneaked a buffer into the queue while we were turning off the flag,
+      // we must turn it back on and continue the loop to prevent deadlock.
+      if (!writeQueue.isEmpty() && pendingWrite.compareAndSet(false, true)) {
         key.interestOpsOr(SelectionKey.OP_WRITE);
-        selector.wakeup();
+        continue;
+      }
+      return;
+    }
+  }
+
+  /**
+   * Writes as much of the queue as the socket accepts, batching up to {@link #MAX_GATHER}
+   * packets per gathering write. Only the current owner of {@code pendingWrite} may call this.
+   *
+   * @return true if the queue was drained, false if the socket stopped accepting bytes.
+   */
+  private boolean flushWriteQueue() throws IOException {
+    if (tls != null) {
+      return flushEncrypted();
+    }
+    while (true) {
+      int count = 0;
+      for (ByteBuffer queued : writeQueue) {
+        gatherBuffers[count++] = queued;
+        if (count == MAX_GATHER) {
+          break;
+        }
+      }
+      if (count == 0) {
+        return true;
+      }
+
+      if (count == 1) {
+        socketChannel.write(gatherBuffers[0]);
       } else {
-        throw new IllegalStateException("Cannot write: SelectionKey is invalid (socket closed)");
+        socketChannel.write(gatherBuffers, 0, count);
+      }
+
+      boolean drained = true;
+      for (int i = 0; i < count; i++) {
+        if (gatherBuffers[i].hasRemaining()) {
+          drained = false;
+          break;
+        }
+        bufferPool.release(writeQueue.poll());
+      }
+      Arrays.fill(gatherBuffers, 0, count, null);
+      if (!drained) {
+        return false;
       }
     }
   }
 
-  private void onWritable(SelectionKey key) throws IOException {
+  /**
+   * Encrypting variant of {@link #flushWriteQueue()}. Queued packets are wrapped together so that
+   * several small packets share one TLS record, and leftover ciphertext from a partial socket
+   * write is always sent before new packets are wrapped.
+   */
+  private boolean flushEncrypted() throws IOException {
     while (true) {
-      ByteBuffer buf = writeQueue.peek();
-      if (buf == null) {
-        // 1. Turn off the write interest and the flag
-        key.interestOpsAnd(~SelectionKey.OP_WRITE);
-        pendingWrite.set(false);
+      if (netWriteBuffer.hasRemaining()) {
+        socketChannel.write(netWriteBuffer);
+        if (netWriteBuffer.hasRemaining()) {
+          return false;
+        }
+      }
 
-        // 2. THE CRITICAL DOUBLE-CHECK
-        // If a thread sneaked a buffer into the queue while we were turning off the flag,
-        // we must turn it back on and continue the loop to prevent deadlock.
-        if (!writeQueue.isEmpty() && pendingWrite.compareAndSet(false, true)) {
-          key.interestOpsOr(SelectionKey.OP_WRITE);
-          continue;
+      int count = 0;
+      for (ByteBuffer queued : writeQueue) {
+        gatherBuffers[count++] = queued;
+        if (count == MAX_GATHER) {
+          break;
         }
-        return;
+      }
+      if (count == 0) {
+        return true;
       }
 
-      int written = socketChannel.write(buf);
+      netWriteBuffer.clear();
+      try {
+        tls.wrap(gatherBuffers, 0, count, netWriteBuffer);
+      } finally {
+        netWriteBuffer.flip();
+      }
 
-      // If OS buffer is full (written == 0) or we only wrote part of the buffer,
-      // leave pendingWrite=true and OP_WRITE active. We will resume when OS signals us.
-      if (buf.hasRemaining()) {
-        return;
+      for (int i = 0; i < count && !gatherBuffers[i].hasRemaining(); i++) {
+        bufferPool.release(writeQueue.poll());
       }
-      writeQueue.poll();
+      Arrays.fill(gatherBuffers, 0, count, null);
     }
   }
 
@@ -142,55 +308,36 @@ public class NioSocketConnection implements NetworkConnection {
     this.onError = onError;
   }
 
-  private void startEventLoop() {
-    // Use an ExecutorService with a custom ThreadFactory for clean naming and daemon status
-    this.eventLoopExecutor =
-        Executors.newSingleThreadExecutor(
-            r -> {
-              Thread t = new Thread(r, "TDS-EventLoop-" + socketChannel.socket().getLocalPort());
-              t.setDaemon(true);
-              return t;
-            });
-
-    eventLoopExecutor.submit(
-        () -> {
-          while (!Thread.currentThread().isInterrupted()) {
-            try {
-              if (selector.select(1000) == 0) {
-                continue;
-              }
-              Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
-              while (iterator.hasNext()) {
-                SelectionKey key = iterator.next();
-                iterator.remove();
-                if (!key.isValid()) {
-                  continue;
-                }
-                try {
-                  if (key.isReadable()) {
-                    onReadable(key);
-                  }
-                  if (key.isWritable()) {
-                    onWritable(key);
-                  }
-                } catch (Throwable t) {
-                  cleanupKeyAndTransport(key);
-                  if (onError != null) {
-                    onError.accept(t);
-                  }
-                }
-              }
-            } catch (Throwable fatal) {
-              if (onError != null) {
-                onError.accept(fatal);
-              }
-              break; // Exit the event loop
-            }
-          }
-        });
+  @Override
+  public void onSelected(SelectionKey key) {
+    try {
+      if (key.isReadable()) {
+        onReadable(key);
+      }
+      if (key.isValid() && key.isWritable()) {
+        onWritable(key);
+      }
+    } catch (Throwable t) {
+      cleanupKeyAndTransport(key);
+      if (onError != null) {
+        onError.accept(t);
+      }
+    }
+  }
+
+  @Override
+  public void onEventLoopShutdown() {
+    cleanupKeyAndTransport(selectionKey);
+    if (onError != null) {
+      onError.accept(new IOException("TDS event loop group was shut down"));
+    }
   }
 
   private void onReadable(SelectionKey selectionKey) throws IOException {
+    if (tls != null) {
+      onReadableEncrypted(selectionKey);
+      return;
+    }
     int read = socketChannel.read(readBuffer);
     if (read == -1) {
       cleanupKeyAndTransport(selectionKey);
@@ -202,6 +349,34 @@ public class NioSocketConnection implements NetworkConnection {
 
     logger.trace("[NIO] Read {} bytes. Buffer capacity: {}", read, readBuffer.capacity());
 
+    deliverReadBuffer();
+  }
+
+  private void onReadableEncrypted(SelectionKey selectionKey) throws IOException {
+    int read = socketChannel.read(netReadBuffer);
+    if (read == -1) {
+      cleanupKeyAndTransport(selectionKey);
+      return;
+    }
+
+    // Decrypt and deliver until no further complete record fits; a trailing partial record
+    // stays in netReadBuffer for the next read event
+    while (true) {
+      netReadBuffer.flip();
+      boolean produced;
+      try {
+        produced = tls.unwrap(netReadBuffer, readBuffer);
+      } finally {
+        netReadBuffer.compact();
+      }
+      if (!produced) {
+        return;
+      }
+      deliverReadBuffer();
+    }
+  }
+
+  private void deliverReadBuffer() {
     readBuffer.flip();
     try {
       if (onDataAvailable != null) {
@@ -214,11 +389,34 @@ public class NioSocketConnection implements NetworkConnection {
       readBuffer.compact();
       logger.trace("[NIO] Buffer compacted. Position: {}", readBuffer.position());
     }
+    ensureReadSpace();
+  }
+
+  /**
+   * Grows the read buffer when what is left over cannot be completed in place. That happens once
+   * the server raises the packet size (PACKET_SIZE ENVCHANGE) beyond what the buffer was sized
+   * for: a partial packet then fills the buffer and the next read would return nothing. Under
+   * TLS there must also be room for a whole record's plaintext.
+   */
+  private void ensureReadSpace() {
+    int required = tls != null ? tls.getApplicationBufferSize() : 1;
+    if (readBuffer.remaining() >= required) {
+      return;
+    }
+    ByteBuffer grown = bufferPool.acquire(
+        Math.max(2 * readBuffer.capacity(), readBuffer.position() + required));
+    readBuffer.flip();
+    grown.put(readBuffer);
+    bufferPool.release(readBuffer);
+    readBuffer = grown;
+    logger.debug("[NIO] Read buffer grown to {} bytes", grown.capacity());
   }
 
   private void cleanupKeyAndTransport(SelectionKey key) {
     try {
-      key.cancel();
+      if (key != null) {
+        key.cancel();
+      }
       close();
     } catch (Exception e) {
       logger.warn("Failed to clean up", e);
@@ -227,38 +425,57 @@ public class NioSocketConnection implements NetworkConnection {
 
   @Override
   public void suspendRead() {
-    if (selector == null) {
-      return;
-    }
-    SelectionKey key = socketChannel.keyFor(selector);
+    SelectionKey key = selectionKey;
     if (key != null && key.isValid()) {
       key.interestOpsAnd(~SelectionKey.OP_READ);
-      selector.wakeup(); // Force selector to recognize the change immediately
+      eventLoop.wakeup(); // Force selector to recognize the change immediately
     }
   }
 
   @Override
   public void resumeRead() {
-    if (selector == null) {
-      return;
-    }
-    SelectionKey key = socketChannel.keyFor(selector);
+    SelectionKey key = selectionKey;
     if (key != null && key.isValid()) {
       key.interestOpsOr(SelectionKey.OP_READ);
-      selector.wakeup();
+      eventLoop.wakeup();
     }
   }
 
   @Override
   public void close() throws IOException {
-    if (eventLoopExecutor != null) {
-      eventLoopExecutor.shutdownNow(); // Cleanly shut down the background thread
+    // The selector thread is shared with other connections, so only this channel's key goes away
+    SelectionKey key = selectionKey;
+    if (key != null) {
+      key.cancel();
     }
     if (socketChannel != null && socketChannel.isOpen()) {
       socketChannel.close();
     }
-    if (selector != null && selector.isOpen()) {
-      selector.close();
+    if (eventLoop == null) {
+      releaseBuffers();
+      return;
+    }
+    try {
+      // Deferred to the loop's task phase so no read or write in flight still touches the buffers
+      eventLoop.execute(this::releaseBuffers);
+    } catch (IllegalStateException loopGone) {
+      // Loop already stopped; the GC reclaims the buffers
+    }
+  }
+
+  private void releaseBuffers() {
+    // Queued writes are only recycled if no writer still owns them; otherwise the GC gets them
+    if (pendingWrite.compareAndSet(false, true)) {
+      ByteBuffer pending;
+      while ((pending = writeQueue.poll()) != null) {
+        bufferPool.release(pending);
+      }
+      bufferPool.release(netWriteBuffer);
+      netWriteBuffer = null;
     }
+    bufferPool.release(readBuffer);
+    readBuffer = null;
+    bufferPool.release(netReadBuffer);
+    netReadBuffer = null;
   }
 }
@@ -13,6 +13,8 @@ public interface PacketEncoder {
   /**
    * Encodes a logical TdsMessage into a list of ByteBuffers,
    * applying the TDS headers and chunking based on the maxPacketSize.
+   * The returned buffers are owned by the caller, which must hand them to
+   * {@link NetworkConnection#writeAsync(ByteBuffer)} or release them to the buffer pool.
    */
   List<ByteBuffer> encodeMessage(TdsMessage message, int spid, int maxPacketSize);
 }
\ No newline at end of file
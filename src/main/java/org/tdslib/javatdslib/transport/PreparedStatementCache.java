@@ -0,0 +1,147 @@
+package org.tdslib.javatdslib.transport;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * A per-connection LRU cache of server-side prepared statement handles, keyed by the SQL text
+ * and the {@code @params} declaration of the parameter set.
+ *
+ * <p>The first execution of a statement goes out as {@code sp_prepexec}, which returns a handle;
+ * later executions send {@code sp_execute} with just the handle and the values. Handles pushed
+ * out of the cache are queued and unprepared with {@code sp_unprepare} at the head of the next
+ * RPC request, so eviction never costs a round trip of its own. A session reset frees every
+ * handle on the server, so {@link #clear()} drops them without unpreparing and bumps a
+ * generation counter that keeps handles from requests sent before the reset out of the cache.
+ */
+public final class PreparedStatementCache {
+
+  /** Number of handles kept per connection unless configured otherwise. */
+  public static final int DEFAULT_CAPACITY = 64;
+
+  private final int capacity;
+  private final LinkedHashMap<Key, Integer> handles;
+  private final List<Integer> evicted = new ArrayList<>();
+  private long generation;
+
+  /**
+   * Constructs a new PreparedStatementCache.
+   *
+   * @param capacity The maximum number of handles to keep; 0 disables statement preparation.
+   */
+  public PreparedStatementCache(int capacity) {
+    this.capacity = Math.max(0, capacity);
+    this.handles = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * Checks whether statements should be prepared at all.
+   *
+   * @return false if the cache was configured with a capacity of 0.
+   */
+  public boolean isEnabled() {
+    return capacity > 0;
+  }
+
+  /**
+   * Looks up the handle for a statement and marks it most recently used.
+   *
+   * @param sql       The SQL text.
+   * @param paramDecl The {@code @params} declaration.
+   * @return The handle, or null if the statement is not prepared.
+   */
+  public synchronized Integer lookup(String sql, String paramDecl) {
+    return handles.get(new Key(sql, paramDecl));
+  }
+
+  /**
+   * Returns the current generation, to be passed back to {@link #put} with the handle returned
+   * by a request encoded now.
+   */
+  public synchronized long generation() {
+    return generation;
+  }
+
+  /**
+   * Caches the handle returned by {@code sp_prepexec}. A handle from before the last
+   * {@link #clear()} is ignored. Handles displaced by this one are queued for unpreparing.
+   *
+   * @param sql        The SQL text.
+   * @param paramDecl  The {@code @params} declaration.
+   * @param handle     The prepared handle.
+   * @param generation The {@link #generation()} when the request was encoded.
+   */
+  public synchronized void put(String sql, String paramDecl, int handle, long generation) {
+    if (generation != this.generation || capacity == 0) {
+      return;
+    }
+    // Two requests may have prepared the same statement concurrently; keep the newer handle
+    Integer previous = handles.put(new Key(sql, paramDecl), handle);
+    if (previous != null && previous != handle) {
+      evicted.add(previous);
+    }
+    Iterator<Integer> eldest = handles.values().iterator();
+    while (handles.size() > capacity) {
+      evicted.add(eldest.next());
+      eldest.remove();
+    }
+  }
+
+  /**
+   * Takes the handles waiting to be unprepared.
+   *
+   * @return The evicted handles, possibly empty.
+   */
+  public synchronized int[] drainEvicted() {
+    int[] drained = new int[evicted.size()];
+    for (int i = 0; i < drained.length; i++) {
+      drained[i] = evicted.get(i);
+    }
+    evicted.clear();
+    return drained;
+  }
+
+  /**
+   * Forgets every handle. Called when the session is reset, which unprepares them on the
+   * server.
+   */
+  public synchronized void clear() {
+    handles.clear();
+    evicted.clear();
+    generation++;
+  }
+
+  /**
+   * Returns the number of cached handles.
+   */
+  public synchronized int size() {
+    return handles.size();
+  }
+
+  private static final class Key {
+    private final String sql;
+    private final String paramDecl;
+    private final int hash;
+
+    private Key(String sql, String paramDecl) {
+      this.sql = sql;
+      this.paramDecl = paramDecl;
+      this.hash = 31 * sql.hashCode() + paramDecl.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key other)) {
+        return false;
+      }
+      return hash == other.hash && sql.equals(other.sql) && paramDecl.equals(other.paramDecl);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -2,6 +2,7 @@ package org.tdslib.javatdslib.transport;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tdslib.javatdslib.buffer.TdsBufferPool;
 import org.tdslib.javatdslib.packets.TdsMessage;
 
 import java.nio.ByteBuffer;
@@ -13,10 +14,31 @@ import java.util.List;
  * A utility class for building TDS packets from a logical message payload. This class handles the
  * fragmentation of large payloads into multiple TDS packets, ensuring that each packet adheres to
  * the negotiated packet size and includes the correct headers.
+ *
+ * <p>Packet buffers are drawn from a {@link TdsBufferPool}; ownership passes to the caller, which
+ * releases them once they have been written.
  */
 public class QueryPacketBuilder implements PacketEncoder {
   private static final Logger LOGGER = LoggerFactory.getLogger(QueryPacketBuilder.class);
 
+  private final TdsBufferPool bufferPool;
+
+  /**
+   * Constructs a builder backed by the shared {@link TdsBufferPool#DEFAULT} pool.
+   */
+  public QueryPacketBuilder() {
+    this(TdsBufferPool.DEFAULT);
+  }
+
+  /**
+   * Constructs a builder backed by the given pool.
+   *
+   * @param bufferPool The pool to draw packet buffers from.
+   */
+  public QueryPacketBuilder(TdsBufferPool bufferPool) {
+    this.bufferPool = bufferPool;
+  }
+
   @Override
   public List<ByteBuffer> encodeMessage(TdsMessage message, int spid, int maxPacketSize) {
     return buildPackets(
@@ -67,7 +89,7 @@ public class QueryPacketBuilder implements PacketEncoder {
       boolean isLast = !payload.hasRemaining() || thisPayloadSize == payload.remaining();
       byte thisStatus = (byte) (isLast ? (statusFlags | 0x01) : (statusFlags & ~0x01));
 
-      ByteBuffer packet = ByteBuffer.allocate(8 + thisPayloadSize).order(ByteOrder.BIG_ENDIAN);
+      ByteBuffer packet = bufferPool.acquire(8 + thisPayloadSize).order(ByteOrder.BIG_ENDIAN);
 
       packet.put(packetType); // Byte 0: Type
       packet.put(thisStatus); // Byte 1: Status (EOM on last)
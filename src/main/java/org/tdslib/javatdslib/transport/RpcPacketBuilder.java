@@ -3,21 +3,33 @@ package org.tdslib.javatdslib.transport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.tdslib.javatdslib.codec.EncoderRegistry;
+import org.tdslib.javatdslib.packets.TdsPacketWriter;
 import org.tdslib.javatdslib.protocol.TdsParameter;
 import org.tdslib.javatdslib.protocol.TdsType;
 import org.tdslib.javatdslib.protocol.rpc.ParameterEncoder;
 import org.tdslib.javatdslib.protocol.rpc.RpcEncodingContext;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-/** Builds TDS RPC packets for executing parameterized queries. */
+/**
+ * Builds TDS RPC packets for executing parameterized queries. The request is encoded directly
+ * into the outbound packet stream of a {@link TdsPacketWriter}.
+ *
+ * <p>With a {@link PreparedStatementCache}, a parameter set whose statement is already prepared
+ * is sent as {@code sp_execute} with only the handle and the values. Otherwise the first such
+ * set is sent as {@code sp_prepexec} and recorded in {@link #getPendingPrepares()}, so the
+ * caller can cache the handle the server returns; the rest of the batch uses
+ * {@code sp_executesql}. Handles evicted from the cache are unprepared ahead of the batch.
+ */
 public class RpcPacketBuilder {
   private static final Logger logger = LoggerFactory.getLogger(RpcPacketBuilder.class);
 
   private static final short RPC_PROCID_SPEXECUTESQL = 10;
+  private static final short RPC_PROCID_SPEXECUTE = 12;
+  private static final short RPC_PROCID_SPPREPEXEC = 13;
+  private static final short RPC_PROCID_SPUNPREPARE = 15;
   private static final byte RPC_PARAM_DEFAULT = 0x00;
 
   // --- New Protocol Constants ---
@@ -33,6 +45,8 @@ public class RpcPacketBuilder {
   private final List<List<TdsParameter>> batchParams; // CHANGED from ParamEntry
   private final EncoderRegistry encoderRegistry;
   private final RpcEncodingContext encodingContext;
+  private final PreparedStatementCache cache;
+  private final List<PendingPrepare> pendingPrepares = new ArrayList<>();
 
   /**
    * Creates a new RpcPacketBuilder.
@@ -47,74 +61,170 @@ public class RpcPacketBuilder {
       List<List<TdsParameter>> batchParams,
       EncoderRegistry encoderRegistry,
       RpcEncodingContext encodingContext) {
+    this(sql, batchParams, encoderRegistry, encodingContext, null);
+  }
+
+  /**
+   * Creates a new RpcPacketBuilder that runs statements by prepared handle where it can.
+   *
+   * @param sql the SQL statement
+   * @param batchParams the list of parameter sets for batch execution
+   * @param encoderRegistry the registry for parameter codecs
+   * @param encodingContext the encoding context
+   * @param cache the connection's prepared handles, or null to always use sp_executesql
+   */
+  public RpcPacketBuilder(
+      String sql,
+      List<List<TdsParameter>> batchParams,
+      EncoderRegistry encoderRegistry,
+      RpcEncodingContext encodingContext,
+      PreparedStatementCache cache) {
     this.sql = sql;
     this.batchParams = batchParams;
     this.encoderRegistry = encoderRegistry;
     this.encodingContext = encodingContext;
+    this.cache = cache != null && cache.isEnabled() ? cache : null;
   }
 
   /**
-   * Builds the RPC packet buffer.
+   * Writes the RPC request body (one call per parameter set) into the packet stream.
+   * ALL_HEADERS must already have been written.
    *
-   * @return the constructed ByteBuffer
+   * @param writer the packet writer for the outgoing RPC message
    */
-  public ByteBuffer buildRpcPacket() {
-    // TODO: hardcode pipeline length
-    ByteBuffer buf = ByteBuffer.allocate(1024 * 1024); // Large buffer for pipelining
-    buf.order(ByteOrder.LITTLE_ENDIAN);
-
-    // Hoisted Loop Invariant: Encode the SQL string exactly once
-    byte[] sqlBytes = sql.getBytes(StandardCharsets.UTF_16LE);
+  public void writeTo(TdsPacketWriter writer) {
+    boolean first = true;
+    if (cache != null) {
+      for (int handle : cache.drainEvicted()) {
+        writeUnprepare(writer, handle, first);
+        first = false;
+      }
+    }
 
-    for (int i = 0; i < batchParams.size(); i++) {
+    long generation = cache != null ? cache.generation() : 0;
+    for (List<TdsParameter> params : batchParams) {
       // Separates multiple RPCReqBatch requests in TDS 7.2+
-      if (i > 0) {
-        buf.put(RPC_BATCH_SEPARATOR);
+      if (!first) {
+        writer.put(RPC_BATCH_SEPARATOR);
       }
+      first = false;
 
-      writeRpcHeader(buf);
+      String paramDecl = buildParamDecl(params);
+      Integer handle = cache != null ? cache.lookup(sql, paramDecl) : null;
+      if (handle != null) {
+        writeExecute(writer, handle, params);
+      } else if (cache != null && !isPreparing(paramDecl)) {
+        writePrepExec(writer, paramDecl, params);
+        pendingPrepares.add(new PendingPrepare(cache, sql, paramDecl, generation));
+      } else {
+        writeExecuteSql(writer, paramDecl, params);
+      }
+    }
+  }
 
-      // 1. Framework @stmt header (Hardcoded as nvarchar for protocol framing)
-      writeFrameworkParamHeader(buf, "@stmt");
+  /**
+   * Returns the {@code sp_prepexec} calls written by {@link #writeTo}, in request order. Each
+   * one's handle comes back as the RETURNVALUE with ordinal 0.
+   *
+   * @return The pending prepares, possibly empty.
+   */
+  public List<PendingPrepare> getPendingPrepares() {
+    return Collections.unmodifiableList(pendingPrepares);
+  }
 
-      buf.putShort((short) sqlBytes.length);
-      buf.put(sqlBytes);
+  private boolean isPreparing(String paramDecl) {
+    for (PendingPrepare pending : pendingPrepares) {
+      if (pending.paramDecl.equals(paramDecl)) {
+        return true;
+      }
+    }
+    return false;
+  }
 
-      List<TdsParameter> params = batchParams.get(i);
+  private void writeExecuteSql(TdsPacketWriter writer, String paramDecl,
+                               List<TdsParameter> params) {
+    writeRpcHeader(writer, RPC_PROCID_SPEXECUTESQL);
 
-      // 2. Framework @params header
-      if (!params.isEmpty()) {
-        writeFrameworkParamHeader(buf, "@params");
+    // 1. Framework @stmt header (Hardcoded as nvarchar for protocol framing)
+    writeStmt(writer);
 
-        String paramDecl = buildParamDecl(params);
-        byte[] declBytes = paramDecl.getBytes(StandardCharsets.UTF_16LE);
-        buf.putShort((short) declBytes.length);
-        buf.put(declBytes);
+    // 2. Framework @params header
+    if (!params.isEmpty()) {
+      writeParamDecl(writer, paramDecl);
 
-        // 3. User Values (Delegated to EncoderRegistry)
-        for (TdsParameter param : params) {
-          writeParam(buf, param);
-        }
-      }
+      // 3. User Values (Delegated to EncoderRegistry)
+      writeParams(writer, params);
     }
+  }
+
+  private void writePrepExec(TdsPacketWriter writer, String paramDecl,
+                             List<TdsParameter> params) {
+    writeRpcHeader(writer, RPC_PROCID_SPPREPEXEC);
+    writeHandleParam(writer, null);
+    writeParamDecl(writer, paramDecl);
+    writeStmt(writer);
+    writeParams(writer, params);
+  }
+
+  private void writeExecute(TdsPacketWriter writer, int handle, List<TdsParameter> params) {
+    writeRpcHeader(writer, RPC_PROCID_SPEXECUTE);
+    writeHandleParam(writer, handle);
+    writeParams(writer, params);
+  }
+
+  private void writeUnprepare(TdsPacketWriter writer, int handle, boolean first) {
+    if (!first) {
+      writer.put(RPC_BATCH_SEPARATOR);
+    }
+    writeRpcHeader(writer, RPC_PROCID_SPUNPREPARE);
+    writeHandleParam(writer, handle);
+  }
+
+  private void writeRpcHeader(TdsPacketWriter writer, short procId) {
+    writer.putShort(RPC_HEADER_MARKER);
+    writer.putShort(procId);
+    writer.putShort((short) 0);
+  }
+
+  private void writeStmt(TdsPacketWriter writer) {
+    writeFrameworkParamHeader(writer, "@stmt");
+    writer.putShort((short) (sql.length() * 2));
+    writer.putUtf16(sql);
+  }
 
-    buf.flip();
-    return buf;
+  private void writeParamDecl(TdsPacketWriter writer, String paramDecl) {
+    writeFrameworkParamHeader(writer, "@params");
+    writer.putShort((short) (paramDecl.length() * 2));
+    writer.putUtf16(paramDecl);
   }
 
-  private void writeRpcHeader(ByteBuffer buf) {
-    buf.putShort(RPC_HEADER_MARKER);
-    buf.putShort(RPC_PROCID_SPEXECUTESQL);
-    buf.putShort((short) 0);
+  private void writeParams(TdsPacketWriter writer, List<TdsParameter> params) {
+    for (TdsParameter param : params) {
+      writeParam(writer, param);
+    }
+  }
+
+  /** Writes the int @handle parameter: an OUTPUT parameter when {@code handle} is null. */
+  private void writeHandleParam(TdsPacketWriter writer, Integer handle) {
+    writeParamName(writer, "@handle");
+    writer.put(handle == null ? RPC_PARAM_BYREF : RPC_PARAM_DEFAULT);
+    writer.put((byte) TdsType.INTN.byteVal);
+    writer.put((byte) 4);
+    if (handle == null) {
+      writer.put((byte) 0);
+    } else {
+      writer.put((byte) 4);
+      writer.putInt(handle);
+    }
   }
 
   /** DRY extraction for writing framework parameter headers (@stmt and @params). */
-  private void writeFrameworkParamHeader(ByteBuffer buf, String paramName) {
-    writeParamName(buf, paramName);
-    buf.put(RPC_PARAM_DEFAULT);
-    buf.put((byte) TdsType.NVARCHAR.byteVal);
-    buf.putShort(MAX_NVARCHAR_SIZE);
-    writeFrameworkCollation(buf);
+  private void writeFrameworkParamHeader(TdsPacketWriter writer, String paramName) {
+    writeParamName(writer, paramName);
+    writer.put(RPC_PARAM_DEFAULT);
+    writer.put((byte) TdsType.NVARCHAR.byteVal);
+    writer.putShort(MAX_NVARCHAR_SIZE);
+    writeFrameworkCollation(writer);
   }
 
   private String buildParamDecl(List<TdsParameter> params) {
@@ -140,30 +250,56 @@ public class RpcPacketBuilder {
     return sb.toString();
   }
 
-  private void writeParam(ByteBuffer buf, TdsParameter param) {
-    writeParamName(buf, param.name());
+  private void writeParam(TdsPacketWriter writer, TdsParameter param) {
+    writeParamName(writer, param.name());
 
     if (param.isOutParameter()) {
-      buf.put(RPC_PARAM_BYREF);
+      writer.put(RPC_PARAM_BYREF);
     } else {
-      buf.put(RPC_PARAM_DEFAULT);
+      writer.put(RPC_PARAM_DEFAULT);
     }
 
     ParameterEncoder codec = encoderRegistry.getCodec(param);
-    codec.writeTypeInfo(buf, param, encodingContext);
-    codec.writeValue(buf, param, encodingContext);
+    codec.encode(writer, param, encodingContext);
   }
 
-  private void writeParamName(ByteBuffer buf, String name) {
+  private void writeParamName(TdsPacketWriter writer, String name) {
     if (name == null || name.isEmpty()) {
-      buf.put((byte) 0);
+      writer.put((byte) 0);
       return;
     }
-    buf.put((byte) name.length());
-    buf.put(name.getBytes(StandardCharsets.UTF_16LE));
+    writer.put((byte) name.length());
+    writer.putUtf16(name);
+  }
+
+  private void writeFrameworkCollation(TdsPacketWriter writer) {
+    writer.put(encodingContext.collationBytes());
   }
 
-  private void writeFrameworkCollation(ByteBuffer buf) {
-    buf.put(encodingContext.collationBytes());
+  /**
+   * An {@code sp_prepexec} call whose handle has not come back yet.
+   */
+  public static final class PendingPrepare {
+    private final PreparedStatementCache cache;
+    private final String sql;
+    private final String paramDecl;
+    private final long generation;
+
+    private PendingPrepare(
+        PreparedStatementCache cache, String sql, String paramDecl, long generation) {
+      this.cache = cache;
+      this.sql = sql;
+      this.paramDecl = paramDecl;
+      this.generation = generation;
+    }
+
+    /**
+     * Caches the handle returned by the server for this call.
+     *
+     * @param handle The prepared handle.
+     */
+    public void complete(int handle) {
+      cache.put(sql, paramDecl, handle, generation);
+    }
   }
 }
@@ -0,0 +1,179 @@
+package org.tdslib.javatdslib.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implements the Session Multiplexing Protocol (SMP) used by MARS.
+ *
+ * <p>Every frame on the physical connection starts with a 16-byte little-endian header:
+ * SMID (0x53), FLAGS (SYN/ACK/FIN/DATA), SID, LENGTH (header included), SEQNUM and WNDW. The
+ * multiplexer splits the inbound byte stream into frames and routes them to the owning
+ * {@link SmpSession}, which runs its own {@link TdsPacketFramer} and token pipeline. Outbound
+ * frames from all sessions share the physical connection's write queue.
+ *
+ * <p>Inbound frames are processed on the event loop thread only.
+ */
+public final class SmpMultiplexer {
+  private static final Logger logger = LoggerFactory.getLogger(SmpMultiplexer.class);
+
+  /** Length of the SMP header. */
+  public static final int HEADER_LENGTH = 16;
+
+  static final byte SMID = 0x53;
+  static final byte FLAG_SYN = 0x01;
+  static final byte FLAG_ACK = 0x02;
+  static final byte FLAG_FIN = 0x04;
+  static final byte FLAG_DATA = 0x08;
+
+  private static final int MAX_SESSION_ID = 0xFFFF;
+  // One TDS packet (16-bit length) plus the SMP header
+  private static final int MAX_FRAME_LENGTH = HEADER_LENGTH + 0xFFFF;
+
+  private final NetworkConnection connection;
+  private final int packetSize;
+  private final Map<Integer, SmpSession> sessions = new ConcurrentHashMap<>();
+  private int nextSessionId;
+  private volatile boolean closed;
+
+  /**
+   * Constructs a new SmpMultiplexer.
+   *
+   * @param connection The physical connection, already in asynchronous mode.
+   * @param packetSize The negotiated TDS packet size.
+   */
+  public SmpMultiplexer(NetworkConnection connection, int packetSize) {
+    this.connection = connection;
+    this.packetSize = packetSize;
+  }
+
+  /**
+   * Takes over the physical connection's inbound stream.
+   */
+  public void start() {
+    connection.setHandlers(this::onDataAvailable, this::onConnectionError);
+  }
+
+  /**
+   * Opens a new logical session by sending SYN. The session can be written to immediately.
+   *
+   * @return The new session.
+   */
+  public synchronized SmpSession openSession() {
+    if (closed) {
+      throw new IllegalStateException("Cannot open MARS session: connection is closed");
+    }
+    int id = nextSessionId;
+    while (sessions.containsKey(id)) {
+      id = (id + 1) & MAX_SESSION_ID;
+    }
+    nextSessionId = (id + 1) & MAX_SESSION_ID;
+
+    SmpSession session = new SmpSession(this, id, packetSize);
+    sessions.put(id, session);
+    session.sendSyn();
+    logger.debug("Opened MARS session {} ({} active)", id, sessions.size());
+    return session;
+  }
+
+  /**
+   * Returns the number of open sessions.
+   *
+   * @return The session count.
+   */
+  public int getSessionCount() {
+    return sessions.size();
+  }
+
+  void write(ByteBuffer frame) {
+    connection.writeAsync(frame);
+  }
+
+  void remove(SmpSession session) {
+    sessions.remove(session.getSessionId(), session);
+  }
+
+  /**
+   * Splits the inbound stream into SMP frames. A trailing partial frame is left in the buffer for
+   * the next read.
+   */
+  void onDataAvailable(ByteBuffer buffer) {
+    while (buffer.remaining() >= HEADER_LENGTH) {
+      int start = buffer.position();
+      if (buffer.get(start) != SMID) {
+        throw new IllegalStateException(String.format(
+            "Protocol Desync: Expected SMP header (0x53) but found 0x%02X", buffer.get(start)));
+      }
+      int length = getInt(buffer, start + 4);
+      if (length < HEADER_LENGTH || length > MAX_FRAME_LENGTH) {
+        throw new IllegalStateException("Protocol Desync: SMP frame length (" + length
+            + " bytes) is invalid.");
+      }
+      if (buffer.remaining() < length) {
+        return;
+      }
+
+      byte flags = buffer.get(start + 1);
+      int sessionId = getShort(buffer, start + 2);
+      int window = getInt(buffer, start + 12);
+      SmpSession session = sessions.get(sessionId);
+
+      if (session == null) {
+        logger.debug("Dropping SMP frame (flags 0x{}) for unknown session {}",
+            Integer.toHexString(flags), sessionId);
+      } else if ((flags & FLAG_DATA) != 0) {
+        // A duplicate view keeps the capacity of the read buffer, so the session's packet framer
+        // treats a TDS packet continuing in the next frame as partial rather than corrupt
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(start + HEADER_LENGTH).limit(start + length);
+        session.onData(payload, window);
+      } else if ((flags & FLAG_ACK) != 0) {
+        session.onAck(window);
+      } else if ((flags & FLAG_FIN) != 0) {
+        session.onFin();
+      }
+      buffer.position(start + length);
+    }
+  }
+
+  void onConnectionError(Throwable error) {
+    closed = true;
+    for (SmpSession session : new ArrayList<>(sessions.values())) {
+      session.onConnectionError(error);
+    }
+    sessions.clear();
+  }
+
+  static void putHeader(ByteBuffer frame, int offset, byte flags, int sessionId, int length,
+                        int sequenceNumber, int window) {
+    frame.put(offset, SMID);
+    frame.put(offset + 1, flags);
+    putShort(frame, offset + 2, sessionId);
+    putInt(frame, offset + 4, length);
+    putInt(frame, offset + 8, sequenceNumber);
+    putInt(frame, offset + 12, window);
+  }
+
+  private static int getShort(ByteBuffer buffer, int index) {
+    return (buffer.get(index) & 0xFF) | (buffer.get(index + 1) & 0xFF) << 8;
+  }
+
+  private static int getInt(ByteBuffer buffer, int index) {
+    return getShort(buffer, index) | getShort(buffer, index + 2) << 16;
+  }
+
+  private static void putShort(ByteBuffer buffer, int index, int value) {
+    buffer.put(index, (byte) value);
+    buffer.put(index + 1, (byte) (value >>> 8));
+  }
+
+  private static void putInt(ByteBuffer buffer, int index, int value) {
+    putShort(buffer, index, value);
+    putShort(buffer, index + 2, value >>> 16);
+  }
+}
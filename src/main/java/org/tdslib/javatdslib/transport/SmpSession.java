@@ -0,0 +1,256 @@
+package org.tdslib.javatdslib.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tdslib.javatdslib.buffer.TdsBufferPool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+/**
+ * One logical MARS session multiplexed over a physical connection by {@link SmpMultiplexer}.
+ *
+ * <p>The session presents itself as a {@link NetworkConnection}, so a {@link TdsTransport} runs
+ * on top of it unchanged. Flow control follows the SMP window rules: a DATA frame may only be
+ * sent while its sequence number is within the window last granted by the server, and the
+ * server may only send as far as the window this session grants. {@link #suspendRead()} stops
+ * granting window instead of pausing the shared socket, so a slow consumer stalls only its own
+ * session.
+ */
+public class SmpSession implements NetworkConnection {
+  private static final Logger logger = LoggerFactory.getLogger(SmpSession.class);
+
+  private static final int INITIAL_WINDOW = 4;
+  private static final int ACK_THRESHOLD = 2;
+
+  private final SmpMultiplexer multiplexer;
+  private final int sessionId;
+  private final int packetSize;
+  private final TdsBufferPool bufferPool = TdsBufferPool.DEFAULT;
+
+  // Send side, guarded by this
+  private final Queue<ByteBuffer> pendingSends = new ArrayDeque<>();
+  private int sequenceNumber;
+  private int sendHighwater = INITIAL_WINDOW;
+
+  // Receive side, guarded by this
+  private int receiveHighwater = INITIAL_WINDOW;
+  private int receiveHighwaterLastAck = INITIAL_WINDOW;
+  private int withheldWindow;
+  private boolean suspended;
+  private boolean closed;
+
+  // Event loop thread only
+  private ByteBuffer accumulator;
+  private Consumer<ByteBuffer> onDataAvailable;
+  private Consumer<Throwable> onError;
+
+  SmpSession(SmpMultiplexer multiplexer, int sessionId, int packetSize) {
+    this.multiplexer = multiplexer;
+    this.sessionId = sessionId;
+    this.packetSize = packetSize;
+  }
+
+  /**
+   * Returns the SMP session id.
+   *
+   * @return The SID carried in every frame of this session.
+   */
+  public int getSessionId() {
+    return sessionId;
+  }
+
+  synchronized void sendSyn() {
+    sendControl(SmpMultiplexer.FLAG_SYN);
+  }
+
+  @Override
+  public int framePrefixLength() {
+    return SmpMultiplexer.HEADER_LENGTH;
+  }
+
+  @Override
+  public void enterAsyncMode(int bufferSize) {
+    // A TDS packet may straddle two DATA frames, so hold up to two packets
+    this.accumulator = ByteBuffer.allocate(2 * Math.max(bufferSize, packetSize));
+  }
+
+  @Override
+  public void writeAsync(ByteBuffer buffer) {
+    synchronized (this) {
+      if (closed) {
+        bufferPool.release(buffer);
+        throw new IllegalStateException("Cannot write: MARS session " + sessionId + " is closed");
+      }
+      if (pendingSends.isEmpty() && sequenceNumber < sendHighwater) {
+        sendData(buffer);
+      } else {
+        logger.trace("MARS session {} send window closed at {}; queueing", sessionId,
+            sendHighwater);
+        pendingSends.add(buffer);
+      }
+    }
+  }
+
+  @Override
+  public void setHandlers(Consumer<ByteBuffer> onDataAvailable, Consumer<Throwable> onError) {
+    this.onDataAvailable = onDataAvailable;
+    this.onError = onError;
+  }
+
+  @Override
+  public synchronized void suspendRead() {
+    suspended = true;
+  }
+
+  @Override
+  public void resumeRead() {
+    synchronized (this) {
+      suspended = false;
+      if (closed || withheldWindow == 0) {
+        return;
+      }
+      receiveHighwater += withheldWindow;
+      withheldWindow = 0;
+      sendControl(SmpMultiplexer.FLAG_ACK);
+    }
+  }
+
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        sendControl(SmpMultiplexer.FLAG_FIN);
+      } catch (IllegalStateException connectionGone) {
+        // The physical connection is already closed
+      }
+      releasePendingSends();
+    }
+    multiplexer.remove(this);
+  }
+
+  // --- Inbound frames, dispatched by SmpMultiplexer on the event loop thread ---
+
+  void onData(ByteBuffer payload, int window) {
+    onAck(window);
+    deliver(payload);
+
+    synchronized (this) {
+      // Each consumed DATA frame lets the server send one more, unless the reader is backed up
+      if (suspended) {
+        withheldWindow++;
+      } else {
+        receiveHighwater++;
+        if (receiveHighwater - receiveHighwaterLastAck >= ACK_THRESHOLD && !closed) {
+          sendControl(SmpMultiplexer.FLAG_ACK);
+        }
+      }
+    }
+  }
+
+  synchronized void onAck(int window) {
+    sendHighwater = window;
+    while (!pendingSends.isEmpty() && sequenceNumber < sendHighwater) {
+      sendData(pendingSends.poll());
+    }
+  }
+
+  void onFin() {
+    logger.debug("MARS session {} closed by server", sessionId);
+    synchronized (this) {
+      closed = true;
+      releasePendingSends();
+    }
+    multiplexer.remove(this);
+    if (onError != null) {
+      onError.accept(new IOException("MARS session " + sessionId + " was closed by the server"));
+    }
+  }
+
+  void onConnectionError(Throwable error) {
+    synchronized (this) {
+      closed = true;
+      releasePendingSends();
+    }
+    if (onError != null) {
+      onError.accept(error);
+    }
+  }
+
+  private void deliver(ByteBuffer payload) {
+    Consumer<ByteBuffer> handler = onDataAvailable;
+    if (handler == null) {
+      return;
+    }
+    if (accumulator.position() == 0) {
+      // Fast path: whole TDS packets are framed straight out of the socket buffer
+      handler.accept(payload);
+      if (!payload.hasRemaining()) {
+        return;
+      }
+    }
+    if (payload.remaining() > accumulator.remaining()) {
+      // The packet size was raised after the session started
+      ByteBuffer grown = ByteBuffer.allocate(
+          Math.max(2 * accumulator.capacity(), accumulator.position() + payload.remaining()));
+      accumulator.flip();
+      accumulator = grown.put(accumulator);
+    }
+    accumulator.put(payload);
+    accumulator.flip();
+    try {
+      handler.accept(accumulator);
+    } finally {
+      accumulator.compact();
+    }
+  }
+
+  // --- Outbound frames; callers hold the monitor ---
+
+  private void sendData(ByteBuffer buffer) {
+    sequenceNumber++;
+    receiveHighwaterLastAck = receiveHighwater;
+    SmpMultiplexer.putHeader(buffer, buffer.position(), SmpMultiplexer.FLAG_DATA, sessionId,
+        buffer.remaining(), sequenceNumber, receiveHighwater);
+    multiplexer.write(buffer);
+  }
+
+  private void sendControl(byte flags) {
+    ByteBuffer frame = ByteBuffer.allocate(SmpMultiplexer.HEADER_LENGTH);
+    receiveHighwaterLastAck = receiveHighwater;
+    SmpMultiplexer.putHeader(frame, 0, flags, sessionId, SmpMultiplexer.HEADER_LENGTH,
+        sequenceNumber, receiveHighwater);
+    multiplexer.write(frame);
+  }
+
+  private void releasePendingSends() {
+    ByteBuffer pending;
+    while ((pending = pendingSends.poll()) != null) {
+      bufferPool.release(pending);
+    }
+  }
+
+  // --- Synchronous I/O is not available on a multiplexed session ---
+
+  @Override
+  public void readFullySync(ByteBuffer buffer) {
+    throw new UnsupportedOperationException("MARS sessions only support asynchronous I/O");
+  }
+
+  @Override
+  public void writeDirect(ByteBuffer buffer) {
+    throw new UnsupportedOperationException("MARS sessions only support asynchronous I/O");
+  }
+
+  @Override
+  public void enableTls(TlsHandshake tlsHandshake) {
+    throw new UnsupportedOperationException("TLS is negotiated on the physical connection");
+  }
+}
@@ -0,0 +1,24 @@
+package org.tdslib.javatdslib.transport;
+
+/**
+ * TCP socket settings applied before a {@link NioSocketConnection} connects.
+ *
+ * @param tcpNoDelay        Disables Nagle's algorithm so small requests are sent immediately.
+ * @param sendBufferSize    SO_SNDBUF in bytes, or 0 to keep the operating system default.
+ * @param receiveBufferSize SO_RCVBUF in bytes, or 0 to keep the operating system default. Set
+ *                          before connecting so the TCP window scale can be negotiated.
+ */
+public record SocketTuning(boolean tcpNoDelay, int sendBufferSize, int receiveBufferSize) {
+
+  /** TCP_NODELAY on, operating system buffer sizes. */
+  public static final SocketTuning DEFAULT = new SocketTuning(true, 0, 0);
+
+  /**
+   * Validates the buffer sizes.
+   */
+  public SocketTuning {
+    if (sendBufferSize < 0 || receiveBufferSize < 0) {
+      throw new IllegalArgumentException("Socket buffer sizes must be zero or positive");
+    }
+  }
+}
@@ -0,0 +1,262 @@
+package org.tdslib.javatdslib.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed group of NIO selector threads shared by many {@link NioSocketConnection}s.
+ *
+ * <p>Each {@link EventLoop} owns one {@link Selector} and one daemon thread. Connections are
+ * assigned to loops round-robin when they enter asynchronous mode, so thousands of connections
+ * are multiplexed over a handful of threads instead of each one owning a thread and a selector.
+ */
+public final class TdsEventLoopGroup implements AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(TdsEventLoopGroup.class);
+
+  private static final Object DEFAULT_LOCK = new Object();
+  private static volatile TdsEventLoopGroup defaultGroup;
+
+  private final EventLoop[] loops;
+  private final AtomicInteger nextIndex = new AtomicInteger();
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+
+  /**
+   * Constructs a new TdsEventLoopGroup and starts its selector threads.
+   *
+   * @param threads The number of selector threads. Values below 1 default to the CPU count.
+   * @throws IOException If a selector cannot be opened.
+   */
+  public TdsEventLoopGroup(int threads) throws IOException {
+    int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    this.loops = new EventLoop[size];
+    for (int i = 0; i < size; i++) {
+      loops[i] = new EventLoop("TDS-EventLoop-" + i);
+    }
+    logger.debug("Started TDS event loop group with {} selector threads", size);
+  }
+
+  /**
+   * Returns the process-wide group sized to the number of available processors. The default group
+   * uses daemon threads and is never closed.
+   *
+   * @return The shared default group.
+   */
+  public static TdsEventLoopGroup getDefault() {
+    TdsEventLoopGroup group = defaultGroup;
+    if (group == null) {
+      synchronized (DEFAULT_LOCK) {
+        group = defaultGroup;
+        if (group == null) {
+          try {
+            group = new TdsEventLoopGroup(0);
+          } catch (IOException e) {
+            throw new IllegalStateException("Unable to start the default TDS event loop group", e);
+          }
+          defaultGroup = group;
+        }
+      }
+    }
+    return group;
+  }
+
+  /**
+   * Picks the next loop in round-robin order.
+   *
+   * @return The event loop a new connection should register with.
+   */
+  public EventLoop next() {
+    if (closed.get()) {
+      throw new IllegalStateException("TDS event loop group has been shut down");
+    }
+    return loops[Math.floorMod(nextIndex.getAndIncrement(), loops.length)];
+  }
+
+  /**
+   * Returns the number of selector threads in this group.
+   *
+   * @return The thread count.
+   */
+  public int size() {
+    return loops.length;
+  }
+
+  /**
+   * Shuts down every loop. Connections still registered are notified and closed.
+   */
+  @Override
+  public void close() {
+    if (this == defaultGroup || !closed.compareAndSet(false, true)) {
+      return;
+    }
+    for (EventLoop loop : loops) {
+      loop.shutdown();
+    }
+  }
+
+  /**
+   * Callback invoked by an {@link EventLoop} for each ready key. Implementations run on the
+   * selector thread and must never block.
+   */
+  interface SelectedKeyHandler {
+    void onSelected(SelectionKey key);
+
+    void onEventLoopShutdown();
+  }
+
+  /**
+   * A single selector thread. Channel registration and other loop-affine work is funnelled through
+   * a task queue so that only the loop thread ever touches its {@link Selector}'s key set.
+   */
+  public static final class EventLoop implements Runnable {
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakenUp = new AtomicBoolean(false);
+    private volatile boolean running = true;
+
+    private EventLoop(String name) throws IOException {
+      this.selector = Selector.open();
+      this.thread = new Thread(this, name);
+      this.thread.setDaemon(true);
+      this.thread.start();
+    }
+
+    /**
+     * Registers a channel with this loop's selector, blocking the caller until the loop thread has
+     * completed the registration.
+     *
+     * @param channel    A non-blocking socket channel.
+     * @param ops        The initial interest set.
+     * @param handler    The handler to attach to the key.
+     * @return The registered key.
+     * @throws IOException If the registration fails.
+     */
+    SelectionKey register(SocketChannel channel, int ops, SelectedKeyHandler handler)
+        throws IOException {
+      if (inEventLoop()) {
+        return channel.register(selector, ops, handler);
+      }
+      CompletableFuture<SelectionKey> future = new CompletableFuture<>();
+      execute(() -> {
+        try {
+          future.complete(channel.register(selector, ops, handler));
+        } catch (Throwable t) {
+          future.completeExceptionally(t);
+        }
+      });
+      try {
+        return future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while registering with the event loop", e);
+      } catch (ExecutionException e) {
+        throw new IOException("Failed to register with the event loop", e.getCause());
+      }
+    }
+
+    /**
+     * Queues a task to run on the loop thread.
+     *
+     * @param task The task to run.
+     */
+    public void execute(Runnable task) {
+      if (!running) {
+        throw new IllegalStateException("TDS event loop has been shut down");
+      }
+      tasks.offer(task);
+      wakeup();
+    }
+
+    /**
+     * Interrupts a blocking select so that interest-set changes and queued tasks are seen
+     * immediately. Redundant wake-ups from other threads are coalesced, and calls made from the
+     * loop thread itself are skipped since the loop re-evaluates before its next select.
+     */
+    public void wakeup() {
+      if (!inEventLoop() && wakenUp.compareAndSet(false, true)) {
+        selector.wakeup();
+      }
+    }
+
+    /**
+     * Checks whether the calling thread is this loop's selector thread.
+     *
+     * @return true if called from the loop thread.
+     */
+    public boolean inEventLoop() {
+      return Thread.currentThread() == thread;
+    }
+
+    @Override
+    public void run() {
+      while (running) {
+        try {
+          wakenUp.set(false);
+          if (tasks.isEmpty()) {
+            selector.select(1000);
+          } else {
+            selector.selectNow();
+          }
+          processSelectedKeys();
+          runTasks();
+        } catch (Throwable t) {
+          logger.error("Unexpected failure in {}", thread.getName(), t);
+        }
+      }
+      closeRegisteredChannels();
+    }
+
+    private void processSelectedKeys() {
+      Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+      while (iterator.hasNext()) {
+        SelectionKey key = iterator.next();
+        iterator.remove();
+        if (key.isValid() && key.attachment() instanceof SelectedKeyHandler handler) {
+          handler.onSelected(key);
+        }
+      }
+    }
+
+    private void runTasks() {
+      Runnable task;
+      while ((task = tasks.poll()) != null) {
+        try {
+          task.run();
+        } catch (Throwable t) {
+          logger.warn("Event loop task failed", t);
+        }
+      }
+    }
+
+    private void shutdown() {
+      running = false;
+      selector.wakeup();
+    }
+
+    private void closeRegisteredChannels() {
+      runTasks();
+      for (SelectionKey key : selector.keys()) {
+        if (key.attachment() instanceof SelectedKeyHandler handler) {
+          handler.onEventLoopShutdown();
+        }
+      }
+      try {
+        selector.close();
+      } catch (IOException e) {
+        logger.warn("Failed to close selector of {}", thread.getName(), e);
+      }
+    }
+  }
+}
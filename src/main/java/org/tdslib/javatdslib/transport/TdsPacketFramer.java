@@ -44,11 +44,11 @@ public class TdsPacketFramer {
       int headerStart = networkBuffer.position();
       int packetLength = Short.toUnsignedInt(networkBuffer.getShort(headerStart + 2));
 
-      // Prevent Infinite NIO Spin on corrupted headers
-      if (packetLength > networkBuffer.capacity()) {
+      // A packet longer than the buffer is left for the connection to grow into; a length
+      // shorter than its own header can only be a corrupted stream
+      if (packetLength < TDS_HEADER_LENGTH) {
         throw new IllegalStateException("Protocol Desync: Packet length ("
-            + packetLength + " bytes) exceeds physical buffer capacity ("
-            + networkBuffer.capacity() + " bytes).");
+            + packetLength + " bytes) is shorter than the packet header.");
       }
 
       // 2. Check if the ENTIRE packet has arrived from the network
@@ -1,17 +1,22 @@
 package org.tdslib.javatdslib.transport;
 
+import io.r2dbc.spi.R2dbcTimeoutException;
 import io.r2dbc.spi.Result;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tdslib.javatdslib.buffer.TdsBufferPool;
 import org.tdslib.javatdslib.headers.AllHeaders;
 import org.tdslib.javatdslib.headers.TraceActivityHeader;
 import org.tdslib.javatdslib.headers.TransactionDescriptorHeader;
+import org.tdslib.javatdslib.packets.PacketStatus;
 import org.tdslib.javatdslib.packets.PacketType;
 import org.tdslib.javatdslib.packets.TdsMessage;
+import org.tdslib.javatdslib.packets.TdsPacketWriter;
 import org.tdslib.javatdslib.reactive.AsyncWorkerSink;
 import org.tdslib.javatdslib.reactive.TdsTokenQueue;
 import org.tdslib.javatdslib.tokens.StatefulTokenDecoder;
 import org.tdslib.javatdslib.tokens.TokenParserRegistry;
+import org.tdslib.javatdslib.tokens.models.ReturnValueToken;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 import reactor.core.scheduler.Schedulers;
@@ -19,19 +24,32 @@ import reactor.core.scheduler.Schedulers;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.function.Supplier;
 
 /**
  * Orchestrates the TDS protocol layer.
  * Delegates all physical I/O to the injected NetworkConnection.
+ *
+ * <p>When MARS is negotiated, this transport owns the {@link SmpMultiplexer} and runs its own
+ * request pipeline on the first SMP session. Further sessions are opened on demand, each backed
+ * by a child transport with its own queue, packet framer and token decoder, and requests are
+ * routed to an idle session so concurrent queries interleave on the one socket.
  */
 public class TdsTransport implements AutoCloseable {
   private static final Logger logger = LoggerFactory.getLogger(TdsTransport.class);
@@ -40,15 +58,48 @@ public class TdsTransport implements AutoCloseable {
   private static final byte PACKET_SEQ_DEFAULT = 0x00;
   private static final byte WINDOW_DEFAULT = 0x00;
 
+  /** Default upper bound on concurrent MARS sessions per physical connection. */
+  public static final int DEFAULT_MAX_MARS_SESSIONS = 8;
+
+  /** Marks a request whose message has been completely queued for writing. */
+  private static final Object MESSAGE_SENT = new Object();
+
+  /** How long the server has to acknowledge an attention before the connection is dropped. */
+  public static final long ATTENTION_ACK_GRACE_MILLIS = 5_000;
+
   private final NetworkConnection networkConnection;
+  // Target of asynchronous I/O: the socket itself, or this transport's MARS session
+  private volatile NetworkConnection channel;
   private final String host;
   private final int port;
 
   // Dependencies
   private final ConnectionContext context;
   private final TlsHandshake tlsHandshake;
+  private boolean fullSessionEncryption;
   private final PacketEncoder packetEncoder;
 
+  // --- MARS ---
+  private final TdsTransport owner;
+  private final List<TdsTransport> marsSessions = new CopyOnWriteArrayList<>();
+  private boolean marsEnabled;
+  private int maxMarsSessions = DEFAULT_MAX_MARS_SESSIONS;
+  private SmpMultiplexer smp;
+  private volatile boolean closed;
+  // Status bits (RESETCONNECTION[SKIPTRAN]) for the first packet of the next request
+  private final AtomicInteger pendingResetStatus = new AtomicInteger();
+  // Statement deadlines, kept on the connection root; 0 means no timeout
+  private volatile long statementTimeoutMillis;
+  private volatile long defaultStatementTimeoutMillis;
+  // Prepared statement handles, kept on the connection root
+  private volatile PreparedStatementCache preparedStatements =
+      new PreparedStatementCache(PreparedStatementCache.DEFAULT_CAPACITY);
+
+  // Only touched from drain(), which is serialized by isNetworkBusy
+  private final CharsetEncoder utf16Encoder = StandardCharsets.UTF_16LE.newEncoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
   private TdsStreamHandler currentStreamHandler;
   private volatile FluxSink<Result.Segment> activeSink;
 
@@ -75,10 +126,29 @@ public class TdsTransport implements AutoCloseable {
       ConnectionContext context,
       NetworkConnection networkConnection,
       PacketEncoder packetEncoder) { // FIX: Removed TdsStreamHandler from constructor
+    this(host, port, context, networkConnection, packetEncoder, null);
+  }
+
+  /**
+   * Creates a child transport for an additional MARS session of {@code owner}.
+   */
+  private TdsTransport(TdsTransport owner, SmpSession session) {
+    this(owner.host, owner.port, owner.context, session, owner.packetEncoder, owner);
+  }
+
+  private TdsTransport(
+      String host,
+      int port,
+      ConnectionContext context,
+      NetworkConnection networkConnection,
+      PacketEncoder packetEncoder,
+      TdsTransport owner) {
     this.host = host;
     this.port = port;
     this.context = context;
     this.networkConnection = networkConnection;
+    this.channel = networkConnection;
+    this.owner = owner;
 
     this.tlsHandshake = new TlsHandshake();
     this.packetEncoder = packetEncoder;
@@ -97,11 +167,42 @@ public class TdsTransport implements AutoCloseable {
    */
   public TdsTransport(String host, int port, int connectTimeoutMs, ConnectionContext context)
       throws IOException {
+    this(host, port, connectTimeoutMs, context, TdsEventLoopGroup.getDefault());
+  }
+
+  /**
+   * Creates a transport whose socket is serviced by the given event loop group.
+   *
+   * @param host             The hostname of the server.
+   * @param port             The port number of the server.
+   * @param connectTimeoutMs The connection and read timeout in milliseconds.
+   * @param context          The connection context.
+   * @param eventLoopGroup   The shared selector group for asynchronous I/O.
+   * @throws IOException If an I/O error occurs.
+   */
+  public TdsTransport(String host, int port, int connectTimeoutMs, ConnectionContext context,
+                      TdsEventLoopGroup eventLoopGroup) throws IOException {
+    this(host, port, connectTimeoutMs, context, eventLoopGroup, SocketTuning.DEFAULT);
+  }
+
+  /**
+   * Creates a transport with explicit socket settings.
+   *
+   * @param host             The hostname of the server.
+   * @param port             The port number of the server.
+   * @param connectTimeoutMs The connection and read timeout in milliseconds.
+   * @param context          The connection context.
+   * @param eventLoopGroup   The shared selector group for asynchronous I/O.
+   * @param tuning           TCP_NODELAY and socket buffer sizes.
+   * @throws IOException If an I/O error occurs.
+   */
+  public TdsTransport(String host, int port, int connectTimeoutMs, ConnectionContext context,
+                      TdsEventLoopGroup eventLoopGroup, SocketTuning tuning) throws IOException {
     this(
         host,
         port,
         context,
-        new NioSocketConnection(host, port, connectTimeoutMs), // Pass it dynamically here
+        new NioSocketConnection(host, port, connectTimeoutMs, eventLoopGroup, tuning),
         new QueryPacketBuilder());
   }
 
@@ -111,27 +212,253 @@ public class TdsTransport implements AutoCloseable {
    * * @param messageFactory A function that takes the constructed headers and returns a TdsMessage
    */
   public Flux<Result.Segment> execute(Function<AllHeaders, TdsMessage> messageFactory) {
+    return enqueue((headers, writers) -> {
+      TdsMessage message = messageFactory.apply(headers);
+      TdsPacketWriter writer = writers.apply(message.getPacketType());
+      writer.put(message.getPayload());
+      writer.finish();
+    });
+  }
+
+  /**
+   * Executes a request whose body is encoded straight into outbound packet buffers.
+   * ALL_HEADERS are written first; {@code bodyWriter} then appends the message body,
+   * and the final packet is stamped with EOM once it returns.
+   *
+   * @param packetType The TDS message type (e.g. SQL batch or RPC).
+   * @param bodyWriter Writes the message body after ALL_HEADERS.
+   * @return A reactive stream of result segments.
+   */
+  public Flux<Result.Segment> execute(PacketType packetType, Consumer<TdsPacketWriter> bodyWriter) {
+    return execute(packetType, null, bodyWriter);
+  }
+
+  /**
+   * Executes a request with its own deadline instead of the connection's statement timeout.
+   *
+   * @param packetType The TDS message type (e.g. SQL batch or RPC).
+   * @param timeout    The statement timeout, {@link Duration#ZERO} for none, or null to use the
+   *                   connection's setting.
+   * @param bodyWriter Writes the message body after ALL_HEADERS.
+   * @return A reactive stream of result segments.
+   */
+  public Flux<Result.Segment> execute(PacketType packetType, Duration timeout,
+                                      Consumer<TdsPacketWriter> bodyWriter) {
+    return execute(packetType, timeout, bodyWriter, null);
+  }
+
+  /**
+   * Executes a request and hands every RETURNVALUE token of its response to a listener. The
+   * listener is called even after the returned stream has been cancelled, for as long as the
+   * response is read off the wire, so values the server produced are never silently lost.
+   *
+   * @param packetType   The TDS message type (e.g. SQL batch or RPC).
+   * @param timeout      The statement timeout, {@link Duration#ZERO} for none, or null to use
+   *                     the connection's setting.
+   * @param bodyWriter   Writes the message body after ALL_HEADERS.
+   * @param returnValues Called on the worker thread with each RETURNVALUE token, or null.
+   * @return A reactive stream of result segments.
+   */
+  public Flux<Result.Segment> execute(PacketType packetType, Duration timeout,
+                                      Consumer<TdsPacketWriter> bodyWriter,
+                                      Consumer<ReturnValueToken> returnValues) {
+    return enqueue((headers, writers) -> {
+      TdsPacketWriter writer = writers.apply(packetType);
+      writer.putEncoded(headers::write);
+      writeBody(writer, bodyWriter);
+    }, timeout, returnValues);
+  }
+
+  /**
+   * Executes a BULK_LOAD message. Unlike SQL batches and RPCs it carries no ALL_HEADERS: the
+   * body is the COLMETADATA, ROW and DONE tokens of the rows being copied, following an
+   * {@code INSERT BULK} statement on the same connection.
+   *
+   * @param timeout    The statement timeout, or null to use the connection's setting.
+   * @param bodyWriter Writes the token stream.
+   * @return A reactive stream of result segments.
+   */
+  public Flux<Result.Segment> executeBulkLoad(Duration timeout,
+                                              Consumer<TdsPacketWriter> bodyWriter) {
+    return enqueue((headers, writers) -> {
+      writeBody(writers.apply(PacketType.BULK_LOAD), bodyWriter);
+    }, timeout);
+  }
+
+  /**
+   * Runs a body writer and completes the message. If the writer fails after packets have gone
+   * out, the message is terminated with IGNORE so the server discards it instead of waiting for
+   * the rest.
+   */
+  private static void writeBody(TdsPacketWriter writer, Consumer<TdsPacketWriter> bodyWriter) {
+    try {
+      bodyWriter.accept(writer);
+    } catch (RuntimeException e) {
+      writer.abort();
+      throw e;
+    }
+    writer.finish();
+  }
+
+  private Flux<Result.Segment> enqueue(RequestEncoder encoder) {
+    return enqueue(encoder, null);
+  }
+
+  private Flux<Result.Segment> enqueue(RequestEncoder encoder, Duration timeout) {
+    return enqueue(encoder, timeout, null);
+  }
+
+  private Flux<Result.Segment> enqueue(RequestEncoder encoder, Duration timeout,
+                                       Consumer<ReturnValueToken> returnValues) {
     return Flux.deferContextual(contextView -> {
       UUID traceId = contextView.getOrDefault("trace-id", null);
 
       return Flux.create(sink -> {
-        // BREADCRUMB 1: Query entered the transport queue
-        // 1. Create a key based purely on the Connection SPID (Channel)
-        String connectionKey = "Channel_" + context.getSpid();
+        TdsTransport target = selectSession();
 
-        debuggingInformation.spid = context.getSpid();
-        debuggingInformation.queuedCount.getAndIncrement();
+        // BREADCRUMB 1: Query entered the transport queue
+        target.debuggingInformation.spid = context.getSpid();
+        target.debuggingInformation.queuedCount.getAndIncrement();
 
-        requestQueue.offer(new PendingRequest(() -> {
-          AllHeaders headers = buildHeaders(traceId);
-          return messageFactory.apply(headers);
-        }, sink));
+        target.requestQueue.offer(
+            new PendingRequest(traceId, encoder, timeout, returnValues, sink));
 
-        drain();
+        target.drain();
       });
     });
   }
 
+  /**
+   * Picks the pipeline for a new request. Without MARS that is always this transport. With MARS
+   * it is the first idle session, a newly opened one while under the session limit, or else the
+   * session with the shortest queue.
+   */
+  private TdsTransport selectSession() {
+    if (smp == null || isIdle()) {
+      return this;
+    }
+    for (TdsTransport session : marsSessions) {
+      if (session.isIdle()) {
+        return session;
+      }
+    }
+    synchronized (marsSessions) {
+      if (marsSessions.size() + 1 < maxMarsSessions) {
+        try {
+          TdsTransport session = new TdsTransport(this, smp.openSession());
+          session.enterAsyncMode();
+          marsSessions.add(session);
+          return session;
+        } catch (Exception e) {
+          logger.warn("Unable to open an additional MARS session; queueing instead", e);
+        }
+      }
+    }
+    TdsTransport target = this;
+    int shortest = requestQueue.size();
+    for (TdsTransport session : marsSessions) {
+      int queued = session.requestQueue.size();
+      if (queued < shortest) {
+        target = session;
+        shortest = queued;
+      }
+    }
+    return target;
+  }
+
+  private boolean isIdle() {
+    return !isNetworkBusy.get() && requestQueue.isEmpty();
+  }
+
+  /**
+   * Creates a packet writer for one outbound message. Completed packets go straight to the
+   * socket's (or MARS session's) write queue.
+   */
+  private TdsPacketWriter newPacketWriter(PacketType packetType) {
+    NetworkConnection target = channel;
+    TdsPacketWriter writer = new TdsPacketWriter(packetType, context.getSpid(),
+        context.getCurrentPacketSize(), TdsBufferPool.DEFAULT, target::writeAsync, utf16Encoder,
+        target.framePrefixLength());
+    int resetStatus = connectionRoot().pendingResetStatus.getAndSet(0);
+    if (resetStatus != 0) {
+      writer.setFirstPacketStatus((byte) resetStatus);
+    }
+    return writer;
+  }
+
+  /**
+   * Requests a server-side session reset without a round trip of its own. The RESETCONNECTION
+   * (or RESETCONNECTIONSKIPTRAN) status bit is set on the first packet of the next request, and
+   * the server resets the session before executing it.
+   *
+   * @param preserveTransaction true to keep the open transaction (RESETCONNECTIONSKIPTRAN)
+   */
+  public void requestSessionReset(boolean preserveTransaction) {
+    TdsTransport root = connectionRoot();
+    root.pendingResetStatus.set(preserveTransaction
+        ? PacketStatus.RESET_CONNECTION_SKIP_TRAN
+        : PacketStatus.RESET_CONNECTION);
+    // The server drops SET LOCK_TIMEOUT with the session; the client-side deadline goes too
+    root.statementTimeoutMillis = root.defaultStatementTimeoutMillis;
+    // ...and every prepared handle
+    root.preparedStatements.clear();
+  }
+
+  /**
+   * Sets how many prepared statement handles this connection keeps.
+   *
+   * @param size The cache capacity; 0 disables preparing.
+   */
+  public void setStatementCacheSize(int size) {
+    connectionRoot().preparedStatements = new PreparedStatementCache(size);
+  }
+
+  /**
+   * Returns the prepared statement handles of this connection, shared by its MARS sessions.
+   *
+   * @return The cache.
+   */
+  public PreparedStatementCache getPreparedStatementCache() {
+    return connectionRoot().preparedStatements;
+  }
+
+  /**
+   * Sets the deadline applied to every request on this connection that has none of its own.
+   * It starts once the request has been completely written. When it expires an attention is
+   * sent and the request fails with {@link R2dbcTimeoutException}.
+   *
+   * @param timeout The statement timeout; {@link Duration#ZERO} disables it.
+   */
+  public void setStatementTimeout(Duration timeout) {
+    connectionRoot().statementTimeoutMillis = toTimeoutMillis(timeout);
+  }
+
+  /**
+   * Sets the statement timeout configured for the connection. A session reset restores it.
+   *
+   * @param timeout The statement timeout; {@link Duration#ZERO} disables it.
+   */
+  public void setDefaultStatementTimeout(Duration timeout) {
+    TdsTransport root = connectionRoot();
+    root.defaultStatementTimeoutMillis = toTimeoutMillis(timeout);
+    root.statementTimeoutMillis = root.defaultStatementTimeoutMillis;
+  }
+
+  private static long toTimeoutMillis(Duration timeout) {
+    if (timeout == null || timeout.isNegative()) {
+      throw new IllegalArgumentException("Statement timeout must be zero or positive");
+    }
+    return timeout.toMillis();
+  }
+
+  /**
+   * Returns the transport that owns the physical connection (itself unless this is an
+   * additional MARS session).
+   */
+  private TdsTransport connectionRoot() {
+    return owner != null ? owner : this;
+  }
+
   /**
    * Centralized header builder for all outgoing transport messages.
    */
@@ -179,21 +506,30 @@ public class TdsTransport implements AutoCloseable {
     // Guarantee exactly-once termination and handoff
     AtomicBoolean isFinished = new AtomicBoolean(false);
     AtomicBoolean wasCancelled = new AtomicBoolean(false);
+    // The statement deadline, replaced by the attention grace period once it fires
+    AtomicReference<HashedWheelTimer.Timeout> deadline = new AtomicReference<>();
+    // Null while the message is being encoded, then MESSAGE_SENT; an attention requested
+    // before that is parked here, as it must not land between the packets of the message
+    AtomicReference<Object> messageState = new AtomicReference<>();
 
     try {
       TdsTokenQueue tokenQueue = new TdsTokenQueue(this);
       AsyncWorkerSink workerSink = new AsyncWorkerSink(tokenQueue, context, Schedulers.parallel());
+      workerSink.setReturnValueListener(request.returnValues());
 
       workerSink.setCallbacks(
           request.sink()::next,
           error -> {
             if (isFinished.compareAndSet(false, true)) {
+              cancelDeadline(deadline);
               this.setStreamHandlers(null);
               this.resumeNetworkRead();
 
               // Increment BEFORE sink.error() prevents audit snapshot races
               debuggingInformation.errorCallback.getAndIncrement();
-              request.sink().error(error);
+              if (!wasCancelled.get()) {
+                request.sink().error(error);
+              }
 
               isNetworkBusy.set(false);
               drain();
@@ -201,6 +537,7 @@ public class TdsTransport implements AutoCloseable {
           },
           () -> {
             if (isFinished.compareAndSet(false, true)) {
+              cancelDeadline(deadline);
               this.setStreamHandlers(null);
               this.resumeNetworkRead();
 
@@ -219,11 +556,16 @@ public class TdsTransport implements AutoCloseable {
 
       request.sink().onRequest(workerSink::request);
       request.sink().onCancel(() -> {
-        wasCancelled.set(true); // 4. Set the flag
+        if (!wasCancelled.compareAndSet(false, true)) { // 4. Set the flag
+          return;
+        }
         debuggingInformation.cancelCallback.getAndIncrement();
 
-        sendAttentionSignal();
         workerSink.cancel(true);
+        afterMessage(messageState, () -> {
+          sendAttentionSignal();
+          armAttentionGrace(deadline, isFinished);
+        });
       });
 
       StatefulTokenDecoder decoder = new StatefulTokenDecoder(
@@ -231,9 +573,48 @@ public class TdsTransport implements AutoCloseable {
 
       this.setStreamHandlers(decoder::onPayloadAvailable);
 
-      TdsMessage message = request.messageSupplier().get();
-      this.sendQueryMessageAsync(message);
+      request.encoder().encode(buildHeaders(request.traceId()), this::newPacketWriter);
+
+      // The EOM packet is queued; an attention may now follow it on the wire
+      if (messageState.getAndSet(MESSAGE_SENT) instanceof Runnable deferred) {
+        deferred.run();
+      }
 
+      // Armed only now so that the attention it sends can never interrupt the message; the
+      // statement time therefore runs from the end of the request
+      long timeoutMillis = request.timeout() != null
+          ? request.timeout().toMillis()
+          : connectionRoot().statementTimeoutMillis;
+      if (timeoutMillis > 0) {
+        deadline.set(HashedWheelTimer.DEFAULT.newTimeout(() -> {
+          // Only the claim runs on the shared timer thread; the caller's error handlers and
+          // the write must not hold up every other deadline
+          if (isFinished.get() || !wasCancelled.compareAndSet(false, true)) {
+            return;
+          }
+          Schedulers.parallel().schedule(() -> {
+            if (isFinished.get()) {
+              // The response ended in the meantime, but its completion was held back by the
+              // claim above; deliver it instead of interrupting whatever runs next
+              request.sink().complete();
+              return;
+            }
+            debuggingInformation.timeoutCallback.getAndIncrement();
+            logger.warn("Statement on SPID {} exceeded its {} ms timeout; sending attention",
+                context.getSpid(), timeoutMillis);
+
+            sendAttentionSignal();
+            workerSink.cancel(true);
+            // The pipeline stays locked until DONE_ATTN; the caller is released now
+            if (activeSink == request.sink()) {
+              activeSink = null;
+            }
+            request.sink().error(new R2dbcTimeoutException(
+                "Statement exceeded the timeout of " + timeoutMillis + " ms"));
+            armAttentionGrace(deadline, isFinished);
+          });
+        }, timeoutMillis, TimeUnit.MILLISECONDS));
+      }
     } catch (Exception e) {
       if (isFinished.compareAndSet(false, true)) {
         logger.error(
@@ -245,6 +626,49 @@ public class TdsTransport implements AutoCloseable {
       }
     }
   }
+  /**
+   * Drops the connection if the server has not acknowledged an attention (DONE_ATTN) by the end
+   * of the grace period, so a lost or ignored attention cannot pin the connection forever.
+   */
+  private void armAttentionGrace(AtomicReference<HashedWheelTimer.Timeout> deadline,
+                                 AtomicBoolean isFinished) {
+    deadline.set(HashedWheelTimer.DEFAULT.newTimeout(() -> {
+      if (isFinished.get()) {
+        return;
+      }
+      Schedulers.parallel().schedule(() -> {
+        if (isFinished.get()) {
+          return;
+        }
+        R2dbcTimeoutException error = new R2dbcTimeoutException("Server did not acknowledge "
+            + "the attention within " + ATTENTION_ACK_GRACE_MILLIS
+            + " ms; closing the connection");
+        TdsTransport root = connectionRoot();
+        if (root != this) {
+          handleFatalConnectionError(error);
+        }
+        root.handleFatalConnectionError(error);
+      });
+    }, ATTENTION_ACK_GRACE_MILLIS, TimeUnit.MILLISECONDS));
+  }
+
+  /**
+   * Runs {@code attention} once the request message is completely queued, immediately if it
+   * already is.
+   */
+  private static void afterMessage(AtomicReference<Object> messageState, Runnable attention) {
+    if (!messageState.compareAndSet(null, attention)) {
+      attention.run();
+    }
+  }
+
+  private static void cancelDeadline(AtomicReference<HashedWheelTimer.Timeout> deadline) {
+    HashedWheelTimer.Timeout timeout = deadline.get();
+    if (timeout != null) {
+      timeout.cancel();
+    }
+  }
+
   // --- Handshake & TLS Methods ---
 
   /**
@@ -254,7 +678,47 @@ public class TdsTransport implements AutoCloseable {
    * @throws IOException If an I/O error occurs.
    */
   public void tlsHandshake(javax.net.ssl.SSLContext sslContext) throws IOException {
+    tlsHandshake(sslContext, false);
+  }
+
+  /**
+   * Performs the TLS handshake, optionally keeping the session encrypted after login.
+   *
+   * @param sslContext    The SSL context to use.
+   * @param encryptSession true to encrypt all traffic (ENCRYPT_ON/ENCRYPT_REQ), false to encrypt
+   *                      only the Login7 exchange.
+   * @throws IOException If an I/O error occurs.
+   */
+  public void tlsHandshake(javax.net.ssl.SSLContext sslContext, boolean encryptSession)
+      throws IOException {
     tlsHandshake.tlsHandshake(host, port, networkConnection, sslContext);
+    this.fullSessionEncryption = encryptSession;
+  }
+
+  /**
+   * Switches the connection to MARS once login has completed. The SMP layer is started when the
+   * transport enters asynchronous mode.
+   */
+  public void enableMars() {
+    this.marsEnabled = true;
+  }
+
+  /**
+   * Sets how many SMP sessions this connection may open for concurrent requests.
+   *
+   * @param maxSessions The session limit, including the primary session.
+   */
+  public void setMaxMarsSessions(int maxSessions) {
+    this.maxMarsSessions = Math.max(1, maxSessions);
+  }
+
+  /**
+   * Checks whether requests on this connection are multiplexed with MARS.
+   *
+   * @return true if the SMP layer is active.
+   */
+  public boolean isMarsEnabled() {
+    return smp != null;
   }
 
   /**
@@ -273,6 +737,15 @@ public class TdsTransport implements AutoCloseable {
     return tlsHandshake != null && tlsHandshake.isTlsActive();
   }
 
+  /**
+   * Checks whether the whole session, not just login, is encrypted.
+   *
+   * @return true if full-session encryption was negotiated.
+   */
+  public boolean isFullSessionEncryption() {
+    return fullSessionEncryption;
+  }
+
   // --- Synchronous Methods (Login Phase) ---
 
   /**
@@ -287,6 +760,7 @@ public class TdsTransport implements AutoCloseable {
 
     for (ByteBuffer buf : packetBuffers) {
       networkConnection.writeDirect(buf);
+      TdsBufferPool.DEFAULT.release(buf);
     }
   }
 
@@ -306,6 +780,7 @@ public class TdsTransport implements AutoCloseable {
       } else {
         networkConnection.writeDirect(buffer);
       }
+      TdsBufferPool.DEFAULT.release(buffer);
     }
   }
 
@@ -320,13 +795,13 @@ public class TdsTransport implements AutoCloseable {
     TdsMessage msg;
     do {
       ByteBuffer header = ByteBuffer.allocate(TDS_HEADER_LENGTH).order(ByteOrder.BIG_ENDIAN);
-      networkConnection.readFullySync(header);
+      readFullySync(header);
       header.flip();
 
       int length = Short.toUnsignedInt(header.getShort(2));
       ByteBuffer payload =
           ByteBuffer.allocate(length - TDS_HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
-      networkConnection.readFullySync(payload);
+      readFullySync(payload);
       payload.flip();
 
       ByteBuffer fullPacket = ByteBuffer.allocate(length).order(ByteOrder.BIG_ENDIAN);
@@ -342,6 +817,14 @@ public class TdsTransport implements AutoCloseable {
     return messages;
   }
 
+  private void readFullySync(ByteBuffer buffer) throws IOException {
+    if (fullSessionEncryption && isTlsActive()) {
+      tlsHandshake.readDecrypted(buffer, networkConnection);
+    } else {
+      networkConnection.readFullySync(buffer);
+    }
+  }
+
   private TdsMessage buildMessageFromPacket(ByteBuffer packet) {
     packet.position(0);
     PacketType type = PacketType.valueOf(packet.get());
@@ -371,7 +854,18 @@ public class TdsTransport implements AutoCloseable {
    * @throws IOException If an I/O error occurs.
    */
   public void enterAsyncMode() throws IOException {
-    networkConnection.enterAsyncMode(context.getCurrentPacketSize());
+    if (fullSessionEncryption) {
+      networkConnection.enableTls(tlsHandshake);
+    }
+    int packetSize = context.getCurrentPacketSize();
+    if (marsEnabled) {
+      // Each read must hold a whole SMP frame: one TDS packet behind the SMP header
+      networkConnection.enterAsyncMode(packetSize + SmpMultiplexer.HEADER_LENGTH);
+      smp = new SmpMultiplexer(networkConnection, packetSize);
+      smp.start();
+      channel = smp.openSession();
+    }
+    channel.enterAsyncMode(packetSize);
 
     TdsStreamHandler dynamicRouter =
         (payload, isEom) -> {
@@ -387,7 +881,7 @@ public class TdsTransport implements AutoCloseable {
 
     TdsPacketFramer decoder = new TdsPacketFramer(dynamicRouter);
 
-    networkConnection.setHandlers(
+    channel.setHandlers(
         decoder::decode,
         this::handleFatalConnectionError);
   }
@@ -398,16 +892,18 @@ public class TdsTransport implements AutoCloseable {
    * Suspends reading from the network.
    */
   public void suspendNetworkRead() {
-    logger.trace("[TdsTransport] Propagating suspendNetworkRead() to NioSocketConnection.");
-    networkConnection.suspendRead();
+    logger.trace("[TdsTransport] Propagating suspendNetworkRead() to {}.",
+        channel.getClass().getSimpleName());
+    channel.suspendRead();
   }
 
   /**
    * Resumes reading from the network.
    */
   public void resumeNetworkRead() {
-    logger.trace("[TdsTransport] Propagating resumeNetworkRead() to NioSocketConnection.");
-    networkConnection.resumeRead();
+    logger.trace("[TdsTransport] Propagating resumeNetworkRead() to {}.",
+        channel.getClass().getSimpleName());
+    channel.resumeRead();
   }
 
   /**
@@ -418,8 +914,16 @@ public class TdsTransport implements AutoCloseable {
   public void sendQueryMessageAsync(TdsMessage tdsMessage) {
     List<ByteBuffer> packetBuffers = packetEncoder.encodeMessage(
         tdsMessage, context.getSpid(), context.getCurrentPacketSize());
+    int prefix = channel.framePrefixLength();
     for (ByteBuffer buf : packetBuffers) {
-      networkConnection.writeAsync(buf);
+      if (prefix > 0) {
+        ByteBuffer framed = TdsBufferPool.DEFAULT.acquire(prefix + buf.remaining());
+        framed.position(prefix);
+        framed.put(buf).flip();
+        TdsBufferPool.DEFAULT.release(buf);
+        buf = framed;
+      }
+      channel.writeAsync(buf);
     }
   }
 
@@ -432,9 +936,19 @@ public class TdsTransport implements AutoCloseable {
 
   @Override
   public void close() throws IOException {
+    closed = true;
+    if (owner != null) {
+      owner.marsSessions.remove(this);
+    }
+    for (TdsTransport session : marsSessions) {
+      session.close();
+    }
     if (networkConnection != null) {
       networkConnection.close();
     }
+    if (fullSessionEncryption) {
+      tlsHandshake.close();
+    }
   }
 
   private void handleFatalConnectionError(Throwable error) {
@@ -462,6 +976,15 @@ public class TdsTransport implements AutoCloseable {
     isNetworkBusy.set(false);
   }
 
+  /**
+   * Checks whether this transport has been closed, explicitly or after a fatal error.
+   *
+   * @return true once the transport can no longer carry requests.
+   */
+  public boolean isClosed() {
+    return closed;
+  }
+
   public ConnectionContext getContext() {
     return context;
   }
@@ -476,8 +999,11 @@ public class TdsTransport implements AutoCloseable {
           context.getSpid());
 
       // Use the existing TDS_HEADER_LENGTH constant instead of '8'
-      ByteBuffer buffer = ByteBuffer.allocate(TDS_HEADER_LENGTH);
+      NetworkConnection target = channel;
+      int prefix = target.framePrefixLength();
+      ByteBuffer buffer = ByteBuffer.allocate(prefix + TDS_HEADER_LENGTH);
       buffer.order(ByteOrder.BIG_ENDIAN);
+      buffer.position(prefix);
 
       // Byte 0: Type (Assuming PacketType enum has a way to get the byte, e.g., .getValue().
       // If not, declare a constant: private static final byte TYPE_ATTENTION = 0x06;)
@@ -490,18 +1016,29 @@ public class TdsTransport implements AutoCloseable {
       buffer.put(WINDOW_DEFAULT);
       buffer.flip();
 
-      this.networkConnection.writeAsync(buffer);
+      target.writeAsync(buffer);
 
     } catch (Exception e) {
       logger.error("Failed to send Attention Signal", e);
     }
   }
 
+  /**
+   * Late-binding recipe that encodes a request once it owns the wire.
+   */
+  @FunctionalInterface
+  private interface RequestEncoder {
+    void encode(AllHeaders headers, Function<PacketType, TdsPacketWriter> writers);
+  }
+
   /**
    * Holds the late-binding message recipe and the reactive sink for a queued request.
    */
   private record PendingRequest(
-      Supplier<TdsMessage> messageSupplier,
+      UUID traceId,
+      RequestEncoder encoder,
+      Duration timeout,
+      Consumer<ReturnValueToken> returnValues,
       FluxSink<Result.Segment> sink
   ) {
   }
@@ -517,6 +1054,7 @@ public class TdsTransport implements AutoCloseable {
     public AtomicLong completeCallback = new AtomicLong();
     public AtomicLong errorCallback = new AtomicLong();
     public AtomicLong cancelCallback = new AtomicLong();
+    public AtomicLong timeoutCallback = new AtomicLong();
 
     @Override
     public String toString() {
@@ -526,8 +1064,10 @@ public class TdsTransport implements AutoCloseable {
       sb.append(String.format("  Queued Total:      %d\n", queuedCount.get()));
       sb.append(String.format("  Drain Entries:     %d\n", drainEntry.get()));
       sb.append(String.format("  Drain Lock Denied: %d\n", drainLocked.get()));
-      sb.append(String.format("  Callbacks - Complete: %d | Error: %d | Cancel: %d\n",
-          completeCallback.get(), errorCallback.get(), cancelCallback.get()));
+      sb.append(String.format(
+          "  Callbacks - Complete: %d | Error: %d | Cancel: %d | Timeout: %d\n",
+          completeCallback.get(), errorCallback.get(), cancelCallback.get(),
+          timeoutCallback.get()));
       sb.append("---------------------------------------");
       return sb.toString();
     }
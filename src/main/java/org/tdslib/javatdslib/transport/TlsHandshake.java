@@ -1,10 +1,12 @@
 package org.tdslib.javatdslib.transport;
 
+import org.tdslib.javatdslib.buffer.TdsBufferPool;
 import org.tdslib.javatdslib.packets.PacketType;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
 import javax.net.ssl.SSLSession;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -13,14 +15,20 @@ import java.nio.ByteBuffer;
  * Handles the TLS handshake process for a TDS connection. This class wraps the {@link SSLEngine}
  * and manages the wrapping and unwrapping of data during the handshake and subsequent encrypted
  * communication.
+ *
+ * <p>After the handshake the engine serves one of two modes. With login-only encryption it is
+ * closed once Login7 has been sent. With full-session encryption (server answered ENCRYPT_ON or
+ * ENCRYPT_REQ) it stays open: {@link #readDecrypted} serves the synchronous login response, and
+ * {@link #wrap}/{@link #unwrap} are driven by the {@link NioSocketConnection} event loop.
  */
 public class TlsHandshake {
-  private SSLEngine sslEngine;
+  private volatile SSLEngine sslEngine;
   private ByteBuffer myNetData;
   private ByteBuffer peerNetData;
   private ByteBuffer peerAppData;
 
   private static final int TDS_HEADER_LENGTH = 8;
+  private static final int TLS_RECORD_HEADER_LENGTH = 5;
 
   // --- Header Constants ---
   private static final byte STATUS_EOM = 0x01;
@@ -47,9 +55,9 @@ public class TlsHandshake {
     final SSLSession session = sslEngine.getSession();
     final int bufferSize = Math.max(session.getPacketBufferSize(), 32768);
 
-    myNetData = ByteBuffer.allocate(bufferSize);
-    peerNetData = ByteBuffer.allocate(bufferSize);
-    peerAppData = ByteBuffer.allocate(session.getApplicationBufferSize());
+    myNetData = TdsBufferPool.DEFAULT.acquire(bufferSize);
+    peerNetData = TdsBufferPool.DEFAULT.acquire(bufferSize);
+    peerAppData = TdsBufferPool.DEFAULT.acquire(session.getApplicationBufferSize());
 
     peerNetData.flip();
     sslEngine.beginHandshake();
@@ -160,7 +168,9 @@ public class TlsHandshake {
       myNetData.clear();
       final SSLEngineResult result = sslEngine.wrap(appData, myNetData);
       if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
-        myNetData = ByteBuffer.allocate(myNetData.capacity() * 2);
+        ByteBuffer larger = TdsBufferPool.DEFAULT.acquire(myNetData.capacity() * 2);
+        TdsBufferPool.DEFAULT.release(myNetData);
+        myNetData = larger;
         continue;
       }
       myNetData.flip();
@@ -168,6 +178,171 @@ public class TlsHandshake {
     }
   }
 
+  /**
+   * Reads and decrypts raw TLS records (no TDS framing) until {@code dst} is full. Used for the
+   * synchronous login exchange when the whole session is encrypted.
+   *
+   * @param dst        The buffer to fill with plaintext.
+   * @param connection The network connection to read from.
+   * @throws IOException If an I/O or TLS error occurs.
+   */
+  public void readDecrypted(final ByteBuffer dst, final NetworkConnection connection)
+      throws IOException {
+    while (dst.hasRemaining()) {
+      if (peerAppData.position() == 0) {
+        readRecord(connection);
+        continue;
+      }
+      peerAppData.flip();
+      int count = Math.min(dst.remaining(), peerAppData.remaining());
+      ByteBuffer chunk = peerAppData.duplicate();
+      chunk.limit(chunk.position() + count);
+      dst.put(chunk);
+      peerAppData.position(peerAppData.position() + count);
+      peerAppData.compact();
+    }
+  }
+
+  private void readRecord(final NetworkConnection connection) throws IOException {
+    // peerNetData is kept in read mode between calls; switch to write mode to append
+    peerNetData.compact();
+    fillTo(peerNetData, TLS_RECORD_HEADER_LENGTH, connection);
+    int recordLength = ((peerNetData.get(3) & 0xFF) << 8) | (peerNetData.get(4) & 0xFF);
+    fillTo(peerNetData, TLS_RECORD_HEADER_LENGTH + recordLength, connection);
+    peerNetData.flip();
+
+    SSLEngine engine = activeEngine();
+    SSLEngineResult result = engine.unwrap(peerNetData, peerAppData);
+    runDelegatedTasks(engine, result);
+    if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+      throw new IOException("TLS session closed by server");
+    }
+  }
+
+  private static void fillTo(ByteBuffer buffer, int target, NetworkConnection connection)
+      throws IOException {
+    if (buffer.position() >= target) {
+      return;
+    }
+    if (target > buffer.capacity()) {
+      throw new IOException("TLS record larger than the receive buffer");
+    }
+    ByteBuffer view = buffer.duplicate();
+    view.limit(target);
+    connection.readFullySync(view);
+    buffer.position(view.position());
+  }
+
+  /**
+   * Decrypts as many complete TLS records from {@code netIn} as fit into {@code appOut}.
+   *
+   * @param netIn  Ciphertext in read mode; consumed records are skipped over.
+   * @param appOut Plaintext destination in write mode.
+   * @return true if any plaintext was produced.
+   * @throws IOException If the session is closed or the record is invalid.
+   */
+  public boolean unwrap(final ByteBuffer netIn, final ByteBuffer appOut) throws IOException {
+    SSLEngine engine = activeEngine();
+    boolean produced = false;
+    while (netIn.hasRemaining()) {
+      SSLEngineResult result = engine.unwrap(netIn, appOut);
+      runDelegatedTasks(engine, result);
+      produced |= result.bytesProduced() > 0;
+      switch (result.getStatus()) {
+        case OK:
+          if (result.bytesConsumed() == 0 && result.bytesProduced() == 0) {
+            return produced;
+          }
+          break;
+        case BUFFER_UNDERFLOW: // Partial record; wait for more bytes
+        case BUFFER_OVERFLOW:  // Plaintext buffer full; caller drains it first
+          return produced;
+        case CLOSED:
+        default:
+          throw new IOException("TLS session closed by server");
+      }
+    }
+    return produced;
+  }
+
+  /**
+   * Encrypts queued TDS packets into {@code netOut}. Consecutive small packets are coalesced into
+   * one TLS record, and records are appended while there is room for another full record.
+   *
+   * @param srcs   Plaintext packets; positions are advanced by the bytes consumed.
+   * @param offset First buffer to read.
+   * @param length Number of buffers to read.
+   * @param netOut Ciphertext destination in write mode.
+   * @throws IOException If the session is closed.
+   */
+  public void wrap(final ByteBuffer[] srcs, final int offset, final int length,
+                   final ByteBuffer netOut) throws IOException {
+    SSLEngine engine = activeEngine();
+    int recordSize = engine.getSession().getPacketBufferSize();
+    while (hasRemaining(srcs, offset, length) && netOut.remaining() >= recordSize) {
+      SSLEngineResult result = engine.wrap(srcs, offset, length, netOut);
+      runDelegatedTasks(engine, result);
+      if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+        throw new IOException("TLS session closed");
+      }
+      if (result.getStatus() != SSLEngineResult.Status.OK || result.bytesConsumed() == 0) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the largest TLS record the session may produce, for sizing network buffers.
+   *
+   * @return The SSL packet buffer size.
+   */
+  public int getPacketBufferSize() {
+    return activeEngineUnchecked().getSession().getPacketBufferSize();
+  }
+
+  /**
+   * Returns the largest plaintext a single record may decrypt to, for sizing read buffers.
+   *
+   * @return The SSL application buffer size.
+   */
+  public int getApplicationBufferSize() {
+    return activeEngineUnchecked().getSession().getApplicationBufferSize();
+  }
+
+  private SSLEngine activeEngine() throws SSLException {
+    SSLEngine engine = sslEngine;
+    if (engine == null) {
+      throw new SSLException("TLS session is closed");
+    }
+    return engine;
+  }
+
+  private SSLEngine activeEngineUnchecked() {
+    SSLEngine engine = sslEngine;
+    if (engine == null) {
+      throw new IllegalStateException("TLS session is closed");
+    }
+    return engine;
+  }
+
+  private static void runDelegatedTasks(SSLEngine engine, SSLEngineResult result) {
+    if (result.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_TASK) {
+      Runnable task;
+      while ((task = engine.getDelegatedTask()) != null) {
+        task.run();
+      }
+    }
+  }
+
+  private static boolean hasRemaining(ByteBuffer[] srcs, int offset, int length) {
+    for (int i = offset; i < offset + length; i++) {
+      if (srcs[i].hasRemaining()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   public boolean isTlsActive() {
     return sslEngine != null;
   }
@@ -181,9 +356,12 @@ public class TlsHandshake {
         // Ignore exceptions during close
       } finally {
         sslEngine = null;
-        if (myNetData != null) {
-          myNetData.clear();
-        }
+        TdsBufferPool.DEFAULT.release(myNetData);
+        TdsBufferPool.DEFAULT.release(peerNetData);
+        TdsBufferPool.DEFAULT.release(peerAppData);
+        myNetData = null;
+        peerNetData = null;
+        peerAppData = null;
       }
     }
   }
@@ -0,0 +1,129 @@
+package org.tdslib.javatdslib.buffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TdsBufferPoolTest {
+
+  private final TdsBufferPool pool = new TdsBufferPool(new int[] {4096, 8192}, 4 * 8192);
+
+  @Test
+  @DisplayName("Should round requests up to the smallest fitting size class")
+  void testSizeClassSelection() {
+    ByteBuffer small = pool.acquire(100);
+    ByteBuffer medium = pool.acquire(4097);
+
+    assertTrue(small.isDirect());
+    assertEquals(4096, small.capacity());
+    assertEquals(8192, medium.capacity());
+    assertEquals(4096, small.limit());
+  }
+
+  @Test
+  @DisplayName("Should hand a released buffer back out cleared and big-endian")
+  void testRecycle() {
+    ByteBuffer first = pool.acquire(4096);
+    first.order(ByteOrder.LITTLE_ENDIAN).putInt(42).flip();
+    pool.release(first);
+
+    ByteBuffer second = pool.acquire(4000);
+
+    assertSame(first, second);
+    assertEquals(0, second.position());
+    assertEquals(4096, second.limit());
+    assertEquals(ByteOrder.BIG_ENDIAN, second.order());
+  }
+
+  @Test
+  @DisplayName("Should ignore heap and oversized buffers on release")
+  void testForeignBuffersAreDropped() {
+    pool.release(ByteBuffer.allocate(4096));
+    ByteBuffer oversized = pool.acquire(65536);
+    assertEquals(65536, oversized.capacity());
+    pool.release(oversized);
+
+    ByteBuffer fresh = pool.acquire(4096);
+    assertTrue(fresh.isDirect());
+    assertNotSame(oversized, fresh);
+  }
+
+  @Test
+  @DisplayName("Should find every idle buffer of a DEFAULT-sized pool instead of allocating")
+  void testDefaultSizedPoolReusesIdleBuffers() {
+    TdsBufferPool large = new TdsBufferPool(new int[] {4096, 8192, 32768, 131072},
+        16 * 1024 * 1024);
+    Set<ByteBuffer> released = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (int round = 0; round < 3; round++) {
+      List<ByteBuffer> inUse = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        inUse.add(large.acquire(8192));
+      }
+      if (round > 0) {
+        for (ByteBuffer buffer : inUse) {
+          assertTrue(released.contains(buffer));
+        }
+      }
+      released.clear();
+      released.addAll(inUse);
+      inUse.forEach(large::release);
+      assertEquals(8, large.idleBuffers(8192));
+    }
+  }
+
+  @Test
+  @DisplayName("Should drop buffers released into a full class")
+  void testFullClassDropsBuffers() {
+    List<ByteBuffer> buffers = new ArrayList<>();
+    for (int i = 0; i < 9; i++) {
+      buffers.add(pool.acquire(4096));
+    }
+    buffers.forEach(pool::release);
+
+    assertEquals(8, pool.idleBuffers(4096));
+  }
+
+  @Test
+  @DisplayName("Should hand each idle buffer to one owner under concurrent use")
+  void testConcurrentAcquireRelease() throws InterruptedException {
+    TdsBufferPool shared = new TdsBufferPool(new int[] {4096}, 64 * 4096);
+    Set<ByteBuffer> owned = Collections.synchronizedSet(
+        Collections.newSetFromMap(new IdentityHashMap<>()));
+    List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch done = new CountDownLatch(4);
+    for (int t = 0; t < 4; t++) {
+      new Thread(() -> {
+        try {
+          for (int i = 0; i < 20_000; i++) {
+            ByteBuffer buffer = shared.acquire(4096);
+            if (!owned.add(buffer)) {
+              throw new AssertionError("Buffer handed to two owners");
+            }
+            owned.remove(buffer);
+            shared.release(buffer);
+          }
+        } catch (Throwable e) {
+          failures.add(e);
+        } finally {
+          done.countDown();
+        }
+      }).start();
+    }
+    done.await();
+
+    assertTrue(failures.isEmpty(), failures.toString());
+    assertTrue(shared.idleBuffers(4096) <= 64);
+  }
+}
@@ -33,6 +33,20 @@ class NumericDecoderTest {
     assertEquals(new BigDecimal("123.45"), posResult, "Positive sign bit (1) failed");
   }
 
+  @Test
+  void testDecodeSliceOfSharedArray() {
+    // Values decoded out of a shared arena slab must honour offset and length
+    byte[] slab = new byte[] {(byte) 0xFF, 0x39, 0x30, 0, 0, 0, 1, 0x39, 0x30, (byte) 0xFF};
+
+    Integer intResult = decoder.decode(
+        slab, 1, 4, TdsType.INT4, Integer.class, 0, StandardCharsets.UTF_8);
+    BigDecimal decimalResult = decoder.decode(
+        slab, 6, 3, TdsType.DECIMAL, BigDecimal.class, 2, StandardCharsets.UTF_8);
+
+    assertEquals(0x3039, intResult);
+    assertEquals(new BigDecimal("123.45"), decimalResult);
+  }
+
   @Test
   void testUnsignedTinyIntFix() {
     // SQL Server TINYINT 255 is 0xFF.
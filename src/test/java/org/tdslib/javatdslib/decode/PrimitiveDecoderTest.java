@@ -0,0 +1,48 @@
+package org.tdslib.javatdslib.decode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.jupiter.api.Test;
+import org.tdslib.javatdslib.codec.PrimitiveDecoder;
+import org.tdslib.javatdslib.protocol.TdsType;
+
+class PrimitiveDecoderTest {
+
+  @Test
+  void testIntegersFromSlice() {
+    byte[] slab = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN)
+        .put((byte) 0xFF).putInt(-42).putLong(Long.MIN_VALUE).array();
+
+    assertEquals(255, PrimitiveDecoder.readInt(TdsType.INTN, slab, 0, 1));
+    assertEquals(-42, PrimitiveDecoder.readInt(TdsType.INTN, slab, 1, 4));
+    assertEquals(Long.MIN_VALUE, PrimitiveDecoder.readLong(TdsType.INT8, slab, 5, 8));
+    assertThrows(ArithmeticException.class,
+        () -> PrimitiveDecoder.readInt(TdsType.INT8, slab, 5, 8));
+  }
+
+  @Test
+  void testDoubleAndDecimal() {
+    byte[] flt8 = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putDouble(-1.5).array();
+    // -123.45 at scale 2: sign 0 (negative), magnitude 12345 little-endian
+    byte[] decimal = new byte[] {0, 0x39, 0x30, 0, 0};
+
+    assertEquals(-1.5, PrimitiveDecoder.readDouble(TdsType.FLTN, flt8, 0, 8, 0));
+    assertEquals(-123.45, PrimitiveDecoder.readDouble(TdsType.DECIMALN, decimal, 0, 5, 2));
+  }
+
+  @Test
+  void testMoneyAsCents() {
+    // 8-byte MONEY is high 32 bits first, then low 32 bits; 1234.5650 -> 12345650
+    byte[] money = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN)
+        .putInt(0).putInt(12_345_650).array();
+    byte[] smallMoney = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN)
+        .putInt(-12_345_649).array();
+
+    assertEquals(123_457, PrimitiveDecoder.readMoneyAsCents(TdsType.MONEYN, money, 0, 8));
+    assertEquals(-123_456,
+        PrimitiveDecoder.readMoneyAsCents(TdsType.SMALLMONEY, smallMoney, 0, 4));
+  }
+}
@@ -0,0 +1,66 @@
+package org.tdslib.javatdslib.encode;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tdslib.javatdslib.buffer.TdsBufferPool;
+import org.tdslib.javatdslib.codec.StringEncoder;
+import org.tdslib.javatdslib.packets.PacketType;
+import org.tdslib.javatdslib.packets.TdsPacketWriter;
+import org.tdslib.javatdslib.protocol.TdsParameter;
+import org.tdslib.javatdslib.protocol.TdsType;
+import org.tdslib.javatdslib.protocol.rpc.RpcEncodingContext;
+
+class StringEncoderTest {
+
+  private final StringEncoder encoder = new StringEncoder();
+  private final RpcEncodingContext context =
+      new RpcEncodingContext(StandardCharsets.ISO_8859_1, null);
+
+  @Test
+  @DisplayName("Should stream the same bytes as the buffer encoding, across packets")
+  void testStreamedEncodingMatchesBuffer() {
+    String longText = "x".repeat(5000);
+    for (TdsParameter param : List.of(
+        new TdsParameter(TdsType.NVARCHAR, "@p0", "héllo", false),
+        new TdsParameter(TdsType.BIGVARCHR, "@p0", "héllo", false),
+        new TdsParameter(TdsType.NVARCHAR, "@p0", longText, false),
+        new TdsParameter(TdsType.NVARCHAR, "@p0", null, false))) {
+      assertArrayEquals(buffered(param), streamed(param));
+    }
+  }
+
+  private byte[] buffered(TdsParameter param) {
+    ByteBuffer buf = ByteBuffer.allocate(16 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    encoder.writeTypeInfo(buf, param, context);
+    encoder.writeValue(buf, param, context);
+    buf.flip();
+    byte[] bytes = new byte[buf.remaining()];
+    buf.get(bytes);
+    return bytes;
+  }
+
+  private byte[] streamed(TdsParameter param) {
+    List<ByteBuffer> packets = new ArrayList<>();
+    TdsPacketWriter writer = new TdsPacketWriter(PacketType.RPC_REQUEST, 0, 512,
+        new TdsBufferPool(new int[] {512}, 64), packets::add,
+        StandardCharsets.UTF_16LE.newEncoder());
+    encoder.encode(writer, param, context);
+    writer.finish();
+
+    ByteBuffer all = ByteBuffer.allocate(16 * 1024);
+    for (ByteBuffer packet : packets) {
+      all.put(packet.duplicate().position(TdsPacketWriter.HEADER_LENGTH));
+    }
+    all.flip();
+    byte[] bytes = new byte[all.remaining()];
+    all.get(bytes);
+    return bytes;
+  }
+}
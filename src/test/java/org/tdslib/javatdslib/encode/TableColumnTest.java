@@ -0,0 +1,62 @@
+package org.tdslib.javatdslib.encode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tdslib.javatdslib.codec.TableColumn;
+import org.tdslib.javatdslib.protocol.TdsType;
+
+class TableColumnTest {
+
+  @Test
+  @DisplayName("Should narrow in-range integers to the column width")
+  void testNarrowsIntegers() {
+    assertEquals((byte) 255, new TableColumn("c", TdsType.INT1, 0).coerce(255L));
+    assertEquals((short) -32768, new TableColumn("c", TdsType.INT2, 0).coerce(-32768));
+    assertEquals(7, new TableColumn("c", TdsType.INT4, 0).coerce(7.0d));
+    assertEquals(12, new TableColumn("c", TdsType.INTN, 0).coerce(new BigDecimal("12.00")));
+    assertEquals(3_000_000_000L, new TableColumn("c", TdsType.INT8, 0).coerce(3_000_000_000L));
+  }
+
+  @Test
+  @DisplayName("Should reject integers outside the column range instead of wrapping them")
+  void testRejectsOutOfRangeIntegers() {
+    assertOutOfRange(new TableColumn("c", TdsType.INT1, 0), 300);
+    assertOutOfRange(new TableColumn("c", TdsType.INT1, 0), -1);
+    assertOutOfRange(new TableColumn("c", TdsType.INT2, 0), 40_000);
+    assertOutOfRange(new TableColumn("c", TdsType.INT4, 0), 3_000_000_000L);
+    assertOutOfRange(new TableColumn("c", TdsType.INTN, 0), -3_000_000_000L);
+    assertOutOfRange(new TableColumn("c", TdsType.INT8, 0), new BigDecimal("1e19"));
+    assertOutOfRange(new TableColumn("c", TdsType.INT4, 0), Double.NaN);
+  }
+
+  @Test
+  @DisplayName("Should reject fractional values for integer columns instead of truncating them")
+  void testRejectsFractions() {
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> new TableColumn("qty", TdsType.INT4, 0).coerce(1.9d));
+    assertTrue(e.getMessage().contains("qty"));
+    assertThrows(IllegalArgumentException.class,
+        () -> new TableColumn("qty", TdsType.INT8, 0).coerce(new BigDecimal("2.5")));
+  }
+
+  @Test
+  @DisplayName("Should reject floats and decimals that do not fit the column")
+  void testRejectsOutOfRangeFloatsAndDecimals() {
+    assertOutOfRange(new TableColumn("c", TdsType.FLT4, 0), 1e300);
+    assertEquals(1.5f, new TableColumn("c", TdsType.FLT4, 0).coerce(1.5d));
+    assertOutOfRange(new TableColumn("c", TdsType.DECIMALN, 2), new BigDecimal("1e37"));
+    assertEquals(new BigDecimal("1.26"),
+        new TableColumn("c", TdsType.DECIMALN, 2).coerce(new BigDecimal("1.255")));
+  }
+
+  private static void assertOutOfRange(TableColumn column, Object value) {
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> column.coerce(value));
+    assertTrue(e.getMessage().contains("out of range"), e.getMessage());
+  }
+}
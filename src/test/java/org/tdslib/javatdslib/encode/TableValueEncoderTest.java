@@ -0,0 +1,109 @@
+package org.tdslib.javatdslib.encode;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tdslib.javatdslib.buffer.TdsBufferPool;
+import org.tdslib.javatdslib.codec.TableValue;
+import org.tdslib.javatdslib.codec.TableValueEncoder;
+import org.tdslib.javatdslib.packets.PacketType;
+import org.tdslib.javatdslib.packets.TdsPacketWriter;
+import org.tdslib.javatdslib.protocol.TdsParameter;
+import org.tdslib.javatdslib.protocol.TdsType;
+import org.tdslib.javatdslib.protocol.rpc.RpcEncodingContext;
+
+class TableValueEncoderTest {
+
+  private final TableValueEncoder encoder = new TableValueEncoder();
+  private final RpcEncodingContext context =
+      new RpcEncodingContext(StandardCharsets.ISO_8859_1, new byte[5]);
+
+  @Test
+  @DisplayName("Should stream the same TVP bytes as the buffer encoding, across packets")
+  void testStreamedEncodingMatchesBuffer() {
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      rows.add(new Object[] {i, "name " + i, i % 3 == 0 ? null : 1.5});
+    }
+    TableValue table = new TableValue("dbo.OrderLines", rows)
+        .column("id", TdsType.INTN)
+        .column("name", TdsType.NVARCHAR)
+        .column("price", TdsType.DECIMALN, 2);
+    TdsParameter param = new TdsParameter(TdsType.TVP, "@lines", table, false);
+
+    assertEquals("dbo.OrderLines READONLY", encoder.getSqlTypeDeclaration(param));
+    assertArrayEquals(buffered(param), streamed(param));
+  }
+
+  @Test
+  @DisplayName("Should write the three-part type name, leaving missing parts empty")
+  void testTypeInfo() {
+    TableValue table = new TableValue("[dbo].T", List.of()).column("id", TdsType.INTN);
+    byte[] bytes = typeInfo(new TdsParameter(TdsType.TVP, "@t", table, false));
+
+    // 0xF3, empty db, "dbo", "T"
+    assertEquals(1 + 1 + 1 + 6 + 1 + 2, bytes.length);
+    assertEquals((byte) 0xF3, bytes[0]);
+    assertEquals(0, bytes[1]);
+    assertEquals(3, bytes[2]);
+    assertEquals(1, bytes[9]);
+    assertEquals('T', bytes[10]);
+  }
+
+  @Test
+  @DisplayName("Should reject a type name that names a database, as DbName must be empty")
+  void testRejectsDatabaseName() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new TableValue("otherdb.dbo.T", List.of()));
+
+    TableValue table = new TableValue("T", List.of()).column("id", TdsType.INTN);
+    byte[] bytes = typeInfo(new TdsParameter(TdsType.TVP, "@t", table, false));
+    // 0xF3, empty db, empty schema, "T"
+    assertEquals(1 + 1 + 1 + 1 + 2, bytes.length);
+    assertEquals(0, bytes[1]);
+    assertEquals(0, bytes[2]);
+  }
+
+  private byte[] typeInfo(TdsParameter param) {
+    ByteBuffer buf = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+    encoder.writeTypeInfo(buf, param, context);
+    return toBytes(buf);
+  }
+
+  private byte[] buffered(TdsParameter param) {
+    ByteBuffer buf = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    encoder.writeTypeInfo(buf, param, context);
+    encoder.writeValue(buf, param, context);
+    return toBytes(buf);
+  }
+
+  private byte[] streamed(TdsParameter param) {
+    List<ByteBuffer> packets = new ArrayList<>();
+    TdsPacketWriter writer = new TdsPacketWriter(PacketType.RPC_REQUEST, 0, 512,
+        new TdsBufferPool(new int[] {512}, 64), packets::add,
+        StandardCharsets.UTF_16LE.newEncoder());
+    encoder.encode(writer, param, context);
+    writer.finish();
+
+    ByteBuffer all = ByteBuffer.allocate(64 * 1024);
+    for (ByteBuffer packet : packets) {
+      all.put(packet.duplicate().position(TdsPacketWriter.HEADER_LENGTH));
+    }
+    return toBytes(all);
+  }
+
+  private static byte[] toBytes(ByteBuffer buf) {
+    buf.flip();
+    byte[] bytes = new byte[buf.remaining()];
+    buf.get(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,96 @@
+package org.tdslib.javatdslib.impl;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.reactivestreams.Publisher;
+import org.tdslib.javatdslib.transport.ConnectionContext;
+import org.tdslib.javatdslib.transport.TdsTransport;
+import reactor.core.publisher.Mono;
+
+/**
+ * Opens connections without a server, for tests of code built on a connection factory. Each
+ * create takes the next queued outcome, or else opens a {@link StubConnection}. Subclasses may
+ * override {@link #newConnection(int)} to give the connections behaviour of their own.
+ */
+class StubConnectionFactory extends TdsConnectionFactory {
+
+  /** Outcomes of the next creates, in order; a create with none queued opens a connection. */
+  final Queue<Mono<Connection>> outcomes = new ConcurrentLinkedQueue<>();
+  /** Every connection opened so far, in order. */
+  final List<StubConnection> connections = new CopyOnWriteArrayList<>();
+  private final AtomicInteger opened = new AtomicInteger();
+
+  StubConnectionFactory() {
+    super(ConnectionFactoryOptions.builder().build());
+  }
+
+  @Override
+  public Publisher<? extends Connection> create() {
+    Mono<Connection> outcome = outcomes.poll();
+    return outcome != null ? outcome : open();
+  }
+
+  @Override
+  public Publisher<Void> close() {
+    return Mono.empty();
+  }
+
+  /**
+   * Returns an outcome that opens the next connection, for queueing ahead of a failing one.
+   */
+  Mono<Connection> open() {
+    return Mono.fromSupplier(() -> {
+      StubConnection connection = newConnection(opened.getAndIncrement());
+      connections.add(connection);
+      return connection;
+    });
+  }
+
+  /**
+   * Creates the connection to hand out.
+   *
+   * @param index The number of connections opened before this one.
+   */
+  StubConnection newConnection(int index) {
+    return new StubConnection();
+  }
+
+  /**
+   * A connection whose transport has no network connection, and which records being closed.
+   */
+  static class StubConnection extends TdsConnection {
+    volatile boolean closed;
+
+    StubConnection() {
+      this(context());
+    }
+
+    private StubConnection(ConnectionContext context) {
+      super(new TdsTransport("localhost", 1433, context, null, null), context);
+    }
+
+    @Override
+    public Publisher<Void> close() {
+      return Mono.fromRunnable(() -> closed = true);
+    }
+
+    // Answers false, 0 or null to everything
+    private static ConnectionContext context() {
+      return (ConnectionContext) Proxy.newProxyInstance(
+          ConnectionContext.class.getClassLoader(), new Class<?>[] {ConnectionContext.class},
+          (proxy, method, args) -> {
+            Class<?> type = method.getReturnType();
+            if (type == boolean.class) {
+              return false;
+            }
+            return type.isPrimitive() && type != void.class ? 0 : null;
+          });
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package org.tdslib.javatdslib.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tdslib.javatdslib.buffer.TdsBufferPool;
+import org.tdslib.javatdslib.packets.PacketType;
+import org.tdslib.javatdslib.packets.TdsPacketWriter;
+import org.tdslib.javatdslib.protocol.TdsType;
+import org.tdslib.javatdslib.protocol.rpc.RpcEncodingContext;
+
+class TdsBulkCopyTest {
+
+  @Test
+  @DisplayName("Should announce the columns and hints in the INSERT BULK statement")
+  void testInsertBulkStatement() {
+    TdsBulkCopy bulkCopy = new TdsBulkCopy(null, null, "dbo.orders")
+        .column("id", TdsType.INT8)
+        .column("name", TdsType.NVARCHAR)
+        .column("price", TdsType.DECIMALN, 2)
+        .column("odd]name", TdsType.BITN)
+        .tableLock(true)
+        .checkConstraints(true)
+        .orderBy("id", false);
+
+    assertEquals("INSERT BULK dbo.orders ([id] bigint, [name] nvarchar(4000), "
+            + "[price] decimal(38,2), [odd]]name] bit) "
+            + "WITH (TABLOCK, CHECK_CONSTRAINTS, ORDER([id] ASC))",
+        bulkCopy.buildInsertBulk());
+  }
+
+  @Test
+  @DisplayName("Should write COLMETADATA, one ROW token per row and DONE")
+  void testBulkLoadTokens() {
+    TdsBulkCopy bulkCopy = new TdsBulkCopy(null, null, "t")
+        .column("id", TdsType.INT4)
+        .column("nm", TdsType.NVARCHAR);
+    List<Object[]> rows = bulkCopy.coerceRows(List.of(
+        new Object[] {7L, "ab"},
+        new Object[] {null, null}));
+
+    byte[] expected = {
+        (byte) 0x81, 2, 0,                              // COLMETADATA, 2 columns
+        0, 0, 0, 0, 9, 0, 0x26, 4,                      // id: UserType, Flags, INTN(4)
+        2, 'i', 0, 'd', 0,
+        0, 0, 0, 0, 9, 0, (byte) 0xE7, 0x40, 0x1F,      // nm: UserType, Flags, NVARCHAR(8000)
+        1, 2, 3, 4, 5,                                  // Collation
+        2, 'n', 0, 'm', 0,
+        (byte) 0xD1, 4, 7, 0, 0, 0, 4, 0, 'a', 0, 'b', 0,  // ROW 7, N'ab'
+        (byte) 0xD1, 0, (byte) 0xFF, (byte) 0xFF,          // ROW NULL, NULL
+        (byte) 0xFD, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0    // DONE
+    };
+    List<ByteBuffer> packets = new ArrayList<>();
+    TdsPacketWriter writer = new TdsPacketWriter(PacketType.BULK_LOAD, 0, 512,
+        new TdsBufferPool(new int[] {512}, 4), packets::add,
+        StandardCharsets.UTF_16LE.newEncoder());
+    bulkCopy.writeLoad(writer,
+        new RpcEncodingContext(StandardCharsets.ISO_8859_1, new byte[] {1, 2, 3, 4, 5}), rows);
+    writer.finish();
+
+    assertEquals(1, packets.size());
+    ByteBuffer body = packets.get(0).duplicate().position(TdsPacketWriter.HEADER_LENGTH);
+    byte[] actual = new byte[body.remaining()];
+    body.get(actual);
+    assertArrayEquals(expected, actual);
+  }
+
+  @Test
+  @DisplayName("Should reject a value whose type does not fit the column, naming the column")
+  void testRejectsMismatchedValue() {
+    TdsBulkCopy bulkCopy = new TdsBulkCopy(null, null, "t")
+        .column("qty", TdsType.INT4)
+        .column("due", TdsType.DATE);
+
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> bulkCopy.coerceRows(List.<Object[]>of(new Object[] {"12", LocalDate.now()})));
+    assertTrue(e.getMessage().contains("qty"));
+    e = assertThrows(IllegalArgumentException.class,
+        () -> bulkCopy.coerceRows(List.<Object[]>of(new Object[] {12, "2024-01-01"})));
+    assertTrue(e.getMessage().contains("due"));
+  }
+}
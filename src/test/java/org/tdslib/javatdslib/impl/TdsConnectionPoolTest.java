@@ -0,0 +1,100 @@
+package org.tdslib.javatdslib.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.tdslib.javatdslib.api.TdsLibOptions.POOL_ACQUIRE_TIMEOUT;
+import static org.tdslib.javatdslib.api.TdsLibOptions.POOL_MAX_SIZE;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.R2dbcNonTransientResourceException;
+import io.r2dbc.spi.R2dbcTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class TdsConnectionPoolTest {
+
+  @Test
+  @DisplayName("Should serve waiting callers in arrival order")
+  void testWaitersServedInFifoOrder() {
+    TdsConnectionPool pool = pool(new StubConnectionFactory(), 1, Duration.ofSeconds(5));
+    Connection first = Mono.from(pool.create()).block();
+    List<String> order = new ArrayList<>();
+    List<Connection> served = new ArrayList<>();
+    for (String name : List.of("a", "b", "c")) {
+      Mono.from(pool.create()).subscribe(connection -> {
+        order.add(name);
+        served.add(connection);
+      });
+    }
+
+    Mono.from(first.close()).block();
+    Mono.from(served.get(0).close()).block();
+    Mono.from(served.get(1).close()).block();
+
+    assertEquals(List.of("a", "b", "c"), order);
+    Mono.from(pool.close()).block();
+  }
+
+  @Test
+  @DisplayName("Should fail a waiting caller after the acquire timeout")
+  void testAcquireTimeout() {
+    TdsConnectionPool pool = pool(new StubConnectionFactory(), 1, Duration.ofMillis(50));
+    Mono.from(pool.create()).block();
+
+    assertThrows(R2dbcTimeoutException.class,
+        () -> Mono.from(pool.create()).block(Duration.ofSeconds(5)));
+    Mono.from(pool.close()).block();
+  }
+
+  @Test
+  @DisplayName("Should fail waiting callers when the pool is closed")
+  void testCloseFailsWaiters() {
+    TdsConnectionPool pool = pool(new StubConnectionFactory(), 1, Duration.ofSeconds(5));
+    Mono.from(pool.create()).block();
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    Mono.from(pool.create()).subscribe(connection -> { }, error::set);
+
+    Mono.from(pool.close()).block();
+
+    assertTrue(error.get() instanceof R2dbcNonTransientResourceException);
+  }
+
+  @Test
+  @DisplayName("Should open a connection for the next waiter after a failed connect")
+  void testRecoversAfterConnectFailure() {
+    StubConnectionFactory factory = new StubConnectionFactory();
+    Sinks.One<Connection> failing = Sinks.one();
+    factory.outcomes.add(failing.asMono());
+    TdsConnectionPool pool = pool(factory, 1, Duration.ofSeconds(5));
+
+    AtomicReference<Throwable> firstError = new AtomicReference<>();
+    Mono.from(pool.create()).subscribe(connection -> { }, firstError::set);
+    // Arrives while the only slot is taken by the connect in flight
+    AtomicReference<Connection> second = new AtomicReference<>();
+    Mono.from(pool.create()).subscribe(second::set);
+
+    failing.tryEmitError(new IllegalStateException("server unavailable"));
+
+    assertNotNull(firstError.get());
+    assertNotNull(second.get());
+    assertEquals(1, pool.getAllocatedSize());
+    Mono.from(pool.close()).block();
+  }
+
+  private static TdsConnectionPool pool(StubConnectionFactory factory, int maxSize,
+                                        Duration timeout) {
+    return new TdsConnectionPool(factory, ConnectionFactoryOptions.builder()
+        .option(POOL_MAX_SIZE, maxSize)
+        .option(POOL_ACQUIRE_TIMEOUT, timeout)
+        .build());
+  }
+}
@@ -0,0 +1,116 @@
+package org.tdslib.javatdslib.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tdslib.javatdslib.codec.TableColumn;
+import org.tdslib.javatdslib.protocol.TdsType;
+import org.tdslib.javatdslib.protocol.rpc.RpcEncodingContext;
+import org.tdslib.javatdslib.tokens.TokenType;
+
+class TdsCsvLoaderTest {
+
+  private final RpcEncodingContext context =
+      new RpcEncodingContext(StandardCharsets.ISO_8859_1, new byte[5]);
+
+  @Test
+  @DisplayName("Should encode lines across region boundaries like the row-by-row path")
+  void testRegionsMatchRowEncoding() throws IOException {
+    List<TableColumn> columns = List.of(
+        new TableColumn("id", TdsType.INT4, 0),
+        new TableColumn("name", TdsType.NVARCHAR, 0),
+        new TableColumn("code", TdsType.BIGVARCHR, 0),
+        new TableColumn("price", TdsType.DECIMALN, 2));
+    Path file = Files.createTempFile("loader", ".csv");
+    try {
+      Files.writeString(file, "id,name,code,price\r\n"
+          + "1,héllo,ab,1.5\r\n"
+          + "-22,\"quoted, \"\"x\"\"\",\"\",\n"
+          + "\n"
+          + "333,,c,0.125", StandardCharsets.UTF_8);
+
+      TdsCsvLoader loader = new TdsCsvLoader(null).skipHeader(true).regionSize(7);
+      ByteBuffer actual = ByteBuffer.allocate(4096);
+      long rows;
+      try (FileChannel channel = FileChannel.open(file)) {
+        rows = loader.regions(channel, columns, context)
+            .doOnNext(chunk -> actual.put(chunk.rows().duplicate()))
+            .map(TdsBulkCopy.EncodedRows::count)
+            .reduce(0L, Long::sum)
+            .block();
+      }
+
+      ByteBuffer expected = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+      writeRow(expected, columns, 1, "héllo", "ab", new BigDecimal("1.5"));
+      writeRow(expected, columns, -22, "quoted, \"x\"", "", null);
+      writeRow(expected, columns, 333, null, "c", new BigDecimal("0.125"));
+
+      assertEquals(3, rows);
+      assertArrayEquals(toBytes(expected), toBytes(actual));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  @DisplayName("Should reuse the output buffer of a region once its rows were released")
+  void testRecyclesRegionBuffers() throws IOException {
+    List<TableColumn> columns = List.of(new TableColumn("id", TdsType.INT4, 0));
+    Path file = Files.createTempFile("loader", ".csv");
+    try {
+      StringBuilder text = new StringBuilder();
+      for (int i = 0; i < 100; i++) {
+        text.append(1000 + i).append('\n');
+      }
+      Files.writeString(file, text, StandardCharsets.UTF_8);
+
+      TdsCsvLoader loader = new TdsCsvLoader(null).regionSize(20).parallelism(1);
+      Set<ByteBuffer> buffers = Collections.newSetFromMap(new IdentityHashMap<>());
+      long rows;
+      try (FileChannel channel = FileChannel.open(file)) {
+        rows = loader.regions(channel, columns, context)
+            .doOnNext(chunk -> {
+              buffers.add(chunk.rows());
+              chunk.release();
+            })
+            .map(TdsBulkCopy.EncodedRows::count)
+            .reduce(0L, Long::sum)
+            .block();
+      }
+
+      assertEquals(100, rows);
+      assertEquals(1, buffers.size());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  private void writeRow(ByteBuffer buf, List<TableColumn> columns, Object... values) {
+    buf.put(TokenType.ROW.getValue());
+    for (int i = 0; i < values.length; i++) {
+      TableColumn column = columns.get(i);
+      column.writeValue(buf, column.coerce(values[i]), context);
+    }
+  }
+
+  private static byte[] toBytes(ByteBuffer buf) {
+    buf.flip();
+    byte[] bytes = new byte[buf.remaining()];
+    buf.get(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,155 @@
+package org.tdslib.javatdslib.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.tdslib.javatdslib.impl.StubConnectionFactory.StubConnection;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class TdsParallelBulkCopyTest {
+
+  @Test
+  @DisplayName("Should route every row to the connection chosen by the partitioner")
+  void testRoutesRowsByPartition() {
+    LoadingFactory factory = new LoadingFactory(-1);
+    TdsParallelBulkCopy.Summary summary =
+        new TdsParallelBulkCopy(factory, "t", bulkCopy -> { })
+            .connections(3)
+            .queueSize(4)
+            .partitionBy(row -> (Integer) row[0])
+            .write(rows(30))
+            .block();
+
+    assertTrue(summary.isSuccessful());
+    assertEquals(30, summary.rowsCopied());
+    for (int i = 0; i < 3; i++) {
+      assertEquals(10, summary.rowsCopied(i));
+      for (Object[] row : ((LoadingConnection) factory.connections.get(i)).received) {
+        assertEquals(i, (Integer) row[0] % 3);
+      }
+    }
+    assertClosed(factory);
+  }
+
+  @Test
+  @DisplayName("Should count every row of a failed connection that was not committed as dropped")
+  void testDroppedRowAccounting() {
+    // The second connection commits one batch of 5, then fails
+    LoadingFactory factory = new LoadingFactory(1);
+    TdsParallelBulkCopy.Summary summary =
+        new TdsParallelBulkCopy(factory, "t", bulkCopy -> { })
+            .connections(2)
+            .queueSize(4)
+            .write(rows(100))
+            .block();
+
+    assertEquals(1, summary.errors().size());
+    assertTrue(summary.errors().containsKey(1));
+    assertEquals(50, summary.rowsCopied(0));
+    assertEquals(5, summary.rowsCopied(1));
+    assertEquals(45, summary.rowsDropped());
+    assertEquals(100, summary.rowsCopied() + summary.rowsDropped());
+    assertClosed(factory);
+  }
+
+  @Test
+  @DisplayName("Should close the opened connections when another cannot be opened")
+  void testClosesConnectionsOnPartialOpen() {
+    LoadingFactory factory = new LoadingFactory(-1);
+    factory.outcomes.add(factory.open());
+    factory.outcomes.add(factory.open());
+    factory.outcomes.add(Mono.error(new IllegalStateException("server unavailable")));
+    TdsParallelBulkCopy bulkCopy = new TdsParallelBulkCopy(factory, "t", copy -> { })
+        .connections(3);
+
+    assertThrows(IllegalStateException.class, () -> bulkCopy.write(rows(10)).block());
+    assertEquals(2, factory.connections.size());
+    assertClosed(factory);
+  }
+
+  private static Flux<Object[]> rows(int count) {
+    return Flux.range(0, count).map(i -> new Object[] {i});
+  }
+
+  private static void assertClosed(StubConnectionFactory factory) {
+    for (StubConnection connection : factory.connections) {
+      assertTrue(connection.closed);
+    }
+  }
+
+  /**
+   * Opens connections that load in memory; the one at {@code failingLoad} fails its second
+   * batch.
+   */
+  private static final class LoadingFactory extends StubConnectionFactory {
+    private final int failingLoad;
+
+    LoadingFactory(int failingLoad) {
+      this.failingLoad = failingLoad;
+    }
+
+    @Override
+    StubConnection newConnection(int index) {
+      return new LoadingConnection(index == failingLoad);
+    }
+  }
+
+  private static final class LoadingConnection extends StubConnection {
+    private final boolean failing;
+    private final List<Object[]> received = new CopyOnWriteArrayList<>();
+
+    LoadingConnection(boolean failing) {
+      this.failing = failing;
+    }
+
+    @Override
+    public TdsBulkCopy createBulkCopy(String table) {
+      return new StubBulkCopy(this);
+    }
+  }
+
+  /**
+   * Commits batches of five rows in memory, failing the second batch of a failing connection.
+   */
+  private static final class StubBulkCopy extends TdsBulkCopy {
+    private final LoadingConnection connection;
+    private LongConsumer listener;
+
+    StubBulkCopy(LoadingConnection connection) {
+      super(null, null, "t");
+      this.connection = connection;
+    }
+
+    @Override
+    public TdsBulkCopy onBatch(LongConsumer listener) {
+      this.listener = listener;
+      return this;
+    }
+
+    @Override
+    public Mono<Long> write(Publisher<Object[]> rows) {
+      List<Integer> batches = new ArrayList<>();
+      return Flux.from(rows)
+          .buffer(5)
+          .concatMap(batch -> {
+            if (connection.failing && !batches.isEmpty()) {
+              return Mono.error(new IllegalStateException("batch failed"));
+            }
+            batches.add(batch.size());
+            connection.received.addAll(batch);
+            listener.accept(batch.size());
+            return Mono.just((long) batch.size());
+          })
+          .reduce(0L, Long::sum);
+    }
+  }
+}
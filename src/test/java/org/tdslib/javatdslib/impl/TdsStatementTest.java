@@ -0,0 +1,82 @@
+package org.tdslib.javatdslib.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tdslib.javatdslib.protocol.TdsParameter;
+import org.tdslib.javatdslib.protocol.TdsType;
+import reactor.core.publisher.Flux;
+
+class TdsStatementTest {
+
+  @Test
+  @DisplayName("Should close a group of parameter sets at the row threshold")
+  void testGroupClosesAtMaxRows() {
+    List<List<List<TdsParameter>>> groups = group(sets(5, 1), 2, Integer.MAX_VALUE);
+
+    assertEquals(3, groups.size());
+    assertEquals(2, groups.get(0).size());
+    assertEquals(2, groups.get(1).size());
+    assertEquals(1, groups.get(2).size());
+  }
+
+  @Test
+  @DisplayName("Should close a group of parameter sets at the byte threshold")
+  void testGroupClosesAtMaxBytes() {
+    List<List<TdsParameter>> sets = sets(7, 1);
+    int setSize = TdsStatement.estimateSize(sets.get(0).get(0));
+    // Three sets reach the threshold, two do not
+    List<List<List<TdsParameter>>> groups = group(sets, 100, setSize * 3);
+
+    assertEquals(3, groups.size());
+    assertEquals(3, groups.get(0).size());
+    assertEquals(3, groups.get(1).size());
+    assertEquals(1, groups.get(2).size());
+  }
+
+  @Test
+  @DisplayName("Should send a parameter set larger than the byte threshold in its own group")
+  void testOversizedSetClosesItsOwnGroup() {
+    List<List<TdsParameter>> sets = new ArrayList<>();
+    sets.add(List.of(new TdsParameter(TdsType.NVARCHAR, "@p0", "x".repeat(5000), false)));
+    sets.addAll(sets(2, 1));
+    List<List<List<TdsParameter>>> groups = group(sets, 100, 1000);
+
+    assertEquals(2, groups.size());
+    assertEquals(1, groups.get(0).size());
+    assertEquals(2, groups.get(1).size());
+  }
+
+  @Test
+  @DisplayName("Should reject non-positive stream thresholds")
+  void testStreamThresholdsValidation() {
+    TdsStatement statement = new TdsStatement(null, null, "SELECT 1");
+
+    assertThrows(IllegalArgumentException.class, () -> statement.streamThresholds(0, 1024));
+    assertThrows(IllegalArgumentException.class, () -> statement.streamThresholds(10, 0));
+    statement.streamThresholds(1, 1);
+  }
+
+  private static List<List<List<TdsParameter>>> group(
+      List<List<TdsParameter>> sets, int maxRows, int maxBytes) {
+    return TdsStatement.groupParameterSets(Flux.fromIterable(sets), maxRows, maxBytes)
+        .collectList()
+        .block();
+  }
+
+  private static List<List<TdsParameter>> sets(int count, int width) {
+    List<List<TdsParameter>> sets = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      List<TdsParameter> params = new ArrayList<>();
+      for (int j = 0; j < width; j++) {
+        params.add(new TdsParameter(TdsType.INTN, "@p" + j, i, false));
+      }
+      sets.add(params);
+    }
+    return sets;
+  }
+}
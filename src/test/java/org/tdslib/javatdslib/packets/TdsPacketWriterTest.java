@@ -0,0 +1,111 @@
+package org.tdslib.javatdslib.packets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tdslib.javatdslib.buffer.TdsBufferPool;
+
+class TdsPacketWriterTest {
+
+  private final TdsBufferPool pool = new TdsBufferPool(new int[] {64}, 1024);
+  private List<ByteBuffer> packets;
+
+  @BeforeEach
+  void setUp() {
+    packets = new ArrayList<>();
+  }
+
+  private TdsPacketWriter newWriter(int packetSize) {
+    return new TdsPacketWriter(PacketType.RPC_REQUEST, 0x0033, packetSize, pool, packets::add,
+        StandardCharsets.UTF_16LE.newEncoder());
+  }
+
+  private byte[] payloadOf(List<ByteBuffer> frames) {
+    ByteBuffer all = ByteBuffer.allocate(1024);
+    for (ByteBuffer frame : frames) {
+      ByteBuffer copy = frame.duplicate();
+      copy.position(TdsPacketWriter.HEADER_LENGTH);
+      all.put(copy);
+    }
+    all.flip();
+    byte[] bytes = new byte[all.remaining()];
+    all.get(bytes);
+    return bytes;
+  }
+
+  @Test
+  @DisplayName("Should split the payload into full packets and patch each header")
+  void testHeadersArePatchedPerPacket() {
+    TdsPacketWriter writer = newWriter(16);
+    byte[] payload = new byte[20];
+    for (int i = 0; i < payload.length; i++) {
+      payload[i] = (byte) i;
+    }
+    writer.put(payload);
+    writer.finish();
+
+    assertEquals(3, packets.size());
+    assertEquals(16, packets.get(0).remaining());
+    assertEquals(12, packets.get(2).remaining());
+
+    ByteBuffer first = packets.get(0);
+    assertEquals(PacketType.RPC_REQUEST.getValue(), first.get(0));
+    assertEquals(PacketStatus.NORMAL, first.get(1));
+    assertEquals(16, first.getShort(2));
+    assertEquals(0x0033, first.getShort(4));
+    assertEquals(1, first.get(6));
+
+    ByteBuffer last = packets.get(2);
+    assertEquals(PacketStatus.EOM, last.get(1));
+    assertEquals(12, last.getShort(2));
+    assertEquals(3, last.get(6));
+
+    assertArrayEquals(payload, payloadOf(packets));
+  }
+
+  @Test
+  @DisplayName("Should split a UTF-16 character across a packet boundary without gaps")
+  void testCharacterStraddlesBoundary() {
+    TdsPacketWriter writer = newWriter(13);
+    writer.putUtf16("abc");
+    writer.finish();
+
+    assertEquals(2, packets.size());
+    assertEquals(13, packets.get(0).remaining());
+    assertArrayEquals("abc".getBytes(StandardCharsets.UTF_16LE), payloadOf(packets));
+    assertEquals(6, writer.getBytesWritten());
+  }
+
+  @Test
+  @DisplayName("Should stage an encoder that overflows the packet and spill it across packets")
+  void testEncodedValueSpansPackets() {
+    TdsPacketWriter writer = newWriter(16);
+    writer.putShort((short) 0x0102);
+    writer.putEncoded(buf -> buf.putLong(0x1122334455667788L).putInt(0x0A0B0C0D));
+    writer.finish();
+
+    ByteBuffer expected = ByteBuffer.allocate(14).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+    expected.putShort((short) 0x0102).putLong(0x1122334455667788L).putInt(0x0A0B0C0D);
+    assertArrayEquals(expected.array(), payloadOf(packets));
+    assertEquals(2, packets.size());
+  }
+
+  @Test
+  @DisplayName("Should apply first-packet status bits only to the first packet")
+  void testFirstPacketStatus() {
+    TdsPacketWriter writer = newWriter(16);
+    writer.setFirstPacketStatus(PacketStatus.RESET_CONNECTION);
+    writer.put(new byte[10]);
+    writer.finish();
+
+    assertEquals(PacketStatus.RESET_CONNECTION, packets.get(0).get(1));
+    assertEquals(PacketStatus.EOM, packets.get(1).get(1));
+  }
+}
@@ -0,0 +1,81 @@
+package org.tdslib.javatdslib.reactive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.r2dbc.spi.Result;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tdslib.javatdslib.impl.TdsOutSegment;
+import org.tdslib.javatdslib.tokens.TokenType;
+import org.tdslib.javatdslib.tokens.models.DoneStatus;
+import org.tdslib.javatdslib.tokens.models.DoneToken;
+import org.tdslib.javatdslib.tokens.models.ReturnValueToken;
+import org.tdslib.javatdslib.transport.DefaultConnectionContext;
+import org.tdslib.javatdslib.transport.TdsTransport;
+
+class AsyncWorkerSinkTest {
+
+  private static final int DONE_ATTN = 0x0020;
+
+  private final List<Result.Segment> segments = new ArrayList<>();
+  private final List<ReturnValueToken> returnValues = new ArrayList<>();
+  private final AtomicBoolean completed = new AtomicBoolean();
+  private TdsTokenQueue queue;
+  private AsyncWorkerSink sink;
+
+  @BeforeEach
+  void setUp() {
+    DefaultConnectionContext context = new DefaultConnectionContext();
+    queue = new TdsTokenQueue(new TdsTransport("localhost", 1433, context, null, null));
+    // No scheduler: the sink drains on the calling thread
+    sink = new AsyncWorkerSink(queue, context, null);
+    sink.setCallbacks(segments::add, e -> { }, () -> completed.set(true));
+    sink.setReturnValueListener(returnValues::add);
+  }
+
+  @Test
+  @DisplayName("Should pass RETURNVALUE tokens to the listener and emit them as OUTPUT")
+  void testReturnValueListener() {
+    ReturnValueToken handle = returnValue(0);
+    sink.request(Long.MAX_VALUE);
+    queue.onToken(handle);
+    queue.onToken(done(0));
+    queue.flush();
+
+    assertEquals(List.of(handle), returnValues);
+    assertTrue(segments.get(0) instanceof TdsOutSegment);
+    assertEquals(1, segments.size());
+    assertTrue(completed.get());
+  }
+
+  @Test
+  @DisplayName("Should pass RETURNVALUE tokens vacuumed after a cancel to the listener")
+  void testReturnValueAfterCancel() {
+    sink.request(1);
+    sink.cancel(true);
+
+    ReturnValueToken handle = returnValue(0);
+    queue.onToken(handle);
+    queue.onToken(done(0));
+    queue.onToken(done(DONE_ATTN));
+    queue.flush();
+
+    assertEquals(List.of(handle), returnValues);
+    assertTrue(segments.isEmpty());
+    assertTrue(completed.get());
+  }
+
+  private static ReturnValueToken returnValue(int ordinal) {
+    return new ReturnValueToken(TokenType.RETURN_VALUE.getValue(), ordinal, "", (byte) 1, null,
+        new byte[] {1, 0, 0, 0});
+  }
+
+  private static DoneToken done(int status) {
+    return new DoneToken(TokenType.DONE.getValue(), new DoneStatus(status), 0, 0);
+  }
+}
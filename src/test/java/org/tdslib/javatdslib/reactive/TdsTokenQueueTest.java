@@ -0,0 +1,174 @@
+package org.tdslib.javatdslib.reactive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tdslib.javatdslib.tokens.CompleteDataColumn;
+import org.tdslib.javatdslib.transport.DefaultConnectionContext;
+import org.tdslib.javatdslib.transport.NetworkConnection;
+import org.tdslib.javatdslib.transport.QueryPacketBuilder;
+import org.tdslib.javatdslib.transport.TdsTransport;
+import org.tdslib.javatdslib.transport.TlsHandshake;
+
+class TdsTokenQueueTest {
+
+  private ReadTrackingConnection connection;
+  private TdsTokenQueue queue;
+  private final AtomicInteger wakeups = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    connection = new ReadTrackingConnection();
+    TdsTransport transport = new TdsTransport("localhost", 1433, new DefaultConnectionContext(),
+        connection, new QueryPacketBuilder());
+    queue = new TdsTokenQueue(transport);
+    queue.setOnEventAvailableCallback(wakeups::incrementAndGet);
+  }
+
+  @Test
+  @DisplayName("Should deliver events in order across segment boundaries and wake once per flush")
+  void testOrderAcrossSegments() {
+    for (int i = 0; i < 2500; i++) {
+      queue.onColumnData(new CompleteDataColumn(i, null));
+    }
+    queue.flush();
+    assertEquals(1, wakeups.get());
+
+    for (int i = 0; i < 2500; i++) {
+      TdsTokenQueue.Event event = queue.poll();
+      assertTrue(event.isColumn(i));
+    }
+    assertNull(queue.poll());
+  }
+
+  @Test
+  @DisplayName("Should suspend reads above the high watermark and resume below the low one")
+  void testWatermarks() {
+    for (int i = 0; i < 6; i++) {
+      queue.onColumnData(new CompleteDataColumn(0, new byte[1024 * 1024]));
+    }
+    queue.flush();
+    assertTrue(connection.suspended);
+
+    for (int i = 0; i < 5; i++) {
+      queue.poll();
+    }
+    assertTrue(connection.suspended);
+    queue.poll();
+    assertFalse(connection.suspended);
+  }
+
+  @Test
+  @DisplayName("Should hand every event from the producer thread to the consumer in order")
+  void testConcurrentHandoff() throws InterruptedException {
+    int total = 200_000;
+    Thread producer = new Thread(() -> {
+      for (int i = 0; i < total; i++) {
+        queue.onColumnData(new CompleteDataColumn(i, null));
+        if ((i & 127) == 0) {
+          queue.flush();
+        }
+      }
+      queue.flush();
+    });
+    producer.start();
+
+    int expected = 0;
+    while (expected < total) {
+      TdsTokenQueue.Event event = queue.poll();
+      if (event == null) {
+        Thread.onSpinWait();
+        continue;
+      }
+      assertEquals(expected++, event.column().getColumnIndex());
+    }
+    producer.join();
+    assertNull(queue.poll());
+  }
+
+  @Test
+  @DisplayName("Should fire a one-shot availability callback on the next flush only")
+  void testWhenAvailable() {
+    AtomicInteger fired = new AtomicInteger();
+    queue.whenAvailable(fired::incrementAndGet);
+    assertEquals(0, fired.get());
+
+    queue.onColumnData(new CompleteDataColumn(0, null));
+    queue.flush();
+    queue.onColumnData(new CompleteDataColumn(1, null));
+    queue.flush();
+    assertEquals(1, fired.get());
+
+    // Events already waiting: the callback runs at once
+    queue.whenAvailable(fired::incrementAndGet);
+    assertEquals(2, fired.get());
+  }
+
+  @Test
+  @DisplayName("Should park a synchronous reader until the producer publishes")
+  void testAwaitNext() throws InterruptedException {
+    Thread producer = new Thread(() -> {
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        return;
+      }
+      queue.onColumnData(new CompleteDataColumn(7, null));
+      queue.flush();
+    });
+    producer.start();
+
+    assertTrue(queue.awaitNext().isColumn(7));
+    producer.join();
+  }
+
+  private static final class ReadTrackingConnection implements NetworkConnection {
+    private volatile boolean suspended;
+
+    @Override
+    public void suspendRead() {
+      suspended = true;
+    }
+
+    @Override
+    public void resumeRead() {
+      suspended = false;
+    }
+
+    @Override
+    public void writeAsync(ByteBuffer buffer) {
+    }
+
+    @Override
+    public void setHandlers(Consumer<ByteBuffer> onDataAvailable, Consumer<Throwable> onError) {
+    }
+
+    @Override
+    public void readFullySync(ByteBuffer buffer) {
+    }
+
+    @Override
+    public void writeDirect(ByteBuffer buffer) {
+    }
+
+    @Override
+    public void enableTls(TlsHandshake tlsHandshake) {
+    }
+
+    @Override
+    public void enterAsyncMode(int bufferSize) {
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package org.tdslib.javatdslib.tokens;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tdslib.javatdslib.protocol.TdsType;
+import org.tdslib.javatdslib.tokens.models.ColMetaDataToken;
+import org.tdslib.javatdslib.tokens.models.RowToken;
+import org.tdslib.javatdslib.transport.DefaultConnectionContext;
+
+class StatefulTokenDecoderTest {
+
+  private static final int COLUMNS = 10;
+
+  private final List<Token> tokens = new ArrayList<>();
+  private final List<ColumnData> columns = new ArrayList<>();
+
+  private final StatefulTokenDecoder decoder = new StatefulTokenDecoder(
+      TokenParserRegistry.DEFAULT, new DefaultConnectionContext(), new TdsDecoderSink() {
+        @Override
+        public void onToken(Token token) {
+          tokens.add(token);
+        }
+
+        @Override
+        public void onColumnData(ColumnData data) {
+          columns.add(data);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+          throw new AssertionError(error);
+        }
+      });
+
+  @Test
+  @DisplayName("Should decode an NBCROW whose null bitmap is split across packets")
+  void testNbcRowAcrossPackets() {
+    ByteBuffer stream = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+
+    // COLMETADATA: ten nullable INT columns with empty names
+    stream.put(TokenType.COL_METADATA.getValue()).putShort((short) COLUMNS);
+    for (int i = 0; i < COLUMNS; i++) {
+      stream.putInt(0).putShort((short) 0x0001).put((byte) 0x26).put((byte) 4).put((byte) 0);
+    }
+
+    // NBCROW: columns 1..8 are NULL, so only columns 0 and 9 are on the wire
+    stream.put(TokenType.NBC_ROW.getValue());
+    int splitAt = stream.position() + 1;
+    stream.put((byte) 0xFE).put((byte) 0x01);
+    stream.put((byte) 4).putInt(7);
+    stream.put((byte) 4).putInt(9);
+    stream.flip();
+
+    ByteBuffer first = stream.duplicate().limit(splitAt);
+    ByteBuffer second = stream.duplicate().position(splitAt);
+    decoder.onPayloadAvailable(first, false);
+    decoder.onPayloadAvailable(second, true);
+
+    assertTrue(tokens.get(0) instanceof ColMetaDataToken);
+    assertTrue(tokens.get(1) instanceof RowToken);
+    RowDecodePlan plan = ((ColMetaDataToken) tokens.get(0)).getDecodePlan();
+    assertEquals(TdsType.INTN, plan.tdsType(9));
+    assertFalse(plan.isPlp(9));
+    assertEquals(COLUMNS, columns.size());
+    for (int i = 0; i < COLUMNS; i++) {
+      CompleteDataColumn column = (CompleteDataColumn) columns.get(i);
+      assertEquals(i, column.getColumnIndex());
+      assertEquals(i != 0 && i != 9, column.isNull());
+    }
+    assertEquals(7, ByteBuffer.wrap(((CompleteDataColumn) columns.get(0)).getData())
+        .order(ByteOrder.LITTLE_ENDIAN).getInt());
+    assertEquals(4, ((CompleteDataColumn) columns.get(9)).getLength());
+  }
+}
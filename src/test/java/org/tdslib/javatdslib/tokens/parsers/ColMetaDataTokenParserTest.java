@@ -0,0 +1,62 @@
+package org.tdslib.javatdslib.tokens.parsers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tdslib.javatdslib.impl.TdsRowMetadata;
+import org.tdslib.javatdslib.tokens.TokenType;
+import org.tdslib.javatdslib.tokens.models.ColMetaDataToken;
+import org.tdslib.javatdslib.transport.DefaultConnectionContext;
+
+class ColMetaDataTokenParserTest {
+
+  private final ColMetaDataTokenParser parser =
+      new ColMetaDataTokenParser(new ColMetaDataCache(16));
+  private final DefaultConnectionContext context = new DefaultConnectionContext();
+
+  @Test
+  @DisplayName("Should return the interned token for byte-identical COLMETADATA")
+  void testInterning() {
+    ByteBuffer first = colMetaData("id");
+    ColMetaDataToken token = parse(first);
+    assertEquals(first.limit(), first.position());
+    assertEquals("id", token.getColumns().get(0).getName());
+
+    ByteBuffer second = colMetaData("id");
+    assertSame(token, parse(second));
+    assertEquals(second.limit(), second.position());
+
+    assertNotSame(token, parse(colMetaData("ID")));
+  }
+
+  @Test
+  @DisplayName("Should share the row metadata of an interned token")
+  void testSharedRowMetadata() {
+    TdsRowMetadata rowMetadata = TdsRowMetadata.from(parse(colMetaData("id")));
+    assertSame(rowMetadata, TdsRowMetadata.from(parse(colMetaData("id"))));
+    assertEquals("id", rowMetadata.getColumnMetadata(0).getName());
+
+    TdsRowMetadata other = TdsRowMetadata.from(parse(colMetaData("ID")));
+    assertNotSame(rowMetadata, other);
+    assertEquals("ID", other.getColumnMetadata(0).getName());
+  }
+
+  private ColMetaDataToken parse(ByteBuffer payload) {
+    return (ColMetaDataToken) parser.parse(payload, TokenType.COL_METADATA.getValue(), context);
+  }
+
+  private static ByteBuffer colMetaData(String name) {
+    ByteBuffer buffer = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+    // One nullable INT column
+    buffer.putShort((short) 1);
+    buffer.putInt(0).putShort((short) 0x0001).put((byte) 0x26).put((byte) 4);
+    buffer.put((byte) name.length()).put(name.getBytes(StandardCharsets.UTF_16LE));
+    return buffer.flip();
+  }
+}
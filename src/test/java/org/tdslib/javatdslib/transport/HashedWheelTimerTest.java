@@ -0,0 +1,46 @@
+package org.tdslib.javatdslib.transport;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HashedWheelTimerTest {
+
+  private final HashedWheelTimer timer =
+      new HashedWheelTimer("test-timer", 10, TimeUnit.MILLISECONDS, 8);
+
+  @Test
+  @DisplayName("Should run a task no earlier than its delay, including after a full revolution")
+  void testExpiry() throws InterruptedException {
+    CountDownLatch fired = new CountDownLatch(1);
+    long start = System.nanoTime();
+
+    // 8 buckets of 10 ms: a 150 ms delay needs a second pass around the wheel
+    HashedWheelTimer.Timeout timeout = timer.newTimeout(fired::countDown, 150,
+        TimeUnit.MILLISECONDS);
+
+    assertTrue(fired.await(2, TimeUnit.SECONDS));
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(150));
+    assertTrue(timeout.isExpired());
+  }
+
+  @Test
+  @DisplayName("Should not run a cancelled task")
+  void testCancel() throws InterruptedException {
+    AtomicBoolean ran = new AtomicBoolean(false);
+    HashedWheelTimer.Timeout timeout = timer.newTimeout(() -> ran.set(true), 20,
+        TimeUnit.MILLISECONDS);
+
+    assertTrue(timeout.cancel());
+    Thread.sleep(100);
+
+    assertFalse(ran.get());
+    assertFalse(timeout.isExpired());
+    assertFalse(timeout.cancel());
+  }
+}
@@ -0,0 +1,47 @@
+package org.tdslib.javatdslib.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PreparedStatementCacheTest {
+
+  private static final String DECL = "@p0 int";
+
+  @Test
+  @DisplayName("Should evict the least recently used handle and queue it for unpreparing")
+  void testLruEviction() {
+    PreparedStatementCache cache = new PreparedStatementCache(2);
+    long generation = cache.generation();
+    cache.put("select 1", DECL, 1, generation);
+    cache.put("select 2", DECL, 2, generation);
+    assertEquals(1, cache.lookup("select 1", DECL));
+
+    cache.put("select 3", DECL, 3, generation);
+    assertNull(cache.lookup("select 2", DECL));
+    assertEquals(1, cache.lookup("select 1", DECL));
+    int[] evicted = cache.drainEvicted();
+    assertEquals(1, evicted.length);
+    assertEquals(2, evicted[0]);
+    assertEquals(0, cache.drainEvicted().length);
+
+    // The same statement with a different parameter signature is a different handle
+    assertNull(cache.lookup("select 1", "@p0 bigint"));
+  }
+
+  @Test
+  @DisplayName("Should drop handles on reset and ignore ones prepared before it")
+  void testClear() {
+    PreparedStatementCache cache = new PreparedStatementCache(4);
+    long before = cache.generation();
+    cache.put("select 1", DECL, 1, before);
+    cache.clear();
+
+    assertEquals(0, cache.size());
+    cache.put("select 2", DECL, 2, before);
+    assertNull(cache.lookup("select 2", DECL));
+    assertEquals(0, cache.drainEvicted().length);
+  }
+}
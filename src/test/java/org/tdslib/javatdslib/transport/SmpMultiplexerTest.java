@@ -0,0 +1,167 @@
+package org.tdslib.javatdslib.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SmpMultiplexerTest {
+
+  private CapturingConnection connection;
+  private SmpMultiplexer multiplexer;
+
+  @BeforeEach
+  void setUp() {
+    connection = new CapturingConnection();
+    multiplexer = new SmpMultiplexer(connection, 4096);
+    multiplexer.start();
+  }
+
+  private static ByteBuffer dataFrame(int sessionId, int seq, int window, byte[] tdsPacket) {
+    ByteBuffer frame = ByteBuffer.allocate(SmpMultiplexer.HEADER_LENGTH + tdsPacket.length);
+    SmpMultiplexer.putHeader(frame, 0, SmpMultiplexer.FLAG_DATA, sessionId, frame.capacity(),
+        seq, window);
+    frame.position(SmpMultiplexer.HEADER_LENGTH);
+    frame.put(tdsPacket).flip();
+    return frame;
+  }
+
+  private static ByteBuffer ackFrame(int sessionId, int window) {
+    ByteBuffer frame = ByteBuffer.allocate(SmpMultiplexer.HEADER_LENGTH);
+    SmpMultiplexer.putHeader(frame, 0, SmpMultiplexer.FLAG_ACK, sessionId,
+        SmpMultiplexer.HEADER_LENGTH, 0, window);
+    return frame;
+  }
+
+  private static ByteBuffer outboundPacket() {
+    ByteBuffer packet = ByteBuffer.allocate(SmpMultiplexer.HEADER_LENGTH + 8);
+    packet.position(SmpMultiplexer.HEADER_LENGTH);
+    packet.put(new byte[] {0x01, 0x01, 0x00, 0x08, 0, 0, 1, 0}).flip();
+    return packet;
+  }
+
+  private static int flags(ByteBuffer frame) {
+    return frame.get(1);
+  }
+
+  private static int intLe(ByteBuffer frame, int index) {
+    return frame.duplicate().order(ByteOrder.LITTLE_ENDIAN).getInt(index);
+  }
+
+  @Test
+  @DisplayName("Should send SYN with the initial window when a session opens")
+  void testOpenSendsSyn() {
+    SmpSession session = multiplexer.openSession();
+
+    assertEquals(1, connection.writes.size());
+    ByteBuffer syn = connection.writes.get(0);
+    assertEquals(0x53, syn.get(0));
+    assertEquals(SmpMultiplexer.FLAG_SYN, flags(syn));
+    assertEquals(SmpMultiplexer.HEADER_LENGTH, intLe(syn, 4));
+    assertEquals(4, intLe(syn, 12));
+    assertEquals(0, session.getSessionId());
+  }
+
+  @Test
+  @DisplayName("Should hold DATA frames beyond the server window until an ACK widens it")
+  void testSendWindow() {
+    SmpSession session = multiplexer.openSession();
+    connection.writes.clear();
+
+    for (int i = 0; i < 6; i++) {
+      session.writeAsync(outboundPacket());
+    }
+    assertEquals(4, connection.writes.size());
+    assertEquals(4, intLe(connection.writes.get(3), 8));
+
+    connection.deliver(ackFrame(session.getSessionId(), 6));
+    assertEquals(6, connection.writes.size());
+    assertEquals(6, intLe(connection.writes.get(5), 8));
+  }
+
+  @Test
+  @DisplayName("Should route DATA to the session and withhold window while suspended")
+  void testReceiveWindow() {
+    SmpSession session = multiplexer.openSession();
+    session.enterAsyncMode(4096);
+    List<Integer> delivered = new ArrayList<>();
+    session.setHandlers(buf -> {
+      delivered.add(buf.remaining());
+      buf.position(buf.limit());
+    }, error -> { });
+    connection.writes.clear();
+
+    byte[] packet = {0x04, 0x01, 0x00, 0x0A, 0, 0, 1, 0, 0x41, 0x42};
+    connection.deliver(dataFrame(session.getSessionId(), 1, 4, packet));
+    connection.deliver(dataFrame(session.getSessionId(), 2, 4, packet));
+    assertEquals(2, delivered.size());
+    assertEquals(10, (int) delivered.get(0));
+
+    // Two consumed frames cross the ACK threshold
+    assertEquals(1, connection.writes.size());
+    assertEquals(SmpMultiplexer.FLAG_ACK, flags(connection.writes.get(0)));
+    assertEquals(6, intLe(connection.writes.get(0), 12));
+
+    session.suspendRead();
+    connection.deliver(dataFrame(session.getSessionId(), 3, 4, packet));
+    connection.deliver(dataFrame(session.getSessionId(), 4, 4, packet));
+    assertEquals(1, connection.writes.size());
+
+    session.resumeRead();
+    assertEquals(2, connection.writes.size());
+    assertEquals(8, intLe(connection.writes.get(1), 12));
+  }
+
+  private static final class CapturingConnection implements NetworkConnection {
+    private final List<ByteBuffer> writes = new ArrayList<>();
+    private Consumer<ByteBuffer> onData;
+
+    void deliver(ByteBuffer frame) {
+      onData.accept(frame);
+    }
+
+    @Override
+    public void writeAsync(ByteBuffer buffer) {
+      writes.add(buffer);
+    }
+
+    @Override
+    public void setHandlers(Consumer<ByteBuffer> onDataAvailable, Consumer<Throwable> onError) {
+      this.onData = onDataAvailable;
+    }
+
+    @Override
+    public void readFullySync(ByteBuffer buffer) {
+    }
+
+    @Override
+    public void writeDirect(ByteBuffer buffer) {
+    }
+
+    @Override
+    public void enableTls(TlsHandshake tlsHandshake) {
+    }
+
+    @Override
+    public void enterAsyncMode(int bufferSize) {
+    }
+
+    @Override
+    public void suspendRead() {
+    }
+
+    @Override
+    public void resumeRead() {
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
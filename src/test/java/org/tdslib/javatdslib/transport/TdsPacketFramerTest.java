@@ -1,6 +1,7 @@
 package org.tdslib.javatdslib.transport;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
@@ -126,4 +127,30 @@ class TdsPacketFramerTest {
     // FIXED: The second packet was exactly 12 bytes and was fully consumed.
     assertEquals(12, readBuffer.position());
   }
+
+  @Test
+  @DisplayName("Should wait on a packet longer than the buffer so the connection can grow it")
+  void testPacketLargerThanBuffer() {
+    ByteBuffer readBuffer = ByteBuffer.allocate(16).order(ByteOrder.BIG_ENDIAN);
+    readBuffer.put((byte) 0x04).put((byte) 0x01).putShort((short) 4096) // Length beyond capacity
+        .putShort((short) 0).put((byte) 1).put((byte) 0);
+    readBuffer.put("ABCDEFGH".getBytes());
+    readBuffer.flip();
+
+    decoder.decode(readBuffer);
+
+    assertEquals(0, readBuffer.position());
+    verify(mockHandler, never()).onPayloadAvailable(any(), anyBoolean());
+  }
+
+  @Test
+  @DisplayName("Should reject a packet length shorter than the header")
+  void testCorruptedLength() {
+    ByteBuffer readBuffer = ByteBuffer.allocate(16).order(ByteOrder.BIG_ENDIAN);
+    readBuffer.put((byte) 0x04).put((byte) 0x01).putShort((short) 4)
+        .putShort((short) 0).put((byte) 1).put((byte) 0);
+    readBuffer.flip();
+
+    assertThrows(IllegalStateException.class, () -> decoder.decode(readBuffer));
+  }
 }